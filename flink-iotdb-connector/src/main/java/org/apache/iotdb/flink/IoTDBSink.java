@@ -23,29 +23,46 @@ import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.session.pool.SessionPool;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
 import com.google.common.base.Preconditions;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.state.FunctionInitializationContext;
+import org.apache.flink.runtime.state.FunctionSnapshotContext;
+import org.apache.flink.streaming.api.checkpoint.CheckpointedFunction;
 import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The `IoTDBSink` allows flink jobs to write events into IoTDB timeseries. By default send only one
  * event after another, but you can change to batch by invoking `withBatchSize(int)`.
  *
+ * <p>In the batch mode, the buffered events are grouped by device into tablets, and sent by a
+ * background thread once there are batchSize events or every flushIntervalMs, so the task thread
+ * is not blocked by the round trips. At most maxInFlightRequests batches are being sent at the
+ * same time, and further events wait for one of them to finish. A checkpoint waits for all the
+ * buffered events to be written, and a failed write fails the next invocation or checkpoint.
+ *
  * @param <IN> the input data type
  */
-public class IoTDBSink<IN> extends RichSinkFunction<IN> {
+public class IoTDBSink<IN> extends RichSinkFunction<IN> implements CheckpointedFunction {
 
   private static final long serialVersionUID = 1L;
   private static final Logger LOG = LoggerFactory.getLogger(IoTDBSink.class);
@@ -55,16 +72,20 @@ public class IoTDBSink<IN> extends RichSinkFunction<IN> {
   private Map<String, IoTDBOptions.TimeseriesOption> timeseriesOptionMap;
   private transient SessionPool pool;
   private transient ScheduledExecutorService scheduledExecutor;
+  private transient ExecutorService flushExecutor;
+  private transient Semaphore inFlightRequests;
+  private transient AtomicReference<Exception> flushException;
 
   private int batchSize = 0;
   private int flushIntervalMs = 3000;
   private List<Event> batchList;
   private int sessionPoolSize = 2;
+  private int maxInFlightRequests = 2;
 
   public IoTDBSink(IoTDBOptions options, IoTSerializationSchema<IN> schema) {
     this.options = options;
     this.serializationSchema = schema;
-    this.batchList = new LinkedList<>();
+    this.batchList = new ArrayList<>();
     this.timeseriesOptionMap = new HashMap<>();
     for (IoTDBOptions.TimeseriesOption timeseriesOption : options.getTimeseriesOptionList()) {
       timeseriesOptionMap.put(timeseriesOption.getPath(), timeseriesOption);
@@ -104,11 +125,14 @@ public class IoTDBSink<IN> extends RichSinkFunction<IN> {
 
   void initScheduler() {
     if (batchSize > 0) {
+      flushExecutor = Executors.newFixedThreadPool(maxInFlightRequests);
+      inFlightRequests = new Semaphore(maxInFlightRequests);
+      flushException = new AtomicReference<>();
       scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
       scheduledExecutor.scheduleAtFixedRate(
           () -> {
             try {
-              flush();
+              flushAsync();
             } catch (Exception e) {
               LOG.error("flush error", e);
             }
@@ -132,13 +156,14 @@ public class IoTDBSink<IN> extends RichSinkFunction<IN> {
     }
 
     if (batchSize > 0) {
-      synchronized (batchList) {
+      checkFlushException();
+      synchronized (this) {
         batchList.add(event);
         if (batchList.size() >= batchSize) {
-          flush();
+          flushAsync();
         }
-        return;
       }
+      return;
     }
 
     convertText(event.getDevice(), event.getMeasurements(), event.getValues());
@@ -169,8 +194,31 @@ public class IoTDBSink<IN> extends RichSinkFunction<IN> {
     return this;
   }
 
+  /**
+   * @param maxInFlightRequests the maximum number of batches being sent at the same time, which is
+   *     better not to exceed the session pool size
+   */
+  public IoTDBSink<IN> withMaxInFlightRequests(int maxInFlightRequests) {
+    Preconditions.checkArgument(maxInFlightRequests > 0);
+    this.maxInFlightRequests = maxInFlightRequests;
+    return this;
+  }
+
+  @Override
+  public void snapshotState(FunctionSnapshotContext context) throws Exception {
+    flush();
+  }
+
+  @Override
+  public void initializeState(FunctionInitializationContext context) {
+    // the buffered events are written at each checkpoint, so there is no state to restore
+  }
+
   @Override
   public void close() {
+    if (scheduledExecutor != null) {
+      scheduledExecutor.shutdown();
+    }
     if (pool != null) {
       try {
         flush();
@@ -179,8 +227,8 @@ public class IoTDBSink<IN> extends RichSinkFunction<IN> {
       }
       pool.close();
     }
-    if (scheduledExecutor != null) {
-      scheduledExecutor.shutdown();
+    if (flushExecutor != null) {
+      flushExecutor.shutdown();
     }
   }
 
@@ -200,29 +248,109 @@ public class IoTDBSink<IN> extends RichSinkFunction<IN> {
     }
   }
 
+  /** send the buffered events and wait until all the events sent are written */
   private void flush() throws Exception {
     if (batchSize > 0) {
-      synchronized (batchList) {
-        if (batchList.size() > 0) {
-          List<String> deviceIds = new ArrayList<>();
-          List<Long> timestamps = new ArrayList<>();
-          List<List<String>> measurementsList = new ArrayList<>();
-          List<List<TSDataType>> typesList = new ArrayList<>();
-          List<List<Object>> valuesList = new ArrayList<>();
-
-          for (Event event : batchList) {
-            convertText(event.getDevice(), event.getMeasurements(), event.getValues());
-            deviceIds.add(event.getDevice());
-            timestamps.add(event.getTimestamp());
-            measurementsList.add(event.getMeasurements());
-            typesList.add(event.getTypes());
-            valuesList.add(event.getValues());
-          }
-          pool.insertRecords(deviceIds, timestamps, measurementsList, typesList, valuesList);
-          LOG.debug("send event successfully");
-          batchList.clear();
+      flushAsync();
+      inFlightRequests.acquire(maxInFlightRequests);
+      inFlightRequests.release(maxInFlightRequests);
+      checkFlushException();
+    }
+  }
+
+  /** send the buffered events in the background, waiting if too many batches are being sent */
+  private synchronized void flushAsync() throws InterruptedException {
+    if (batchList.isEmpty()) {
+      return;
+    }
+    List<Event> events = batchList;
+    batchList = new ArrayList<>(batchSize);
+    inFlightRequests.acquire();
+    try {
+      flushExecutor.execute(
+          () -> {
+            try {
+              for (Map<String, Tablet> tablets : toTablets(events)) {
+                pool.insertTablets(tablets);
+              }
+              LOG.debug("send {} events successfully", events.size());
+            } catch (Exception e) {
+              LOG.error("flush error", e);
+              flushException.compareAndSet(null, e);
+            } finally {
+              inFlightRequests.release();
+            }
+          });
+    } catch (RuntimeException e) {
+      inFlightRequests.release();
+      throw e;
+    }
+  }
+
+  private void checkFlushException() throws IOException {
+    Exception e = flushException.get();
+    if (e != null) {
+      throw new IOException("Failed to write events into IoTDB", e);
+    }
+  }
+
+  /**
+   * group the events by device into tablets. The events of a device with different measurements
+   * (or types) are put into different tablets, which are in different maps as a map holds only one
+   * tablet of each device.
+   *
+   * @return the maps from devices to tablets, each of which can be sent by one insertTablets
+   */
+  List<Map<String, Tablet>> toTablets(List<Event> events) {
+    Map<List<Object>, List<Event>> groups = new LinkedHashMap<>();
+    for (Event event : events) {
+      groups
+          .computeIfAbsent(
+              Arrays.asList(event.getDevice(), event.getMeasurements(), event.getTypes()),
+              k -> new ArrayList<>())
+          .add(event);
+    }
+
+    List<Map<String, Tablet>> tabletsList = new ArrayList<>();
+    for (List<Event> group : groups.values()) {
+      Tablet tablet = toTablet(group);
+      Map<String, Tablet> tablets = null;
+      for (Map<String, Tablet> existingTablets : tabletsList) {
+        if (!existingTablets.containsKey(tablet.deviceId)) {
+          tablets = existingTablets;
+          break;
+        }
+      }
+      if (tablets == null) {
+        tablets = new LinkedHashMap<>();
+        tabletsList.add(tablets);
+      }
+      tablets.put(tablet.deviceId, tablet);
+    }
+    return tabletsList;
+  }
+
+  /** @param events the events of the same device, measurements and types */
+  private Tablet toTablet(List<Event> events) {
+    Event first = events.get(0);
+    List<MeasurementSchema> schemas = new ArrayList<>(first.getMeasurements().size());
+    for (int i = 0; i < first.getMeasurements().size(); i++) {
+      schemas.add(new MeasurementSchema(first.getMeasurements().get(i), first.getTypes().get(i)));
+    }
+
+    Tablet tablet = new Tablet(first.getDevice(), schemas, events.size());
+    for (Event event : events) {
+      convertText(event.getDevice(), event.getMeasurements(), event.getValues());
+      int row = tablet.rowSize++;
+      tablet.addTimestamp(row, event.getTimestamp());
+      for (int i = 0; i < schemas.size(); i++) {
+        Object value = event.getValues().get(i);
+        if (schemas.get(i).getType() == TSDataType.TEXT && !(value instanceof Binary)) {
+          value = new Binary(value.toString());
         }
+        tablet.addValue(schemas.get(i).getMeasurementId(), row, value);
       }
     }
+    return tablet;
   }
 }
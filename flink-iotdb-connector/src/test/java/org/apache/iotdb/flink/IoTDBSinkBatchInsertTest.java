@@ -18,18 +18,31 @@
 
 package org.apache.iotdb.flink;
 
+import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.iotdb.session.pool.SessionPool;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.Tablet;
 
 import com.google.common.collect.Lists;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
@@ -46,10 +59,17 @@ public class IoTDBSinkBatchInsertTest {
     ioTDBSink = new IoTDBSink(options, new DefaultIoTSerializationSchema());
     ioTDBSink.withBatchSize(3);
 
+    ioTDBSink.initScheduler();
+
     pool = mock(SessionPool.class);
     ioTDBSink.setSessionPool(pool);
   }
 
+  @After
+  public void tearDown() {
+    ioTDBSink.close();
+  }
+
   @Test
   public void testBatchInsert() throws Exception {
     Map<String, String> tuple = new HashMap();
@@ -80,9 +100,7 @@ public class IoTDBSinkBatchInsertTest {
     tuple.put("values", "37.1");
     ioTDBSink.invoke(tuple, null);
 
-    verify(pool)
-        .insertRecords(
-            any(List.class), any(List.class), any(List.class), any(List.class), any(List.class));
+    verify(pool, timeout(1000)).insertTablets(any(Map.class));
 
     tuple = new HashMap();
     tuple.put("device", "root.sg.D01");
@@ -107,9 +125,100 @@ public class IoTDBSinkBatchInsertTest {
     verifyZeroInteractions(pool);
 
     ioTDBSink.close();
-    verify(pool)
-        .insertRecords(
-            any(List.class), any(List.class), any(List.class), any(List.class), any(List.class));
+    verify(pool).insertTablets(any(Map.class));
     verify(pool).close();
   }
+
+  @Test
+  public void testSnapshotWaitsForWrites() throws Exception {
+    doAnswer(
+            invocation -> {
+              Thread.sleep(500);
+              return null;
+            })
+        .when(pool)
+        .insertTablets(any(Map.class));
+
+    Map<String, String> tuple = new HashMap();
+    tuple.put("device", "root.sg.D01");
+    tuple.put("timestamp", "1581861293005");
+    tuple.put("measurements", "temperature");
+    tuple.put("types", "DOUBLE");
+    tuple.put("values", "36.5");
+    ioTDBSink.invoke(tuple, null);
+    verifyZeroInteractions(pool);
+
+    ioTDBSink.snapshotState(null);
+    verify(pool).insertTablets(any(Map.class));
+  }
+
+  @Test
+  public void testFlushException() throws Exception {
+    doThrow(new StatementExecutionException("insert failed"))
+        .when(pool)
+        .insertTablets(any(Map.class));
+
+    Map<String, String> tuple = new HashMap();
+    tuple.put("device", "root.sg.D01");
+    tuple.put("timestamp", "1581861293005");
+    tuple.put("measurements", "temperature");
+    tuple.put("types", "DOUBLE");
+    tuple.put("values", "36.5");
+    ioTDBSink.invoke(tuple, null);
+
+    try {
+      ioTDBSink.snapshotState(null);
+      fail("the failed write should fail the checkpoint");
+    } catch (IOException e) {
+      assertTrue(e.getCause() instanceof StatementExecutionException);
+    }
+  }
+
+  @Test
+  public void testToTablets() {
+    List<Event> events = new ArrayList<>();
+    // two rows of d01.temperature, then a row of d01.humidity and a row of d02.temperature
+    events.add(
+        new Event(
+            "root.sg.D01",
+            1L,
+            Lists.newArrayList("temperature"),
+            Lists.newArrayList(TSDataType.DOUBLE),
+            Lists.newArrayList(36.5)));
+    events.add(
+        new Event(
+            "root.sg.D01",
+            2L,
+            Lists.newArrayList("humidity"),
+            Lists.newArrayList(TSDataType.INT32),
+            Lists.newArrayList(50)));
+    events.add(
+        new Event(
+            "root.sg.D02",
+            1L,
+            Lists.newArrayList("temperature"),
+            Lists.newArrayList(TSDataType.DOUBLE),
+            Lists.newArrayList(37.0)));
+    events.add(
+        new Event(
+            "root.sg.D01",
+            3L,
+            Lists.newArrayList("temperature"),
+            Lists.newArrayList(TSDataType.DOUBLE),
+            Lists.newArrayList(37.2)));
+
+    List<Map<String, Tablet>> tabletsList = ioTDBSink.toTablets(events);
+    assertEquals(2, tabletsList.size());
+    assertEquals(2, tabletsList.get(0).size());
+    Tablet tablet = tabletsList.get(0).get("root.sg.D01");
+    assertEquals(2, tablet.rowSize);
+    assertArrayEquals(new long[] {1L, 3L}, tablet.timestamps);
+    assertArrayEquals(new double[] {36.5, 37.2}, (double[]) tablet.values[0], 0);
+    assertEquals(1, tabletsList.get(0).get("root.sg.D02").rowSize);
+
+    assertEquals(1, tabletsList.get(1).size());
+    tablet = tabletsList.get(1).get("root.sg.D01");
+    assertEquals("humidity", tablet.getSchemas().get(0).getMeasurementId());
+    assertArrayEquals(new int[] {50}, (int[]) tablet.values[0]);
+  }
 }
@@ -25,7 +25,6 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import static org.mockito.Matchers.any;
@@ -64,9 +63,7 @@ public class IoTDBSinkBatchTimerTest {
 
     Thread.sleep(2500);
 
-    verify(pool)
-        .insertRecords(
-            any(List.class), any(List.class), any(List.class), any(List.class), any(List.class));
+    verify(pool).insertTablets(any(Map.class));
 
     Thread.sleep(1000);
 
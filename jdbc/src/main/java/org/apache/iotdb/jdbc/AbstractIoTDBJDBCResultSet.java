@@ -22,6 +22,7 @@ package org.apache.iotdb.jdbc;
 import org.apache.iotdb.rpc.IoTDBRpcDataSet;
 import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.iotdb.service.rpc.thrift.TSIService;
+import org.apache.iotdb.service.rpc.thrift.TSTracingInfo;
 
 import org.apache.thrift.TException;
 
@@ -516,6 +517,18 @@ public abstract class AbstractIoTDBJDBCResultSet implements ResultSet {
     return this.statement;
   }
 
+  /**
+   * @return the execution profile of the query if tracing is on, which is complete once all the
+   *     results are fetched, or null otherwise
+   */
+  public TSTracingInfo getTracingInfo() {
+    return ioTDBRpcDataSet.tracingInfo;
+  }
+
+  public void setTracingInfo(TSTracingInfo tracingInfo) {
+    ioTDBRpcDataSet.tracingInfo = tracingInfo;
+  }
+
   @Override
   public String getString(int columnIndex) throws SQLException {
     try {
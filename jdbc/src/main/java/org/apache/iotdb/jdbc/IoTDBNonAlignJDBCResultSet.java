@@ -141,6 +141,9 @@ public class IoTDBNonAlignJDBCResultSet extends AbstractIoTDBJDBCResultSet {
       } catch (StatementExecutionException e) {
         throw new IoTDBSQLException(e.getMessage(), resp.getStatus());
       }
+      if (resp.isSetTracingInfo()) {
+        ioTDBRpcDataSet.tracingInfo = resp.getTracingInfo();
+      }
       if (!resp.hasResultSet) {
         ioTDBRpcDataSet.emptyResultSet = true;
       } else {
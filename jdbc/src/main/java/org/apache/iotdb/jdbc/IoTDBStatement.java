@@ -290,6 +290,7 @@ public class IoTDBStatement implements Statement {
                 execResp.queryDataSet,
                 execReq.timeout);
       }
+      ((AbstractIoTDBJDBCResultSet) resultSet).setTracingInfo(execResp.getTracingInfo());
       return true;
     }
     return false;
@@ -424,6 +425,7 @@ public class IoTDBStatement implements Statement {
               execResp.queryDataSet,
               execReq.timeout);
     }
+    ((AbstractIoTDBJDBCResultSet) resultSet).setTracingInfo(execResp.getTracingInfo());
     return resultSet;
   }
 
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.server;
+
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/** BenchmarkFiles generates the temporary data the server benchmarks run on. */
+class BenchmarkFiles {
+
+  static final String STORAGE_GROUP = "root.benchmark";
+  static final String DEVICE = STORAGE_GROUP + ".d0";
+
+  private BenchmarkFiles() {
+    // util class
+  }
+
+  static File createTempDir(String prefix) throws IOException {
+    return Files.createTempDirectory(prefix).toFile();
+  }
+
+  static void deleteDir(File dir) throws IOException {
+    if (dir != null) {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
+  /** @return the schemas of measurements "s0" ... of INT64 with the default encoding */
+  static List<MeasurementSchema> createSchemas(int measurementNum) {
+    List<MeasurementSchema> schemas = new ArrayList<>(measurementNum);
+    for (int i = 0; i < measurementNum; i++) {
+      schemas.add(new MeasurementSchema("s" + i, TSDataType.INT64));
+    }
+    return schemas;
+  }
+
+  /**
+   * @return a plan inserting rowNum rows at [startTime, startTime + rowNum) into all the series of
+   *     the device, whose values are their times
+   */
+  static InsertTabletPlan createTabletPlan(
+      String device, List<MeasurementSchema> schemas, long startTime, int rowNum)
+      throws IllegalPathException {
+    String[] measurements = new String[schemas.size()];
+    List<Integer> dataTypes = new ArrayList<>(schemas.size());
+    MeasurementMNode[] mNodes = new MeasurementMNode[schemas.size()];
+    Object[] columns = new Object[schemas.size()];
+    long[] times = new long[rowNum];
+    for (int i = 0; i < rowNum; i++) {
+      times[i] = startTime + i;
+    }
+    for (int i = 0; i < schemas.size(); i++) {
+      MeasurementSchema schema = schemas.get(i);
+      measurements[i] = schema.getMeasurementId();
+      dataTypes.add(schema.getType().ordinal());
+      mNodes[i] = new MeasurementMNode(null, measurements[i], schema, null);
+      columns[i] = times.clone();
+    }
+    InsertTabletPlan plan = new InsertTabletPlan(new PartialPath(device), measurements, dataTypes);
+    plan.setMeasurementMNodes(mNodes);
+    plan.setTimes(times);
+    plan.setColumns(columns);
+    plan.setRowCount(rowNum);
+    plan.setStart(0);
+    plan.setEnd(rowNum);
+    return plan;
+  }
+
+  /**
+   * write a sealed TsFile of DEVICE, whose points are at [startTime, startTime + pointNum) and the
+   * value of a point is its time plus valueOffset.
+   *
+   * @param pointNumInChunk the number of points of a series in each chunk
+   */
+  static TsFileResource writeTsFile(
+      File file,
+      List<MeasurementSchema> schemas,
+      long startTime,
+      int pointNum,
+      long valueOffset,
+      int pointNumInChunk,
+      long version)
+      throws IOException, WriteProcessException {
+    TsFileResource resource = new TsFileResource(file);
+    Tablet tablet = new Tablet(DEVICE, schemas, pointNumInChunk);
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      for (MeasurementSchema schema : schemas) {
+        writer.registerTimeseries(new Path(DEVICE, schema.getMeasurementId()), schema);
+      }
+      for (long time = startTime; time < startTime + pointNum; time++) {
+        int row = tablet.rowSize++;
+        tablet.addTimestamp(row, time);
+        for (MeasurementSchema schema : schemas) {
+          tablet.addValue(schema.getMeasurementId(), row, time + valueOffset);
+        }
+        if (tablet.rowSize == tablet.getMaxRowNumber()) {
+          writer.write(tablet);
+          writer.flushAllChunkGroups();
+          tablet.reset();
+        }
+      }
+      if (tablet.rowSize > 0) {
+        writer.write(tablet);
+      }
+    }
+    resource.updateStartTime(DEVICE, startTime);
+    resource.updateEndTime(DEVICE, startTime + pointNum - 1);
+    resource.setVersion(version);
+    resource.setClosed(true);
+    return resource;
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.server;
+
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of getting chunks from the ChunkCache by concurrent queries, in gets per second. All
+ * the chunks are loaded before the measurement, so the gets are hits and the benchmark measures the
+ * cost of the cache itself under contention. Run it with "-t" to change the number of threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ChunkCacheBenchmark {
+
+  private static final int MEASUREMENT_NUM = 10;
+  private static final int POINT_NUM = 100_000;
+  private static final int POINT_NUM_IN_CHUNK = 1_000;
+
+  private File dir;
+  private TsFileSequenceReader reader;
+  private ChunkMetadata[] chunkMetadata;
+
+  @Setup
+  public void setUp() throws IOException, WriteProcessException {
+    dir = BenchmarkFiles.createTempDir("chunk-cache-benchmark");
+    List<MeasurementSchema> schemas = BenchmarkFiles.createSchemas(MEASUREMENT_NUM);
+    File file = new File(dir, "0.tsfile");
+    BenchmarkFiles.writeTsFile(file, schemas, 0, POINT_NUM, 0, POINT_NUM_IN_CHUNK, 1);
+
+    reader = new TsFileSequenceReader(file.getPath());
+    List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+    for (MeasurementSchema schema : schemas) {
+      chunkMetadataList.addAll(
+          reader.getChunkMetadataList(new Path(BenchmarkFiles.DEVICE, schema.getMeasurementId())));
+    }
+    chunkMetadata = chunkMetadataList.toArray(new ChunkMetadata[0]);
+    for (ChunkMetadata metadata : chunkMetadata) {
+      ChunkCache.getInstance().get(metadata, reader);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    ChunkCache.getInstance().clear();
+    reader.close();
+    BenchmarkFiles.deleteDir(dir);
+  }
+
+  @Benchmark
+  public Chunk get() throws IOException {
+    ChunkMetadata metadata =
+        chunkMetadata[ThreadLocalRandom.current().nextInt(chunkMetadata.length)];
+    return ChunkCache.getInstance().get(metadata, reader);
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.server;
+
+import org.apache.iotdb.db.engine.flush.MemTableFlushTask;
+import org.apache.iotdb.db.engine.memtable.IMemTable;
+import org.apache.iotdb.db.engine.memtable.PrimitiveMemTable;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.RestorableTsFileIOWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of flushing a memtable into a TsFile with MemTableFlushTask, i.e., sorting, encoding
+ * and writing its series, in points per second. The memtable is filled before each invocation, and
+ * the file is written into a temporary directory.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FlushBenchmark {
+
+  private static final int DEVICE_NUM = 10;
+  private static final int MEASUREMENT_NUM = 10;
+  private static final int ROW_NUM = 10_000;
+  private static final int POINT_NUM = DEVICE_NUM * MEASUREMENT_NUM * ROW_NUM;
+
+  @Param({"IN_ORDER", "SLIGHTLY_OUT_OF_ORDER", "RANDOM"})
+  public TimeOrder timeOrder;
+
+  private File dir;
+  private List<MeasurementSchema> schemas;
+  private long[] times;
+  private int fileNum;
+
+  private IMemTable memTable;
+  private RestorableTsFileIOWriter writer;
+
+  @Setup
+  public void setUp() throws IOException {
+    dir = BenchmarkFiles.createTempDir("flush-benchmark");
+    schemas = BenchmarkFiles.createSchemas(MEASUREMENT_NUM);
+    times = timeOrder.generate(ROW_NUM, 20201218L);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    BenchmarkFiles.deleteDir(dir);
+  }
+
+  @Setup(Level.Invocation)
+  public void fillMemTable() throws IOException {
+    memTable = new PrimitiveMemTable();
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      String device = BenchmarkFiles.STORAGE_GROUP + ".d" + i;
+      for (MeasurementSchema schema : schemas) {
+        for (long time : times) {
+          memTable.write(device, schema.getMeasurementId(), schema, time, time);
+        }
+      }
+    }
+    writer = new RestorableTsFileIOWriter(new File(dir, fileNum++ + ".tsfile"));
+  }
+
+  @TearDown(Level.Invocation)
+  public void releaseMemTable() throws IOException {
+    memTable.release();
+    writer.close();
+    File file = writer.getFile();
+    if (!file.delete()) {
+      throw new IOException("Cannot delete " + file);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public long flush() throws ExecutionException, InterruptedException, IOException {
+    new MemTableFlushTask(memTable, writer, BenchmarkFiles.STORAGE_GROUP).syncFlushMemTable();
+    return writer.getPos();
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.server;
+
+import org.apache.iotdb.db.engine.memtable.IMemTable;
+import org.apache.iotdb.db.engine.memtable.PrimitiveMemTable;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of writing points into a PrimitiveMemTable row by row (as an insertion of a record
+ * does) and tablet by tablet (as an insertion of a tablet does), in points per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MemTableBenchmark {
+
+  private static final int DEVICE_NUM = 10;
+  private static final int MEASUREMENT_NUM = 10;
+  private static final int ROW_NUM = 1_000;
+  private static final int POINT_NUM = DEVICE_NUM * MEASUREMENT_NUM * ROW_NUM;
+
+  private String[] devices;
+  private List<MeasurementSchema> schemas;
+  private InsertTabletPlan[] plans;
+
+  @Setup
+  public void setUp() throws IllegalPathException {
+    devices = new String[DEVICE_NUM];
+    plans = new InsertTabletPlan[DEVICE_NUM];
+    schemas = BenchmarkFiles.createSchemas(MEASUREMENT_NUM);
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      devices[i] = BenchmarkFiles.STORAGE_GROUP + ".d" + i;
+      plans[i] = BenchmarkFiles.createTabletPlan(devices[i], schemas, 0, ROW_NUM);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public int writeRows() {
+    IMemTable memTable = new PrimitiveMemTable();
+    for (long time = 0; time < ROW_NUM; time++) {
+      for (String device : devices) {
+        for (MeasurementSchema schema : schemas) {
+          memTable.write(device, schema.getMeasurementId(), schema, time, time);
+        }
+      }
+    }
+    return release(memTable);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public int insertTablets() throws WriteProcessException {
+    IMemTable memTable = new PrimitiveMemTable();
+    for (InsertTabletPlan plan : plans) {
+      memTable.insertTablet(plan, 0, ROW_NUM);
+    }
+    return release(memTable);
+  }
+
+  private int release(IMemTable memTable) {
+    int seriesNum = memTable.getSeriesNumber();
+    // return the TVLists to TVListAllocator as a flushed memtable does
+    memTable.release();
+    return seriesNum;
+  }
+}
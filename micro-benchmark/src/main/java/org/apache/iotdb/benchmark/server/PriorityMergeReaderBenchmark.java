@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.server;
+
+import org.apache.iotdb.db.query.reader.universal.PriorityMergeReader;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.reader.IPointReader;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of merging the points of readerNum interleaved readers with a PriorityMergeReader, as
+ * the overlapped pages of a SeriesReader are merged, in points per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PriorityMergeReaderBenchmark {
+
+  private static final int POINT_NUM = 100_000;
+
+  @Param({"1", "2", "8", "32"})
+  public int readerNum;
+
+  /** the points of reader i are at times i, i + readerNum, i + 2 * readerNum ... */
+  private TimeValuePair[][] points;
+
+  @Setup
+  public void setUp() {
+    points = new TimeValuePair[readerNum][POINT_NUM / readerNum];
+    for (int i = 0; i < readerNum; i++) {
+      for (int j = 0; j < points[i].length; j++) {
+        long time = (long) j * readerNum + i;
+        points[i][j] = new TimeValuePair(time, new TsLong(time));
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public long merge() throws IOException {
+    PriorityMergeReader mergeReader = new PriorityMergeReader();
+    for (int i = 0; i < readerNum; i++) {
+      mergeReader.addReader(new ArrayPointReader(points[i]), i);
+    }
+    long sum = 0;
+    while (mergeReader.hasNextTimeValuePair()) {
+      sum += mergeReader.nextTimeValuePair().getTimestamp();
+    }
+    mergeReader.close();
+    return sum;
+  }
+
+  private static class ArrayPointReader implements IPointReader {
+
+    private final TimeValuePair[] points;
+    private int index = 0;
+
+    private ArrayPointReader(TimeValuePair[] points) {
+      this.points = points;
+    }
+
+    @Override
+    public boolean hasNextTimeValuePair() {
+      return index < points.length;
+    }
+
+    @Override
+    public TimeValuePair nextTimeValuePair() {
+      return points[index++];
+    }
+
+    @Override
+    public TimeValuePair currentTimeValuePair() {
+      return points[index];
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+  }
+}
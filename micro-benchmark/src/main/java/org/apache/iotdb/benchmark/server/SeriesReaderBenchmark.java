@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.server;
+
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.ChunkMetadataCache;
+import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.reader.series.SeriesRawDataBatchReader;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of reading a series from sequence files overlapped by unsequence files with a
+ * SeriesReader, i.e., loading, decoding and merging its chunks and pages, in distinct points per
+ * second. The caches and the opened files are kept across invocations unless warmCache is false.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SeriesReaderBenchmark {
+
+  private static final int SEQ_FILE_NUM = 4;
+  private static final int SEQ_POINT_NUM = 100_000;
+  private static final int UNSEQ_POINT_NUM = 10_000;
+  private static final int POINT_NUM_IN_CHUNK = 10_000;
+  private static final int POINT_NUM = SEQ_FILE_NUM * SEQ_POINT_NUM;
+
+  @Param({"0", "1", "8"})
+  public int unseqFileNum;
+
+  @Param({"true", "false"})
+  public boolean warmCache;
+
+  private File dir;
+  private PartialPath path;
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unseqResources = new ArrayList<>();
+
+  @Setup
+  public void setUp() throws IOException, WriteProcessException, IllegalPathException {
+    dir = BenchmarkFiles.createTempDir("series-reader-benchmark");
+    List<MeasurementSchema> schemas = BenchmarkFiles.createSchemas(1);
+    path = new PartialPath(BenchmarkFiles.DEVICE).concatNode(schemas.get(0).getMeasurementId());
+    long version = 0;
+    for (int i = 0; i < SEQ_FILE_NUM; i++) {
+      seqResources.add(
+          BenchmarkFiles.writeTsFile(
+              new File(dir, "seq-" + i + ".tsfile"),
+              schemas,
+              (long) i * SEQ_POINT_NUM,
+              SEQ_POINT_NUM,
+              0,
+              POINT_NUM_IN_CHUNK,
+              ++version));
+    }
+    // the unsequence files are spread evenly over the sequence ones, and win by their versions
+    for (int i = 0; i < unseqFileNum; i++) {
+      long startTime = (2L * i + 1) * POINT_NUM / (2 * unseqFileNum) - UNSEQ_POINT_NUM / 2;
+      unseqResources.add(
+          BenchmarkFiles.writeTsFile(
+              new File(dir, "unseq-" + i + ".tsfile"),
+              schemas,
+              startTime,
+              UNSEQ_POINT_NUM,
+              1,
+              POINT_NUM_IN_CHUNK,
+              ++version));
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    clearCaches();
+    BenchmarkFiles.deleteDir(dir);
+  }
+
+  @Setup(Level.Invocation)
+  public void coolDown() throws IOException {
+    if (!warmCache) {
+      clearCaches();
+    }
+  }
+
+  private void clearCaches() throws IOException {
+    ChunkCache.getInstance().clear();
+    ChunkMetadataCache.getInstance().clear();
+    TimeSeriesMetadataCache.getInstance().clear();
+    FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public long read() throws IOException {
+    SeriesRawDataBatchReader reader =
+        new SeriesRawDataBatchReader(
+            path,
+            TSDataType.INT64,
+            new QueryContext(),
+            seqResources,
+            unseqResources,
+            null,
+            null,
+            true);
+    long sum = 0;
+    while (reader.hasNextBatch()) {
+      BatchData batchData = reader.nextBatch();
+      for (int i = 0; i < batchData.length(); i++) {
+        sum += batchData.getLongByIndex(i);
+      }
+    }
+    reader.close();
+    return sum;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.server;
+
+import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of putting the points of a series into a TVList, and of sorting it for a flush or a
+ * query afterwards, in points per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TVListBenchmark {
+
+  private static final int POINT_NUM = 100_000;
+
+  @Param({"IN_ORDER", "SLIGHTLY_OUT_OF_ORDER", "RANDOM"})
+  public TimeOrder timeOrder;
+
+  private long[] times;
+
+  @Setup
+  public void setUp() {
+    times = timeOrder.generate(POINT_NUM, 20201218L);
+  }
+
+  private TVList put() {
+    TVList list = TVList.newList(TSDataType.INT64);
+    for (long time : times) {
+      list.putLong(time, time);
+    }
+    return list;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public int putLong() {
+    TVList list = put();
+    int size = list.size();
+    // return the arrays to PrimitiveArrayManager as a flushed memtable does
+    list.clear();
+    return size;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public long putLongAndSort() {
+    TVList list = put();
+    list.sort();
+    long minTime = list.getTime(0);
+    list.clear();
+    return minTime;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public int putLongs() {
+    TVList list = TVList.newList(TSDataType.INT64);
+    list.putLongs(times, times, 0, times.length);
+    int size = list.size();
+    list.clear();
+    return size;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.server;
+
+import java.util.Random;
+
+/** TimeOrder is the order in which the points of a series arrive. */
+public enum TimeOrder {
+  /** every point is newer than the previous one */
+  IN_ORDER,
+  /** 1% of the points are late by up to 100 points, e.g., retried by a device */
+  SLIGHTLY_OUT_OF_ORDER,
+  /** the points arrive in a random order, e.g., loaded from an unsorted file */
+  RANDOM;
+
+  /** @return the timestamps 0 ... size - 1 in this order, shuffled with the seed */
+  public long[] generate(int size, long seed) {
+    Random random = new Random(seed);
+    long[] times = new long[size];
+    for (int i = 0; i < size; i++) {
+      times[i] = i;
+    }
+    switch (this) {
+      case IN_ORDER:
+        break;
+      case SLIGHTLY_OUT_OF_ORDER:
+        for (int i = 0; i < size; i++) {
+          if (random.nextInt(100) == 0) {
+            swap(times, i, Math.min(size - 1, i + random.nextInt(100)));
+          }
+        }
+        break;
+      case RANDOM:
+        for (int i = size - 1; i > 0; i--) {
+          swap(times, i, random.nextInt(i + 1));
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException(name());
+    }
+    return times;
+  }
+
+  private static void swap(long[] times, int i, int j) {
+    long tmp = times[i];
+    times[i] = times[j];
+    times[j] = tmp;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.server;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of appending insertions of records and of tablets to an ExclusiveWriteLogNode, in
+ * points per second. The node writes to a new directory under the configured wal_dir, which is
+ * deleted at the end of a trial, and syncs and forces the log as configured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WalBenchmark {
+
+  private static final int MEASUREMENT_NUM = 10;
+  private static final int TABLET_ROW_NUM = 100;
+
+  private ExclusiveWriteLogNode logNode;
+  private InsertRowPlan rowPlan;
+  private InsertTabletPlan tabletPlan;
+
+  @Setup
+  public void setUp() throws IllegalPathException {
+    int bufferSize = IoTDBDescriptor.getInstance().getConfig().getWalBufferSize() / 2;
+    logNode = new ExclusiveWriteLogNode("benchmark-" + System.nanoTime());
+    logNode.initBuffer(
+        new ByteBuffer[] {
+          ByteBuffer.allocateDirect(bufferSize), ByteBuffer.allocateDirect(bufferSize)
+        });
+
+    List<MeasurementSchema> schemas = BenchmarkFiles.createSchemas(MEASUREMENT_NUM);
+    String[] measurements = new String[MEASUREMENT_NUM];
+    TSDataType[] dataTypes = new TSDataType[MEASUREMENT_NUM];
+    Object[] values = new Object[MEASUREMENT_NUM];
+    for (int i = 0; i < MEASUREMENT_NUM; i++) {
+      measurements[i] = schemas.get(i).getMeasurementId();
+      dataTypes[i] = schemas.get(i).getType();
+      values[i] = (long) i;
+    }
+    rowPlan = new InsertRowPlan();
+    rowPlan.setDeviceId(new PartialPath(BenchmarkFiles.DEVICE));
+    rowPlan.setMeasurements(measurements);
+    rowPlan.setDataTypes(dataTypes);
+    rowPlan.setValues(values);
+    tabletPlan = BenchmarkFiles.createTabletPlan(BenchmarkFiles.DEVICE, schemas, 0, TABLET_ROW_NUM);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    logNode.delete();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MEASUREMENT_NUM)
+  public void writeRow() throws IOException {
+    rowPlan.setTime(rowPlan.getTime() + 1);
+    logNode.write(rowPlan);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MEASUREMENT_NUM * TABLET_ROW_NUM)
+  public void writeTablet() throws IOException {
+    logNode.write(tabletPlan);
+  }
+}
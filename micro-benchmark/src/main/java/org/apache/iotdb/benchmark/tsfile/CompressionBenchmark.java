@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of compressing and uncompressing a page of each {@link Signal}, which is encoded with
+ * the default encoding of the signal first as it is in a TsFile, in pages per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompressionBenchmark {
+
+  @Param({
+    "MONOTONIC_COUNTER",
+    "REGULAR_TIMESTAMP",
+    "NOISY_FLOAT",
+    "STEP_FUNCTION",
+    "SPARSE_BOOLEAN",
+    "LOW_CARDINALITY_TEXT"
+  })
+  public Signal signal;
+
+  // pages are not compressed at all when UNCOMPRESSED, as in PageWriter
+  @Param({"SNAPPY", "LZ4", "GZIP"})
+  public CompressionType compressionType;
+
+  private ICompressor compressor;
+  private IUnCompressor unCompressor;
+  private byte[] page;
+  private byte[] compressed;
+  private byte[] compressBuffer;
+  private byte[] uncompressBuffer;
+
+  @Setup
+  public void setUp() throws IOException {
+    page = encodePage(signal);
+    compressor = ICompressor.getCompressor(compressionType);
+    unCompressor = IUnCompressor.getUnCompressor(compressionType);
+    compressed = compressor.compress(page);
+    compressBuffer = new byte[compressor.getMaxBytesForCompression(page.length)];
+    uncompressBuffer = new byte[page.length];
+  }
+
+  /** @return a page of the signal encoded with its default encoding */
+  static byte[] encodePage(Signal signal) throws IOException {
+    Series series = signal.generate(EncodingBenchmark.POINT_NUM, EncodingBenchmark.SEED);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    series.encode(
+        EncodingBenchmark.createEncodingBuilder(signal.getDefaultEncoding())
+            .getEncoder(series.getDataType()),
+        out);
+    return out.toByteArray();
+  }
+
+  @Benchmark
+  public int compress() throws IOException {
+    return compressor.compress(page, 0, page.length, compressBuffer);
+  }
+
+  @Benchmark
+  public int uncompress() throws IOException {
+    return unCompressor.uncompress(compressed, 0, compressed.length, uncompressBuffer, 0);
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * CompressionRatioReport prints the size of a page of each {@link Signal} after each supported
+ * encoding and each compression, and its ratio to the raw size of the values. Unlike the JMH
+ * benchmarks, the sizes are deterministic, so one run is enough.
+ *
+ * <p>Usage: java -cp benchmarks.jar org.apache.iotdb.benchmark.tsfile.CompressionRatioReport
+ * [pointNum]
+ */
+public class CompressionRatioReport {
+
+  private static final CompressionType[] COMPRESSION_TYPES = {
+    CompressionType.UNCOMPRESSED, CompressionType.SNAPPY, CompressionType.LZ4, CompressionType.GZIP
+  };
+
+  private CompressionRatioReport() {}
+
+  public static void main(String[] args) throws IOException {
+    int pointNum = args.length > 0 ? Integer.parseInt(args[0]) : EncodingBenchmark.POINT_NUM;
+    report(pointNum, System.out);
+  }
+
+  static void report(int pointNum, PrintStream out) throws IOException {
+    out.printf(
+        "%-22s %-12s %-14s %12s %12s %8s%n",
+        "signal", "encoding", "compression", "raw bytes", "bytes", "ratio");
+    for (Signal signal : Signal.values()) {
+      Series series = signal.generate(pointNum, EncodingBenchmark.SEED);
+      for (TSEncoding encoding : signal.getEncodings()) {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        series.encode(
+            EncodingBenchmark.createEncodingBuilder(encoding).getEncoder(series.getDataType()),
+            encoded);
+        byte[] page = encoded.toByteArray();
+        for (CompressionType compressionType : COMPRESSION_TYPES) {
+          int size = ICompressor.getCompressor(compressionType).compress(page).length;
+          out.printf(
+              "%-22s %-12s %-14s %12d %12d %8.3f%n",
+              signal,
+              encoding,
+              compressionType,
+              series.getRawSize(),
+              size,
+              (double) series.getRawSize() / size);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of encoding and decoding a page of each {@link Signal} with each encoding supporting
+ * it, in points per second.
+ *
+ * <p>A case is "SIGNAL:ENCODING", so only the supported combinations are run. Choose cases with,
+ * e.g., {@code -p signalAndEncoding=NOISY_FLOAT:GORILLA,NOISY_FLOAT:GORILLA_V1}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EncodingBenchmark {
+
+  static final int POINT_NUM = 10_000;
+  static final long SEED = 20201218L;
+
+  @Param({
+    "MONOTONIC_COUNTER:PLAIN",
+    "MONOTONIC_COUNTER:RLE",
+    "MONOTONIC_COUNTER:TS_2DIFF",
+    "MONOTONIC_COUNTER:GORILLA",
+    "REGULAR_TIMESTAMP:PLAIN",
+    "REGULAR_TIMESTAMP:TS_2DIFF",
+    "REGULAR_TIMESTAMP:REGULAR",
+    "REGULAR_TIMESTAMP:GORILLA",
+    "NOISY_FLOAT:PLAIN",
+    "NOISY_FLOAT:RLE",
+    "NOISY_FLOAT:TS_2DIFF",
+    "NOISY_FLOAT:GORILLA_V1",
+    "NOISY_FLOAT:GORILLA",
+    "STEP_FUNCTION:PLAIN",
+    "STEP_FUNCTION:RLE",
+    "STEP_FUNCTION:TS_2DIFF",
+    "STEP_FUNCTION:GORILLA",
+    "SPARSE_BOOLEAN:PLAIN",
+    "SPARSE_BOOLEAN:RLE",
+    "LOW_CARDINALITY_TEXT:PLAIN"
+  })
+  public String signalAndEncoding;
+
+  private Series series;
+  private TSEncoding encoding;
+  private TSEncodingBuilder encodingBuilder;
+  private ByteArrayOutputStream out;
+  private ByteBuffer encoded;
+
+  @Setup
+  public void setUp() throws IOException {
+    String[] split = signalAndEncoding.split(":");
+    Signal signal = Signal.valueOf(split[0]);
+    encoding = TSEncoding.valueOf(split[1]);
+    series = signal.generate(POINT_NUM, SEED);
+    encodingBuilder = createEncodingBuilder(encoding);
+
+    out = new ByteArrayOutputStream();
+    series.encode(encodingBuilder.getEncoder(series.getDataType()), out);
+    encoded = ByteBuffer.wrap(out.toByteArray());
+  }
+
+  /** @return the builder configured with the defaults, as for a newly created series */
+  static TSEncodingBuilder createEncodingBuilder(TSEncoding encoding) {
+    TSEncodingBuilder encodingBuilder = TSEncodingBuilder.getEncodingBuilder(encoding);
+    encodingBuilder.initFromProps(null);
+    return encodingBuilder;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public int encode() throws IOException {
+    out.reset();
+    series.encode(encodingBuilder.getEncoder(series.getDataType()), out);
+    return out.size();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public long decode() throws IOException {
+    Decoder decoder = Decoder.getDecoderByType(encoding, series.getDataType());
+    return series.decode(decoder, encoded.duplicate());
+  }
+}
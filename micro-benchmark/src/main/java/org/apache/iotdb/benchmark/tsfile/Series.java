@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** Series holds the values of a {@link Signal} in a primitive array of its data type. */
+public class Series {
+
+  private final TSDataType dataType;
+  private final int size;
+  private int[] ints;
+  private long[] longs;
+  private double[] doubles;
+  private boolean[] booleans;
+  private Binary[] binaries;
+
+  public Series(TSDataType dataType, int size) {
+    this.dataType = dataType;
+    this.size = size;
+    switch (dataType) {
+      case INT32:
+        ints = new int[size];
+        break;
+      case INT64:
+        longs = new long[size];
+        break;
+      case DOUBLE:
+        doubles = new double[size];
+        break;
+      case BOOLEAN:
+        booleans = new boolean[size];
+        break;
+      case TEXT:
+        binaries = new Binary[size];
+        break;
+      default:
+        throw new UnSupportedDataTypeException(dataType.toString());
+    }
+  }
+
+  /** encode all the values into out and flush the encoder */
+  public void encode(Encoder encoder, ByteArrayOutputStream out) throws IOException {
+    switch (dataType) {
+      case INT32:
+        for (int value : ints) {
+          encoder.encode(value, out);
+        }
+        break;
+      case INT64:
+        for (long value : longs) {
+          encoder.encode(value, out);
+        }
+        break;
+      case DOUBLE:
+        for (double value : doubles) {
+          encoder.encode(value, out);
+        }
+        break;
+      case BOOLEAN:
+        for (boolean value : booleans) {
+          encoder.encode(value, out);
+        }
+        break;
+      case TEXT:
+        for (Binary value : binaries) {
+          encoder.encode(value, out);
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(dataType.toString());
+    }
+    encoder.flush(out);
+  }
+
+  /**
+   * decode all the values in the buffer.
+   *
+   * @return the digest of the decoded values, which equals {@link #digest()} if the encoding is
+   *     lossless
+   */
+  public long decode(Decoder decoder, ByteBuffer buffer) throws IOException {
+    long digest = 0;
+    switch (dataType) {
+      case INT32:
+        while (decoder.hasNext(buffer)) {
+          digest = digest * 31 + decoder.readInt(buffer);
+        }
+        break;
+      case INT64:
+        while (decoder.hasNext(buffer)) {
+          digest = digest * 31 + decoder.readLong(buffer);
+        }
+        break;
+      case DOUBLE:
+        while (decoder.hasNext(buffer)) {
+          digest = digest * 31 + Double.doubleToLongBits(decoder.readDouble(buffer));
+        }
+        break;
+      case BOOLEAN:
+        while (decoder.hasNext(buffer)) {
+          digest = digest * 31 + (decoder.readBoolean(buffer) ? 1 : 0);
+        }
+        break;
+      case TEXT:
+        while (decoder.hasNext(buffer)) {
+          digest = digest * 31 + decoder.readBinary(buffer).hashCode();
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(dataType.toString());
+    }
+    return digest;
+  }
+
+  /** @return the digest of the values, computed in the same way as {@link #decode} */
+  public long digest() {
+    long digest = 0;
+    for (int i = 0; i < size; i++) {
+      switch (dataType) {
+        case INT32:
+          digest = digest * 31 + ints[i];
+          break;
+        case INT64:
+          digest = digest * 31 + longs[i];
+          break;
+        case DOUBLE:
+          digest = digest * 31 + Double.doubleToLongBits(doubles[i]);
+          break;
+        case BOOLEAN:
+          digest = digest * 31 + (booleans[i] ? 1 : 0);
+          break;
+        case TEXT:
+          digest = digest * 31 + binaries[i].hashCode();
+          break;
+        default:
+          throw new UnSupportedDataTypeException(dataType.toString());
+      }
+    }
+    return digest;
+  }
+
+  /** @return the size of the values in memory, i.e., before any encoding */
+  public long getRawSize() {
+    if (dataType != TSDataType.TEXT) {
+      return (long) size * dataType.getDataTypeSize();
+    }
+    long rawSize = 0;
+    for (Binary binary : binaries) {
+      rawSize += binary.getLength();
+    }
+    return rawSize;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  int[] getInts() {
+    return ints;
+  }
+
+  long[] getLongs() {
+    return longs;
+  }
+
+  double[] getDoubles() {
+    return doubles;
+  }
+
+  boolean[] getBooleans() {
+    return booleans;
+  }
+
+  Binary[] getBinaries() {
+    return binaries;
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.util.Random;
+
+/**
+ * Signal is a kind of synthetic time series that resembles what devices send in practice. The
+ * values are generated from a seed, so that every run of a benchmark sees the same data.
+ */
+public enum Signal {
+  /** a counter increasing by small random steps, e.g., the energy consumed so far */
+  MONOTONIC_COUNTER(
+      TSDataType.INT64,
+      TSEncoding.TS_2DIFF,
+      TSEncoding.PLAIN,
+      TSEncoding.RLE,
+      TSEncoding.TS_2DIFF,
+      TSEncoding.GORILLA),
+  /** timestamps of a 1s period with some points missing now and then */
+  REGULAR_TIMESTAMP(
+      TSDataType.INT64,
+      TSEncoding.TS_2DIFF,
+      TSEncoding.PLAIN,
+      TSEncoding.TS_2DIFF,
+      TSEncoding.REGULAR,
+      TSEncoding.GORILLA),
+  /** a sine wave with gaussian noise, e.g., a temperature */
+  NOISY_FLOAT(
+      TSDataType.DOUBLE,
+      TSEncoding.GORILLA,
+      TSEncoding.PLAIN,
+      TSEncoding.RLE,
+      TSEncoding.TS_2DIFF,
+      TSEncoding.GORILLA_V1,
+      TSEncoding.GORILLA),
+  /** a level held for a random while before jumping to another one, e.g., a set point */
+  STEP_FUNCTION(
+      TSDataType.INT32,
+      TSEncoding.RLE,
+      TSEncoding.PLAIN,
+      TSEncoding.RLE,
+      TSEncoding.TS_2DIFF,
+      TSEncoding.GORILLA),
+  /** a switch that is on about 1% of the time, e.g., an alarm */
+  SPARSE_BOOLEAN(TSDataType.BOOLEAN, TSEncoding.RLE, TSEncoding.PLAIN, TSEncoding.RLE),
+  /** a status chosen from a handful of strings */
+  LOW_CARDINALITY_TEXT(TSDataType.TEXT, TSEncoding.PLAIN, TSEncoding.PLAIN);
+
+  private static final String[] STATUSES = {"running", "idle", "stopped", "maintenance", "fault"};
+
+  private final TSDataType dataType;
+  private final TSEncoding defaultEncoding;
+  private final TSEncoding[] encodings;
+
+  Signal(TSDataType dataType, TSEncoding defaultEncoding, TSEncoding... encodings) {
+    this.dataType = dataType;
+    this.defaultEncoding = defaultEncoding;
+    this.encodings = encodings;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  /** @return the encoding that suits the signal best, which is used before compression */
+  public TSEncoding getDefaultEncoding() {
+    return defaultEncoding;
+  }
+
+  /** @return the encodings that support the data type of the signal */
+  public TSEncoding[] getEncodings() {
+    return encodings;
+  }
+
+  public Series generate(int size, long seed) {
+    Random random = new Random(seed);
+    Series series = new Series(dataType, size);
+    switch (this) {
+      case MONOTONIC_COUNTER:
+        long counter = 0;
+        for (int i = 0; i < size; i++) {
+          counter += random.nextInt(10);
+          series.getLongs()[i] = counter;
+        }
+        break;
+      case REGULAR_TIMESTAMP:
+        long time = 1_600_000_000_000L;
+        for (int i = 0; i < size; i++) {
+          // 1% of the points come after a gap of missing points
+          time += random.nextInt(100) == 0 ? 1000L * (2 + random.nextInt(60)) : 1000;
+          series.getLongs()[i] = time;
+        }
+        break;
+      case NOISY_FLOAT:
+        for (int i = 0; i < size; i++) {
+          series.getDoubles()[i] =
+              20 + 5 * Math.sin(2 * Math.PI * i / 3600) + random.nextGaussian() * 0.1;
+        }
+        break;
+      case STEP_FUNCTION:
+        int level = 0;
+        for (int i = 0; i < size; i++) {
+          if (random.nextInt(200) == 0) {
+            level = random.nextInt(100) * 10;
+          }
+          series.getInts()[i] = level;
+        }
+        break;
+      case SPARSE_BOOLEAN:
+        for (int i = 0; i < size; i++) {
+          series.getBooleans()[i] = random.nextInt(100) == 0;
+        }
+        break;
+      case LOW_CARDINALITY_TEXT:
+        for (int i = 0; i < size; i++) {
+          series.getBinaries()[i] = new Binary(STATUSES[random.nextInt(STATUSES.length)]);
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException(name());
+    }
+    return series;
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class SignalTest {
+
+  @Test
+  public void testGenerateDeterministically() {
+    for (Signal signal : Signal.values()) {
+      Series series = signal.generate(1000, EncodingBenchmark.SEED);
+      assertEquals(signal.getDataType(), series.getDataType());
+      assertEquals(series.digest(), signal.generate(1000, EncodingBenchmark.SEED).digest());
+      assertNotEquals(0, series.digest());
+    }
+  }
+
+  @Test
+  public void testEncodeAndDecode() throws IOException {
+    for (Signal signal : Signal.values()) {
+      Series series = signal.generate(EncodingBenchmark.POINT_NUM, EncodingBenchmark.SEED);
+      for (TSEncoding encoding : signal.getEncodings()) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        series.encode(
+            EncodingBenchmark.createEncodingBuilder(encoding).getEncoder(series.getDataType()),
+            out);
+        long digest =
+            series.decode(
+                Decoder.getDecoderByType(encoding, series.getDataType()),
+                ByteBuffer.wrap(out.toByteArray()));
+        // RLE and TS_2DIFF keep only a few decimal places of floating numbers
+        if (series.getDataType() != TSDataType.DOUBLE
+            || (encoding != TSEncoding.RLE && encoding != TSEncoding.TS_2DIFF)) {
+          assertEquals(signal + ":" + encoding, series.digest(), digest);
+        }
+      }
+    }
+  }
+}
@@ -18,6 +18,9 @@
  */
 package org.apache.iotdb.db.concurrent;
 
+import org.apache.iotdb.db.metrics.source.EngineSource;
+import org.apache.iotdb.db.metrics.source.EngineSource.Stage;
+
 import org.apache.thrift.server.TThreadPoolServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -117,7 +120,10 @@ public class IoTDBThreadPoolFactory {
     return Executors.newScheduledThreadPool(corePoolSize, new IoTThreadFactory(poolName, handler));
   }
 
-  /** function for creating thrift rpc client thread pool. */
+  /**
+   * function for creating thrift rpc client thread pool. The time from handing a client over to
+   * the pool to a worker starting to serve it is recorded as the RPC queue time.
+   */
   public static ExecutorService createThriftRpcClientThreadPool(
       TThreadPoolServer.Args args, String poolName) {
     SynchronousQueue<Runnable> executorQueue = new SynchronousQueue<>();
@@ -127,7 +133,17 @@ public class IoTDBThreadPoolFactory {
         args.stopTimeoutVal,
         args.stopTimeoutUnit,
         executorQueue,
-        new IoTThreadFactory(poolName));
+        new IoTThreadFactory(poolName)) {
+      @Override
+      public void execute(Runnable command) {
+        long submitTime = System.nanoTime();
+        super.execute(
+            () -> {
+              EngineSource.getInstance().update(Stage.RPC_QUEUE, submitTime);
+              command.run();
+            });
+      }
+    };
   }
 
   /** function for creating thrift rpc client thread pool. */
@@ -74,6 +74,12 @@ public class IoTDBConfig {
 
   private boolean enableMetricService = false;
 
+  /**
+   * Whether to record the latency and throughput of the stages of the engine, e.g., WAL, flush,
+   * compaction, caches and queries. They are exposed by the metrics service and JMX.
+   */
+  private boolean enableEngineMetrics = false;
+
   /** whether to enable the mqtt service. */
   private boolean enableMQTTService = false;
 
@@ -110,6 +116,9 @@ public class IoTDBConfig {
   /** Memory allocated for the write process */
   private long allocateMemoryForWrite = Runtime.getRuntime().maxMemory() * 4 / 10;
 
+  /** Direct memory allocated for the memtables of the write process if they are off heap */
+  private long allocateMemoryForWriteOffHeap = Runtime.getRuntime().maxMemory() * 4 / 10;
+
   /** Memory allocated for the read process */
   private long allocateMemoryForRead = Runtime.getRuntime().maxMemory() * 3 / 10;
 
@@ -130,6 +139,13 @@ public class IoTDBConfig {
   /** Reject proportion for system */
   private double rejectProportion = 0.8;
 
+  /**
+   * Whether to schedule flushes by the ingest rates of storage groups: flush before the reject
+   * threshold is reached at the current rate, and flush the memtables with the most points per
+   * series first.
+   */
+  private boolean enableAdaptiveFlush = false;
+
   /** If storage group increased more than this threshold, report to system. */
   private long storageGroupSizeReportThreshold = 16 * 1024 * 1024L;
 
@@ -231,6 +247,12 @@ public class IoTDBConfig {
   /** How many threads can concurrently query. When <= 0, use CPU core number. */
   private int concurrentQueryThread = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * How many upcoming devices of an ALIGN BY DEVICE query are queried in advance concurrently. When
+   * <= 0, devices are queried one by one.
+   */
+  private int alignByDevicePrefetchNum = 4;
+
   /** Is the write mem control for writing enable. */
   private boolean enableMemControl = true;
 
@@ -327,6 +349,12 @@ public class IoTDBConfig {
   /** Whether to enable Last cache */
   private boolean lastCacheEnable = true;
 
+  /**
+   * Whether to fill the Last cache with the last points in the sealed sequence files when a storage
+   * group is recovered. Only valid when the Last cache is enabled.
+   */
+  private boolean enableLastCacheWarmUp = true;
+
   /** Set true to enable statistics monitor service, false to disable statistics service. */
   private boolean enableStatMonitor = false;
 
@@ -336,6 +364,9 @@ public class IoTDBConfig {
   /** Cache size of {@code checkAndGetDataTypeCache} in {@link MManager}. */
   private int mManagerCacheSize = 300000;
 
+  /** Max number of (modification file, timeseries) pairs whose deletions are cached. */
+  private int modificationCacheSize = 100000;
+
   /** Cache size of {@code checkAndGetDataTypeCache} in {@link MManager}. */
   private int mRemoteSchemaCacheSize = 100000;
 
@@ -485,6 +516,13 @@ public class IoTDBConfig {
    */
   private int compactionThreadNum = 10;
 
+  /**
+   * How many threads of a compaction task read and re-encode the chunks of different devices
+   * concurrently, while the task itself writes the target file. 1 by default, i.e., a compaction
+   * task compacts the devices one by one. Set to 1 when less than or equal to 0.
+   */
+  private int compactionSubThreadNum = 1;
+
   private MergeFileStrategy mergeFileStrategy = MergeFileStrategy.MAX_SERIES_NUM;
 
   /** Default system file storage is in local file system (unsupported) */
@@ -536,6 +574,12 @@ public class IoTDBConfig {
   /** the default fill interval in LinearFill and PreviousFill, -1 means infinite past time */
   private int defaultFillInterval = -1;
 
+  /**
+   * whether to read the chunks and metadata of sealed TsFiles by memory-mapping the files, which
+   * saves copying them into the heap
+   */
+  private boolean enableMmapRead = false;
+
   /**
    * default TTL for storage groups that are not set TTL by statements, in ms
    *
@@ -547,6 +591,12 @@ public class IoTDBConfig {
   /** The default value of primitive array size in array pool */
   private int primitiveArraySize = 128;
 
+  /**
+   * Whether to keep the timestamps and values of memtables in direct memory slabs instead of
+   * primitive arrays on heap, which shrinks the heap and the GC pauses of write-heavy servers.
+   */
+  private boolean enableOffHeapMemTable = false;
+
   /** whether enable data partition. If disabled, all data belongs to partition 0 */
   private boolean enablePartition = false;
 
@@ -562,6 +612,12 @@ public class IoTDBConfig {
    */
   private int mtreeSnapshotThresholdTime = 3600;
 
+  /**
+   * whether to parse the children of each storage group from the indexed MTree snapshot when they
+   * are first accessed instead of at startup
+   */
+  private boolean enableMTreeLazyLoading = false;
+
   /** Time range for partitioning data inside each storage group, the unit is second */
   private long partitionInterval = 604800;
 
@@ -580,6 +636,9 @@ public class IoTDBConfig {
   // max size for tag and attribute of one time series
   private int tagAttributeTotalSize = 700;
 
+  // max number of timeseries whose tags and attributes are cached in memory
+  private int tagAttributeCacheSize = 100000;
+
   // In one insert (one device, one timestamp, multiple measurements),
   // if enable partial insert, one measurement failure will not impact other measurements
   private boolean enablePartialInsert = true;
@@ -636,6 +695,18 @@ public class IoTDBConfig {
   /** the number of virtual storage groups per user-defined storage group */
   private int virtualStorageGroupNum = 1;
 
+  /**
+   * How many threads of a storage group check the TsFiles and load their resources concurrently at
+   * recovery. The number of CPU cores when less than or equal to 0.
+   */
+  private int recoverTsFileThreadNum = 0;
+
+  /**
+   * Whether the resources of the TsFiles in a time partition are kept in one append-only catalog
+   * file of the partition instead of a .resource file per TsFile.
+   */
+  private boolean enableResourceCatalog = false;
+
   public IoTDBConfig() {
     // empty constructor
   }
@@ -697,6 +768,14 @@ public class IoTDBConfig {
     this.defaultFillInterval = defaultFillInterval;
   }
 
+  public boolean isEnableMmapRead() {
+    return enableMmapRead;
+  }
+
+  public void setEnableMmapRead(boolean enableMmapRead) {
+    this.enableMmapRead = enableMmapRead;
+  }
+
   public boolean isEnablePartition() {
     return enablePartition;
   }
@@ -729,6 +808,14 @@ public class IoTDBConfig {
     this.mtreeSnapshotThresholdTime = mtreeSnapshotThresholdTime;
   }
 
+  public boolean isEnableMTreeLazyLoading() {
+    return enableMTreeLazyLoading;
+  }
+
+  public void setEnableMTreeLazyLoading(boolean enableMTreeLazyLoading) {
+    this.enableMTreeLazyLoading = enableMTreeLazyLoading;
+  }
+
   public long getPartitionInterval() {
     return partitionInterval;
   }
@@ -852,6 +939,14 @@ public class IoTDBConfig {
     this.enableMetricService = enableMetricService;
   }
 
+  public boolean isEnableEngineMetrics() {
+    return enableEngineMetrics;
+  }
+
+  public void setEnableEngineMetrics(boolean enableEngineMetrics) {
+    this.enableEngineMetrics = enableEngineMetrics;
+  }
+
   void setDataDirs(String[] dataDirs) {
     this.dataDirs = dataDirs;
   }
@@ -1024,6 +1119,14 @@ public class IoTDBConfig {
     this.concurrentQueryThread = concurrentQueryThread;
   }
 
+  public int getAlignByDevicePrefetchNum() {
+    return alignByDevicePrefetchNum;
+  }
+
+  public void setAlignByDevicePrefetchNum(int alignByDevicePrefetchNum) {
+    this.alignByDevicePrefetchNum = alignByDevicePrefetchNum;
+  }
+
   public long getTsFileSizeThreshold() {
     return tsFileSizeThreshold;
   }
@@ -1064,6 +1167,14 @@ public class IoTDBConfig {
     this.mManagerCacheSize = mManagerCacheSize;
   }
 
+  public int getModificationCacheSize() {
+    return modificationCacheSize;
+  }
+
+  public void setModificationCacheSize(int modificationCacheSize) {
+    this.modificationCacheSize = modificationCacheSize;
+  }
+
   public int getmRemoteSchemaCacheSize() {
     return mRemoteSchemaCacheSize;
   }
@@ -1216,6 +1327,14 @@ public class IoTDBConfig {
     this.rejectProportion = rejectProportion;
   }
 
+  public boolean isEnableAdaptiveFlush() {
+    return enableAdaptiveFlush;
+  }
+
+  public void setEnableAdaptiveFlush(boolean enableAdaptiveFlush) {
+    this.enableAdaptiveFlush = enableAdaptiveFlush;
+  }
+
   public long getStorageGroupSizeReportThreshold() {
     return storageGroupSizeReportThreshold;
   }
@@ -1232,6 +1351,14 @@ public class IoTDBConfig {
     this.allocateMemoryForWrite = allocateMemoryForWrite;
   }
 
+  public long getAllocateMemoryForWriteOffHeap() {
+    return allocateMemoryForWriteOffHeap;
+  }
+
+  public void setAllocateMemoryForWriteOffHeap(long allocateMemoryForWriteOffHeap) {
+    this.allocateMemoryForWriteOffHeap = allocateMemoryForWriteOffHeap;
+  }
+
   public long getAllocateMemoryForSchema() {
     return allocateMemoryForSchema;
   }
@@ -1328,6 +1455,14 @@ public class IoTDBConfig {
     this.compactionThreadNum = compactionThreadNum;
   }
 
+  public int getCompactionSubThreadNum() {
+    return compactionSubThreadNum;
+  }
+
+  public void setCompactionSubThreadNum(int compactionSubThreadNum) {
+    this.compactionSubThreadNum = compactionSubThreadNum;
+  }
+
   public int getMergeWriteThroughputMbPerSec() {
     return mergeWriteThroughputMbPerSec;
   }
@@ -1497,6 +1632,14 @@ public class IoTDBConfig {
     this.lastCacheEnable = lastCacheEnable;
   }
 
+  public boolean isEnableLastCacheWarmUp() {
+    return enableLastCacheWarmUp;
+  }
+
+  public void setEnableLastCacheWarmUp(boolean enableLastCacheWarmUp) {
+    this.enableLastCacheWarmUp = enableLastCacheWarmUp;
+  }
+
   public boolean isEnableWatermark() {
     return enableWatermark;
   }
@@ -1894,6 +2037,14 @@ public class IoTDBConfig {
     this.tagAttributeTotalSize = tagAttributeTotalSize;
   }
 
+  public int getTagAttributeCacheSize() {
+    return tagAttributeCacheSize;
+  }
+
+  public void setTagAttributeCacheSize(int tagAttributeCacheSize) {
+    this.tagAttributeCacheSize = tagAttributeCacheSize;
+  }
+
   public int getPrimitiveArraySize() {
     return primitiveArraySize;
   }
@@ -1902,6 +2053,14 @@ public class IoTDBConfig {
     this.primitiveArraySize = primitiveArraySize;
   }
 
+  public boolean isEnableOffHeapMemTable() {
+    return enableOffHeapMemTable;
+  }
+
+  public void setEnableOffHeapMemTable(boolean enableOffHeapMemTable) {
+    this.enableOffHeapMemTable = enableOffHeapMemTable;
+  }
+
   public String getOpenIdProviderUrl() {
     return openIdProviderUrl;
   }
@@ -2034,6 +2193,22 @@ public class IoTDBConfig {
     this.virtualStorageGroupNum = virtualStorageGroupNum;
   }
 
+  public int getRecoverTsFileThreadNum() {
+    return recoverTsFileThreadNum;
+  }
+
+  public void setRecoverTsFileThreadNum(int recoverTsFileThreadNum) {
+    this.recoverTsFileThreadNum = recoverTsFileThreadNum;
+  }
+
+  public boolean isEnableResourceCatalog() {
+    return enableResourceCatalog;
+  }
+
+  public void setEnableResourceCatalog(boolean enableResourceCatalog) {
+    this.enableResourceCatalog = enableResourceCatalog;
+  }
+
   public boolean isRpcAdvancedCompressionEnable() {
     return rpcAdvancedCompressionEnable;
   }
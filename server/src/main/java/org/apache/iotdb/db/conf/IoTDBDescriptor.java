@@ -167,6 +167,11 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "enable_metric_service", Boolean.toString(conf.isEnableMetricService()))));
 
+      conf.setEnableEngineMetrics(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_engine_metrics", Boolean.toString(conf.isEnableEngineMetrics()))));
+
       conf.setMetricsPort(
           Integer.parseInt(
               properties.getProperty("metrics_port", Integer.toString(conf.getMetricsPort()))));
@@ -214,6 +219,11 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "reject_proportion", Double.toString(conf.getRejectProportion()))));
 
+      conf.setEnableAdaptiveFlush(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_adaptive_flush", Boolean.toString(conf.isEnableAdaptiveFlush()))));
+
       conf.setStorageGroupSizeReportThreshold(
           Long.parseLong(
               properties.getProperty(
@@ -230,6 +240,12 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "enable_last_cache", Boolean.toString(conf.isLastCacheEnabled()))));
 
+      conf.setEnableLastCacheWarmUp(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_last_cache_warm_up",
+                  Boolean.toString(conf.isEnableLastCacheWarmUp()))));
+
       initMemoryAllocate(properties);
 
       loadWALProps(properties);
@@ -443,6 +459,12 @@ public class IoTDBDescriptor {
         conf.setConcurrentQueryThread(Runtime.getRuntime().availableProcessors());
       }
 
+      conf.setAlignByDevicePrefetchNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "align_by_device_prefetch_num",
+                  Integer.toString(conf.getAlignByDevicePrefetchNum()))));
+
       conf.setmManagerCacheSize(
           Integer.parseInt(
               properties
@@ -450,6 +472,13 @@ public class IoTDBDescriptor {
                       "metadata_node_cache_size", Integer.toString(conf.getmManagerCacheSize()))
                   .trim()));
 
+      conf.setModificationCacheSize(
+          Integer.parseInt(
+              properties
+                  .getProperty(
+                      "modification_cache_size", Integer.toString(conf.getModificationCacheSize()))
+                  .trim()));
+
       conf.setmRemoteSchemaCacheSize(
           Integer.parseInt(
               properties
@@ -513,6 +542,11 @@ public class IoTDBDescriptor {
           Integer.parseInt(
               properties.getProperty(
                   "compaction_thread_num", Integer.toString(conf.getCompactionThreadNum()))));
+      conf.setCompactionSubThreadNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "compaction_subthread_num",
+                  Integer.toString(conf.getCompactionSubThreadNum()))));
       conf.setMergeWriteThroughputMbPerSec(
           Integer.parseInt(
               properties.getProperty(
@@ -537,6 +571,10 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "mtree_snapshot_threshold_time",
                   Integer.toString(conf.getMtreeSnapshotThresholdTime()))));
+      conf.setEnableMTreeLazyLoading(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_mtree_lazy_loading", Boolean.toString(conf.isEnableMTreeLazyLoading()))));
 
       conf.setEnablePerformanceStat(
           Boolean.parseBoolean(
@@ -645,14 +683,27 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "default_fill_interval", String.valueOf(conf.getDefaultFillInterval()))));
 
+      conf.setEnableMmapRead(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_mmap_read", Boolean.toString(conf.isEnableMmapRead()))));
+
       conf.setTagAttributeTotalSize(
           Integer.parseInt(
               properties.getProperty(
                   "tag_attribute_total_size", String.valueOf(conf.getTagAttributeTotalSize()))));
+      conf.setTagAttributeCacheSize(
+          Integer.parseInt(
+              properties.getProperty(
+                  "tag_attribute_cache_size", String.valueOf(conf.getTagAttributeCacheSize()))));
       conf.setPrimitiveArraySize(
           (Integer.parseInt(
               properties.getProperty(
                   "primitive_array_size", String.valueOf(conf.getPrimitiveArraySize())))));
+      conf.setEnableOffHeapMemTable(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_off_heap_memtable", String.valueOf(conf.isEnableOffHeapMemTable()))));
 
       conf.setThriftMaxFrameSize(
           Integer.parseInt(
@@ -686,6 +737,15 @@ public class IoTDBDescriptor {
           Integer.parseInt(
               properties.getProperty(
                   "virtual_storage_group_num", String.valueOf(conf.getVirtualStorageGroupNum()))));
+      conf.setRecoverTsFileThreadNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "recover_tsfile_thread_num",
+                  String.valueOf(conf.getRecoverTsFileThreadNum()))));
+      conf.setEnableResourceCatalog(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_resource_catalog", String.valueOf(conf.isEnableResourceCatalog()))));
 
       // mqtt
       if (properties.getProperty(IoTDBConstant.MQTT_HOST_NAME) != null) {
@@ -1066,6 +1126,13 @@ public class IoTDBDescriptor {
     logger.info("allocateMemoryForWrite = {}", conf.getAllocateMemoryForWrite());
     logger.info("allocateMemoryForSchema = {}", conf.getAllocateMemoryForSchema());
 
+    conf.setAllocateMemoryForWriteOffHeap(
+        Long.parseLong(
+            properties.getProperty(
+                "off_heap_memtable_memory_size",
+                String.valueOf(conf.getAllocateMemoryForWrite()))));
+    logger.info("allocateMemoryForWriteOffHeap = {}", conf.getAllocateMemoryForWriteOffHeap());
+
     if (!conf.isMetaDataCacheEnable()) {
       return;
     }
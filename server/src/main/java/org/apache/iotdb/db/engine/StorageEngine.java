@@ -31,6 +31,7 @@ import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor.TimePartitionFilter;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceCatalog;
 import org.apache.iotdb.db.engine.storagegroup.virtualSg.VirtualStorageGroupManager;
 import org.apache.iotdb.db.exception.BatchProcessException;
 import org.apache.iotdb.db.exception.LoadFileException;
@@ -340,6 +341,7 @@ public class StorageEngine implements IService {
       this.releaseWalDirectByteBufferPoolInOneStorageGroup(storageGroup);
     }
     this.reset();
+    TsFileResourceCatalog.closeAll();
   }
 
   @Override
@@ -360,6 +362,7 @@ public class StorageEngine implements IService {
     }
     recoveryThreadPool.shutdownNow();
     this.reset();
+    TsFileResourceCatalog.closeAll();
   }
 
   @Override
@@ -21,6 +21,11 @@ package org.apache.iotdb.db.engine.cache;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.metrics.source.EngineSource;
+import org.apache.iotdb.db.metrics.source.EngineSource.Event;
+import org.apache.iotdb.db.metrics.source.EngineSource.Stage;
+import org.apache.iotdb.db.query.control.TracingInfo;
+import org.apache.iotdb.db.query.control.TracingInfo.Activity;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
@@ -31,6 +36,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -88,6 +94,13 @@ public class ChunkCache {
   }
 
   public Chunk get(ChunkMetadata chunkMetaData, TsFileSequenceReader reader) throws IOException {
+    return get(chunkMetaData, reader, null);
+  }
+
+  /** @param tracingInfo the profile of the query to record the cache hit into, may be null */
+  public Chunk get(
+      ChunkMetadata chunkMetaData, TsFileSequenceReader reader, TracingInfo tracingInfo)
+      throws IOException {
     if (!CACHE_ENABLE) {
       Chunk chunk = reader.readMemChunk(chunkMetaData);
       return new Chunk(
@@ -108,15 +121,29 @@ public class ChunkCache {
     }
     if (chunk != null) {
       cacheHitNum.incrementAndGet();
+      EngineSource.getInstance().mark(Event.CHUNK_CACHE_HIT);
+      if (tracingInfo != null) {
+        tracingInfo.increment(Activity.CHUNK_CACHE_HIT);
+      }
       printCacheLog(true);
     } else {
+      EngineSource.getInstance().mark(Event.CHUNK_CACHE_MISS);
+      if (tracingInfo != null) {
+        tracingInfo.increment(Activity.CHUNK_CACHE_MISS);
+      }
       printCacheLog(false);
+      long startTime = System.nanoTime();
       try {
         chunk = reader.readMemChunk(chunkMetaData);
       } catch (IOException e) {
         logger.error("something wrong happened while reading {}", reader.getFileName());
         throw e;
       }
+      if (chunk.getData().isDirect()) {
+        // a slice of a memory-mapped file would keep the whole mapping alive while it is cached
+        chunk = copyToHeap(chunk, chunkMetaData);
+      }
+      EngineSource.getInstance().update(Stage.CHUNK_CACHE_LOAD, startTime);
       lock.writeLock().lock();
       try {
         lruCache.put(chunkMetaData, chunk);
@@ -135,6 +162,18 @@ public class ChunkCache {
         chunkMetaData.getStatistics());
   }
 
+  private static Chunk copyToHeap(Chunk chunk, ChunkMetadata chunkMetaData) {
+    ByteBuffer data = chunk.getData().duplicate();
+    ByteBuffer heapData = ByteBuffer.allocate(data.remaining());
+    heapData.put(data);
+    heapData.flip();
+    return new Chunk(
+        chunk.getHeader(),
+        heapData,
+        chunk.getDeleteIntervalList(),
+        chunkMetaData.getStatistics());
+  }
+
   private void printCacheLog(boolean isHit) {
     if (!logger.isDebugEnabled()) {
       return;
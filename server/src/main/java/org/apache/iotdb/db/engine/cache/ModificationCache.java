@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.utils.TestOnly;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class is used to cache the modifications of a timeseries in a ModificationFile across
+ * queries, so that queries over heavily deleted data do not match the deletions of each file
+ * against the timeseries again and again. The caching strategy is LRU and the capacity is the
+ * number of (file, timeseries) pairs. The files are identified by their paths, so the cache does
+ * not keep ModificationFiles alive, and a cached result is dropped once the length of the file
+ * changes, as each write or abort appends to the file. The results of a file are removed when the
+ * file is removed or moved.
+ */
+public class ModificationCache {
+
+  private static final int CACHE_SIZE =
+      IoTDBDescriptor.getInstance().getConfig().getModificationCacheSize();
+
+  private final Map<CacheKey, CacheValue> lruCache;
+  // path of a modification file -> the keys of its results in lruCache
+  private final Map<String, Set<CacheKey>> fileKeys = new HashMap<>();
+
+  private ModificationCache() {
+    lruCache =
+        new LinkedHashMap<CacheKey, CacheValue>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheValue> eldest) {
+            if (size() > CACHE_SIZE) {
+              removeFileKey(eldest.getKey());
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  public static ModificationCache getInstance() {
+    return ModificationCacheHolder.INSTANCE;
+  }
+
+  /** @return the modifications of the timeseries in the file, which must not be modified */
+  public List<Modification> get(ModificationFile modFile, PartialPath path) {
+    if (CACHE_SIZE <= 0) {
+      return modFile.getPathModifications(path);
+    }
+
+    CacheKey key = new CacheKey(modFile.getFilePath(), path.getFullPath());
+    long fileLength = modFile.getFileLength();
+    synchronized (lruCache) {
+      CacheValue value = lruCache.get(key);
+      if (value != null && value.fileLength == fileLength) {
+        return value.modifications;
+      }
+    }
+
+    List<Modification> modifications;
+    // the file is written before the modifications in memory, so read them under the file lock
+    synchronized (modFile) {
+      fileLength = modFile.getFileLength();
+      modifications = Collections.unmodifiableList(modFile.getPathModifications(path));
+    }
+    synchronized (lruCache) {
+      lruCache.put(key, new CacheValue(fileLength, modifications));
+      fileKeys.computeIfAbsent(key.filePath, k -> new HashSet<>()).add(key);
+    }
+    return modifications;
+  }
+
+  /** remove the cached modifications of a modification file that is removed or moved */
+  public void remove(String modFilePath) {
+    synchronized (lruCache) {
+      Set<CacheKey> keys = fileKeys.remove(modFilePath);
+      if (keys != null) {
+        for (CacheKey key : keys) {
+          lruCache.remove(key);
+        }
+      }
+    }
+  }
+
+  private void removeFileKey(CacheKey key) {
+    Set<CacheKey> keys = fileKeys.get(key.filePath);
+    if (keys != null) {
+      keys.remove(key);
+      if (keys.isEmpty()) {
+        fileKeys.remove(key.filePath);
+      }
+    }
+  }
+
+  public void clear() {
+    synchronized (lruCache) {
+      lruCache.clear();
+      fileKeys.clear();
+    }
+  }
+
+  @TestOnly
+  public int size() {
+    synchronized (lruCache) {
+      return lruCache.size();
+    }
+  }
+
+  private static class CacheKey {
+
+    private final String filePath;
+    private final String path;
+
+    private CacheKey(String filePath, String path) {
+      this.filePath = filePath;
+      this.path = path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey that = (CacheKey) o;
+      return filePath.equals(that.filePath) && path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * filePath.hashCode() + path.hashCode();
+    }
+  }
+
+  private static class CacheValue {
+
+    private final long fileLength;
+    private final List<Modification> modifications;
+
+    private CacheValue(long fileLength, List<Modification> modifications) {
+      this.fileLength = fileLength;
+      this.modifications = modifications;
+    }
+  }
+
+  /** singleton pattern. */
+  private static class ModificationCacheHolder {
+
+    private static final ModificationCache INSTANCE = new ModificationCache();
+  }
+}
@@ -22,7 +22,12 @@ package org.apache.iotdb.db.engine.cache;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.metrics.source.EngineSource;
+import org.apache.iotdb.db.metrics.source.EngineSource.Event;
+import org.apache.iotdb.db.metrics.source.EngineSource.Stage;
 import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.control.TracingInfo;
+import org.apache.iotdb.db.query.control.TracingInfo.Activity;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.tsfile.common.cache.Accountable;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
@@ -114,9 +119,16 @@ public class TimeSeriesMetadataCache {
     return TimeSeriesMetadataCache.TimeSeriesMetadataCacheHolder.INSTANCE;
   }
 
-  @SuppressWarnings("squid:S1860") // Suppress synchronize warning
   public TimeseriesMetadata get(TimeSeriesMetadataCacheKey key, Set<String> allSensors)
       throws IOException {
+    return get(key, allSensors, null);
+  }
+
+  /** @param tracingInfo the profile of the query to record the cache hit into, may be null */
+  @SuppressWarnings("squid:S1860") // Suppress synchronize warning
+  public TimeseriesMetadata get(
+      TimeSeriesMetadataCacheKey key, Set<String> allSensors, TracingInfo tracingInfo)
+      throws IOException {
     if (!CACHE_ENABLE) {
       // bloom filter part
       TsFileSequenceReader reader = FileReaderManager.getInstance().get(key.filePath, true);
@@ -140,6 +152,8 @@ public class TimeSeriesMetadataCache {
 
     if (timeseriesMetadata != null) {
       cacheHitNum.incrementAndGet();
+      EngineSource.getInstance().mark(Event.TIMESERIES_METADATA_CACHE_HIT);
+      traceCacheHit(tracingInfo, true);
       printCacheLog(true);
     } else {
       if (config.isDebugOn()) {
@@ -159,8 +173,13 @@ public class TimeSeriesMetadataCache {
         }
         if (timeseriesMetadata != null) {
           cacheHitNum.incrementAndGet();
+          EngineSource.getInstance().mark(Event.TIMESERIES_METADATA_CACHE_HIT);
+          traceCacheHit(tracingInfo, true);
           printCacheLog(true);
         } else {
+          EngineSource.getInstance().mark(Event.TIMESERIES_METADATA_CACHE_MISS);
+          traceCacheHit(tracingInfo, false);
+          long startTime = System.nanoTime();
           Path path = new Path(key.device, key.measurement);
           // bloom filter part
           TsFileSequenceReader reader = FileReaderManager.getInstance().get(key.filePath, true);
@@ -174,6 +193,7 @@ public class TimeSeriesMetadataCache {
           printCacheLog(false);
           List<TimeseriesMetadata> timeSeriesMetadataList =
               reader.readTimeseriesMetadata(path, allSensors);
+          EngineSource.getInstance().update(Stage.TIMESERIES_METADATA_CACHE_LOAD, startTime);
           // put TimeSeriesMetadata of all sensors used in this query into cache
           lock.writeLock().lock();
           try {
@@ -211,6 +231,13 @@ public class TimeSeriesMetadataCache {
     }
   }
 
+  private void traceCacheHit(TracingInfo tracingInfo, boolean isHit) {
+    if (tracingInfo != null) {
+      tracingInfo.increment(
+          isHit ? Activity.TIMESERIES_METADATA_CACHE_HIT : Activity.TIMESERIES_METADATA_CACHE_MISS);
+    }
+  }
+
   private void printCacheLog(boolean isHit) {
     if (!logger.isDebugEnabled()) {
       return;
@@ -46,6 +46,8 @@ public class CompactionMergeTaskPoolManager implements IService {
   private static final CompactionMergeTaskPoolManager INSTANCE =
       new CompactionMergeTaskPoolManager();
   private ExecutorService pool;
+  /** runs the sub tasks of compaction tasks, null if each compaction task runs alone */
+  private ExecutorService subTaskPool;
 
   public static CompactionMergeTaskPoolManager getInstance() {
     return INSTANCE;
@@ -59,6 +61,13 @@ public class CompactionMergeTaskPoolManager implements IService {
               IoTDBDescriptor.getInstance().getConfig().getCompactionThreadNum(),
               ThreadName.COMPACTION_SERVICE.getName());
     }
+    int subThreadNum = IoTDBDescriptor.getInstance().getConfig().getCompactionSubThreadNum();
+    if (subTaskPool == null && subThreadNum > 1) {
+      this.subTaskPool =
+          IoTDBThreadPoolFactory.newFixedThreadPool(
+              IoTDBDescriptor.getInstance().getConfig().getCompactionThreadNum() * subThreadNum,
+              ThreadName.COMPACTION_SUB_TASK_SERVICE.getName());
+    }
     logger.info("Compaction task manager started.");
   }
 
@@ -69,6 +78,7 @@ public class CompactionMergeTaskPoolManager implements IService {
       logger.info("Waiting for task pool to shut down");
       waitTermination();
     }
+    stopSubTaskPool();
   }
 
   @Override
@@ -78,6 +88,15 @@ public class CompactionMergeTaskPoolManager implements IService {
       logger.info("Waiting for task pool to shut down");
       waitTermination();
     }
+    stopSubTaskPool();
+  }
+
+  /** the sub tasks are stopped after the compaction tasks waiting for them */
+  private void stopSubTaskPool() {
+    if (subTaskPool != null) {
+      subTaskPool.shutdownNow();
+      subTaskPool = null;
+    }
   }
 
   @TestOnly
@@ -152,6 +171,11 @@ public class CompactionMergeTaskPoolManager implements IService {
     }
   }
 
+  /** @return the pool of the sub tasks, or null if compaction tasks do not run sub tasks */
+  public ExecutorService getSubTaskPool() {
+    return subTaskPool;
+  }
+
   public boolean isTerminated() {
     return pool == null || pool.isTerminated();
   }
@@ -29,6 +29,9 @@ import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metrics.source.EngineSource;
+import org.apache.iotdb.db.metrics.source.EngineSource.Event;
+import org.apache.iotdb.db.metrics.source.EngineSource.Stage;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
@@ -621,6 +624,7 @@ public class LevelCompactionTsFileManagement extends TsFileManagement {
 
             TsFileResource newResource = new TsFileResource(newLevelFile);
             List<Modification> modifications = new ArrayList<>();
+            long compactionStartTime = System.nanoTime();
             // merge, read from source files and write to target file
             CompactionUtils.merge(
                 newResource,
@@ -630,6 +634,11 @@ public class LevelCompactionTsFileManagement extends TsFileManagement {
                 new HashSet<>(),
                 sequence,
                 modifications);
+            EngineSource.getInstance().update(Stage.COMPACTION, compactionStartTime);
+            EngineSource.getInstance()
+                .mark(
+                    Event.COMPACTION_BYTES,
+                    toMergeTsFiles.stream().mapToLong(TsFileResource::getTsFileSize).sum());
             logger.info(
                 "{} [Compaction] merged level-{}'s {} TsFiles to next level, and start to delete old files",
                 storageGroupName,
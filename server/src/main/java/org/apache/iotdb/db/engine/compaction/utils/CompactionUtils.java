@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.engine.compaction.utils;
 
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.CompactionMergeTaskPoolManager;
 import org.apache.iotdb.db.engine.merge.manage.MergeManager;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
@@ -27,18 +28,32 @@ import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.rescon.ChunkWriterPool;
 import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.reader.BatchDataIterator;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderByTimestamp;
+import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
 import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.apache.iotdb.tsfile.write.writer.RestorableTsFileIOWriter;
 
 import com.google.common.util.concurrent.RateLimiter;
@@ -46,9 +61,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -56,6 +75,12 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.apache.iotdb.db.utils.MergeUtils.writeTVPair;
 import static org.apache.iotdb.db.utils.QueryUtils.modifyChunkMetaData;
@@ -178,24 +203,8 @@ public class CompactionUtils {
             modificationCache,
             new PartialPath(device, entry.getKey()),
             modifications);
-    boolean isChunkMetadataEmpty = true;
-    for (List<ChunkMetadata> chunkMetadataList : readerChunkMetadataMap.values()) {
-      if (!chunkMetadataList.isEmpty()) {
-        isChunkMetadataEmpty = false;
-        break;
-      }
-    }
-    if (isChunkMetadataEmpty) {
-      return maxVersion;
-    }
-    IChunkWriter chunkWriter;
-    try {
-      chunkWriter =
-          new ChunkWriterImpl(
-              IoTDB.metaManager.getSeriesSchema(new PartialPath(device), entry.getKey()), true);
-    } catch (MetadataException e) {
-      // this may caused in IT by restart
-      logger.error("{} get schema {} error,skip this sensor", device, entry.getKey());
+    ChunkWriterImpl chunkWriter = createChunkWriter(device, entry.getKey(), readerChunkMetadataMap);
+    if (chunkWriter == null) {
       return maxVersion;
     }
     for (TimeValuePair timeValuePair : timeValuePairMap.values()) {
@@ -206,9 +215,196 @@ public class CompactionUtils {
     // wait for limit write
     MergeManager.mergeRateLimiterAcquire(compactionRateLimiter, chunkWriter.getCurrentChunkSize());
     chunkWriter.writeToFileWriter(writer);
+    ChunkWriterPool.getInstance().release(chunkWriter);
+    return maxVersion;
+  }
+
+  /**
+   * Merge the chunks of a series, which are in time order without overlapping, by appending their
+   * pages to one chunk without decompressing or decoding them. Only the pages overlapping
+   * deletions, or in another encoding or compression than the schema, are decoded and re-encoded.
+   */
+  public static long writeByPageMerge(
+      long maxVersion,
+      String device,
+      RateLimiter compactionWriteRateLimiter,
+      Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry,
+      TsFileResource targetResource,
+      RestorableTsFileIOWriter writer,
+      Map<String, List<Modification>> modificationCache,
+      List<Modification> modifications)
+      throws IOException, IllegalPathException {
+    ChunkWriterImpl chunkWriter = readByPageMerge(device, entry, modificationCache, modifications);
+    if (chunkWriter == null) {
+      return maxVersion;
+    }
+    for (List<ChunkMetadata> chunkMetadataList : entry.getValue().values()) {
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        maxVersion = Math.max(chunkMetadata.getVersion(), maxVersion);
+      }
+    }
+    Statistics<?> statistics = chunkWriter.getStatistics();
+    if (statistics.getCount() > 0) {
+      targetResource.updateStartTime(device, statistics.getStartTime());
+      targetResource.updateEndTime(device, statistics.getEndTime());
+    }
+    // wait for limit write
+    MergeManager.mergeRateLimiterAcquire(
+        compactionWriteRateLimiter, chunkWriter.getCurrentChunkSize());
+    chunkWriter.writeToFileWriter(writer);
+    ChunkWriterPool.getInstance().release(chunkWriter);
     return maxVersion;
   }
 
+  /** @return the chunk writer with all the pages sealed, or null if the series has no schema */
+  private static ChunkWriterImpl readByPageMerge(
+      String device,
+      Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry,
+      Map<String, List<Modification>> modificationCache,
+      List<Modification> modifications)
+      throws IOException, IllegalPathException {
+    MeasurementSchema schema = getSeriesSchema(device, entry.getKey());
+    if (schema == null) {
+      return null;
+    }
+    ChunkWriterImpl chunkWriter = ChunkWriterPool.getInstance().acquire(schema, true);
+    PartialPath seriesPath = new PartialPath(device, entry.getKey());
+    for (Entry<TsFileSequenceReader, List<ChunkMetadata>> readerEntry :
+        entry.getValue().entrySet()) {
+      TsFileSequenceReader reader = readerEntry.getKey();
+      List<ChunkMetadata> chunkMetadataList = readerEntry.getValue();
+      modifyChunkMetaDataWithCache(
+          reader, chunkMetadataList, modificationCache, seriesPath, modifications);
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        appendPages(reader.readMemChunk(chunkMetadata), schema, chunkWriter);
+      }
+    }
+    chunkWriter.sealCurrentPage();
+    return chunkWriter;
+  }
+
+  private static void appendPages(
+      Chunk chunk, MeasurementSchema schema, ChunkWriterImpl chunkWriter) throws IOException {
+    ChunkHeader chunkHeader = chunk.getHeader();
+    if (chunk.isFromOldFile()
+        || chunkHeader.getDataType() != schema.getType()
+        || chunkHeader.getEncodingType() != schema.getEncodingType()
+        || chunkHeader.getCompressionType() != schema.getCompressor()) {
+      // the pages cannot be reused as they are
+      IChunkReader chunkReader = new ChunkReaderByTimestamp(chunk);
+      while (chunkReader.hasNextSatisfiedPage()) {
+        writeBatchData(chunkReader.nextPageData(), chunkWriter);
+      }
+      return;
+    }
+    ByteBuffer chunkData = chunk.getData().duplicate();
+    while (chunkData.hasRemaining()) {
+      PageHeader pageHeader;
+      if (chunkHeader.getChunkType() == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER) {
+        pageHeader = PageHeader.deserializeFrom(chunkData, chunk.getChunkStatistic());
+      } else {
+        pageHeader = PageHeader.deserializeFrom(chunkData, chunkHeader.getDataType());
+      }
+      ByteBuffer pageData = chunkData.slice();
+      pageData.limit(pageHeader.getCompressedSize());
+      chunkData.position(chunkData.position() + pageHeader.getCompressedSize());
+      if (isPageModified(pageHeader, chunk.getDeleteIntervalList())) {
+        writeBatchData(decodePage(chunkHeader, pageHeader, pageData, chunk), chunkWriter);
+      } else {
+        chunkWriter.appendPage(pageHeader, pageData);
+      }
+    }
+  }
+
+  private static boolean isPageModified(PageHeader pageHeader, List<TimeRange> deleteIntervals) {
+    if (deleteIntervals != null) {
+      TimeRange pageTimeRange = new TimeRange(pageHeader.getStartTime(), pageHeader.getEndTime());
+      for (TimeRange deleteInterval : deleteIntervals) {
+        if (deleteInterval.overlaps(pageTimeRange)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /** @return the points of the page that are not deleted */
+  private static BatchData decodePage(
+      ChunkHeader chunkHeader, PageHeader pageHeader, ByteBuffer pageData, Chunk chunk)
+      throws IOException {
+    byte[] compressedPageData = new byte[pageHeader.getCompressedSize()];
+    pageData.duplicate().get(compressedPageData);
+    byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
+    IUnCompressor.getUnCompressor(chunkHeader.getCompressionType())
+        .uncompress(compressedPageData, 0, compressedPageData.length, uncompressedPageData, 0);
+    PageReader pageReader =
+        new PageReader(
+            pageHeader,
+            ByteBuffer.wrap(uncompressedPageData),
+            chunkHeader.getDataType(),
+            Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType()),
+            Decoder.getDecoderByType(
+                TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
+                TSDataType.INT64),
+            null);
+    pageReader.setDeleteIntervalList(chunk.getDeleteIntervalList());
+    return pageReader.getAllSatisfiedPageData();
+  }
+
+  private static void writeBatchData(BatchData batchData, IChunkWriter chunkWriter) {
+    IPointReader pointReader = new BatchDataIterator(batchData);
+    while (pointReader.hasNextTimeValuePair()) {
+      writeTVPair(pointReader.nextTimeValuePair(), chunkWriter);
+    }
+  }
+
+  /** @return whether a chunk is not after all the chunks before it in the order of the files */
+  private static boolean isChunkOverlapped(
+      Map<TsFileSequenceReader, List<ChunkMetadata>> readerChunkMetadataMap) {
+    long lastEndTime = Long.MIN_VALUE;
+    for (List<ChunkMetadata> chunkMetadataList : readerChunkMetadataMap.values()) {
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        if (chunkMetadata.getStartTime() <= lastEndTime) {
+          return true;
+        }
+        lastEndTime = chunkMetadata.getEndTime();
+      }
+    }
+    return false;
+  }
+
+  /** @return the schema of the series, or null if it is deleted */
+  private static MeasurementSchema getSeriesSchema(String device, String measurement)
+      throws IllegalPathException {
+    try {
+      return IoTDB.metaManager.getSeriesSchema(new PartialPath(device), measurement);
+    } catch (MetadataException e) {
+      // this may caused in IT by restart
+      logger.error("{} get schema {} error,skip this sensor", device, measurement);
+      return null;
+    }
+  }
+
+  /** @return a chunk writer of the series, or null if it has no chunk or schema */
+  private static ChunkWriterImpl createChunkWriter(
+      String device,
+      String measurement,
+      Map<TsFileSequenceReader, List<ChunkMetadata>> readerChunkMetadataMap)
+      throws IllegalPathException {
+    boolean isChunkMetadataEmpty = true;
+    for (List<ChunkMetadata> chunkMetadataList : readerChunkMetadataMap.values()) {
+      if (!chunkMetadataList.isEmpty()) {
+        isChunkMetadataEmpty = false;
+        break;
+      }
+    }
+    if (isChunkMetadataEmpty) {
+      return null;
+    }
+    MeasurementSchema schema = getSeriesSchema(device, measurement);
+    return schema == null ? null : ChunkWriterPool.getInstance().acquire(schema, true);
+  }
+
   private static Set<String> getTsFileDevicesSet(
       List<TsFileResource> subLevelResources,
       Map<String, TsFileSequenceReader> tsFileSequenceReaderMap,
@@ -249,90 +445,39 @@ public class CompactionUtils {
     RateLimiter compactionWriteRateLimiter = MergeManager.getINSTANCE().getMergeWriteRateLimiter();
     Set<String> tsFileDevicesMap =
         getTsFileDevicesSet(tsFileResources, tsFileSequenceReaderMap, storageGroup);
-    for (String device : tsFileDevicesMap) {
-      if (devices.contains(device)) {
-        continue;
-      }
-      writer.startChunkGroup(device);
-      // sort chunkMeta by measurement
-      Map<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> measurementChunkMetadataMap =
-          new HashMap<>();
-      for (TsFileResource levelResource : tsFileResources) {
-        TsFileSequenceReader reader =
-            buildReaderFromTsFileResource(levelResource, tsFileSequenceReaderMap, storageGroup);
-        if (reader == null) {
-          continue;
-        }
-        Map<String, List<ChunkMetadata>> chunkMetadataMap =
-            reader.readChunkMetadataInDevice(device);
-        for (Entry<String, List<ChunkMetadata>> entry : chunkMetadataMap.entrySet()) {
-          for (ChunkMetadata chunkMetadata : entry.getValue()) {
-            Map<TsFileSequenceReader, List<ChunkMetadata>> readerChunkMetadataMap;
-            String measurementUid = chunkMetadata.getMeasurementUid();
-            if (measurementChunkMetadataMap.containsKey(measurementUid)) {
-              readerChunkMetadataMap = measurementChunkMetadataMap.get(measurementUid);
-            } else {
-              readerChunkMetadataMap = new LinkedHashMap<>();
-            }
-            List<ChunkMetadata> chunkMetadataList;
-            if (readerChunkMetadataMap.containsKey(reader)) {
-              chunkMetadataList = readerChunkMetadataMap.get(reader);
-            } else {
-              chunkMetadataList = new ArrayList<>();
-            }
-            chunkMetadataList.add(chunkMetadata);
-            readerChunkMetadataMap.put(reader, chunkMetadataList);
-            measurementChunkMetadataMap.put(
-                chunkMetadata.getMeasurementUid(), readerChunkMetadataMap);
-          }
+    ExecutorService subTaskPool = CompactionMergeTaskPoolManager.getInstance().getSubTaskPool();
+    if (subTaskPool != null) {
+      List<String> devicesToMerge = new ArrayList<>();
+      for (String device : tsFileDevicesMap) {
+        if (!devices.contains(device)) {
+          devicesToMerge.add(device);
         }
       }
-      if (!sequence) {
-        long maxVersion = Long.MIN_VALUE;
-        for (Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry :
-            measurementChunkMetadataMap.entrySet()) {
-          maxVersion =
-              writeByDeserializeMerge(
-                  maxVersion,
-                  device,
-                  compactionWriteRateLimiter,
-                  entry,
-                  targetResource,
-                  writer,
-                  modificationCache,
-                  modifications);
+      mergeConcurrently(
+          subTaskPool,
+          targetResource,
+          tsFileResources,
+          devicesToMerge,
+          storageGroup,
+          compactionLogger,
+          sequence,
+          writer,
+          compactionWriteRateLimiter,
+          modifications);
+    } else {
+      for (String device : tsFileDevicesMap) {
+        if (devices.contains(device)) {
+          continue;
         }
-        writer.endChunkGroup();
-      } else {
-        long maxVersion = Long.MIN_VALUE;
-        for (Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry :
-            measurementChunkMetadataMap.entrySet()) {
-          Map<TsFileSequenceReader, List<ChunkMetadata>> readerChunkMetadatasMap = entry.getValue();
-          boolean isPageEnoughLarge = true;
-          for (List<ChunkMetadata> chunkMetadatas : readerChunkMetadatasMap.values()) {
-            for (ChunkMetadata chunkMetadata : chunkMetadatas) {
-              if (chunkMetadata.getNumOfPoints() < MERGE_PAGE_POINT_NUM) {
-                isPageEnoughLarge = false;
-                break;
-              }
-            }
-          }
-          if (isPageEnoughLarge) {
-            logger.debug("{} [Compaction] page enough large, use append merge", storageGroup);
-            // append page in chunks, so we do not have to deserialize a chunk
-            maxVersion =
-                writeByAppendMerge(
-                    maxVersion,
-                    device,
-                    compactionWriteRateLimiter,
-                    entry,
-                    targetResource,
-                    writer,
-                    modificationCache,
-                    modifications);
-          } else {
-            logger.debug("{} [Compaction] page too small, use deserialize merge", storageGroup);
-            // we have to deserialize chunks to merge pages
+        writer.startChunkGroup(device);
+        // sort chunkMeta by measurement
+        Map<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> measurementChunkMetadataMap =
+            getMeasurementChunkMetadataMap(
+                device, tsFileResources, tsFileSequenceReaderMap, storageGroup);
+        if (!sequence) {
+          long maxVersion = Long.MIN_VALUE;
+          for (Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry :
+              measurementChunkMetadataMap.entrySet()) {
             maxVersion =
                 writeByDeserializeMerge(
                     maxVersion,
@@ -344,11 +489,57 @@ public class CompactionUtils {
                     modificationCache,
                     modifications);
           }
+          writer.endChunkGroup();
+        } else {
+          long maxVersion = Long.MIN_VALUE;
+          for (Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry :
+              measurementChunkMetadataMap.entrySet()) {
+            if (isPageEnoughLarge(entry.getValue())) {
+              logger.debug("{} [Compaction] page enough large, use append merge", storageGroup);
+              // append page in chunks, so we do not have to deserialize a chunk
+              maxVersion =
+                  writeByAppendMerge(
+                      maxVersion,
+                      device,
+                      compactionWriteRateLimiter,
+                      entry,
+                      targetResource,
+                      writer,
+                      modificationCache,
+                      modifications);
+            } else if (!isChunkOverlapped(entry.getValue())) {
+              logger.debug("{} [Compaction] page too small, use page merge", storageGroup);
+              // append the pages of small chunks to one chunk, without decoding them
+              maxVersion =
+                  writeByPageMerge(
+                      maxVersion,
+                      device,
+                      compactionWriteRateLimiter,
+                      entry,
+                      targetResource,
+                      writer,
+                      modificationCache,
+                      modifications);
+            } else {
+              logger.debug("{} [Compaction] page too small, use deserialize merge", storageGroup);
+              // we have to deserialize chunks to merge pages
+              maxVersion =
+                  writeByDeserializeMerge(
+                      maxVersion,
+                      device,
+                      compactionWriteRateLimiter,
+                      entry,
+                      targetResource,
+                      writer,
+                      modificationCache,
+                      modifications);
+            }
+          }
+          writer.endChunkGroup();
+        }
+        if (compactionLogger != null) {
+          compactionLogger.logDevice(device, writer.getPos());
         }
-        writer.endChunkGroup();
-      }
-      if (compactionLogger != null) {
-        compactionLogger.logDevice(device, writer.getPos());
       }
     }
 
@@ -364,6 +555,329 @@ public class CompactionUtils {
     targetResource.close();
   }
 
+  private static Map<String, Map<TsFileSequenceReader, List<ChunkMetadata>>>
+      getMeasurementChunkMetadataMap(
+          String device,
+          List<TsFileResource> tsFileResources,
+          Map<String, TsFileSequenceReader> tsFileSequenceReaderMap,
+          String storageGroup)
+          throws IOException {
+    Map<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> measurementChunkMetadataMap =
+        new HashMap<>();
+    for (TsFileResource levelResource : tsFileResources) {
+      TsFileSequenceReader reader =
+          buildReaderFromTsFileResource(levelResource, tsFileSequenceReaderMap, storageGroup);
+      if (reader == null) {
+        continue;
+      }
+      Map<String, List<ChunkMetadata>> chunkMetadataMap = reader.readChunkMetadataInDevice(device);
+      for (Entry<String, List<ChunkMetadata>> entry : chunkMetadataMap.entrySet()) {
+        for (ChunkMetadata chunkMetadata : entry.getValue()) {
+          Map<TsFileSequenceReader, List<ChunkMetadata>> readerChunkMetadataMap;
+          String measurementUid = chunkMetadata.getMeasurementUid();
+          if (measurementChunkMetadataMap.containsKey(measurementUid)) {
+            readerChunkMetadataMap = measurementChunkMetadataMap.get(measurementUid);
+          } else {
+            readerChunkMetadataMap = new LinkedHashMap<>();
+          }
+          List<ChunkMetadata> chunkMetadataList;
+          if (readerChunkMetadataMap.containsKey(reader)) {
+            chunkMetadataList = readerChunkMetadataMap.get(reader);
+          } else {
+            chunkMetadataList = new ArrayList<>();
+          }
+          chunkMetadataList.add(chunkMetadata);
+          readerChunkMetadataMap.put(reader, chunkMetadataList);
+          measurementChunkMetadataMap.put(
+              chunkMetadata.getMeasurementUid(), readerChunkMetadataMap);
+        }
+      }
+    }
+    return measurementChunkMetadataMap;
+  }
+
+  private static boolean isPageEnoughLarge(
+      Map<TsFileSequenceReader, List<ChunkMetadata>> readerChunkMetadatasMap) {
+    for (List<ChunkMetadata> chunkMetadatas : readerChunkMetadatasMap.values()) {
+      for (ChunkMetadata chunkMetadata : chunkMetadatas) {
+        if (chunkMetadata.getNumOfPoints() < MERGE_PAGE_POINT_NUM) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Merge the devices with sub tasks, each of which reads, merges and re-encodes the chunks of a
+   * device, while this thread writes the compacted chunk groups to the target file in the order of
+   * the devices. At most compaction_subthread_num devices are compacted ahead of the writing, each
+   * by a sub task with its own readers of the source files. If the compaction fails, the sub tasks
+   * stop before their next series and are waited for before the readers are closed. They are not
+   * interrupted, because an interrupted read closes the file channel of the reader.
+   */
+  @SuppressWarnings("squid:S107") // Suppress too many parameters warning
+  private static void mergeConcurrently(
+      ExecutorService subTaskPool,
+      TsFileResource targetResource,
+      List<TsFileResource> tsFileResources,
+      List<String> devices,
+      String storageGroup,
+      CompactionLogger compactionLogger,
+      boolean sequence,
+      RestorableTsFileIOWriter writer,
+      RateLimiter compactionWriteRateLimiter,
+      List<Modification> modifications)
+      throws IOException, IllegalPathException {
+    int subTaskNum =
+        Math.max(1, IoTDBDescriptor.getInstance().getConfig().getCompactionSubThreadNum());
+    List<SourceReaders> allSourceReaders = new ArrayList<>(subTaskNum);
+    BlockingQueue<SourceReaders> idleSourceReaders = new ArrayBlockingQueue<>(subTaskNum);
+    for (int i = 0; i < subTaskNum; i++) {
+      SourceReaders sourceReaders = new SourceReaders();
+      allSourceReaders.add(sourceReaders);
+      idleSourceReaders.add(sourceReaders);
+    }
+    Deque<Future<CompactedDevice>> futures = new ArrayDeque<>(subTaskNum);
+    AtomicBoolean aborted = new AtomicBoolean();
+    Iterator<String> deviceIterator = devices.iterator();
+    try {
+      while (deviceIterator.hasNext() || !futures.isEmpty()) {
+        while (deviceIterator.hasNext() && futures.size() < subTaskNum) {
+          String device = deviceIterator.next();
+          futures.add(
+              subTaskPool.submit(
+                  () ->
+                      compactDevice(
+                          device,
+                          tsFileResources,
+                          storageGroup,
+                          sequence,
+                          idleSourceReaders,
+                          aborted)));
+        }
+        CompactedDevice compactedDevice = getCompactedDevice(futures.poll());
+        writeCompactedDevice(compactedDevice, targetResource, writer, compactionWriteRateLimiter);
+        modifications.addAll(compactedDevice.modifications);
+        if (compactionLogger != null) {
+          compactionLogger.logDevice(compactedDevice.device, writer.getPos());
+        }
+      }
+    } finally {
+      // the futures are left only if the compaction fails
+      aborted.set(true);
+      for (Future<CompactedDevice> future : futures) {
+        CompactedDevice compactedDevice = waitForSubTask(future);
+        if (compactedDevice != null) {
+          releaseChunkWriters(compactedDevice);
+        }
+      }
+      for (SourceReaders sourceReaders : allSourceReaders) {
+        for (TsFileSequenceReader reader : sourceReaders.readerMap.values()) {
+          reader.close();
+        }
+      }
+    }
+  }
+
+  private static CompactedDevice getCompactedDevice(Future<CompactedDevice> future)
+      throws IOException, IllegalPathException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted when waiting for a compaction sub task", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof IllegalPathException) {
+        throw (IllegalPathException) cause;
+      }
+      throw new IOException("A compaction sub task failed", cause);
+    }
+  }
+
+  /**
+   * Wait until a sub task is finished, ignoring its failure and interrupts of this thread.
+   *
+   * @return the compacted device, or null if the sub task failed
+   */
+  private static CompactedDevice waitForSubTask(Future<CompactedDevice> future) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return future.get();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          return null;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static void releaseChunkWriters(CompactedDevice compactedDevice) {
+    for (ChunkWriterImpl chunkWriter : compactedDevice.chunkWriters) {
+      ChunkWriterPool.getInstance().release(chunkWriter);
+    }
+    compactedDevice.chunkWriters.clear();
+  }
+
+  /**
+   * run by a sub task, which takes a set of idle readers and returns it after compacting. The
+   * device is compacted partially if the compaction is aborted.
+   */
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  private static CompactedDevice compactDevice(
+      String device,
+      List<TsFileResource> tsFileResources,
+      String storageGroup,
+      boolean sequence,
+      BlockingQueue<SourceReaders> idleSourceReaders,
+      AtomicBoolean aborted)
+      throws IOException, IllegalPathException, InterruptedException {
+    CompactedDevice compactedDevice = new CompactedDevice(device);
+    if (aborted.get()) {
+      return compactedDevice;
+    }
+    SourceReaders sourceReaders = idleSourceReaders.take();
+    boolean compacted = false;
+    try {
+      Map<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> measurementChunkMetadataMap =
+          getMeasurementChunkMetadataMap(
+              device, tsFileResources, sourceReaders.readerMap, storageGroup);
+      for (Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry :
+          measurementChunkMetadataMap.entrySet()) {
+        if (aborted.get()) {
+          break;
+        }
+        PartialPath seriesPath = new PartialPath(device, entry.getKey());
+        if (sequence && isPageEnoughLarge(entry.getValue())) {
+          // append page in chunks, so we do not have to deserialize a chunk
+          Pair<ChunkMetadata, Chunk> chunkPair =
+              readByAppendMerge(
+                  entry.getValue(),
+                  sourceReaders.modificationCache,
+                  seriesPath,
+                  compactedDevice.modifications);
+          if (chunkPair.left != null && chunkPair.right != null) {
+            compactedDevice.chunks.add(chunkPair);
+          }
+        } else if (sequence && !isChunkOverlapped(entry.getValue())) {
+          // append the pages of small chunks to one chunk, without decoding them
+          ChunkWriterImpl chunkWriter =
+              readByPageMerge(
+                  device, entry, sourceReaders.modificationCache, compactedDevice.modifications);
+          if (chunkWriter != null) {
+            Statistics<?> statistics = chunkWriter.getStatistics();
+            if (statistics.getCount() > 0) {
+              compactedDevice.updateTime(statistics.getStartTime());
+              compactedDevice.updateTime(statistics.getEndTime());
+            }
+            compactedDevice.chunkWriters.add(chunkWriter);
+          }
+        } else {
+          // we have to deserialize chunks to merge pages
+          Map<Long, TimeValuePair> timeValuePairMap = new TreeMap<>();
+          readByDeserializeMerge(
+              entry.getValue(),
+              Long.MIN_VALUE,
+              timeValuePairMap,
+              sourceReaders.modificationCache,
+              seriesPath,
+              compactedDevice.modifications);
+          ChunkWriterImpl chunkWriter = createChunkWriter(device, entry.getKey(), entry.getValue());
+          if (chunkWriter != null) {
+            for (TimeValuePair timeValuePair : timeValuePairMap.values()) {
+              writeTVPair(timeValuePair, chunkWriter);
+              compactedDevice.updateTime(timeValuePair.getTimestamp());
+            }
+            compactedDevice.chunkWriters.add(chunkWriter);
+          }
+        }
+      }
+      compacted = true;
+      return compactedDevice;
+    } finally {
+      if (!compacted) {
+        releaseChunkWriters(compactedDevice);
+      }
+      idleSourceReaders.add(sourceReaders);
+    }
+  }
+
+  private static void writeCompactedDevice(
+      CompactedDevice compactedDevice,
+      TsFileResource targetResource,
+      RestorableTsFileIOWriter writer,
+      RateLimiter compactionWriteRateLimiter)
+      throws IOException {
+    String device = compactedDevice.device;
+    writer.startChunkGroup(device);
+    try {
+      for (Pair<ChunkMetadata, Chunk> chunkPair : compactedDevice.chunks) {
+        ChunkMetadata chunkMetadata = chunkPair.left;
+        Chunk chunk = chunkPair.right;
+        // wait for limit write
+        MergeManager.mergeRateLimiterAcquire(
+            compactionWriteRateLimiter,
+            (long) chunk.getHeader().getDataSize() + chunk.getData().position());
+        writer.writeChunk(chunk, chunkMetadata);
+        targetResource.updateStartTime(device, chunkMetadata.getStartTime());
+        targetResource.updateEndTime(device, chunkMetadata.getEndTime());
+      }
+      for (ChunkWriterImpl chunkWriter : compactedDevice.chunkWriters) {
+        // wait for limit write
+        MergeManager.mergeRateLimiterAcquire(
+            compactionWriteRateLimiter, chunkWriter.getCurrentChunkSize());
+        chunkWriter.writeToFileWriter(writer);
+      }
+    } finally {
+      releaseChunkWriters(compactedDevice);
+    }
+    if (compactedDevice.startTime <= compactedDevice.endTime) {
+      targetResource.updateStartTime(device, compactedDevice.startTime);
+      targetResource.updateEndTime(device, compactedDevice.endTime);
+    }
+    writer.endChunkGroup();
+  }
+
+  /** The readers of the source files and their modifications used by one sub task at a time. */
+  private static class SourceReaders {
+
+    private final Map<String, TsFileSequenceReader> readerMap = new HashMap<>();
+    private final Map<String, List<Modification>> modificationCache = new HashMap<>();
+  }
+
+  /** The chunks of a device read and re-encoded by a sub task, to be written to the target. */
+  private static class CompactedDevice {
+
+    private final String device;
+    /** chunks merged without deserialization */
+    private final List<Pair<ChunkMetadata, Chunk>> chunks = new ArrayList<>();
+    /** chunks merged by deserializing the points */
+    private final List<ChunkWriterImpl> chunkWriters = new ArrayList<>();
+
+    private final List<Modification> modifications = new ArrayList<>();
+    private long startTime = Long.MAX_VALUE;
+    private long endTime = Long.MIN_VALUE;
+
+    private CompactedDevice(String device) {
+      this.device = device;
+    }
+
+    private void updateTime(long time) {
+      startTime = Math.min(startTime, time);
+      endTime = Math.max(endTime, time);
+    }
+  }
+
   private static TsFileSequenceReader buildReaderFromTsFileResource(
       TsFileResource levelResource,
       Map<String, TsFileSequenceReader> tsFileSequenceReaderMap,
@@ -24,6 +24,10 @@ import org.apache.iotdb.db.engine.flush.pool.FlushSubTaskPoolManager;
 import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.memtable.IWritableMemChunk;
 import org.apache.iotdb.db.exception.runtime.FlushRunTimeException;
+import org.apache.iotdb.db.metrics.source.EngineSource;
+import org.apache.iotdb.db.metrics.source.EngineSource.Event;
+import org.apache.iotdb.db.metrics.source.EngineSource.Stage;
+import org.apache.iotdb.db.rescon.ChunkWriterPool;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -41,6 +45,7 @@ import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 public class MemTableFlushTask {
 
@@ -145,8 +150,16 @@ public class MemTableFlushTask {
         SystemInfo.getInstance().releaseTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
       }
       SystemInfo.getInstance().setEncodingFasterThanIo(ioTime >= memSerializeTime);
+      SystemInfo.getInstance().updateFlushTime(System.currentTimeMillis() - start);
     }
 
+    EngineSource engineSource = EngineSource.getInstance();
+    engineSource.update(Stage.FLUSH_SORT, sortTime, TimeUnit.MILLISECONDS);
+    engineSource.update(Stage.FLUSH_ENCODE, memSerializeTime, TimeUnit.MILLISECONDS);
+    engineSource.update(Stage.FLUSH_IO, ioTime, TimeUnit.MILLISECONDS);
+    engineSource.update(Stage.FLUSH, System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
+    engineSource.mark(Event.FLUSH_POINTS, memTable.getTotalPointsNum());
+
     LOGGER.info(
         "Storage group {} memtable {} flushing a memtable has finished! Time consumption: {}ms",
         storageGroup,
@@ -235,10 +248,12 @@ public class MemTableFlushTask {
               long starTime = System.currentTimeMillis();
               Pair<TVList, MeasurementSchema> encodingMessage =
                   (Pair<TVList, MeasurementSchema>) task;
-              IChunkWriter seriesWriter = new ChunkWriterImpl(encodingMessage.right);
+              // the writer is released to the pool by the io task
+              ChunkWriterImpl seriesWriter =
+                  ChunkWriterPool.getInstance().acquire(encodingMessage.right, false);
               writeOneSeries(encodingMessage.left, seriesWriter, encodingMessage.right.getType());
-              seriesWriter.sealCurrentPage();
-              seriesWriter.clearPageWriter();
+              // the queued writer only keeps the chunk data, and the page buffers are reused
+              ChunkWriterPool.getInstance().releasePageWriter(seriesWriter);
               try {
                 ioTaskQueue.put(seriesWriter);
               } catch (InterruptedException e) {
@@ -288,6 +303,7 @@ public class MemTableFlushTask {
             } else if (ioMessage instanceof IChunkWriter) {
               ChunkWriterImpl chunkWriter = (ChunkWriterImpl) ioMessage;
               chunkWriter.writeToFileWriter(this.writer);
+              ChunkWriterPool.getInstance().release(chunkWriter);
             } else {
               this.writer.setMinPlanIndex(memTable.getMinPlanIndex());
               this.writer.setMaxPlanIndex(memTable.getMaxPlanIndex());
@@ -288,11 +288,15 @@ public abstract class AbstractMemTable implements IMemTable {
       IWritableMemChunk chunk = entry.getValue();
       PartialPath fullPath = devicePath.concatNode(entry.getKey());
       if (originalPath.matchFullPath(fullPath)) {
-        if (startTimestamp == Long.MIN_VALUE && endTimestamp == Long.MAX_VALUE) {
+        boolean deleteAll = startTimestamp == Long.MIN_VALUE && endTimestamp == Long.MAX_VALUE;
+        if (deleteAll) {
           iter.remove();
         }
         int deletedPointsNumber = chunk.delete(startTimestamp, endTimestamp);
         totalPointsNum -= deletedPointsNumber;
+        if (deleteAll) {
+          chunk.getTVList().clearAfterQueries();
+        }
       }
     }
   }
@@ -319,6 +323,8 @@ public abstract class AbstractMemTable implements IMemTable {
         TVList list = subEntry.getValue().getTVList();
         if (list.getReferenceCount() == 0) {
           TVListAllocator.getInstance().release(list);
+        } else {
+          list.clearAfterQueries();
         }
       }
     }
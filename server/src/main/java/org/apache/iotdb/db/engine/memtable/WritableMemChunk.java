@@ -163,7 +163,9 @@ public class WritableMemChunk implements IWritableMemChunk {
   private void sortTVList() {
     // check reference count
     if ((list.getReferenceCount() > 0 && !list.isSorted())) {
+      TVList queriedList = list;
       list = list.clone();
+      queriedList.clearAfterQueries();
     }
 
     if (!list.isSorted()) {
@@ -204,15 +206,17 @@ public class WritableMemChunk implements IWritableMemChunk {
 
   @Override
   public String toString() {
-    int size = getSortedTVListForQuery().size();
+    // not for a query, whose end would decrease the reference count
+    TVList sortedList = getSortedTVListForFlush();
+    int size = sortedList.size();
     StringBuilder out = new StringBuilder("MemChunk Size: " + size + System.lineSeparator());
     if (size != 0) {
       out.append("Data type:").append(schema.getType()).append(System.lineSeparator());
       out.append("First point:")
-          .append(getSortedTVListForQuery().getTimeValuePair(0))
+          .append(sortedList.getTimeValuePair(0))
           .append(System.lineSeparator());
       out.append("Last point:")
-          .append(getSortedTVListForQuery().getTimeValuePair(size - 1))
+          .append(sortedList.getTimeValuePair(size - 1))
           .append(System.lineSeparator());
     }
     return out.toString();
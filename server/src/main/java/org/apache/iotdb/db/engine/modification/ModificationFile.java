@@ -19,9 +19,13 @@
 
 package org.apache.iotdb.db.engine.modification;
 
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.engine.cache.ModificationCache;
+import org.apache.iotdb.db.engine.modification.io.LocalBinaryModificationAccessor;
 import org.apache.iotdb.db.engine.modification.io.LocalTextModificationAccessor;
 import org.apache.iotdb.db.engine.modification.io.ModificationReader;
 import org.apache.iotdb.db.engine.modification.io.ModificationWriter;
+import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 
@@ -35,12 +39,17 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 /**
  * ModificationFile stores the Modifications of a TsFile or unseq file in another file in the same
- * directory. Methods in this class are highly synchronized for concurrency safety.
+ * directory. New files are written in binary format, while files written in text format by older
+ * versions are still read and appended in text format. Methods in this class are highly
+ * synchronized for concurrency safety.
  */
 public class ModificationFile implements AutoCloseable {
 
@@ -48,6 +57,12 @@ public class ModificationFile implements AutoCloseable {
   public static final String FILE_SUFFIX = ".mods";
 
   private List<Modification> modifications;
+  // full path of a deletion without wildcards -> indexes of such deletions in modifications
+  private Map<String, List<Integer>> plainPathIndex;
+  // indexes of the deletions with wildcards in modifications
+  private List<Integer> patternPathIndex;
+  // increased whenever the modifications may change, to validate the cached modifications
+  private volatile long version;
   private ModificationWriter writer;
   private ModificationReader reader;
   private String filePath;
@@ -59,9 +74,16 @@ public class ModificationFile implements AutoCloseable {
    * @param filePath the path of the storage file.
    */
   public ModificationFile(String filePath) {
-    LocalTextModificationAccessor accessor = new LocalTextModificationAccessor(filePath);
-    this.writer = accessor;
-    this.reader = accessor;
+    if (LocalBinaryModificationAccessor.isBinaryFile(
+        FSFactoryProducer.getFSFactory().getFile(filePath))) {
+      LocalBinaryModificationAccessor accessor = new LocalBinaryModificationAccessor(filePath);
+      this.writer = accessor;
+      this.reader = accessor;
+    } else {
+      LocalTextModificationAccessor accessor = new LocalTextModificationAccessor(filePath);
+      this.writer = accessor;
+      this.reader = accessor;
+    }
     this.filePath = filePath;
   }
 
@@ -83,6 +105,9 @@ public class ModificationFile implements AutoCloseable {
     synchronized (this) {
       writer.close();
       modifications = null;
+      plainPathIndex = null;
+      patternPathIndex = null;
+      version++;
     }
   }
 
@@ -91,6 +116,9 @@ public class ModificationFile implements AutoCloseable {
       if (!modifications.isEmpty()) {
         writer.abort();
         modifications.remove(modifications.size() - 1);
+        plainPathIndex = null;
+        patternPathIndex = null;
+        version++;
       }
     }
   }
@@ -107,6 +135,10 @@ public class ModificationFile implements AutoCloseable {
       checkInit();
       writer.write(mod);
       modifications.add(mod);
+      if (plainPathIndex != null) {
+        addToIndex(modifications.size() - 1);
+      }
+      version++;
     }
   }
 
@@ -122,6 +154,77 @@ public class ModificationFile implements AutoCloseable {
     }
   }
 
+  /**
+   * Get the modifications of the timeseries in the order they are written. Deletions of paths
+   * without wildcards are looked up by each prefix of the timeseries in an index built on the first
+   * call, so only deletions with wildcards are matched one by one.
+   *
+   * @param path a full path of a timeseries
+   * @return a new list of the modifications whose paths match the timeseries
+   */
+  public List<Modification> getPathModifications(PartialPath path) {
+    synchronized (this) {
+      checkInit();
+      if (plainPathIndex == null) {
+        plainPathIndex = new HashMap<>();
+        patternPathIndex = new ArrayList<>();
+        for (int i = 0; i < modifications.size(); i++) {
+          addToIndex(i);
+        }
+      }
+
+      List<Integer> indexes = new ArrayList<>();
+      String[] nodes = path.getNodes();
+      StringBuilder prefix = new StringBuilder();
+      for (int i = 0; i < nodes.length; i++) {
+        if (i > 0) {
+          prefix.append(IoTDBConstant.PATH_SEPARATOR);
+        }
+        prefix.append(nodes[i]);
+        List<Integer> prefixIndexes = plainPathIndex.get(prefix.toString());
+        if (prefixIndexes != null) {
+          indexes.addAll(prefixIndexes);
+        }
+      }
+      for (int index : patternPathIndex) {
+        if (modifications.get(index).getPath().matchFullPath(path)) {
+          indexes.add(index);
+        }
+      }
+      Collections.sort(indexes);
+
+      List<Modification> pathModifications = new ArrayList<>(indexes.size());
+      for (int index : indexes) {
+        pathModifications.add(modifications.get(index));
+      }
+      return pathModifications;
+    }
+  }
+
+  private void addToIndex(int index) {
+    PartialPath path = modifications.get(index).getPath();
+    for (String node : path.getNodes()) {
+      if (node.equals(IoTDBConstant.PATH_WILDCARD)) {
+        patternPathIndex.add(index);
+        return;
+      }
+    }
+    plainPathIndex.computeIfAbsent(path.getFullPath(), k -> new ArrayList<>()).add(index);
+  }
+
+  /**
+   * @return a number that changes whenever the modifications of this file may change, so results
+   *     of {@link #getPathModifications(PartialPath)} cached with a different version are stale
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /** @return the length of the storage file, which grows with each write or abort */
+  public long getFileLength() {
+    return FSFactoryProducer.getFSFactory().getFile(filePath).length();
+  }
+
   public String getFilePath() {
     return filePath;
   }
@@ -133,6 +236,7 @@ public class ModificationFile implements AutoCloseable {
   public void remove() throws IOException {
     close();
     FSFactoryProducer.getFSFactory().getFile(filePath).delete();
+    ModificationCache.getInstance().remove(filePath);
   }
 
   public boolean exists() {
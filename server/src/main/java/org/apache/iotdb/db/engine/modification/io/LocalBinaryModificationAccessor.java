@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification.io;
+
+import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * LocalBinaryModificationAccessor uses a file on local file system to store the modifications in
+ * binary format, and writes modifications by appending to the tail of the file. The file starts
+ * with {@link #MAGIC_BYTES}, followed by records of a one-byte type and the fields of the type:
+ *
+ * <ul>
+ *   <li>deletion: path (int length + bytes), file offset (long), start time (long), end time
+ *       (long)
+ *   <li>abort: no field, the last record is aborted
+ * </ul>
+ *
+ * <p>Compared with the text format, no number or path needs to be split and parsed from text.
+ */
+public class LocalBinaryModificationAccessor
+    implements ModificationReader, ModificationWriter, AutoCloseable {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(LocalBinaryModificationAccessor.class);
+
+  /** a text modification file never starts with a zero byte */
+  private static final byte[] MAGIC_BYTES = {0, 'M', 'O', 'D', 'S', 1};
+
+  private static final byte DELETION_RECORD = 0;
+  private static final byte ABORT_RECORD = 1;
+
+  private String filePath;
+  private DataOutputStream writer;
+
+  /**
+   * Construct a LocalBinaryModificationAccessor using a file specified by filePath.
+   *
+   * @param filePath the path of the file that is used for storing modifications.
+   */
+  public LocalBinaryModificationAccessor(String filePath) {
+    this.filePath = filePath;
+  }
+
+  /**
+   * @return false if the file exists in another format, e.g., the text format written by older
+   *     versions, true if it is in binary format or is empty
+   */
+  public static boolean isBinaryFile(File file) {
+    if (!file.exists() || file.length() == 0) {
+      return true;
+    }
+    byte[] header = new byte[MAGIC_BYTES.length];
+    try (InputStream inputStream =
+        FSFactoryProducer.getFSFactory().getBufferedInputStream(file.getPath())) {
+      return inputStream.read(header) == header.length && Arrays.equals(header, MAGIC_BYTES);
+    } catch (IOException e) {
+      logger.warn("Cannot read the header of modification file {}", file, e);
+      return true;
+    }
+  }
+
+  @Override
+  public Collection<Modification> read() {
+    File file = FSFactoryProducer.getFSFactory().getFile(filePath);
+    if (!file.exists() || file.length() == 0) {
+      logger.debug("No modification has been written to this file");
+      return new ArrayList<>();
+    }
+
+    List<Modification> modificationList = new ArrayList<>();
+    try (DataInputStream reader =
+        new DataInputStream(FSFactoryProducer.getFSFactory().getBufferedInputStream(filePath))) {
+      byte[] header = new byte[MAGIC_BYTES.length];
+      reader.readFully(header);
+      if (!Arrays.equals(header, MAGIC_BYTES)) {
+        throw new IOException("Not a binary modification file: " + filePath);
+      }
+      int type;
+      while ((type = reader.read()) != -1) {
+        if (type == ABORT_RECORD) {
+          if (!modificationList.isEmpty()) {
+            modificationList.remove(modificationList.size() - 1);
+          }
+        } else if (type == DELETION_RECORD) {
+          modificationList.add(readDeletion(reader));
+        } else {
+          throw new IOException("Unknown modification type: " + type);
+        }
+      }
+    } catch (EOFException e) {
+      logger.warn(
+          "The last modification in {} is incomplete and ignored, {} modifications are read",
+          filePath,
+          modificationList.size());
+    } catch (IOException e) {
+      logger.error(
+          "An error occurred when reading modifications, and the remaining modifications "
+              + "were ignored.",
+          e);
+    }
+    return modificationList;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (writer != null) {
+      writer.close();
+      writer = null;
+    }
+  }
+
+  @Override
+  public void abort() throws IOException {
+    openWriter();
+    writer.writeByte(ABORT_RECORD);
+    writer.flush();
+  }
+
+  @Override
+  public void write(Modification mod) throws IOException {
+    if (!(mod instanceof Deletion)) {
+      throw new IOException("Unknown modification type: " + mod.getType());
+    }
+    openWriter();
+    Deletion deletion = (Deletion) mod;
+    writer.writeByte(DELETION_RECORD);
+    byte[] path = deletion.getPathString().getBytes(TSFileConfig.STRING_CHARSET);
+    writer.writeInt(path.length);
+    writer.write(path);
+    writer.writeLong(deletion.getFileOffset());
+    writer.writeLong(deletion.getStartTime());
+    writer.writeLong(deletion.getEndTime());
+    writer.flush();
+  }
+
+  private void openWriter() throws IOException {
+    if (writer == null) {
+      File file = FSFactoryProducer.getFSFactory().getFile(filePath);
+      boolean isEmpty = !file.exists() || file.length() == 0;
+      writer = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+      if (isEmpty) {
+        writer.write(MAGIC_BYTES);
+      }
+    }
+  }
+
+  private Deletion readDeletion(DataInputStream reader) throws IOException {
+    int pathLength = reader.readInt();
+    if (pathLength < 0) {
+      throw new IOException("Invalid path length: " + pathLength);
+    }
+    byte[] pathBytes = new byte[pathLength];
+    reader.readFully(pathBytes);
+    String path = new String(pathBytes, TSFileConfig.STRING_CHARSET);
+    long fileOffset = reader.readLong();
+    long startTime = reader.readLong();
+    long endTime = reader.readLong();
+    try {
+      return new Deletion(new PartialPath(path), fileOffset, startTime, endTime);
+    } catch (IllegalPathException e) {
+      throw new IOException("Invalid series path: " + path);
+    }
+  }
+}
@@ -97,6 +97,11 @@ public class ReadOnlyMemChunk {
     initChunkMeta();
   }
 
+  /** called when the query ends, so that the list can be cleared after the memtable drops it */
+  public void release() {
+    chunkData.decreaseReferenceCount();
+  }
+
   private void initChunkMeta() throws IOException, QueryProcessException {
     Statistics statsByType = Statistics.getStatsByType(dataType);
     ChunkMetadata metaData = new ChunkMetadata(measurementUid, dataType, 0, statsByType);
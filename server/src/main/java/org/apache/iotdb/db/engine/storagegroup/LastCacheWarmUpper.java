@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metadata.mnode.MNode;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * LastCacheWarmUpper fills the Last cache of the series in a recovered storage group with the last
+ * points in its sealed sequence files, read from the TimeseriesMetadata of the files.
+ *
+ * <p>The last point of a series is cached only if it is certainly the last one, i.e., it is in the
+ * newest sealed sequence file of the device, the device has no data at or after it in unsealed or
+ * unsequence files, and the series has no deletion in the file. The other series are left to LAST
+ * queries as before.
+ */
+class LastCacheWarmUpper {
+
+  private static final Logger logger = LoggerFactory.getLogger(LastCacheWarmUpper.class);
+
+  private LastCacheWarmUpper() {
+    // util class
+  }
+
+  /** @return the number of series whose Last cache is filled */
+  static int warmUp(List<TsFileResource> seqResources, List<TsFileResource> unseqResources) {
+    // device -> the newest sealed sequence file of the device
+    Map<String, TsFileResource> newestResources = new HashMap<>();
+    // device -> the end time of the data of the device that is not in sealed sequence files
+    Map<String, Long> otherEndTimes = new HashMap<>();
+    for (TsFileResource resource : seqResources) {
+      for (String device : resource.getDevices()) {
+        if (!resource.isClosed()) {
+          otherEndTimes.put(device, Long.MAX_VALUE);
+          continue;
+        }
+        TsFileResource newest = newestResources.get(device);
+        if (newest == null || resource.getEndTime(device) > newest.getEndTime(device)) {
+          newestResources.put(device, resource);
+        }
+      }
+    }
+    for (TsFileResource resource : unseqResources) {
+      for (String device : resource.getDevices()) {
+        long endTime = resource.isClosed() ? resource.getEndTime(device) : Long.MAX_VALUE;
+        otherEndTimes.merge(device, endTime, Math::max);
+      }
+    }
+
+    Map<TsFileResource, List<String>> resourceToDevices = new HashMap<>();
+    for (Entry<String, TsFileResource> entry : newestResources.entrySet()) {
+      if (otherEndTimes.getOrDefault(entry.getKey(), Long.MIN_VALUE)
+          < entry.getValue().getEndTime(entry.getKey())) {
+        resourceToDevices
+            .computeIfAbsent(entry.getValue(), k -> new ArrayList<>())
+            .add(entry.getKey());
+      } // otherwise no series of the device can be sure of its last point
+    }
+
+    int seriesNum = 0;
+    for (Entry<TsFileResource, List<String>> entry : resourceToDevices.entrySet()) {
+      TsFileResource resource = entry.getKey();
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(resource.getTsFilePath())) {
+        for (String device : entry.getValue()) {
+          seriesNum +=
+              warmUpDevice(
+                  reader, resource, device, otherEndTimes.getOrDefault(device, Long.MIN_VALUE));
+        }
+      } catch (IOException e) {
+        logger.warn("Cannot warm up the Last cache with {}", resource.getTsFilePath(), e);
+      }
+    }
+    return seriesNum;
+  }
+
+  private static int warmUpDevice(
+      TsFileSequenceReader reader, TsFileResource resource, String device, long otherEndTime)
+      throws IOException {
+    ModificationFile modFile = resource.getModFile();
+    boolean hasModifications = modFile.exists();
+    int seriesNum = 0;
+    for (TimeseriesMetadata metadata : reader.readDeviceMetadata(device).values()) {
+      Statistics<?> statistics = metadata.getStatistics();
+      if (statistics.getEndTime() <= otherEndTime) {
+        continue;
+      }
+      PartialPath path;
+      try {
+        path = new PartialPath(device).concatNode(metadata.getMeasurementId());
+      } catch (IllegalPathException e) {
+        continue;
+      }
+      if (hasModifications && !modFile.getPathModifications(path).isEmpty()) {
+        continue;
+      }
+
+      MNode node;
+      try {
+        node = IoTDB.metaManager.getNodeByPath(path);
+      } catch (MetadataException e) {
+        // the series has been deleted
+        continue;
+      }
+      if (node instanceof MeasurementMNode) {
+        TimeValuePair lastPoint =
+            new TimeValuePair(
+                statistics.getEndTime(),
+                TsPrimitiveType.getByType(metadata.getTSDataType(), statistics.getLastValue()));
+        // never overrides a newer point cached meanwhile
+        IoTDB.metaManager.updateLastCache(
+            path, lastPoint, false, Long.MIN_VALUE, (MeasurementMNode) node);
+        seriesNum++;
+      }
+    }
+    return seriesNum;
+  }
+}
@@ -38,16 +38,36 @@ public class StorageGroupInfo {
 
   /**
    * The total Storage group memory cost, including unsealed TsFileResource, ChunkMetadata, WAL,
-   * primitive arrays and TEXT values
+   * primitive arrays and TEXT values unless the memtables are off heap
    */
   private AtomicLong memoryCost;
 
+  /** Whether the primitive arrays and TEXT values are in direct memory instead of memoryCost */
+  private final boolean enableOffHeapMemTable =
+      IoTDBDescriptor.getInstance().getConfig().isEnableOffHeapMemTable();
+
+  /** The memory cost of the memtables in direct memory if they are off heap */
+  private AtomicLong offHeapMemoryCost = new AtomicLong();
+
   /** The threshold of reporting it's size to SystemInfo */
   private long storageGroupSizeReportThreshold =
       IoTDBDescriptor.getInstance().getConfig().getStorageGroupSizeReportThreshold();
 
   private AtomicLong lastReportedSize = new AtomicLong();
 
+  private AtomicLong lastReportedOffHeapSize = new AtomicLong();
+
+  /** the weight of the latest sample in the ingest rate */
+  private static final double INGEST_RATE_WEIGHT = 0.3;
+
+  /**
+   * The increase of the memory cost per millisecond, which is smoothed by exponentially weighted
+   * moving average and updated when the storage group is reported to SystemInfo.
+   */
+  private volatile double ingestRate = 0;
+
+  private volatile long lastReportTime = System.currentTimeMillis();
+
   /** A set of all unclosed TsFileProcessors in this SG */
   private List<TsFileProcessor> reportedTsps = new CopyOnWriteArrayList<>();
 
@@ -79,18 +99,64 @@ public class StorageGroupInfo {
     return memoryCost.get();
   }
 
+  /** add the memory cost of primitive arrays and TEXT values, which may be off heap */
+  public void addMemTableMemCost(long cost) {
+    if (enableOffHeapMemTable) {
+      offHeapMemoryCost.getAndAdd(cost);
+    } else {
+      memoryCost.getAndAdd(cost);
+    }
+  }
+
+  public void releaseMemTableMemCost(long cost) {
+    addMemTableMemCost(-cost);
+  }
+
+  public long getOffHeapMemCost() {
+    return offHeapMemoryCost.get();
+  }
+
   public List<TsFileProcessor> getAllReportedTsp() {
     return reportedTsps;
   }
 
   public boolean needToReportToSystem() {
-    return memoryCost.get() - lastReportedSize.get() > storageGroupSizeReportThreshold;
+    return memoryCost.get() - lastReportedSize.get() > storageGroupSizeReportThreshold
+        || offHeapMemoryCost.get() - lastReportedOffHeapSize.get()
+            > storageGroupSizeReportThreshold;
   }
 
   public void setLastReportedSize(long size) {
     lastReportedSize.set(size);
   }
 
+  public void setLastReportedOffHeapSize(long size) {
+    lastReportedOffHeapSize.set(size);
+  }
+
+  /**
+   * Called by SystemInfo when the storage group is reported.
+   *
+   * @param increment the memory cost increased since the last report
+   */
+  public void updateIngestRate(long increment, long currentTime) {
+    if (increment <= 0) {
+      return;
+    }
+    double rate = (double) increment / Math.max(1, currentTime - lastReportTime);
+    ingestRate =
+        ingestRate == 0 ? rate : INGEST_RATE_WEIGHT * rate + (1 - INGEST_RATE_WEIGHT) * ingestRate;
+    lastReportTime = currentTime;
+  }
+
+  /** @return the increase of the memory cost per millisecond */
+  public double getIngestRate(long currentTime) {
+    // the storage group would have been reported if it increased faster since the last report
+    return Math.min(
+        ingestRate,
+        (double) storageGroupSizeReportThreshold / Math.max(1, currentTime - lastReportTime));
+  }
+
   /**
    * When a TsFileProcessor is closing, remove it from reportedTsps, and report to systemInfo to
    * update SG cost.
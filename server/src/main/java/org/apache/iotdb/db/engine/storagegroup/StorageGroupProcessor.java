@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.engine.storagegroup;
 
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
@@ -101,7 +102,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -433,11 +437,17 @@ public class StorageGroupProcessor {
           splitResourcesByPartition(tmpSeqTsFiles);
       Map<Long, List<TsFileResource>> partitionTmpUnseqTsFiles =
           splitResourcesByPartition(tmpUnseqTsFiles);
-      for (List<TsFileResource> value : partitionTmpSeqTsFiles.values()) {
-        recoverTsFiles(value, true);
-      }
-      for (List<TsFileResource> value : partitionTmpUnseqTsFiles.values()) {
-        recoverTsFiles(value, false);
+      ExecutorService recoverTsFilePool =
+          createRecoverTsFilePool(tmpSeqTsFiles.size() + tmpUnseqTsFiles.size());
+      try {
+        for (List<TsFileResource> value : partitionTmpSeqTsFiles.values()) {
+          recoverTsFiles(value, true, recoverTsFilePool);
+        }
+        for (List<TsFileResource> value : partitionTmpUnseqTsFiles.values()) {
+          recoverTsFiles(value, false, recoverTsFilePool);
+        }
+      } finally {
+        recoverTsFilePool.shutdownNow();
       }
 
       String taskName =
@@ -503,6 +513,21 @@ public class StorageGroupProcessor {
           .putAll(endTimeMap);
       globalLatestFlushedTimeForEachDevice.putAll(endTimeMap);
     }
+
+    // the data in the files to be upgraded are not visible to the warm-up
+    if (IoTDBDescriptor.getInstance().getConfig().isLastCacheEnabled()
+        && IoTDBDescriptor.getInstance().getConfig().isEnableLastCacheWarmUp()
+        && upgradeSeqFileList.isEmpty()
+        && upgradeUnseqFileList.isEmpty()) {
+      int seriesNum =
+          LastCacheWarmUpper.warmUp(
+              tsFileManagement.getTsFileList(true), tsFileManagement.getTsFileList(false));
+      logger.info(
+          "{} - {} warmed up the Last cache of {} series",
+          logicalStorageGroupName,
+          virtualStorageGroupId,
+          seriesNum);
+    }
   }
 
   private void recoverCompaction() {
@@ -662,27 +687,62 @@ public class StorageGroupProcessor {
     }
   }
 
-  private void recoverTsFiles(List<TsFileResource> tsFiles, boolean isSeq) {
-    for (int i = 0; i < tsFiles.size(); i++) {
-      TsFileResource tsFileResource = tsFiles.get(i);
-      long timePartitionId = tsFileResource.getTimePartition();
+  /** @return a pool checking TsFiles at recovery, with no more threads than the files */
+  private ExecutorService createRecoverTsFilePool(int fileNum) {
+    int threadNum = IoTDBDescriptor.getInstance().getConfig().getRecoverTsFileThreadNum();
+    if (threadNum <= 0) {
+      threadNum = Runtime.getRuntime().availableProcessors();
+    }
+    return IoTDBThreadPoolFactory.newFixedThreadPool(
+        Math.max(1, Math.min(threadNum, fileNum)),
+        "Recover-TsFile-" + logicalStorageGroupName + "-" + virtualStorageGroupId);
+  }
 
+  /**
+   * Check the TsFiles of a partition and recover the resources of the complete ones concurrently
+   * with the pool, then redo the WALs of the crashed ones and add all of them to tsFileManagement
+   * one by one in order, so the last file can still be reopened for writing.
+   */
+  private void recoverTsFiles(List<TsFileResource> tsFiles, boolean isSeq, ExecutorService pool)
+      throws StorageGroupProcessorException {
+    List<TsFileRecoverPerformer> recoverPerformers = new ArrayList<>(tsFiles.size());
+    List<Future<RestorableTsFileIOWriter>> recoveredFiles = new ArrayList<>(tsFiles.size());
+    for (int i = 0; i < tsFiles.size(); i++) {
       TsFileRecoverPerformer recoverPerformer =
           new TsFileRecoverPerformer(
               logicalStorageGroupName
                   + File.separator
                   + virtualStorageGroupId
                   + FILE_NAME_SEPARATOR,
-              tsFileResource,
+              tsFiles.get(i),
               isSeq,
               i == tsFiles.size() - 1);
+      recoverPerformers.add(recoverPerformer);
+      recoveredFiles.add(pool.submit(recoverPerformer::recoverFile));
+    }
+
+    for (int i = 0; i < tsFiles.size(); i++) {
+      TsFileResource tsFileResource = tsFiles.get(i);
+      long timePartitionId = tsFileResource.getTimePartition();
 
       RestorableTsFileIOWriter writer;
       try {
+        writer = recoveredFiles.get(i).get();
+        if (writer == null) {
+          // the file is missing
+          continue;
+        }
         // this tsfile is not zero level, no need to perform redo wal
-        if (LevelCompactionTsFileManagement.getMergeLevel(tsFileResource.getTsFile()) > 0) {
+        boolean needRedoWal =
+            LevelCompactionTsFileManagement.getMergeLevel(tsFileResource.getTsFile()) == 0;
+        if (writer.hasCrashed()) {
           writer =
-              recoverPerformer.recover(false, this::getWalDirectByteBuffer, this::releaseWalBuffer);
+              recoverPerformers
+                  .get(i)
+                  .recoverCrashedFile(
+                      writer, needRedoWal, this::getWalDirectByteBuffer, this::releaseWalBuffer);
+        }
+        if (!needRedoWal) {
           if (writer.hasCrashed()) {
             tsFileManagement.addRecover(tsFileResource, isSeq);
           } else {
@@ -690,14 +750,23 @@ public class StorageGroupProcessor {
             tsFileManagement.add(tsFileResource, isSeq);
           }
           continue;
-        } else {
-          writer =
-              recoverPerformer.recover(true, this::getWalDirectByteBuffer, this::releaseWalBuffer);
         }
       } catch (StorageGroupProcessorException e) {
         logger.warn(
             "Skip TsFile: {} because of error in recover: ", tsFileResource.getTsFilePath(), e);
         continue;
+      } catch (ExecutionException e) {
+        if (!(e.getCause() instanceof StorageGroupProcessorException)) {
+          throw new StorageGroupProcessorException(e);
+        }
+        logger.warn(
+            "Skip TsFile: {} because of error in recover: ",
+            tsFileResource.getTsFilePath(),
+            e.getCause());
+        continue;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new StorageGroupProcessorException(e);
       }
 
       if (i != tsFiles.size() - 1 || !writer.canWrite()) {
@@ -1369,6 +1438,12 @@ public class StorageGroupProcessor {
     }
     try {
       closeAllResources();
+      for (TsFileResource tsFileResource : tsFileManagement.getTsFileList(true)) {
+        tsFileResource.removeCachedModifications();
+      }
+      for (TsFileResource tsFileResource : tsFileManagement.getTsFileList(false)) {
+        tsFileResource.removeCachedModifications();
+      }
       List<String> folder = DirectoryManager.getInstance().getAllSequenceFileFolders();
       folder.addAll(DirectoryManager.getInstance().getAllUnSequenceFileFolders());
       deleteAllSGFolders(folder);
@@ -1389,6 +1464,7 @@ public class StorageGroupProcessor {
       File storageGroupFolder =
           fsFactory.getFile(
               tsfilePath, logicalStorageGroupName + File.separator + virtualStorageGroupId);
+      TsFileResourceCatalog.close(storageGroupFolder);
       if (storageGroupFolder.exists()) {
         org.apache.iotdb.db.utils.FileUtils.deleteDirectory(storageGroupFolder);
       }
@@ -41,9 +41,12 @@ import org.apache.iotdb.db.exception.WriteProcessRejectException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metrics.source.EngineSource;
+import org.apache.iotdb.db.metrics.source.EngineSource.Stage;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.rescon.MemTableManager;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.rescon.SystemInfo;
@@ -189,7 +192,9 @@ public class TsFileProcessor {
       checkMemCostAndAddToTspInfo(insertRowPlan);
     }
 
+    long startTime = System.nanoTime();
     workMemTable.insert(insertRowPlan);
+    EngineSource.getInstance().update(Stage.MEMTABLE_INSERT, startTime);
 
     if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
       try {
@@ -248,7 +253,9 @@ public class TsFileProcessor {
       throw new WriteProcessException(e);
     }
     try {
+      long startTime = System.nanoTime();
       workMemTable.insertTablet(insertTabletPlan, start, end);
+      EngineSource.getInstance().update(Stage.MEMTABLE_INSERT, startTime);
       if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
         insertTabletPlan.setStart(start);
         insertTabletPlan.setEnd(end);
@@ -383,14 +390,14 @@ public class TsFileProcessor {
       long textDataIncrement)
       throws WriteProcessException {
     memTableIncrement += textDataIncrement;
-    storageGroupInfo.addStorageGroupMemCost(memTableIncrement);
+    storageGroupInfo.addMemTableMemCost(memTableIncrement);
     tsFileProcessorInfo.addTSPMemCost(unsealedResourceIncrement + chunkMetadataIncrement);
     if (storageGroupInfo.needToReportToSystem()) {
       SystemInfo.getInstance().reportStorageGroupStatus(storageGroupInfo);
       try {
         StorageEngine.blockInsertionIfReject();
       } catch (WriteProcessRejectException e) {
-        storageGroupInfo.releaseStorageGroupMemCost(memTableIncrement);
+        storageGroupInfo.releaseMemTableMemCost(memTableIncrement);
         tsFileProcessorInfo.releaseTSPMemCost(unsealedResourceIncrement + chunkMetadataIncrement);
         SystemInfo.getInstance().resetStorageGroupStatus(storageGroupInfo, false);
         throw e;
@@ -731,7 +738,7 @@ public class TsFileProcessor {
       MemTableManager.getInstance().decreaseMemtableNumber();
       if (enableMemControl) {
         // reset the mem cost in StorageGroupProcessorInfo
-        storageGroupInfo.releaseStorageGroupMemCost(memTable.getTVListsRamCost());
+        storageGroupInfo.releaseMemTableMemCost(memTable.getTVListsRamCost());
         if (logger.isDebugEnabled()) {
           logger.debug(
               "[mem control] {}: {} flush finished, try to reset system memcost, "
@@ -1066,6 +1073,7 @@ public class TsFileProcessor {
     }
     flushQueryLock.readLock().lock();
     try {
+      QueryResourceManager queryResourceManager = QueryResourceManager.getInstance();
       List<ReadOnlyMemChunk> readOnlyMemChunks = new ArrayList<>();
       for (IMemTable flushingMemTable : flushingMemTables) {
         if (flushingMemTable.isSignalMemTable()) {
@@ -1085,6 +1093,7 @@ public class TsFileProcessor {
                 deletionList);
         if (memChunk != null) {
           readOnlyMemChunks.add(memChunk);
+          queryResourceManager.registerCloseHook(context.getQueryId(), memChunk::release);
         }
       }
       if (workMemTable != null) {
@@ -1099,6 +1108,7 @@ public class TsFileProcessor {
                 null);
         if (memChunk != null) {
           readOnlyMemChunks.add(memChunk);
+          queryResourceManager.registerCloseHook(context.getQueryId(), memChunk::release);
         }
       }
 
@@ -1167,6 +1177,15 @@ public class TsFileProcessor {
     return workMemTable != null ? workMemTable.getTVListsRamCost() : 0;
   }
 
+  /** @return the average number of points of the series in the working memtable */
+  public long getWorkMemTableAvgSeriesPointNum() {
+    IMemTable memTable = workMemTable;
+    if (memTable == null || memTable.getSeriesNumber() == 0) {
+      return 0;
+    }
+    return memTable.getTotalPointsNum() / memTable.getSeriesNumber();
+  }
+
   public boolean isSequence() {
     return sequence;
   }
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.engine.storagegroup;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.ModificationCache;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor.UpgradeTsFileResourceCallBack;
@@ -44,6 +45,8 @@ import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -237,20 +240,28 @@ public class TsFileResource {
     }
   }
 
+  /**
+   * Persist the resource to the resource catalog of the partition if it is enabled, otherwise to
+   * the .resource file of the TsFile.
+   */
   public synchronized void serialize() throws IOException {
+    if (!TsFileResourceCatalog.isEnabled()) {
+      serializeToResourceFile();
+      return;
+    }
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    serialize(outputStream);
+    TsFileResourceCatalog.getCatalog(file.getParentFile())
+        .put(file.getName(), outputStream.toByteArray());
+    // an outdated .resource file would take precedence over the catalog
+    Files.deleteIfExists(fsFactory.getFile(file + RESOURCE_SUFFIX).toPath());
+  }
+
+  /** Persist the resource to the .resource file of the TsFile, even if the catalog is enabled. */
+  public synchronized void serializeToResourceFile() throws IOException {
     try (OutputStream outputStream =
         fsFactory.getBufferedOutputStream(file + RESOURCE_SUFFIX + TEMP_SUFFIX)) {
-      ReadWriteIOUtils.write(VERSION_NUMBER, outputStream);
-      ReadWriteIOUtils.write(timeIndexType, outputStream);
-      timeIndex.serialize(outputStream);
-
-      ReadWriteIOUtils.write(maxPlanIndex, outputStream);
-      ReadWriteIOUtils.write(minPlanIndex, outputStream);
-
-      if (modFile != null && modFile.exists()) {
-        String modFileName = new File(modFile.getFilePath()).getName();
-        ReadWriteIOUtils.write(modFileName, outputStream);
-      }
+      serialize(outputStream);
     }
     File src = fsFactory.getFile(file + RESOURCE_SUFFIX + TEMP_SUFFIX);
     File dest = fsFactory.getFile(file + RESOURCE_SUFFIX);
@@ -258,19 +269,46 @@ public class TsFileResource {
     fsFactory.moveFile(src, dest);
   }
 
+  private void serialize(OutputStream outputStream) throws IOException {
+    ReadWriteIOUtils.write(VERSION_NUMBER, outputStream);
+    ReadWriteIOUtils.write(timeIndexType, outputStream);
+    timeIndex.serialize(outputStream);
+
+    ReadWriteIOUtils.write(maxPlanIndex, outputStream);
+    ReadWriteIOUtils.write(minPlanIndex, outputStream);
+
+    if (modFile != null && modFile.exists()) {
+      String modFileName = new File(modFile.getFilePath()).getName();
+      ReadWriteIOUtils.write(modFileName, outputStream);
+    }
+  }
+
+  /** Load the resource from the .resource file of the TsFile, or from the catalog without one. */
   public void deserialize() throws IOException {
+    if (TsFileResourceCatalog.isEnabled() && !fsFactory.getFile(file + RESOURCE_SUFFIX).exists()) {
+      byte[] resourceBytes =
+          TsFileResourceCatalog.getCatalog(file.getParentFile()).get(file.getName());
+      if (resourceBytes != null) {
+        deserialize(new ByteArrayInputStream(resourceBytes));
+        return;
+      }
+    }
     try (InputStream inputStream = fsFactory.getBufferedInputStream(file + RESOURCE_SUFFIX)) {
-      readVersionNumber(inputStream);
-      timeIndexType = ReadWriteIOUtils.readBytes(inputStream, 1)[0];
-      timeIndex = TimeIndexLevel.valueOf(timeIndexType).getTimeIndex().deserialize(inputStream);
-      maxPlanIndex = ReadWriteIOUtils.readLong(inputStream);
-      minPlanIndex = ReadWriteIOUtils.readLong(inputStream);
-      if (inputStream.available() > 0) {
-        String modFileName = ReadWriteIOUtils.readString(inputStream);
-        if (modFileName != null) {
-          File modF = new File(file.getParentFile(), modFileName);
-          modFile = new ModificationFile(modF.getPath());
-        }
+      deserialize(inputStream);
+    }
+  }
+
+  private void deserialize(InputStream inputStream) throws IOException {
+    readVersionNumber(inputStream);
+    timeIndexType = ReadWriteIOUtils.readBytes(inputStream, 1)[0];
+    timeIndex = TimeIndexLevel.valueOf(timeIndexType).getTimeIndex().deserialize(inputStream);
+    maxPlanIndex = ReadWriteIOUtils.readLong(inputStream);
+    minPlanIndex = ReadWriteIOUtils.readLong(inputStream);
+    if (inputStream.available() > 0) {
+      String modFileName = ReadWriteIOUtils.readString(inputStream);
+      if (modFileName != null) {
+        File modF = new File(file.getParentFile(), modFileName);
+        modFile = new ModificationFile(modF.getPath());
       }
     }
   }
@@ -326,8 +364,10 @@ public class TsFileResource {
     timeIndex.updateEndTime(device, time);
   }
 
-  public boolean resourceFileExists() {
-    return fsFactory.getFile(file + RESOURCE_SUFFIX).exists();
+  /** @return whether the resource is in a .resource file or the resource catalog */
+  public boolean resourceFileExists() throws IOException {
+    return fsFactory.getFile(file + RESOURCE_SUFFIX).exists()
+        || TsFileResourceCatalog.contains(file);
   }
 
   public List<ChunkMetadata> getChunkMetadataList() {
@@ -459,11 +499,20 @@ public class TsFileResource {
     } catch (IOException e) {
       logger.error("ModificationFile {} cannot be deleted: {}", file, e.getMessage());
     }
+    removeCachedModifications();
+  }
+
+  /** drop the modifications of this file cached across queries, once the file is gone */
+  public void removeCachedModifications() {
+    ModificationCache.getInstance().remove(file.getPath() + ModificationFile.FILE_SUFFIX);
   }
 
   public void removeResourceFile() {
     try {
       Files.deleteIfExists(fsFactory.getFile(file.getPath() + RESOURCE_SUFFIX).toPath());
+      if (TsFileResourceCatalog.isEnabled()) {
+        TsFileResourceCatalog.getCatalog(file.getParentFile()).remove(file.getName());
+      }
     } catch (IOException e) {
       logger.error("TsFileResource {} cannot be deleted: {}", file, e.getMessage());
     }
@@ -471,14 +520,25 @@ public class TsFileResource {
 
   void moveTo(File targetDir) {
     fsFactory.moveFile(file, fsFactory.getFile(targetDir, file.getName()));
-    fsFactory.moveFile(
-        fsFactory.getFile(file.getPath() + RESOURCE_SUFFIX),
-        fsFactory.getFile(targetDir, file.getName() + RESOURCE_SUFFIX));
+    File originResourceFile = fsFactory.getFile(file.getPath() + RESOURCE_SUFFIX);
+    if (originResourceFile.exists()) {
+      fsFactory.moveFile(
+          originResourceFile, fsFactory.getFile(targetDir, file.getName() + RESOURCE_SUFFIX));
+    }
+    if (TsFileResourceCatalog.isEnabled()) {
+      try {
+        TsFileResourceCatalog.getCatalog(file.getParentFile())
+            .moveTo(file.getName(), TsFileResourceCatalog.getCatalog(targetDir));
+      } catch (IOException e) {
+        logger.error("Cannot move the resource of {} to {}", file, targetDir, e);
+      }
+    }
     File originModFile = fsFactory.getFile(file.getPath() + ModificationFile.FILE_SUFFIX);
     if (originModFile.exists()) {
       fsFactory.moveFile(
           originModFile,
           fsFactory.getFile(targetDir, file.getName() + ModificationFile.FILE_SUFFIX));
+      removeCachedModifications();
     }
   }
 
@@ -676,10 +736,14 @@ public class TsFileResource {
   public void delete() throws IOException {
     if (file.exists()) {
       Files.delete(file.toPath());
-      Files.delete(
+      Files.deleteIfExists(
           FSFactoryProducer.getFSFactory()
               .getFile(file.toPath() + TsFileResource.RESOURCE_SUFFIX)
               .toPath());
+      if (TsFileResourceCatalog.isEnabled()) {
+        TsFileResourceCatalog.getCatalog(file.getParentFile()).remove(file.getName());
+      }
+      removeCachedModifications();
     }
   }
 
@@ -0,0 +1,390 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.TestOnly;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.fileSystem.FSType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * TsFileResourceCatalog keeps the serialized TsFileResources (time index, plan indexes and mods
+ * file name) of all TsFiles in a time partition directory in one append-only file, so that
+ * flushing a TsFile appends a record instead of creating and renaming a .resource file, and
+ * restarting reads one file per partition instead of one per TsFile.
+ *
+ * <p>Each record is either a PUT of the latest serialized resource of a TsFile or a REMOVE of it.
+ * Only the positions of the latest PUTs are kept in memory. When the records are much more than
+ * the TsFiles, the live records are rewritten to a new file (a checkpoint) which replaces the old
+ * one by a rename. Each record ends with a CRC32 of its other bytes. A record torn by a crash can
+ * only be the last one and is truncated when the catalog is loaded, while a bad record followed by
+ * others means the catalog is corrupted and fails the loading.
+ *
+ * <p>The .resource files remain readable, and take precedence over the catalog since they can
+ * only be written when the catalog is disabled or be received from a sync sender.
+ */
+public class TsFileResourceCatalog {
+
+  private static final Logger logger = LoggerFactory.getLogger(TsFileResourceCatalog.class);
+
+  public static final String CATALOG_FILE_NAME = "resource.catalog";
+
+  private static final byte PUT = 0;
+  private static final byte REMOVE = 1;
+
+  /** a checkpoint is made only when there are more records than this and twice the TsFiles */
+  private static final int MIN_CHECKPOINT_RECORD_NUM = 1024;
+
+  /** absolute path of partition directory -> its catalog */
+  private static final Map<String, TsFileResourceCatalog> catalogs = new HashMap<>();
+
+  private final File catalogFile;
+
+  private FileChannel channel;
+
+  /** TsFile name -> {position, length} of its latest serialized resource in the catalog file */
+  private final Map<String, long[]> entries = new HashMap<>();
+
+  private int recordNum = 0;
+
+  private TsFileResourceCatalog(File partitionDir) throws IOException {
+    this.catalogFile = new File(partitionDir, CATALOG_FILE_NAME);
+    if (!partitionDir.exists() && !partitionDir.mkdirs()) {
+      throw new IOException("Cannot create the partition folder " + partitionDir);
+    }
+    this.channel = openChannel(catalogFile);
+    try {
+      load();
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  public static boolean isEnabled() {
+    return IoTDBDescriptor.getInstance().getConfig().isEnableResourceCatalog()
+        && TSFileDescriptor.getInstance().getConfig().getTSFileStorageFs() == FSType.LOCAL;
+  }
+
+  /** @return the catalog of the partition directory, which is loaded at the first call */
+  public static synchronized TsFileResourceCatalog getCatalog(File partitionDir)
+      throws IOException {
+    String key = partitionDir.getAbsolutePath();
+    TsFileResourceCatalog catalog = catalogs.get(key);
+    if (catalog == null) {
+      catalog = new TsFileResourceCatalog(partitionDir.getAbsoluteFile());
+      catalogs.put(key, catalog);
+    }
+    return catalog;
+  }
+
+  /** @return whether the resource of the TsFile is in the catalog of its partition */
+  public static boolean contains(File tsFile) throws IOException {
+    return isEnabled()
+        && getCatalog(tsFile.getAbsoluteFile().getParentFile()).contains(tsFile.getName());
+  }
+
+  /**
+   * Write the resource of the TsFile in the catalog of its partition to a standalone .resource
+   * file, e.g., to send it to a sync receiver.
+   */
+  public static void exportResourceFile(File tsFile, File resourceFile) throws IOException {
+    byte[] bytes = getCatalog(tsFile.getAbsoluteFile().getParentFile()).get(tsFile.getName());
+    if (bytes == null) {
+      throw new IOException("No resource of " + tsFile + " in the resource catalog");
+    }
+    Files.write(resourceFile.toPath(), bytes);
+  }
+
+  /** close the catalogs of the partitions in the directory, which is about to be deleted */
+  public static synchronized void close(File dir) {
+    String prefix = dir.getAbsolutePath();
+    Iterator<Entry<String, TsFileResourceCatalog>> iterator = catalogs.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Entry<String, TsFileResourceCatalog> entry = iterator.next();
+      if (entry.getKey().equals(prefix) || entry.getKey().startsWith(prefix + File.separator)) {
+        entry.getValue().close();
+        iterator.remove();
+      }
+    }
+  }
+
+  /** close the catalogs of all partitions, e.g., when the storage engine stops */
+  public static synchronized void closeAll() {
+    for (TsFileResourceCatalog catalog : catalogs.values()) {
+      catalog.close();
+    }
+    catalogs.clear();
+  }
+
+  public synchronized void put(String tsFileName, byte[] resourceBytes) throws IOException {
+    ByteBuffer buffer = encode(PUT, tsFileName, resourceBytes);
+    long position = channel.size();
+    append(buffer, position);
+    long resourcePosition = position + buffer.capacity() - 4 - resourceBytes.length;
+    entries.put(tsFileName, new long[] {resourcePosition, resourceBytes.length});
+    recordNum++;
+    checkpointIfNeeded();
+  }
+
+  /** @return the serialized resource of the TsFile, or null if it is not in the catalog */
+  public synchronized byte[] get(String tsFileName) throws IOException {
+    long[] entry = entries.get(tsFileName);
+    if (entry == null) {
+      return null;
+    }
+    return read(channel, entry);
+  }
+
+  public synchronized boolean contains(String tsFileName) {
+    return entries.containsKey(tsFileName);
+  }
+
+  public synchronized void remove(String tsFileName) throws IOException {
+    if (entries.remove(tsFileName) == null) {
+      return;
+    }
+    ByteBuffer buffer = encode(REMOVE, tsFileName, null);
+    append(buffer, channel.size());
+    recordNum++;
+    checkpointIfNeeded();
+  }
+
+  /** move the resource of the TsFile to the catalog of another partition */
+  public void moveTo(String tsFileName, TsFileResourceCatalog target) throws IOException {
+    byte[] bytes = get(tsFileName);
+    if (bytes != null) {
+      target.put(tsFileName, bytes);
+      remove(tsFileName);
+    }
+  }
+
+  @TestOnly
+  public synchronized int getRecordNum() {
+    return recordNum;
+  }
+
+  /** @param resourceBytes null for a REMOVE record */
+  private static ByteBuffer encode(byte type, String tsFileName, byte[] resourceBytes) {
+    byte[] nameBytes = tsFileName.getBytes(StandardCharsets.UTF_8);
+    int resourceLength = resourceBytes == null ? 0 : 4 + resourceBytes.length;
+    ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + nameBytes.length + resourceLength + 4);
+    buffer.put(type);
+    buffer.putInt(nameBytes.length);
+    buffer.put(nameBytes);
+    if (resourceBytes != null) {
+      buffer.putInt(resourceBytes.length);
+      buffer.put(resourceBytes);
+    }
+    CRC32 checkSummer = new CRC32();
+    checkSummer.update(buffer.array(), 0, buffer.position());
+    buffer.putInt((int) checkSummer.getValue());
+    buffer.flip();
+    return buffer;
+  }
+
+  private void append(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+  }
+
+  private static byte[] read(FileChannel channel, long[] entry) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate((int) entry[1]);
+    long position = entry[0];
+    while (buffer.hasRemaining()) {
+      int readLen = channel.read(buffer, position);
+      if (readLen < 0) {
+        throw new EOFException("The resource catalog is shorter than expected");
+      }
+      position += readLen;
+    }
+    return buffer.array();
+  }
+
+  /**
+   * read the positions of the latest records, and truncate the last record if it is torn by a
+   * crash
+   *
+   * @throws IOException if a record before the last one is bad, which is not caused by a crash
+   */
+  private void load() throws IOException {
+    long fileLength = channel.size();
+    long validLength = 0;
+    CRC32 checkSummer = new CRC32();
+    // not closed, which would close the channel
+    DataInputStream inputStream =
+        new DataInputStream(
+            new CheckedInputStream(
+                new BufferedInputStream(Channels.newInputStream(channel.position(0))),
+                checkSummer));
+    while (validLength < fileLength) {
+      checkSummer.reset();
+      // the type, the name length and the checksum
+      long recordEnd = validLength + 1 + 4 + 4;
+      if (recordEnd > fileLength) {
+        break;
+      }
+      byte type = inputStream.readByte();
+      int nameLength = inputStream.readInt();
+      if ((type != PUT && type != REMOVE) || nameLength < 0) {
+        throw corrupted(
+            validLength, "unknown record type " + type + " or name length " + nameLength);
+      }
+      recordEnd += nameLength + (type == PUT ? 4 : 0);
+      if (recordEnd > fileLength) {
+        break;
+      }
+      byte[] nameBytes = new byte[nameLength];
+      inputStream.readFully(nameBytes);
+      String tsFileName = new String(nameBytes, StandardCharsets.UTF_8);
+      int resourceLength = 0;
+      if (type == PUT) {
+        resourceLength = inputStream.readInt();
+        if (resourceLength < 0) {
+          throw corrupted(validLength, "resource length " + resourceLength);
+        }
+        recordEnd += resourceLength;
+        if (recordEnd > fileLength) {
+          break;
+        }
+        skipFully(inputStream, resourceLength);
+      }
+      int expectedCheckSum = (int) checkSummer.getValue();
+      if (inputStream.readInt() != expectedCheckSum) {
+        if (recordEnd == fileLength) {
+          break;
+        }
+        throw corrupted(validLength, "checksum mismatch");
+      }
+      if (type == PUT) {
+        entries.put(tsFileName, new long[] {recordEnd - 4 - resourceLength, resourceLength});
+      } else {
+        entries.remove(tsFileName);
+      }
+      validLength = recordEnd;
+      recordNum++;
+    }
+    if (validLength < fileLength) {
+      logger.warn(
+          "Truncate the torn last record of the resource catalog {} from {} to {} bytes",
+          catalogFile,
+          fileLength,
+          validLength);
+      channel.truncate(validLength);
+    }
+    logger.debug(
+        "Loaded {} resources from {} records of {}", entries.size(), recordNum, catalogFile);
+  }
+
+  private IOException corrupted(long position, String reason) {
+    return new IOException(
+        String.format(
+            "The resource catalog %s is corrupted at the record from %d bytes: %s",
+            catalogFile, position, reason));
+  }
+
+  private static void skipFully(DataInputStream inputStream, int length) throws IOException {
+    int skipped = 0;
+    while (skipped < length) {
+      int skippedLen = inputStream.skipBytes(length - skipped);
+      if (skippedLen <= 0) {
+        throw new EOFException();
+      }
+      skipped += skippedLen;
+    }
+  }
+
+  /** rewrite the live records to a new catalog file if most records are outdated */
+  private void checkpointIfNeeded() throws IOException {
+    if (recordNum <= MIN_CHECKPOINT_RECORD_NUM || recordNum <= 2 * entries.size()) {
+      return;
+    }
+    File tempFile = new File(catalogFile.getPath() + TsFileResource.TEMP_SUFFIX);
+    Map<String, long[]> newEntries = new HashMap<>(entries.size());
+    try (FileChannel tempChannel = openChannel(tempFile)) {
+      tempChannel.truncate(0);
+      long position = 0;
+      for (Entry<String, long[]> entry : entries.entrySet()) {
+        byte[] resourceBytes = read(channel, entry.getValue());
+        ByteBuffer buffer = encode(PUT, entry.getKey(), resourceBytes);
+        while (buffer.hasRemaining()) {
+          position += tempChannel.write(buffer, position);
+        }
+        newEntries.put(
+            entry.getKey(),
+            new long[] {position - 4 - resourceBytes.length, resourceBytes.length});
+      }
+      tempChannel.force(true);
+    }
+    channel.close();
+    Files.move(
+        tempFile.toPath(),
+        catalogFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    channel = openChannel(catalogFile);
+    logger.debug(
+        "Checkpointed the resource catalog {} from {} to {} records",
+        catalogFile,
+        recordNum,
+        newEntries.size());
+    entries.clear();
+    entries.putAll(newEntries);
+    recordNum = newEntries.size();
+  }
+
+  private static FileChannel openChannel(File file) throws IOException {
+    return FileChannel.open(
+        file.toPath(),
+        StandardOpenOption.READ,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.CREATE);
+  }
+
+  private synchronized void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.error("Cannot close the resource catalog {}", catalogFile, e);
+    }
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata;
+
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.mnode.MNode;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DeviceSchemaCache maps the raw device id string of an insertion to its parsed path, its device
+ * MNode and the MeasurementMNodes resolved for the last measurement list inserted into it, so that
+ * repeated insertions from the same device skip path parsing and MTree lookups. Every entry only
+ * holds fully resolved measurement lists, so creating new timeseries never makes an entry stale;
+ * any deletion, alias change or storage group change must call {@link #clear()}.
+ */
+public class DeviceSchemaCache {
+
+  private final int cacheSize;
+
+  // raw device id -> entry
+  private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+  // increased on each clear, to reject schemas resolved before the clear
+  private final AtomicLong version = new AtomicLong();
+
+  public DeviceSchemaCache(int cacheSize) {
+    this.cacheSize = cacheSize;
+  }
+
+  /**
+   * get the parsed path of the device, the returned path is shared by all callers and must not be
+   * modified.
+   */
+  public PartialPath getDevicePath(String deviceId) throws IllegalPathException {
+    Entry entry = cache.get(deviceId);
+    if (entry != null) {
+      return entry.devicePath;
+    }
+    PartialPath devicePath = new PartialPath(deviceId);
+    removeObjectIfCacheIsFull();
+    cache.putIfAbsent(deviceId, new Entry(devicePath));
+    return devicePath;
+  }
+
+  /**
+   * fill the MeasurementMNodes resolved for the device and the measurement list into the given
+   * array.
+   *
+   * @param measurements the measurement list of the insertion, before aliases are replaced
+   * @return the device MNode, or null if the device or the measurement list is not cached, in which
+   *     case measurementMNodes is left untouched
+   */
+  public MNode getDeviceMNode(
+      String deviceId, String[] measurements, MeasurementMNode[] measurementMNodes) {
+    Entry entry = cache.get(deviceId);
+    if (entry == null) {
+      return null;
+    }
+    Resolved resolved = entry.resolved;
+    if (resolved == null
+        || measurementMNodes.length != resolved.measurementMNodes.length
+        || !Arrays.equals(resolved.measurements, measurements)) {
+      return null;
+    }
+    System.arraycopy(resolved.measurementMNodes, 0, measurementMNodes, 0, measurementMNodes.length);
+    return resolved.deviceMNode;
+  }
+
+  /** @return the version to be passed to {@link #put} after the schema has been resolved */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * cache the resolved schema of one insertion, the arrays are owned by the cache afterwards. The
+   * schema is dropped if the cache has been cleared since the given version was read, because it
+   * may have been resolved against deleted nodes.
+   */
+  public void put(
+      long expectedVersion,
+      PartialPath devicePath,
+      MNode deviceMNode,
+      String[] measurements,
+      MeasurementMNode[] measurementMNodes) {
+    String deviceId = devicePath.getFullPath();
+    Entry entry = cache.get(deviceId);
+    if (entry == null) {
+      removeObjectIfCacheIsFull();
+      entry = cache.computeIfAbsent(deviceId, k -> new Entry(devicePath));
+    }
+    entry.resolved = new Resolved(deviceMNode, measurements, measurementMNodes);
+    if (version.get() != expectedVersion) {
+      entry.resolved = null;
+    }
+  }
+
+  private void removeObjectIfCacheIsFull() {
+    if (cache.size() >= cacheSize) {
+      Iterator<String> iterator = cache.keySet().iterator();
+      if (iterator.hasNext()) {
+        cache.remove(iterator.next());
+      }
+    }
+  }
+
+  public void clear() {
+    version.incrementAndGet();
+    cache.clear();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  private static class Entry {
+
+    private final PartialPath devicePath;
+    private volatile Resolved resolved;
+
+    private Entry(PartialPath devicePath) {
+      this.devicePath = devicePath;
+    }
+  }
+
+  /** device MNode, measurement list and MeasurementMNodes, published together */
+  private static class Resolved {
+
+    private final MNode deviceMNode;
+    private final String[] measurements;
+    private final MeasurementMNode[] measurementMNodes;
+
+    private Resolved(
+        MNode deviceMNode, String[] measurements, MeasurementMNode[] measurementMNodes) {
+      this.deviceMNode = deviceMNode;
+      this.measurements = measurements;
+      this.measurementMNodes = measurementMNodes;
+    }
+  }
+}
@@ -92,7 +92,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -137,6 +136,8 @@ public class MManager {
   private boolean isRecovering;
   // device -> DeviceMNode
   private RandomDeleteCache<PartialPath, MNode> mNodeCache;
+  // raw device id -> resolved device and measurement nodes of the insert path
+  private DeviceSchemaCache deviceSchemaCache;
   // tag key -> tag value -> LeafMNode
   private Map<String, Map<String, Set<MeasurementMNode>>> tagIndex = new ConcurrentHashMap<>();
 
@@ -200,6 +201,7 @@ public class MManager {
             }
           }
         };
+    deviceSchemaCache = new DeviceSchemaCache(cacheSize);
 
     if (config.isEnableMTreeSnapshot()) {
       timedCreateMTreeSnapshotThread =
@@ -256,13 +258,14 @@ public class MManager {
       logger.warn("Creating MTree snapshot not successful before crashing...");
       Files.delete(tmpFile.toPath());
     }
+    Files.deleteIfExists(MTree.getSnapshotIndexFile(tmpFile).toPath());
 
     File mtreeSnapshot = SystemFileFactory.INSTANCE.getFile(mtreeSnapshotPath);
     long time = System.currentTimeMillis();
     if (!mtreeSnapshot.exists()) {
       mtree = new MTree();
     } else {
-      mtree = MTree.deserializeFrom(mtreeSnapshot);
+      mtree = MTree.deserializeFrom(mtreeSnapshot, config.isEnableMTreeLazyLoading());
       logger.debug(
           "spend {} ms to deserialize mtree from snapshot", System.currentTimeMillis() - time);
     }
@@ -309,6 +312,7 @@ public class MManager {
     try {
       this.mtree = new MTree();
       this.mNodeCache.clear();
+      this.deviceSchemaCache.clear();
       this.tagIndex.clear();
       this.totalSeriesNumber.set(0);
       if (logWriter != null) {
@@ -419,10 +423,7 @@ public class MManager {
           if (entry.getKey() == null || entry.getValue() == null) {
             continue;
           }
-          tagIndex
-              .computeIfAbsent(entry.getKey(), k -> new ConcurrentHashMap<>())
-              .computeIfAbsent(entry.getValue(), v -> new CopyOnWriteArraySet<>())
-              .add(leafMNode);
+          addToTagInvertedIndex(entry.getKey(), entry.getValue(), leafMNode);
         }
       }
 
@@ -489,6 +490,7 @@ public class MManager {
   public String deleteTimeseries(PartialPath prefixPath) throws MetadataException {
     if (isStorageGroup(prefixPath)) {
       mNodeCache.clear();
+      deviceSchemaCache.clear();
     }
     try {
       List<PartialPath> allTimeseries = mtree.getAllTimeseriesPath(prefixPath);
@@ -527,6 +529,14 @@ public class MManager {
     }
   }
 
+  /** add the node to the posting set of the tag key-value pair in the tag inverted index */
+  private void addToTagInvertedIndex(String tagKey, String tagValue, MeasurementMNode node) {
+    tagIndex
+        .computeIfAbsent(tagKey, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(tagValue, v -> ConcurrentHashMap.newKeySet())
+        .add(node);
+  }
+
   /** remove the node from the tag inverted index */
   @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   private void removeFromTagInvertedIndex(MeasurementMNode node) throws IOException {
@@ -585,6 +595,7 @@ public class MManager {
 
     // TODO: delete the path node and all its ancestors
     mNodeCache.clear();
+    deviceSchemaCache.clear();
     totalSeriesNumber.addAndGet(-1);
     if (!allowToCreateNewSeries
         && totalSeriesNumber.get() * ESTIMATED_SERIES_SIZE < MTREE_SIZE_THRESHOLD) {
@@ -629,6 +640,7 @@ public class MManager {
           allowToCreateNewSeries = true;
         }
         mNodeCache.clear();
+        deviceSchemaCache.clear();
 
         // try to delete storage group
         List<MeasurementMNode> leafMNodes = mtree.deleteStorageGroup(storageGroup);
@@ -849,14 +861,9 @@ public class MManager {
         }
       }
     } else {
-      for (Entry<String, Set<MeasurementMNode>> entry : value2Node.entrySet()) {
-        if (entry.getKey() == null || entry.getValue() == null) {
-          continue;
-        }
-        String tagValue = entry.getKey();
-        if (plan.getValue().equals(tagValue)) {
-          allMatchedNodes.addAll(entry.getValue());
-        }
+      Set<MeasurementMNode> matchedNodes = value2Node.get(plan.getValue());
+      if (matchedNodes != null) {
+        allMatchedNodes.addAll(matchedNodes);
       }
     }
 
@@ -1165,6 +1172,7 @@ public class MManager {
     }
     leafMNode.getParent().addAlias(alias, leafMNode);
     leafMNode.setAlias(alias);
+    deviceSchemaCache.clear();
   }
 
   /**
@@ -1199,6 +1207,7 @@ public class MManager {
       }
 
       leafMNode.setAlias(alias);
+      deviceSchemaCache.clear();
       // persist to WAL
       logWriter.changeAlias(fullPath, alias);
     }
@@ -1214,10 +1223,7 @@ public class MManager {
       // update inverted Index map
       if (tagsMap != null) {
         for (Entry<String, String> entry : tagsMap.entrySet()) {
-          tagIndex
-              .computeIfAbsent(entry.getKey(), k -> new ConcurrentHashMap<>())
-              .computeIfAbsent(entry.getValue(), v -> new CopyOnWriteArraySet<>())
-              .add(leafMNode);
+          addToTagInvertedIndex(entry.getKey(), entry.getValue(), leafMNode);
         }
       }
       return;
@@ -1267,10 +1273,7 @@ public class MManager {
         // if the key doesn't exist or the value is not equal to the new one
         // we should add a new key-value to inverted index map
         if (beforeValue == null || !beforeValue.equals(value)) {
-          tagIndex
-              .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
-              .computeIfAbsent(value, v -> new CopyOnWriteArraySet<>())
-              .add(leafMNode);
+          addToTagInvertedIndex(key, value, leafMNode);
         }
       }
     }
@@ -1341,10 +1344,7 @@ public class MManager {
       leafMNode.setOffset(offset);
       // update inverted Index map
       for (Entry<String, String> entry : tagsMap.entrySet()) {
-        tagIndex
-            .computeIfAbsent(entry.getKey(), k -> new ConcurrentHashMap<>())
-            .computeIfAbsent(entry.getValue(), v -> new CopyOnWriteArraySet<>())
-            .add(leafMNode);
+        addToTagInvertedIndex(entry.getKey(), entry.getValue(), leafMNode);
       }
       return;
     }
@@ -1366,12 +1366,7 @@ public class MManager {
     tagLogFile.write(pair.left, pair.right, leafMNode.getOffset());
 
     // update tag inverted map
-    tagsMap.forEach(
-        (key, value) ->
-            tagIndex
-                .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
-                .computeIfAbsent(value, v -> new CopyOnWriteArraySet<>())
-                .add(leafMNode));
+    tagsMap.forEach((key, value) -> addToTagInvertedIndex(key, value, leafMNode));
   }
 
   /**
@@ -1528,10 +1523,7 @@ public class MManager {
                   tagIndex.containsKey(key)));
         }
       }
-      tagIndex
-          .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
-          .computeIfAbsent(currentValue, k -> new CopyOnWriteArraySet<>())
-          .add(leafMNode);
+      addToTagInvertedIndex(key, currentValue, leafMNode);
     }
   }
 
@@ -1599,10 +1591,7 @@ public class MManager {
                   tagIndex.containsKey(oldKey)));
         }
       }
-      tagIndex
-          .computeIfAbsent(newKey, k -> new ConcurrentHashMap<>())
-          .computeIfAbsent(value, k -> new CopyOnWriteArraySet<>())
-          .add(leafMNode);
+      addToTagInvertedIndex(newKey, value, leafMNode);
     } else if (pair.right.containsKey(oldKey)) {
       // check attribute map
       pair.right.put(newKey, pair.right.remove(oldKey));
@@ -1795,10 +1784,17 @@ public class MManager {
       mtree.serializeTo(mtreeSnapshotTmpPath);
       File tmpFile = SystemFileFactory.INSTANCE.getFile(mtreeSnapshotTmpPath);
       File snapshotFile = SystemFileFactory.INSTANCE.getFile(mtreeSnapshotPath);
+      File tmpIndexFile = MTree.getSnapshotIndexFile(tmpFile);
+      File indexFile = MTree.getSnapshotIndexFile(snapshotFile);
+      // the index must never be newer than the snapshot, an unmatched one is ignored in loading
+      Files.deleteIfExists(indexFile.toPath());
       if (snapshotFile.exists()) {
         Files.delete(snapshotFile.toPath());
       }
       if (tmpFile.renameTo(snapshotFile)) {
+        if (tmpIndexFile.exists() && !tmpIndexFile.renameTo(indexFile)) {
+          logger.warn("Failed to rename {} to {}", tmpIndexFile, indexFile);
+        }
         logger.info(
             "Finish creating MTree snapshot to {}, spend {} ms.",
             mtreeSnapshotPath,
@@ -1807,9 +1803,11 @@ public class MManager {
       logWriter.clear();
     } catch (IOException e) {
       logger.warn("Failed to create MTree snapshot to {}", mtreeSnapshotPath, e);
-      if (SystemFileFactory.INSTANCE.getFile(mtreeSnapshotTmpPath).exists()) {
+      File tmpFile = SystemFileFactory.INSTANCE.getFile(mtreeSnapshotTmpPath);
+      if (tmpFile.exists()) {
         try {
-          Files.delete(SystemFileFactory.INSTANCE.getFile(mtreeSnapshotTmpPath).toPath());
+          Files.delete(tmpFile.toPath());
+          Files.deleteIfExists(MTree.getSnapshotIndexFile(tmpFile).toPath());
         } catch (IOException e1) {
           logger.warn("delete file {} failed: {}", mtreeSnapshotTmpPath, e1.getMessage());
         }
@@ -1825,8 +1823,16 @@ public class MManager {
     String[] measurementList = plan.getMeasurements();
     MeasurementMNode[] measurementMNodes = plan.getMeasurementMNodes();
 
+    // 0. try the schemas resolved by the previous insertion of the same device
+    MNode deviceMNode = getCachedSeriesSchemas(plan);
+    if (deviceMNode != null) {
+      return deviceMNode;
+    }
+    long cacheVersion = deviceSchemaCache.getVersion();
+    String[] originMeasurementList = measurementList.clone();
+
     // 1. get device node
-    MNode deviceMNode = getDeviceNodeWithAutoCreate(deviceId);
+    deviceMNode = getDeviceNodeWithAutoCreate(deviceId);
 
     // 2. get schema of each measurement
     // if do not has measurement
@@ -1902,9 +1908,62 @@ public class MManager {
       }
     }
 
+    if (plan.getFailedMeasurements() == null) {
+      deviceSchemaCache.put(
+          cacheVersion, deviceId, deviceMNode, originMeasurementList, measurementMNodes.clone());
+    }
     return deviceMNode;
   }
 
+  /**
+   * Fill the MeasurementMNodes of the plan from deviceSchemaCache if the device was inserted with
+   * the same measurement list before and all data types still match.
+   *
+   * @return the device node, or null if the schemas must be resolved through the MTree
+   */
+  private MNode getCachedSeriesSchemas(InsertPlan plan) throws MetadataException {
+    if (!(plan instanceof InsertRowPlan) && !(plan instanceof InsertTabletPlan)) {
+      return null;
+    }
+    String[] measurementList = plan.getMeasurements();
+    MeasurementMNode[] measurementMNodes = new MeasurementMNode[measurementList.length];
+    MNode deviceMNode =
+        deviceSchemaCache.getDeviceMNode(
+            plan.getDeviceId().getFullPath(), measurementList, measurementMNodes);
+    if (deviceMNode == null) {
+      return null;
+    }
+    boolean needCheckType =
+        !(plan instanceof InsertRowPlan) || !((InsertRowPlan) plan).isNeedInferType();
+    for (int i = 0; i < measurementList.length; i++) {
+      if (measurementList[i] == null) {
+        continue;
+      }
+      if (needCheckType && measurementMNodes[i].getSchema().getType() != getTypeInLoc(plan, i)) {
+        // let the normal path report the mismatch
+        return null;
+      }
+    }
+    MeasurementMNode[] planMNodes = plan.getMeasurementMNodes();
+    for (int i = 0; i < measurementList.length; i++) {
+      if (measurementList[i] == null) {
+        continue;
+      }
+      planMNodes[i] = measurementMNodes[i];
+      // set measurementName instead of alias
+      measurementList[i] = measurementMNodes[i].getName();
+    }
+    return deviceMNode;
+  }
+
+  /**
+   * Get the parsed path of a device id sent by clients, repeated insertions of the same device
+   * share one path instead of parsing the string each time.
+   */
+  public PartialPath getDevicePath(String deviceId) throws IllegalPathException {
+    return deviceSchemaCache.getDevicePath(deviceId);
+  }
+
   public MNode getMNode(MNode deviceMNode, String measurementName) {
     return deviceMNode.getChild(measurementName);
   }
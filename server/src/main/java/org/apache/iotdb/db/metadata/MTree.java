@@ -18,9 +18,12 @@
  */
 package org.apache.iotdb.db.metadata;
 
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.exception.metadata.*;
 import org.apache.iotdb.db.metadata.MManager.StorageGroupFilter;
@@ -50,12 +53,24 @@ import com.google.gson.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -68,6 +83,9 @@ public class MTree implements Serializable {
   public static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
   private static final long serialVersionUID = -4200394435237291964L;
   private static final Logger logger = LoggerFactory.getLogger(MTree.class);
+  private static final String SNAPSHOT_SEGMENT_SUFFIX = ".segment";
+  /** each segment is indexed by its start, its end and the number of MeasurementMNodes in it */
+  private static final int SEGMENT_INDEX_STRIDE = 3;
   private static final String NO_CHILDNODE_MSG = " does not have the child node ";
   private static transient ThreadLocal<Integer> limit = new ThreadLocal<>();
   private static transient ThreadLocal<Integer> offset = new ThreadLocal<>();
@@ -1333,15 +1351,209 @@ public class MTree implements Serializable {
     }
   }
 
+  /**
+   * Serialize the MTree into a snapshot in post order. The subtrees of the storage groups are
+   * serialized concurrently into temporary segment files, which are appended to the snapshot in
+   * place of the children of the storage groups, so the snapshot is the same as a sequential one.
+   * The byte ranges of the segments are recorded in an index file beside the snapshot, so that
+   * {@link #deserializeFrom(File, boolean)} can also parse them concurrently, or lazily. The
+   * children of the storage groups loaded lazily are all parsed while they are serialized, so the
+   * snapshot can be replaced afterwards.
+   */
   public void serializeTo(String snapshotPath) throws IOException {
-    try (MLogWriter mLogWriter = new MLogWriter(snapshotPath)) {
-      root.serializeTo(mLogWriter);
+    File snapshotFile = SystemFileFactory.INSTANCE.getFile(snapshotPath);
+    File indexFile = getSnapshotIndexFile(snapshotFile);
+    Files.deleteIfExists(indexFile.toPath());
+    List<StorageGroupMNode> storageGroupNodes = getAllStorageGroupNodes();
+    if (storageGroupNodes.size() < 2) {
+      try (MLogWriter mLogWriter = new MLogWriter(snapshotPath)) {
+        root.serializeTo(mLogWriter);
+      }
+      return;
+    }
+
+    ExecutorService pool =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            Math.min(storageGroupNodes.size(), Runtime.getRuntime().availableProcessors()),
+            ThreadName.MTREE_SNAPSHOT.getName());
+    Map<MNode, Pair<File, Future<Pair<Integer, Integer>>>> segments = new HashMap<>();
+    try {
+      for (StorageGroupMNode storageGroupNode : storageGroupNodes) {
+        File segmentFile =
+            SystemFileFactory.INSTANCE.getFile(
+                snapshotPath + SNAPSHOT_SEGMENT_SUFFIX + segments.size());
+        Files.deleteIfExists(segmentFile.toPath());
+        Future<Pair<Integer, Integer>> future =
+            pool.submit(() -> serializeSegment(storageGroupNode, segmentFile));
+        segments.put(storageGroupNode, new Pair<>(segmentFile, future));
+      }
+
+      List<Long> segmentIndex = new ArrayList<>();
+      boolean indexed;
+      try (MLogWriter mLogWriter = new MLogWriter(snapshotPath)) {
+        indexed = serializeUpperLevels(root, mLogWriter, snapshotFile, segments, segmentIndex);
+      }
+      // storage groups created or deleted during the serialization leave the segments unmatched
+      if (indexed && segmentIndex.size() == segments.size() * SEGMENT_INDEX_STRIDE) {
+        writeSnapshotIndex(indexFile, snapshotFile.length(), segmentIndex);
+      }
+    } finally {
+      pool.shutdownNow();
+      for (Pair<File, Future<Pair<Integer, Integer>>> segment : segments.values()) {
+        Files.deleteIfExists(segment.left.toPath());
+      }
+    }
+  }
+
+  public static File getSnapshotIndexFile(File snapshotFile) {
+    return SystemFileFactory.INSTANCE.getFile(
+        snapshotFile.getPath() + MetadataConstant.MTREE_SNAPSHOT_INDEX_SUFFIX);
+  }
+
+  /**
+   * @return the number of children of the storage group serialized into the segment, and the
+   *     number of MeasurementMNodes among their subtrees
+   */
+  private static Pair<Integer, Integer> serializeSegment(
+      StorageGroupMNode storageGroupNode, File segmentFile) throws IOException {
+    int childSize = 0;
+    int measurementMNodeCount = 0;
+    try (MLogWriter mLogWriter = new MLogWriter(segmentFile.getPath())) {
+      for (MNode child : storageGroupNode.getChildren().values()) {
+        child.serializeTo(mLogWriter);
+        childSize++;
+        measurementMNodeCount += child.getMeasurementMNodeCount();
+      }
+    }
+    return new Pair<>(childSize, measurementMNodeCount);
+  }
+
+  /**
+   * serialize the nodes above the storage groups, the children of each storage group are copied
+   * from its segment file.
+   *
+   * @return false if some storage group has no segment, which is serialized sequentially then
+   */
+  private boolean serializeUpperLevels(
+      MNode node,
+      MLogWriter mLogWriter,
+      File snapshotFile,
+      Map<MNode, Pair<File, Future<Pair<Integer, Integer>>>> segments,
+      List<Long> segmentIndex)
+      throws IOException {
+    if (node instanceof StorageGroupMNode) {
+      Pair<File, Future<Pair<Integer, Integer>>> segment = segments.get(node);
+      if (segment == null) {
+        node.serializeTo(mLogWriter);
+        return false;
+      }
+      Pair<Integer, Integer> segmentResult = getSegmentResult(segment.right);
+      segmentIndex.add(snapshotFile.length());
+      appendFile(segment.left, snapshotFile);
+      segmentIndex.add(snapshotFile.length());
+      segmentIndex.add((long) segmentResult.right);
+      mLogWriter.serializeStorageGroupMNode((StorageGroupMNode) node, segmentResult.left);
+      return true;
+    }
+
+    boolean indexed = true;
+    for (MNode child : node.getChildren().values()) {
+      indexed &= serializeUpperLevels(child, mLogWriter, snapshotFile, segments, segmentIndex);
+    }
+    mLogWriter.serializeMNode(node);
+    return indexed;
+  }
+
+  private static <T> T getSegmentResult(Future<T> segment) throws IOException {
+    try {
+      return segment.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private static void appendFile(File source, File target) throws IOException {
+    try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+        FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE)) {
+      long size = in.size();
+      long position = 0;
+      out.position(out.size());
+      while (position < size) {
+        position += in.transferTo(position, size - position, out);
+      }
+    }
+  }
+
+  /**
+   * the index is the length of the snapshot followed by the [start, end) of each segment and the
+   * number of MeasurementMNodes in it
+   */
+  private static void writeSnapshotIndex(File indexFile, long snapshotLength, List<Long> index)
+      throws IOException {
+    try (DataOutputStream outputStream =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+      outputStream.writeLong(snapshotLength);
+      outputStream.writeInt(index.size());
+      for (long value : index) {
+        outputStream.writeLong(value);
+      }
+    }
+  }
+
+  private static long[] readSnapshotIndex(File indexFile, File snapshotFile) throws IOException {
+    try (DataInputStream inputStream =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+      if (inputStream.readLong() != snapshotFile.length()) {
+        throw new IOException("The snapshot does not match its index " + indexFile.getPath());
+      }
+      long[] index = new long[inputStream.readInt()];
+      if (index.length % SEGMENT_INDEX_STRIDE != 0) {
+        throw new IOException("The snapshot index is corrupted " + indexFile.getPath());
+      }
+      for (int i = 0; i < index.length; i++) {
+        index[i] = inputStream.readLong();
+      }
+      if (inputStream.read() != -1) {
+        throw new IOException("The snapshot index is corrupted " + indexFile.getPath());
+      }
+      return index;
     }
   }
 
   public static MTree deserializeFrom(File mtreeSnapshot) {
-    try (MLogReader mLogReader = new MLogReader(mtreeSnapshot)) {
-      return deserializeFromReader(mLogReader);
+    return deserializeFrom(mtreeSnapshot, false);
+  }
+
+  /**
+   * @param lazily whether to parse only the nodes above the children of the storage groups when the
+   *     snapshot is indexed, the children of each storage group are parsed when they are first
+   *     accessed. The snapshot must not be changed until then, see {@link #serializeTo(String)}.
+   */
+  public static MTree deserializeFrom(File mtreeSnapshot, boolean lazily) {
+    try {
+      File indexFile = getSnapshotIndexFile(mtreeSnapshot);
+      if (indexFile.exists()) {
+        try {
+          long[] segmentIndex = readSnapshotIndex(indexFile, mtreeSnapshot);
+          // e.g., no storage group has children, so that there is nothing to parse apart
+          if (segmentIndex.length > 0) {
+            return lazily
+                ? deserializeLazily(mtreeSnapshot, segmentIndex)
+                : deserializeConcurrently(mtreeSnapshot, segmentIndex);
+          }
+        } catch (IOException e) {
+          logger.warn(
+              "Failed to deserialize from {} by its index, try sequentially.",
+              mtreeSnapshot.getPath(),
+              e);
+        }
+      }
+      try (MLogReader mLogReader = new MLogReader(mtreeSnapshot)) {
+        return deserializeFromReader(mLogReader);
+      }
     } catch (IOException e) {
       logger.warn("Failed to deserialize from {}. Use a new MTree.", mtreeSnapshot.getPath());
       return new MTree();
@@ -1353,9 +1565,93 @@ public class MTree implements Serializable {
     }
   }
 
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
-  private static MTree deserializeFromReader(MLogReader mLogReader) {
+  /**
+   * parse the segments of the snapshot concurrently, while the ranges between them, which hold the
+   * nodes above the children of the storage groups, are parsed in order by the current thread.
+   */
+  private static MTree deserializeConcurrently(File mtreeSnapshot, long[] segmentIndex)
+      throws IOException {
+    ExecutorService pool =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            Math.min(
+                segmentIndex.length / SEGMENT_INDEX_STRIDE,
+                Runtime.getRuntime().availableProcessors()),
+            ThreadName.MTREE_SNAPSHOT.getName());
+    try {
+      List<Future<Deque<MNode>>> segments = new ArrayList<>();
+      for (int i = 0; i < segmentIndex.length; i += SEGMENT_INDEX_STRIDE) {
+        long start = segmentIndex[i];
+        long end = segmentIndex[i + 1];
+        segments.add(
+            pool.submit(
+                () -> deserializeRange(mtreeSnapshot, start, end, new ArrayDeque<>(), null)));
+      }
+      return deserializeUpperLevels(mtreeSnapshot, segmentIndex, new ParsedSegments(segments));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * parse the nodes above the children of the storage groups, whose children are parsed from the
+   * snapshot when they are first accessed.
+   */
+  private static MTree deserializeLazily(File mtreeSnapshot, long[] segmentIndex)
+      throws IOException {
+    return deserializeUpperLevels(
+        mtreeSnapshot, segmentIndex, new LazySegments(mtreeSnapshot, segmentIndex));
+  }
+
+  /**
+   * parse the ranges between the segments of the snapshot in order, which hold the nodes above the
+   * children of the storage groups.
+   */
+  private static MTree deserializeUpperLevels(
+      File mtreeSnapshot, long[] segmentIndex, SegmentSource segments) throws IOException {
     Deque<MNode> nodeStack = new ArrayDeque<>();
+    long position = 0;
+    for (int i = 0; i < segmentIndex.length; i += SEGMENT_INDEX_STRIDE) {
+      deserializeRange(mtreeSnapshot, position, segmentIndex[i], nodeStack, segments);
+      position = segmentIndex[i + 1];
+    }
+    deserializeRange(mtreeSnapshot, position, mtreeSnapshot.length(), nodeStack, segments);
+    if (segments.hasNext() || nodeStack.size() != 1) {
+      throw new IOException("The snapshot does not match its index");
+    }
+    return new MTree(nodeStack.pop());
+  }
+
+  /**
+   * @param segments the children of the storage groups in the range in order, or null if the
+   *     children are in the range
+   */
+  private static Deque<MNode> deserializeRange(
+      File mtreeSnapshot, long start, long end, Deque<MNode> nodeStack, SegmentSource segments)
+      throws IOException {
+    try (MLogReader mLogReader = new MLogReader(mtreeSnapshot, start, end - start)) {
+      deserializeNodes(mLogReader, nodeStack, segments);
+      if (mLogReader.isFileCorrupted()) {
+        throw new IOException("The snapshot is corrupted in [" + start + ", " + end + ")");
+      }
+    }
+    return nodeStack;
+  }
+
+  private static MTree deserializeFromReader(MLogReader mLogReader) throws IOException {
+    return new MTree(deserializeNodes(mLogReader, new ArrayDeque<>(), null));
+  }
+
+  /**
+   * parse the nodes in post order, each node takes its children from the top of the stack and is
+   * then pushed into the stack.
+   *
+   * @param segments the children of the storage groups in order, or null if they are parsed from
+   *     the reader
+   * @return the last parsed node
+   */
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  private static MNode deserializeNodes(
+      MLogReader mLogReader, Deque<MNode> nodeStack, SegmentSource segments) throws IOException {
     MNode node = null;
     while (mLogReader.hasNext()) {
       PhysicalPlan plan = null;
@@ -1368,6 +1664,10 @@ public class MTree implements Serializable {
         if (plan instanceof StorageGroupMNodePlan) {
           node = StorageGroupMNode.deserializeFrom((StorageGroupMNodePlan) plan);
           childrenSize = ((StorageGroupMNodePlan) plan).getChildSize();
+          if (segments != null) {
+            segments.attachNext((StorageGroupMNode) node, childrenSize);
+            childrenSize = 0;
+          }
         } else if (plan instanceof MeasurementMNodePlan) {
           node = MeasurementMNode.deserializeFrom((MeasurementMNodePlan) plan);
           childrenSize = ((MeasurementMNodePlan) plan).getChildSize();
@@ -1376,29 +1676,140 @@ public class MTree implements Serializable {
           childrenSize = ((MNodePlan) plan).getChildSize();
         }
 
-        if (childrenSize != 0) {
-          ConcurrentHashMap<String, MNode> childrenMap = new ConcurrentHashMap<>();
-          for (int i = 0; i < childrenSize; i++) {
-            MNode child = nodeStack.removeFirst();
-            child.setParent(node);
-            childrenMap.put(child.getName(), child);
-            if (child instanceof MeasurementMNode) {
-              String alias = ((MeasurementMNode) child).getAlias();
-              if (alias != null) {
-                node.addAlias(alias, child);
-              }
-            }
-          }
-          node.setChildren(childrenMap);
-        }
+        attachChildren(node, nodeStack, childrenSize);
         nodeStack.push(node);
+      } catch (IOException e) {
+        throw e;
       } catch (Exception e) {
         logger.error(
             "Can not operate cmd {} for err:", plan == null ? "" : plan.getOperatorType(), e);
       }
     }
+    return node;
+  }
+
+  /** take the children of the node from the top of the stack */
+  private static void attachChildren(MNode node, Deque<MNode> childrenStack, int childrenSize) {
+    if (childrenSize == 0) {
+      return;
+    }
+    ConcurrentHashMap<String, MNode> childrenMap = new ConcurrentHashMap<>();
+    for (int i = 0; i < childrenSize; i++) {
+      MNode child = childrenStack.removeFirst();
+      child.setParent(node);
+      childrenMap.put(child.getName(), child);
+      if (child instanceof MeasurementMNode) {
+        String alias = ((MeasurementMNode) child).getAlias();
+        if (alias != null) {
+          node.addAlias(alias, child);
+        }
+      }
+    }
+    node.setChildren(childrenMap);
+  }
+
+  /** the children of the storage groups, which are parsed apart from the nodes above them */
+  private interface SegmentSource {
+
+    /** attach the children in the next segment to the storage group */
+    void attachNext(StorageGroupMNode storageGroupNode, int childrenSize) throws IOException;
+
+    /** @return whether some segment is not attached to a storage group */
+    boolean hasNext();
+  }
+
+  /** the segments parsed concurrently, in the order of their storage groups */
+  private static class ParsedSegments implements SegmentSource {
+
+    private final Iterator<Future<Deque<MNode>>> segments;
+
+    private ParsedSegments(List<Future<Deque<MNode>>> segments) {
+      this.segments = segments.iterator();
+    }
+
+    @Override
+    public void attachNext(StorageGroupMNode storageGroupNode, int childrenSize)
+        throws IOException {
+      attachChildren(storageGroupNode, nextSegment(segments, childrenSize), childrenSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return segments.hasNext();
+    }
+  }
+
+  /** the segments of the snapshot, parsed when the children of their storage groups are accessed */
+  private static class LazySegments implements SegmentSource {
+
+    private final File mtreeSnapshot;
+    private final long snapshotLength;
+    private final long[] segmentIndex;
+    private int nextIndex = 0;
 
-    return new MTree(node);
+    private LazySegments(File mtreeSnapshot, long[] segmentIndex) {
+      this.mtreeSnapshot = mtreeSnapshot;
+      this.snapshotLength = mtreeSnapshot.length();
+      this.segmentIndex = segmentIndex;
+    }
+
+    @Override
+    public void attachNext(StorageGroupMNode storageGroupNode, int childrenSize)
+        throws IOException {
+      if (!hasNext()) {
+        throw new IOException("The snapshot has more storage groups than its index");
+      }
+      long start = segmentIndex[nextIndex];
+      long end = segmentIndex[nextIndex + 1];
+      int measurementMNodeCount = (int) segmentIndex[nextIndex + 2];
+      nextIndex += SEGMENT_INDEX_STRIDE;
+      if (childrenSize == 0) {
+        return;
+      }
+      storageGroupNode.setChildrenLoader(
+          new StorageGroupMNode.ChildrenLoader() {
+            @Override
+            public Collection<MNode> load() throws IOException {
+              if (mtreeSnapshot.length() != snapshotLength) {
+                throw new IOException("The snapshot has been changed " + mtreeSnapshot.getPath());
+              }
+              Deque<MNode> children =
+                  deserializeRange(mtreeSnapshot, start, end, new ArrayDeque<>(), null);
+              if (children.size() != childrenSize) {
+                throw new IOException(
+                    String.format(
+                        "The segment of a storage group has %d children instead of %d",
+                        children.size(), childrenSize));
+              }
+              return children;
+            }
+
+            @Override
+            public int getMeasurementMNodeCount() {
+              return measurementMNodeCount;
+            }
+          });
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextIndex < segmentIndex.length;
+    }
+  }
+
+  private static Deque<MNode> nextSegment(
+      Iterator<Future<Deque<MNode>>> segments, int childrenSize) throws IOException {
+    if (!segments.hasNext()) {
+      throw new IOException("The snapshot has more storage groups than its index");
+    }
+    Deque<MNode> children = getSegmentResult(segments.next());
+    if (children.size() != childrenSize) {
+      throw new IOException(
+          String.format(
+              "The segment of a storage group has %d children instead of %d",
+              children.size(), childrenSize));
+    }
+    return children;
   }
 
   @Override
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.metadata;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.tsfile.common.cache.LRUCache;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
@@ -33,6 +34,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 public class TagLogFile implements AutoCloseable {
@@ -48,6 +50,13 @@ public class TagLogFile implements AutoCloseable {
 
   private static final byte FILL_BYTE = 0;
 
+  /**
+   * offset -> (tags, attributes) of recently read or written records, so that listing many
+   * timeseries does not issue one random read per series. Cached maps are never handed out, callers
+   * get copies which they may modify.
+   */
+  private final LRUCache<Long, Pair<Map<String, String>, Map<String, String>>> tagCache;
+
   public TagLogFile(String schemaDir, String logFileName) throws IOException {
 
     File metadataDir = SystemFileFactory.INSTANCE.getFile(schemaDir);
@@ -70,6 +79,16 @@ public class TagLogFile implements AutoCloseable {
             StandardOpenOption.DSYNC);
     // move the current position to the tail of the file
     this.fileChannel.position(fileChannel.size());
+
+    this.tagCache =
+        new LRUCache<Long, Pair<Map<String, String>, Map<String, String>>>(
+            IoTDBDescriptor.getInstance().getConfig().getTagAttributeCacheSize()) {
+          @Override
+          protected Pair<Map<String, String>, Map<String, String>> loadObjectByKey(Long position)
+              throws IOException {
+            return readFromFile(MAX_LENGTH, position);
+          }
+        };
   }
 
   /** @return tags map, attributes map */
@@ -78,17 +97,26 @@ public class TagLogFile implements AutoCloseable {
     if (position < 0) {
       return new Pair<>(Collections.emptyMap(), Collections.emptyMap());
     }
-    ByteBuffer byteBuffer = ByteBuffer.allocate(size);
-    fileChannel.read(byteBuffer, position);
-    byteBuffer.flip();
-    return new Pair<>(ReadWriteIOUtils.readMap(byteBuffer), ReadWriteIOUtils.readMap(byteBuffer));
+    if (size != MAX_LENGTH) {
+      return readFromFile(size, position);
+    }
+    Pair<Map<String, String>, Map<String, String>> cached = tagCache.get(position);
+    return new Pair<>(new HashMap<>(cached.left), new HashMap<>(cached.right));
   }
 
   public Map<String, String> readTag(int size, long position) throws IOException {
+    if (size != MAX_LENGTH) {
+      return readFromFile(size, position).left;
+    }
+    return new HashMap<>(tagCache.get(position).left);
+  }
+
+  private Pair<Map<String, String>, Map<String, String>> readFromFile(int size, long position)
+      throws IOException {
     ByteBuffer byteBuffer = ByteBuffer.allocate(size);
     fileChannel.read(byteBuffer, position);
     byteBuffer.flip();
-    return ReadWriteIOUtils.readMap(byteBuffer);
+    return new Pair<>(ReadWriteIOUtils.readMap(byteBuffer), ReadWriteIOUtils.readMap(byteBuffer));
   }
 
   public long write(Map<String, String> tagMap, Map<String, String> attributeMap)
@@ -103,7 +131,10 @@ public class TagLogFile implements AutoCloseable {
   public void write(Map<String, String> tagMap, Map<String, String> attributeMap, long position)
       throws IOException, MetadataException {
     ByteBuffer byteBuffer = convertMapToByteBuffer(tagMap, attributeMap);
+    tagCache.removeItem(position);
     fileChannel.write(byteBuffer, position);
+    // the record may have been cached by a concurrent read before the write
+    tagCache.removeItem(position);
   }
 
   private ByteBuffer convertMapToByteBuffer(
@@ -162,6 +193,7 @@ public class TagLogFile implements AutoCloseable {
 
   @Override
   public void close() throws IOException {
+    tagCache.clear();
     fileChannel.force(true);
     fileChannel.close();
     fileChannel = null;
@@ -56,6 +56,12 @@ public class MLogReader implements AutoCloseable {
     singleFileLogReader = new SingleFileLogReader(this.logFile);
   }
 
+  /** read the logs in [offset, offset + length) of the file only */
+  public MLogReader(File logFile, long offset, long length) throws IOException {
+    this.logFile = logFile;
+    singleFileLogReader = new SingleFileLogReader(this.logFile, offset, length);
+  }
+
   public boolean hasNext() {
     return !singleFileLogReader.isFileCorrupted() && singleFileLogReader.hasNext();
   }
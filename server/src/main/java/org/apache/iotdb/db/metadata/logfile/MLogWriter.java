@@ -176,6 +176,11 @@ public class MLogWriter implements AutoCloseable {
     if (node.getChildren() != null) {
       childSize = node.getChildren().size();
     }
+    serializeStorageGroupMNode(node, childSize);
+  }
+
+  /** @param childSize the number of children actually serialized before the node */
+  public void serializeStorageGroupMNode(StorageGroupMNode node, int childSize) throws IOException {
     StorageGroupMNodePlan plan =
         new StorageGroupMNodePlan(node.getName(), node.getDataTTL(), childSize);
     putLog(plan);
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.mnode;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A copy-on-write map for the few children of an MNode. Keys and values are kept in one flat array
+ * [k0, v0, k1, v1, ...] which is replaced on each modification, so reads and iterations are
+ * lock-free and see a consistent snapshot, like the weakly consistent iterators of
+ * ConcurrentHashMap. It costs one array slot per key and value instead of a hash table plus one
+ * entry object per child, and is meant to be replaced by a ConcurrentHashMap once the node has more
+ * than {@link MNode#CHILDREN_ARRAY_THRESHOLD} children.
+ */
+class ArrayChildrenMap extends AbstractMap<String, MNode> {
+
+  private static final Object[] EMPTY = new Object[0];
+
+  @SuppressWarnings("squid:S3077") // the array is never modified after being published
+  private volatile Object[] table;
+
+  ArrayChildrenMap() {
+    table = EMPTY;
+  }
+
+  ArrayChildrenMap(Map<String, MNode> map) {
+    Object[] newTable = new Object[map.size() << 1];
+    int i = 0;
+    for (Entry<String, MNode> entry : map.entrySet()) {
+      newTable[i++] = entry.getKey();
+      newTable[i++] = entry.getValue();
+    }
+    table = i == newTable.length ? newTable : Arrays.copyOf(newTable, i);
+  }
+
+  private static int indexOf(Object[] tab, Object key) {
+    for (int i = 0; i < tab.length; i += 2) {
+      if (tab[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public MNode get(Object key) {
+    Object[] tab = table;
+    int index = indexOf(tab, key);
+    return index < 0 ? null : (MNode) tab[index + 1];
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(table, key) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return table.length >> 1;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return table.length == 0;
+  }
+
+  @Override
+  public synchronized MNode put(String key, MNode value) {
+    Object[] tab = table;
+    int index = indexOf(tab, key);
+    if (index >= 0) {
+      MNode old = (MNode) tab[index + 1];
+      Object[] newTable = tab.clone();
+      newTable[index + 1] = value;
+      table = newTable;
+      return old;
+    }
+    Object[] newTable = Arrays.copyOf(tab, tab.length + 2);
+    newTable[tab.length] = key;
+    newTable[tab.length + 1] = value;
+    table = newTable;
+    return null;
+  }
+
+  @Override
+  public synchronized MNode putIfAbsent(String key, MNode value) {
+    MNode old = get(key);
+    return old != null ? old : put(key, value);
+  }
+
+  @Override
+  public synchronized MNode remove(Object key) {
+    Object[] tab = table;
+    int index = indexOf(tab, key);
+    if (index < 0) {
+      return null;
+    }
+    Object[] newTable = new Object[tab.length - 2];
+    System.arraycopy(tab, 0, newTable, 0, index);
+    System.arraycopy(tab, index + 2, newTable, index, tab.length - index - 2);
+    table = newTable;
+    return (MNode) tab[index + 1];
+  }
+
+  @Override
+  public synchronized void clear() {
+    table = EMPTY;
+  }
+
+  @Override
+  public Set<Entry<String, MNode>> entrySet() {
+    return new AbstractSet<Entry<String, MNode>>() {
+      @Override
+      public Iterator<Entry<String, MNode>> iterator() {
+        return new EntryIterator(table);
+      }
+
+      @Override
+      public int size() {
+        return ArrayChildrenMap.this.size();
+      }
+    };
+  }
+
+  /** iterates over a snapshot of the table, removal is applied to the map by key */
+  private class EntryIterator implements Iterator<Entry<String, MNode>> {
+
+    private final Object[] snapshot;
+    private int next = 0;
+    private String lastKey = null;
+
+    private EntryIterator(Object[] snapshot) {
+      this.snapshot = snapshot;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < snapshot.length;
+    }
+
+    @Override
+    public Entry<String, MNode> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      lastKey = (String) snapshot[next];
+      Entry<String, MNode> entry = new SimpleImmutableEntry<>(lastKey, (MNode) snapshot[next + 1]);
+      next += 2;
+      return entry;
+    }
+
+    @Override
+    public void remove() {
+      if (lastKey == null) {
+        throw new IllegalStateException();
+      }
+      ArrayChildrenMap.this.remove(lastKey);
+      lastKey = null;
+    }
+  }
+}
@@ -23,10 +23,15 @@ import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.metadata.logfile.MLogWriter;
 import org.apache.iotdb.db.rescon.CachedStringPool;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -42,6 +47,13 @@ public class MNode implements Serializable {
   private static Map<String, String> cachedPathPool =
       CachedStringPool.getInstance().getCachedPool();
 
+  /**
+   * Measurement names are repeated under most devices (e.g. "s1", "temperature"), so one shared
+   * instance is kept for each of them instead of one String per MeasurementMNode. The interner
+   * holds the names weakly, so the names of deleted series are released with their nodes.
+   */
+  private static final Interner<String> NAME_INTERNER = Interners.newWeakInterner();
+
   /** Name of the MNode */
   protected String name;
 
@@ -50,11 +62,19 @@ public class MNode implements Serializable {
   /** from root to this node, only be set when used once for InternalMNode */
   protected String fullPath;
 
+  /**
+   * Children are kept in an {@link ArrayChildrenMap} while there are at most this many of them, and
+   * in a ConcurrentHashMap afterwards. Most devices have a handful of measurements, and most
+   * internal nodes a handful of children, for which a hash table wastes memory.
+   */
+  public static final int CHILDREN_ARRAY_THRESHOLD = 8;
+
   /**
    * use in Measurement Node so it's protected suppress warnings reason: volatile for double
    * synchronized check
    *
-   * <p>This will be a ConcurrentHashMap instance
+   * <p>This will be an ArrayChildrenMap or a ConcurrentHashMap instance. Modifications of an
+   * ArrayChildrenMap are synchronized on this node, so that it can be upgraded safely.
    */
   @SuppressWarnings("squid:S3077")
   protected transient volatile Map<String, MNode> children = null;
@@ -62,10 +82,10 @@ public class MNode implements Serializable {
   /**
    * suppress warnings reason: volatile for double synchronized check
    *
-   * <p>This will be a ConcurrentHashMap instance
+   * <p>This will be an ArrayChildrenMap or a ConcurrentHashMap instance
    */
   @SuppressWarnings("squid:S3077")
-  private transient volatile Map<String, MNode> aliasChildren = null;
+  protected transient volatile Map<String, MNode> aliasChildren = null;
 
   /** Constructor of MNode. */
   public MNode(MNode parent, String name) {
@@ -73,8 +93,13 @@ public class MNode implements Serializable {
     this.name = name;
   }
 
+  static String internName(String name) {
+    return NAME_INTERNER.intern(name);
+  }
+
   /** check whether the MNode has a child with the name */
   public boolean hasChild(String name) {
+    loadChildren();
     return (children != null && children.containsKey(name))
         || (aliasChildren != null && aliasChildren.containsKey(name));
   }
@@ -90,34 +115,108 @@ public class MNode implements Serializable {
      * measurementNode's children should be null to save memory
      * add child method will only be called when writing MTree, which is not a frequent operation
      */
-    if (children == null) {
-      // double check, children is volatile
-      synchronized (this) {
-        if (children == null) {
-          children = new ConcurrentHashMap<>();
-        }
-      }
+    loadChildren();
+    Map<String, MNode> current = children;
+    if (current instanceof ConcurrentHashMap) {
+      current.putIfAbsent(name, child);
+      return;
+    }
+    synchronized (this) {
+      children = putIfAbsent(children, name, child);
     }
-
-    children.putIfAbsent(name, child);
   }
 
   /** delete a child */
   public void deleteChild(String name) {
-    if (children != null) {
-      children.remove(name);
+    loadChildren();
+    Map<String, MNode> current = children;
+    if (current instanceof ConcurrentHashMap) {
+      current.remove(name);
+    } else if (current != null) {
+      synchronized (this) {
+        children.remove(name);
+      }
     }
   }
 
   /** delete the alias of a child */
   public void deleteAliasChild(String alias) {
-    if (aliasChildren != null) {
-      aliasChildren.remove(alias);
+    loadChildren();
+    Map<String, MNode> current = aliasChildren;
+    if (current instanceof ConcurrentHashMap) {
+      current.remove(alias);
+    } else if (current != null) {
+      synchronized (this) {
+        aliasChildren.remove(alias);
+      }
+    }
+  }
+
+  /**
+   * load the children which are not kept in memory yet, e.g., those of a storage group that are
+   * parsed from the MTree snapshot on first access. It is called before the children are accessed.
+   */
+  protected void loadChildren() {
+    // the children of a common node are always in memory
+  }
+
+  /**
+   * set the children parsed apart from this node, together with the aliases of the measurements
+   * among them. Unlike setChildren, it does not load the children first.
+   */
+  protected void setLoadedChildren(Collection<MNode> childNodes) {
+    Map<String, MNode> childMap = new HashMap<>();
+    Map<String, MNode> aliasMap = new HashMap<>();
+    for (MNode child : childNodes) {
+      child.setParent(this);
+      childMap.put(child.getName(), child);
+      if (child instanceof MeasurementMNode) {
+        String alias = ((MeasurementMNode) child).getAlias();
+        if (alias != null) {
+          aliasMap.put(alias, child);
+        }
+      }
+    }
+    aliasChildren = aliasMap.isEmpty() ? null : compactChildren(aliasMap);
+    children = childMap.isEmpty() ? null : compactChildren(childMap);
+  }
+
+  /**
+   * put the child into the map if absent, creating the map or upgrading it to a ConcurrentHashMap
+   * when needed. Must be called while holding the lock of this node.
+   *
+   * @return the map holding the child, which should replace the given one
+   */
+  private static Map<String, MNode> putIfAbsent(Map<String, MNode> map, String name, MNode child) {
+    if (map == null) {
+      map = new ArrayChildrenMap();
+    } else if (map instanceof ArrayChildrenMap
+        && map.size() >= CHILDREN_ARRAY_THRESHOLD
+        && !map.containsKey(name)) {
+      map = new ConcurrentHashMap<>(map);
+    }
+    map.putIfAbsent(name, child);
+    return map;
+  }
+
+  private static Map<String, MNode> toSharedChildren(Map<String, MNode> children) {
+    if (children instanceof ConcurrentHashMap) {
+      return children;
     }
+    return children == null ? new ConcurrentHashMap<>() : new ConcurrentHashMap<>(children);
+  }
+
+  /** @return an ArrayChildrenMap or a ConcurrentHashMap holding the given children */
+  static Map<String, MNode> compactChildren(Map<String, MNode> children) {
+    if (children.size() <= CHILDREN_ARRAY_THRESHOLD) {
+      return children instanceof ArrayChildrenMap ? children : new ArrayChildrenMap(children);
+    }
+    return children instanceof ConcurrentHashMap ? children : new ConcurrentHashMap<>(children);
   }
 
   /** get the child with the name */
   public MNode getChild(String name) {
+    loadChildren();
     MNode child = null;
     if (children != null) {
       child = children.get(name);
@@ -130,6 +229,7 @@ public class MNode implements Serializable {
 
   /** get the count of all MeasurementMNode whose ancestor is current node */
   public int getMeasurementMNodeCount() {
+    loadChildren();
     if (children == null) {
       return 1;
     }
@@ -145,16 +245,15 @@ public class MNode implements Serializable {
 
   /** add an alias */
   public boolean addAlias(String alias, MNode child) {
-    if (aliasChildren == null) {
-      // double check, alias children volatile
-      synchronized (this) {
-        if (aliasChildren == null) {
-          aliasChildren = new ConcurrentHashMap<>();
-        }
-      }
+    loadChildren();
+    Map<String, MNode> current = aliasChildren;
+    if (current instanceof ConcurrentHashMap) {
+      return current.computeIfAbsent(alias, aliasName -> child) == child;
+    }
+    synchronized (this) {
+      aliasChildren = putIfAbsent(aliasChildren, alias, child);
+      return aliasChildren.get(alias) == child;
     }
-
-    return aliasChildren.computeIfAbsent(alias, aliasName -> child) == child;
   }
 
   /** get full path */
@@ -206,6 +305,7 @@ public class MNode implements Serializable {
   }
 
   public Map<String, MNode> getChildren() {
+    loadChildren();
     if (children == null) {
       return Collections.emptyMap();
     }
@@ -213,6 +313,7 @@ public class MNode implements Serializable {
   }
 
   public Map<String, MNode> getAliasChildren() {
+    loadChildren();
     if (aliasChildren == null) {
       return Collections.emptyMap();
     }
@@ -220,11 +321,8 @@ public class MNode implements Serializable {
   }
 
   public void setChildren(Map<String, MNode> children) {
-    this.children = children;
-  }
-
-  private void setAliasChildren(Map<String, MNode> aliasChildren) {
-    this.aliasChildren = aliasChildren;
+    loadChildren();
+    this.children = children == null || children.isEmpty() ? null : compactChildren(children);
   }
 
   public String getName() {
@@ -242,6 +340,7 @@ public class MNode implements Serializable {
   }
 
   void serializeChildren(MLogWriter logWriter) throws IOException {
+    loadChildren();
     if (children == null) {
       return;
     }
@@ -256,15 +355,19 @@ public class MNode implements Serializable {
       return;
     }
 
-    // newChildNode builds parent-child relationship
-    Map<String, MNode> grandChildren = oldChildNode.getChildren();
-    newChildNode.setChildren(grandChildren);
-    grandChildren.forEach(
+    oldChildNode.loadChildren();
+    // newChildNode builds parent-child relationship. The maps are shared under the lock taken to
+    // add children to an ArrayChildrenMap, and as ConcurrentHashMaps, which are never replaced, so
+    // that a child added to the old node concurrently is also a child of the new one.
+    synchronized (oldChildNode) {
+      oldChildNode.children = toSharedChildren(oldChildNode.children);
+      newChildNode.children = oldChildNode.children;
+      oldChildNode.aliasChildren = toSharedChildren(oldChildNode.aliasChildren);
+      newChildNode.aliasChildren = oldChildNode.aliasChildren;
+    }
+    newChildNode.children.forEach(
         (grandChildName, grandChildNode) -> grandChildNode.setParent(newChildNode));
-
-    Map<String, MNode> grandAliasChildren = oldChildNode.getAliasChildren();
-    newChildNode.setAliasChildren(grandAliasChildren);
-    grandAliasChildren.forEach(
+    newChildNode.aliasChildren.forEach(
         (grandAliasChildName, grandAliasChild) -> grandAliasChild.setParent(newChildNode));
 
     newChildNode.setParent(this);
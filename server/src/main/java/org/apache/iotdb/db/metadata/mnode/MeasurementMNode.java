@@ -53,14 +53,18 @@ public class MeasurementMNode extends MNode {
       TSEncoding encoding,
       CompressionType type,
       Map<String, String> props) {
-    super(parent, measurementName);
-    this.schema = new MeasurementSchema(measurementName, dataType, encoding, type, props);
+    super(parent, internName(measurementName));
+    this.schema = new MeasurementSchema(name, dataType, encoding, type, props);
     this.alias = alias;
   }
 
   public MeasurementMNode(
       MNode parent, String measurementName, MeasurementSchema schema, String alias) {
-    super(parent, measurementName);
+    super(parent, internName(measurementName));
+    if (name.equals(schema.getMeasurementId())) {
+      // share the name string with the schema
+      schema.setMeasurementId(name);
+    }
     this.schema = schema;
     this.alias = alias;
   }
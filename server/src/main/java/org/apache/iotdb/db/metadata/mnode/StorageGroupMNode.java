@@ -22,6 +22,7 @@ import org.apache.iotdb.db.metadata.logfile.MLogWriter;
 import org.apache.iotdb.db.qp.physical.sys.StorageGroupMNodePlan;
 
 import java.io.IOException;
+import java.util.Collection;
 
 public class StorageGroupMNode extends MNode {
 
@@ -33,6 +34,9 @@ public class StorageGroupMNode extends MNode {
    */
   private long dataTTL;
 
+  /** loads the children on first access, null if they are in memory */
+  private transient volatile ChildrenLoader childrenLoader;
+
   public StorageGroupMNode(MNode parent, String name, long dataTTL) {
     super(parent, name);
     this.dataTTL = dataTTL;
@@ -46,6 +50,43 @@ public class StorageGroupMNode extends MNode {
     this.dataTTL = dataTTL;
   }
 
+  /** the children will be loaded by the loader when they are first accessed */
+  public void setChildrenLoader(ChildrenLoader childrenLoader) {
+    this.childrenLoader = childrenLoader;
+  }
+
+  public boolean isChildrenLoaded() {
+    return childrenLoader == null;
+  }
+
+  @Override
+  protected void loadChildren() {
+    if (childrenLoader == null) {
+      return;
+    }
+    synchronized (this) {
+      ChildrenLoader loader = childrenLoader;
+      if (loader == null) {
+        return;
+      }
+      Collection<MNode> childNodes;
+      try {
+        childNodes = loader.load();
+      } catch (IOException e) {
+        throw new IllegalStateException("Cannot load the children of " + getFullPath(), e);
+      }
+      setLoadedChildren(childNodes);
+      // the children are set before the volatile write, so they are visible once it is seen
+      childrenLoader = null;
+    }
+  }
+
+  @Override
+  public int getMeasurementMNodeCount() {
+    ChildrenLoader loader = childrenLoader;
+    return loader == null ? super.getMeasurementMNodeCount() : loader.getMeasurementMNodeCount();
+  }
+
   @Override
   public void serializeTo(MLogWriter logWriter) throws IOException {
     serializeChildren(logWriter);
@@ -60,4 +101,14 @@ public class StorageGroupMNode extends MNode {
   public static StorageGroupMNode deserializeFrom(String[] nodeInfo) {
     return new StorageGroupMNode(null, nodeInfo[1], Long.valueOf(nodeInfo[2]));
   }
+
+  /** loads the children of a storage group which are not kept in memory, e.g., from a snapshot */
+  public interface ChildrenLoader {
+
+    /** @return the children, whose parent will be set to the storage group */
+    Collection<MNode> load() throws IOException;
+
+    /** @return the number of MeasurementMNodes among the subtrees of the children */
+    int getMeasurementMNodeCount();
+  }
 }
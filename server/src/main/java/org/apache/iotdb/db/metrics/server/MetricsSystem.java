@@ -20,6 +20,7 @@ package org.apache.iotdb.db.metrics.server;
 
 import org.apache.iotdb.db.metrics.sink.MetricsServletSink;
 import org.apache.iotdb.db.metrics.sink.Sink;
+import org.apache.iotdb.db.metrics.source.EngineSource;
 import org.apache.iotdb.db.metrics.source.MetricsSource;
 import org.apache.iotdb.db.metrics.source.Source;
 
@@ -76,6 +77,10 @@ public class MetricsSystem {
     MetricsSource source = new MetricsSource(serverArgument, metricRegistry);
     source.registerInfo();
     sources.add(source);
+
+    EngineSource engineSource = EngineSource.getInstance();
+    engineSource.registerInfo(metricRegistry);
+    sources.add(engineSource);
   }
 
   public void registerSinks() {}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metrics.source;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.TestOnly;
+
+import com.codahale.metrics.JmxReporter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EngineSource records the latency (as a Timer, i.e., a histogram and a meter) of each {@link
+ * Stage} and the rate of each {@link Event} of the engine while enable_engine_metrics is on. The
+ * metrics live as long as the process and are registered to JMX if enabled at startup, while each
+ * MetricsSystem registers them to its own registry.
+ *
+ * <p>Usage: record {@code long startTime = System.nanoTime()} before a stage, and call {@code
+ * EngineSource.getInstance().update(stage, startTime)} after it.
+ */
+public class EngineSource implements Source {
+
+  public static final String SOURCE_NAME = "engine";
+
+  private static final String JMX_DOMAIN = "org.apache.iotdb.metrics";
+
+  public enum Stage {
+    WAL_APPEND("wal.append"),
+    WAL_FLUSH("wal.flush"),
+    WAL_FSYNC("wal.fsync"),
+    MEMTABLE_INSERT("memtable.insert"),
+    FLUSH("flush.total"),
+    FLUSH_SORT("flush.sort"),
+    FLUSH_ENCODE("flush.encode"),
+    FLUSH_IO("flush.io"),
+    COMPACTION("compaction"),
+    CHUNK_CACHE_LOAD("cache.chunk.load"),
+    TIMESERIES_METADATA_CACHE_LOAD("cache.timeseries_metadata.load"),
+    QUERY_PLAN("query.plan"),
+    QUERY_EXECUTE("query.execute"),
+    QUERY_FETCH("query.fetch"),
+    RPC_QUEUE("rpc.queue");
+
+    private final String name;
+
+    Stage(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+  public enum Event {
+    FLUSH_POINTS("flush.points"),
+    COMPACTION_BYTES("compaction.bytes"),
+    CHUNK_CACHE_HIT("cache.chunk.hit"),
+    CHUNK_CACHE_MISS("cache.chunk.miss"),
+    TIMESERIES_METADATA_CACHE_HIT("cache.timeseries_metadata.hit"),
+    TIMESERIES_METADATA_CACHE_MISS("cache.timeseries_metadata.miss");
+
+    private final String name;
+
+    Event(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private final MetricRegistry metricRegistry = new MetricRegistry();
+  private final Timer[] timers = new Timer[Stage.values().length];
+  private final Meter[] meters = new Meter[Event.values().length];
+
+  private EngineSource() {
+    for (Stage stage : Stage.values()) {
+      timers[stage.ordinal()] = metricRegistry.timer(stage.getName());
+    }
+    for (Event event : Event.values()) {
+      meters[event.ordinal()] = metricRegistry.meter(event.getName());
+    }
+    if (config.isEnableEngineMetrics()) {
+      JmxReporter.forRegistry(metricRegistry)
+          .inDomain(JMX_DOMAIN)
+          .convertDurationsTo(TimeUnit.MILLISECONDS)
+          .build()
+          .start();
+    }
+  }
+
+  public static EngineSource getInstance() {
+    return EngineSourceHolder.INSTANCE;
+  }
+
+  /** record the latency of the stage that starts at startTime, which is from System.nanoTime() */
+  public void update(Stage stage, long startTime) {
+    if (config.isEnableEngineMetrics()) {
+      timers[stage.ordinal()].update(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  public void update(Stage stage, long duration, TimeUnit unit) {
+    if (config.isEnableEngineMetrics()) {
+      timers[stage.ordinal()].update(duration, unit);
+    }
+  }
+
+  public void mark(Event event) {
+    if (config.isEnableEngineMetrics()) {
+      meters[event.ordinal()].mark();
+    }
+  }
+
+  public void mark(Event event, long count) {
+    if (config.isEnableEngineMetrics()) {
+      meters[event.ordinal()].mark(count);
+    }
+  }
+
+  /** register the metrics of the engine to the registry of a MetricsSystem */
+  public void registerInfo(MetricRegistry registry) {
+    registry.register(SOURCE_NAME, metricRegistry);
+  }
+
+  @TestOnly
+  public Timer getTimer(Stage stage) {
+    return timers[stage.ordinal()];
+  }
+
+  @TestOnly
+  public Meter getMeter(Event event) {
+    return meters[event.ordinal()];
+  }
+
+  @Override
+  public String sourceName() {
+    return EngineSource.SOURCE_NAME;
+  }
+
+  private static class EngineSourceHolder {
+
+    private static final EngineSource INSTANCE = new EngineSource();
+
+    private EngineSourceHolder() {}
+  }
+}
@@ -159,17 +159,24 @@ public class StatMonitor implements StatMonitorMBean, IService {
   private TimeValuePair getLastValue(PartialPath monitorSeries)
       throws StorageEngineException, QueryProcessException, IOException {
     if (mManager.isPathExist(monitorSeries)) {
-      TimeValuePair timeValuePair =
-          LastQueryExecutor.calculateLastPairForSeriesLocally(
-                  Collections.singletonList(monitorSeries),
-                  Collections.singletonList(TSDataType.INT64),
-                  new QueryContext(QueryResourceManager.getInstance().assignQueryId(true, 1024, 1)),
-                  null,
-                  Collections.singletonMap(
-                      monitorSeries.getDevice(),
-                      Collections.singleton(monitorSeries.getMeasurement())))
-              .get(0)
-              .right;
+      long queryId = QueryResourceManager.getInstance().assignQueryId(true, 1024, 1);
+      TimeValuePair timeValuePair;
+      try {
+        timeValuePair =
+            LastQueryExecutor.calculateLastPairForSeriesLocally(
+                    Collections.singletonList(monitorSeries),
+                    Collections.singletonList(TSDataType.INT64),
+                    new QueryContext(queryId),
+                    null,
+                    Collections.singletonMap(
+                        monitorSeries.getDevice(),
+                        Collections.singleton(monitorSeries.getMeasurement())))
+                .get(0)
+                .right;
+      } finally {
+        // release what the query holds, e.g., the memtable data it reads
+        QueryResourceManager.getInstance().endQuery(queryId);
+      }
       if (timeValuePair.getValue() != null) {
         return timeValuePair;
       }
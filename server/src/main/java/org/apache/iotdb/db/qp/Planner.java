@@ -24,6 +24,8 @@ import org.apache.iotdb.db.exception.query.LogicalOptimizeException;
 import org.apache.iotdb.db.exception.query.PathNumOverLimitException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metrics.source.EngineSource;
+import org.apache.iotdb.db.metrics.source.EngineSource.Stage;
 import org.apache.iotdb.db.qp.constant.SQLConstant;
 import org.apache.iotdb.db.qp.logical.Operator;
 import org.apache.iotdb.db.qp.logical.crud.BasicFunctionOperator;
@@ -67,6 +69,7 @@ public class Planner {
   /** @param fetchSize this parameter only take effect when it is a query plan */
   public PhysicalPlan parseSQLToPhysicalPlan(String sqlStr, ZoneId zoneId, int fetchSize)
       throws QueryProcessException {
+    long startTime = System.nanoTime();
     Operator operator = logicalGenerator.generate(sqlStr, zoneId);
     int maxDeduplicatedPathNum =
         QueryResourceManager.getInstance().getMaxDeduplicatedPathNum(fetchSize);
@@ -79,7 +82,9 @@ public class Planner {
     }
     operator = logicalOptimize(operator, maxDeduplicatedPathNum);
     PhysicalGenerator physicalGenerator = new PhysicalGenerator();
-    return physicalGenerator.transformToPhysicalPlan(operator, fetchSize);
+    PhysicalPlan physicalPlan = physicalGenerator.transformToPhysicalPlan(operator, fetchSize);
+    EngineSource.getInstance().update(Stage.QUERY_PLAN, startTime);
+    return physicalPlan;
   }
 
   /** convert raw data query to physical plan directly */
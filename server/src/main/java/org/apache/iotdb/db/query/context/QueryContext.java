@@ -19,13 +19,13 @@
 
 package org.apache.iotdb.db.query.context;
 
+import org.apache.iotdb.db.engine.cache.ModificationCache;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.query.control.TracingInfo;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -38,17 +38,14 @@ public class QueryContext {
    * the value is the Modifications of a timeseries in this file.
    */
   private Map<String, Map<String, List<Modification>>> filePathModCache = new ConcurrentHashMap<>();
-  /**
-   * The key is the path of a ModificationFile and the value is all Modifications in this file. We
-   * use this field because each call of Modification.getModifications() return a copy of the
-   * Modifications, and we do not want it to create multiple copies within a query.
-   */
-  private Map<String, List<Modification>> fileModCache = new HashMap<>();
 
   private long queryId;
 
   private long queryTimeLowerBound = Long.MIN_VALUE;
 
+  /** the execution profile of the query, null if the query is not traced */
+  private TracingInfo tracingInfo;
+
   public QueryContext() {}
 
   public QueryContext(long queryId) {
@@ -56,31 +53,15 @@ public class QueryContext {
   }
 
   /**
-   * Find the modifications of timeseries 'path' in 'modFile'. If they are not in the cache, read
-   * them from 'modFile' and put then into the cache.
+   * Find the modifications of timeseries 'path' in 'modFile'. If they are not in the cache, get
+   * them from the ModificationCache shared by queries and put them into the cache, so they stay the
+   * same within a query.
    */
   public List<Modification> getPathModifications(ModificationFile modFile, PartialPath path) {
     Map<String, List<Modification>> fileModifications =
         filePathModCache.computeIfAbsent(modFile.getFilePath(), k -> new ConcurrentHashMap<>());
     return fileModifications.computeIfAbsent(
-        path.getFullPath(),
-        k -> {
-          List<Modification> allModifications = fileModCache.get(modFile.getFilePath());
-          if (allModifications == null) {
-            allModifications = (List<Modification>) modFile.getModifications();
-            fileModCache.put(modFile.getFilePath(), allModifications);
-          }
-          List<Modification> finalPathModifications = new ArrayList<>();
-          if (!allModifications.isEmpty()) {
-            allModifications.forEach(
-                modification -> {
-                  if (modification.getPath().matchFullPath(path)) {
-                    finalPathModifications.add(modification);
-                  }
-                });
-          }
-          return finalPathModifications;
-        });
+        path.getFullPath(), k -> ModificationCache.getInstance().get(modFile, path));
   }
 
   public long getQueryId() {
@@ -95,6 +76,14 @@ public class QueryContext {
     this.queryTimeLowerBound = queryTimeLowerBound;
   }
 
+  public TracingInfo getTracingInfo() {
+    return tracingInfo;
+  }
+
+  public void setTracingInfo(TracingInfo tracingInfo) {
+    this.tracingInfo = tracingInfo;
+  }
+
   public boolean chunkNotSatisfy(ChunkMetadata chunkMetaData) {
     return chunkMetaData.getEndTime() < queryTimeLowerBound;
   }
@@ -23,11 +23,11 @@ import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
-import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.TracingInfo.Activity;
 import org.apache.iotdb.db.query.externalsort.serialize.IExternalSortFileDeserializer;
 import org.apache.iotdb.db.query.udf.service.TemporaryQueryDataFileService;
 import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
@@ -39,10 +39,8 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -58,12 +56,6 @@ public class QueryResourceManager {
   private final QueryFileManager filePathsManager;
   private static final Logger logger = LoggerFactory.getLogger(QueryResourceManager.class);
   // record the total number and size of chunks for each query id
-  private Map<Long, Integer> chunkNumMap = new ConcurrentHashMap<>();
-  // chunk size represents the number of time-value points in the chunk
-  private Map<Long, Long> chunkSizeMap = new ConcurrentHashMap<>();
-  // record the distinct tsfiles for each query id
-  private Map<Long, Set<TsFileResource>> seqFileNumMap = new ConcurrentHashMap<>();
-  private Map<Long, Set<TsFileResource>> unseqFileNumMap = new ConcurrentHashMap<>();
   private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
   /**
@@ -73,6 +65,14 @@ public class QueryResourceManager {
    */
   private final Map<Long, List<IExternalSortFileDeserializer>> externalSortFileMap;
 
+  /**
+   * Record hooks to be run when a query ends, before its resources are released.
+   *
+   * <p>Key: query job id. Value: hooks that stop the work of the query running in other threads,
+   * or release what the query reads, e.g., the TVLists of memtables.
+   */
+  private final Map<Long, List<Runnable>> closeHookMap;
+
   private final Map<Long, Long> queryIdEstimatedMemoryMap;
 
   // current total free memory for reading process(not including the cache memory)
@@ -86,6 +86,7 @@ public class QueryResourceManager {
   private QueryResourceManager() {
     filePathsManager = new QueryFileManager();
     externalSortFileMap = new ConcurrentHashMap<>();
+    closeHookMap = new ConcurrentHashMap<>();
     queryIdEstimatedMemoryMap = new ConcurrentHashMap<>();
     totalFreeMemoryForRead =
         new AtomicLong(
@@ -122,14 +123,6 @@ public class QueryResourceManager {
     return queryId;
   }
 
-  public Map<Long, Integer> getChunkNumMap() {
-    return chunkNumMap;
-  }
-
-  public Map<Long, Long> getChunkSizeMap() {
-    return chunkSizeMap;
-  }
-
   /**
    * register temporary file generated by external sort for resource release.
    *
@@ -141,6 +134,26 @@ public class QueryResourceManager {
     externalSortFileMap.computeIfAbsent(queryId, x -> new ArrayList<>()).add(deserializer);
   }
 
+  /**
+   * register a hook that stops the work of a query running in other threads, e.g., the sub-queries
+   * executed in advance, or releases what the query reads, which is run when the query ends before
+   * its resources are released.
+   *
+   * @param queryId query job id
+   * @param closeHook the hook, which returns after the work has stopped
+   */
+  public void registerCloseHook(long queryId, Runnable closeHook) {
+    // the hook is added atomically with the removal in endQuery, so that it is either run with the
+    // removed hooks or in a new list, and a list is never changed after it is removed
+    closeHookMap.compute(
+        queryId,
+        (id, closeHooks) -> {
+          List<Runnable> hooks = closeHooks == null ? new ArrayList<>() : closeHooks;
+          hooks.add(closeHook);
+          return hooks;
+        });
+  }
+
   public QueryDataSource getQueryDataSource(
       PartialPath selectedPath, QueryContext context, Filter filter)
       throws StorageEngineException, QueryProcessException {
@@ -150,13 +163,10 @@ public class QueryResourceManager {
     QueryDataSource queryDataSource =
         StorageEngine.getInstance().query(singleSeriesExpression, context, filePathsManager);
     // calculate the distinct number of seq and unseq tsfiles
-    if (config.isEnablePerformanceTracing()) {
-      seqFileNumMap
-          .computeIfAbsent(context.getQueryId(), k -> new HashSet<>())
-          .addAll((queryDataSource.getSeqResources()));
-      unseqFileNumMap
-          .computeIfAbsent(context.getQueryId(), k -> new HashSet<>())
-          .addAll((queryDataSource.getUnseqResources()));
+    if (context.getTracingInfo() != null) {
+      context
+          .getTracingInfo()
+          .addFiles(queryDataSource.getSeqResources(), queryDataSource.getUnseqResources());
     }
     return queryDataSource;
   }
@@ -167,22 +177,28 @@ public class QueryResourceManager {
    */
   @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public void endQuery(long queryId) throws StorageEngineException {
+    // the work stopped by a hook may have registered other hooks before it stops
+    List<Runnable> closeHooks;
+    while ((closeHooks = closeHookMap.remove(queryId)) != null) {
+      for (Runnable closeHook : closeHooks) {
+        closeHook.run();
+      }
+    }
+
     try {
-      if (config.isEnablePerformanceTracing()) {
-        boolean isprinted = false;
-        if (seqFileNumMap.get(queryId) != null && unseqFileNumMap.get(queryId) != null) {
-          TracingManager.getInstance()
-              .writeTsFileInfo(
-                  queryId, seqFileNumMap.remove(queryId), unseqFileNumMap.remove(queryId));
-          isprinted = true;
-        }
-        if (chunkNumMap.get(queryId) != null && chunkSizeMap.get(queryId) != null) {
-          TracingManager.getInstance()
-              .writeChunksInfo(queryId, chunkNumMap.remove(queryId), chunkSizeMap.remove(queryId));
-        }
-        if (isprinted) {
-          TracingManager.getInstance().writeEndTime(queryId);
+      TracingInfo tracingInfo = TracingManager.getInstance().removeTracingInfo(queryId);
+      if (tracingInfo != null && config.isEnablePerformanceTracing()) {
+        TracingManager tracingManager = TracingManager.getInstance();
+        tracingManager.writeTsFileInfo(
+            queryId, tracingInfo.getSeqFiles(), tracingInfo.getUnseqFiles());
+        if (tracingInfo.get(Activity.CHUNKS) > 0) {
+          tracingManager.writeChunksInfo(
+              queryId,
+              tracingInfo.get(Activity.CHUNKS),
+              tracingInfo.get(Activity.CHUNK_POINTS));
         }
+        tracingManager.writeTracingInfo(queryId, tracingInfo);
+        tracingManager.writeEndTime(queryId);
       }
     } catch (IOException e) {
       logger.error(
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.control;
+
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.service.rpc.thrift.TSTracingInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * TracingInfo is the execution profile of a query executed while tracing is on. It is updated by
+ * all the threads reading for the query, and returned to the client with each batch of results.
+ */
+public class TracingInfo {
+
+  public enum Activity {
+    SERIES_FILES("TimeseriesMetadata considered"),
+    SERIES_FILES_PRUNED("TimeseriesMetadata pruned by bloom filter or time filter"),
+    SERIES_FILES_SKIPPED("TimeseriesMetadata skipped by statistics"),
+    TIMESERIES_METADATA_CACHE_HIT("TimeseriesMetadata cache hits"),
+    TIMESERIES_METADATA_CACHE_MISS("TimeseriesMetadata cache misses"),
+    CHUNKS("Chunks considered"),
+    CHUNK_POINTS("Points in chunks considered"),
+    CHUNKS_PRUNED("Chunks pruned by time filter"),
+    CHUNKS_SKIPPED("Chunks skipped by statistics"),
+    CHUNK_CACHE_HIT("Chunk cache hits"),
+    CHUNK_CACHE_MISS("Chunk cache misses"),
+    PAGES("Pages read"),
+    PAGES_PRUNED("Pages pruned by time filter"),
+    PAGES_SKIPPED("Pages skipped by statistics"),
+    BYTES_DECOMPRESSED("Bytes decompressed"),
+    POINTS_DECODED("Points decoded"),
+    OVERLAPPED_PAGES("Overlapped pages merged"),
+    MERGED_POINTS("Points merged from overlapped pages"),
+    EXECUTION_TIME("Execution time (us)"),
+    FETCH_TIME("Fetch time (us)");
+
+    private final String name;
+
+    Activity(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+  private final AtomicLongArray values = new AtomicLongArray(Activity.values().length);
+  private final Set<TsFileResource> seqFiles = ConcurrentHashMap.newKeySet();
+  private final Set<TsFileResource> unseqFiles = ConcurrentHashMap.newKeySet();
+
+  public void add(Activity activity, long delta) {
+    values.addAndGet(activity.ordinal(), delta);
+  }
+
+  public void increment(Activity activity) {
+    values.incrementAndGet(activity.ordinal());
+  }
+
+  public long get(Activity activity) {
+    return values.get(activity.ordinal());
+  }
+
+  public void addFiles(List<TsFileResource> seqResources, List<TsFileResource> unseqResources) {
+    seqFiles.addAll(seqResources);
+    unseqFiles.addAll(unseqResources);
+  }
+
+  public Set<TsFileResource> getSeqFiles() {
+    return seqFiles;
+  }
+
+  public Set<TsFileResource> getUnseqFiles() {
+    return unseqFiles;
+  }
+
+  /** @return the profile so far, including the numbers of distinct files queried */
+  public TSTracingInfo toTSTracingInfo() {
+    List<String> activityList = new ArrayList<>(Activity.values().length + 2);
+    List<Long> valueList = new ArrayList<>(Activity.values().length + 2);
+    activityList.add("Sequence files");
+    valueList.add((long) seqFiles.size());
+    activityList.add("Unsequence files");
+    valueList.add((long) unseqFiles.size());
+    for (Activity activity : Activity.values()) {
+      activityList.add(activity.getName());
+      valueList.add(get(activity));
+    }
+    return new TSTracingInfo(activityList, valueList);
+  }
+}
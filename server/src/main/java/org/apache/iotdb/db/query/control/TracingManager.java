@@ -43,6 +43,7 @@ public class TracingManager {
   private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss.SSS";
   private BufferedWriter writer;
   private Map<Long, Long> queryStartTime = new ConcurrentHashMap<>();
+  private Map<Long, TracingInfo> queryTracingInfo = new ConcurrentHashMap<>();
 
   public TracingManager(String dirName, String logFileName) {
     File tracingDir = SystemFileFactory.INSTANCE.getFile(dirName);
@@ -68,6 +69,20 @@ public class TracingManager {
     return TracingManagerHelper.INSTANCE;
   }
 
+  /** @return the profile to be filled during the execution of the query */
+  public TracingInfo registerQuery(long queryId) {
+    return queryTracingInfo.computeIfAbsent(queryId, k -> new TracingInfo());
+  }
+
+  /** @return the profile of the query, or null if the query is not traced */
+  public TracingInfo getTracingInfo(long queryId) {
+    return queryTracingInfo.get(queryId);
+  }
+
+  public TracingInfo removeTracingInfo(long queryId) {
+    return queryTracingInfo.remove(queryId);
+  }
+
   public void writeQueryInfo(long queryId, String statement, long startTime, int pathsNum)
       throws IOException {
     queryStartTime.put(queryId, startTime);
@@ -186,6 +201,21 @@ public class TracingManager {
     writer.write(builder.toString());
   }
 
+  public void writeTracingInfo(long queryId, TracingInfo tracingInfo) throws IOException {
+    StringBuilder builder = new StringBuilder();
+    for (TracingInfo.Activity activity : TracingInfo.Activity.values()) {
+      builder
+          .append(QUERY_ID)
+          .append(queryId)
+          .append(" - ")
+          .append(activity.getName())
+          .append(": ")
+          .append(tracingInfo.get(activity))
+          .append("\n");
+    }
+    writer.write(builder.toString());
+  }
+
   public void writeEndTime(long queryId) throws IOException {
     long endTime = System.currentTimeMillis();
     StringBuilder builder =
@@ -29,9 +29,12 @@ import org.apache.iotdb.db.qp.physical.crud.AlignByDevicePlan;
 import org.apache.iotdb.db.qp.physical.crud.AlignByDevicePlan.MeasurementType;
 import org.apache.iotdb.db.qp.physical.crud.FillQueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.GroupByTimePlan;
+import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.RawDataQueryPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.executor.IQueryRouter;
+import org.apache.iotdb.db.query.pool.DeviceQueryTaskPoolManager;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.tsfile.exception.filter.QueryFilterOptimizationException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -42,20 +45,36 @@ import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.iotdb.tsfile.utils.Binary;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
-/** This QueryDataSet is used for ALIGN_BY_DEVICE query result. */
+/**
+ * This QueryDataSet is used for ALIGN_BY_DEVICE query result.
+ *
+ * <p>The query is executed as one sub-query per device. The sub-queries of the next
+ * align_by_device_prefetch_num devices are executed in advance concurrently, each of which caches
+ * at most {@link #PREFETCH_ROW_NUM} rows, and the results are returned in the order of devices.
+ * The sub-queries executed in advance are stopped by {@link #close()} before the query ends.
+ */
 public class AlignByDeviceDataSet extends QueryDataSet {
 
+  /** the number of rows a sub-query caches in advance, the rest is read when it is returned */
+  private static final int PREFETCH_ROW_NUM = 1024;
+
   private DataSetType dataSetType;
   private IQueryRouter queryRouter;
   private QueryContext context;
-  private IExpression expression;
 
   private List<String> measurements;
   private List<PartialPath> devices;
@@ -69,11 +88,15 @@ public class AlignByDeviceDataSet extends QueryDataSet {
   private AggregationPlan aggregationPlan;
   private RawDataQueryPlan rawDataQueryPlan;
 
-  private boolean curDataSetInitialized;
-  private PartialPath currentDevice;
-  private QueryDataSet currentDataSet;
+  private DeviceQuery currentQuery;
   private Iterator<PartialPath> deviceIterator;
-  private List<String> executeColumns;
+  private final int prefetchNum;
+  /** the sub-queries executed in advance, in the order of devices */
+  private final Deque<Future<DeviceQuery>> prefetchedQueries = new ConcurrentLinkedDeque<>();
+  /** held by each running sub-query executed in advance, so that close() can wait for them */
+  private final ReadWriteLock prefetchLock = new ReentrantReadWriteLock();
+
+  private volatile boolean closed = false;
   private int pathsNum = 0;
 
   public AlignByDeviceDataSet(
@@ -110,8 +133,11 @@ public class AlignByDeviceDataSet extends QueryDataSet {
         this.rawDataQueryPlan.setAscending(alignByDevicePlan.isAscending());
     }
 
-    this.curDataSetInitialized = false;
     this.deviceIterator = devices.iterator();
+    this.prefetchNum = IoTDBDescriptor.getInstance().getConfig().getAlignByDevicePrefetchNum();
+    if (prefetchNum > 0) {
+      QueryResourceManager.getInstance().registerCloseHook(context.getQueryId(), this::close);
+    }
   }
 
   public int getPathsNum() {
@@ -119,91 +145,199 @@ public class AlignByDeviceDataSet extends QueryDataSet {
   }
 
   @Override
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public boolean hasNextWithoutConstraint() throws IOException {
-    if (curDataSetInitialized && currentDataSet.hasNext()) {
+    if (currentQuery != null && currentQuery.hasNext()) {
       return true;
-    } else {
-      curDataSetInitialized = false;
     }
 
-    while (deviceIterator.hasNext()) {
-      currentDevice = deviceIterator.next();
-      // get all measurements of current device
-      Set<String> measurementOfGivenDevice = getDeviceMeasurements(currentDevice);
-
-      // extract paths and aggregations queried from all measurements
-      // executeColumns is for calculating rowRecord
-      executeColumns = new ArrayList<>();
-      List<PartialPath> executePaths = new ArrayList<>();
-      List<TSDataType> tsDataTypes = new ArrayList<>();
-      List<String> executeAggregations = new ArrayList<>();
-      for (String column : measurementDataTypeMap.keySet()) {
-        String measurement = column;
-        if (dataSetType == DataSetType.GROUPBYTIME || dataSetType == DataSetType.AGGREGATE) {
-          measurement = column.substring(column.indexOf('(') + 1, column.indexOf(')'));
-          if (measurementOfGivenDevice.contains(measurement)) {
-            executeAggregations.add(column.substring(0, column.indexOf('(')));
-          }
-        }
-        if (measurementOfGivenDevice.contains(measurement)) {
-          executeColumns.add(column);
-          executePaths.add(currentDevice.concatNode(measurement));
-          tsDataTypes.add(measurementDataTypeMap.get(column));
-        }
+    while ((currentQuery = nextDeviceQuery()) != null) {
+      if (IoTDBDescriptor.getInstance().getConfig().isEnablePerformanceTracing()) {
+        pathsNum += currentQuery.executeColumns.size();
       }
-
-      // get filter to execute for the current device
-      if (deviceToFilterMap != null) {
-        this.expression = deviceToFilterMap.get(currentDevice.getFullPath());
+      if (currentQuery.hasNext()) {
+        return true;
       }
+    }
+    return false;
+  }
 
-      if (IoTDBDescriptor.getInstance().getConfig().isEnablePerformanceTracing()) {
-        pathsNum += executeColumns.size();
-      }
+  /** @return the sub-query of the next device, or null if all devices have been queried */
+  private DeviceQuery nextDeviceQuery() throws IOException {
+    if (prefetchNum <= 0) {
+      return deviceIterator.hasNext() ? executeDeviceQuery(deviceIterator.next(), false) : null;
+    }
+
+    prefetchDeviceQueries();
+    Future<DeviceQuery> future = prefetchedQueries.poll();
+    if (future == null) {
+      return null;
+    }
+    // keep the following devices being queried while this one is returned
+    prefetchDeviceQueries();
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      close();
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      close();
+      throw e.getCause() instanceof IOException
+          ? (IOException) e.getCause()
+          : new IOException(e.getCause());
+    }
+  }
+
+  private void prefetchDeviceQueries() {
+    while (!closed && prefetchedQueries.size() < prefetchNum && deviceIterator.hasNext()) {
+      PartialPath device = deviceIterator.next();
+      prefetchedQueries.add(
+          DeviceQueryTaskPoolManager.getInstance().submit(() -> prefetchDeviceQuery(device)));
+    }
+  }
+
+  /** @return the sub-query of the device executed in advance, or null if the data set is closed */
+  private DeviceQuery prefetchDeviceQuery(PartialPath device) throws IOException {
+    prefetchLock.readLock().lock();
+    try {
+      return closed ? null : executeDeviceQuery(device, true);
+    } finally {
+      prefetchLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Stop the sub-queries executed in advance, and wait for the running ones to finish, so that they
+   * do not open files or read data after the resources of the query are released. This is called
+   * when the query ends, as a close hook of QueryResourceManager, or when a sub-query fails.
+   */
+  public void close() {
+    closed = true;
+    Future<DeviceQuery> future;
+    while ((future = prefetchedQueries.poll()) != null) {
+      // not interrupted, as interrupting a read closes the channel of the file shared by queries
+      future.cancel(false);
+    }
+    prefetchLock.writeLock().lock();
+    prefetchLock.writeLock().unlock();
+  }
 
-      try {
-        switch (dataSetType) {
-          case GROUPBYTIME:
-            groupByTimePlan.setDeduplicatedPaths(executePaths);
-            groupByTimePlan.setDeduplicatedDataTypes(tsDataTypes);
-            groupByTimePlan.setDeduplicatedAggregations(executeAggregations);
-            groupByTimePlan.setExpression(expression);
-            currentDataSet = queryRouter.groupBy(groupByTimePlan, context);
-            break;
-          case AGGREGATE:
-            aggregationPlan.setDeduplicatedPaths(executePaths);
-            aggregationPlan.setDeduplicatedAggregations(executeAggregations);
-            aggregationPlan.setDeduplicatedDataTypes(tsDataTypes);
-            aggregationPlan.setExpression(expression);
-            currentDataSet = queryRouter.aggregate(aggregationPlan, context);
-            break;
-          case FILL:
-            fillQueryPlan.setDeduplicatedDataTypes(tsDataTypes);
-            fillQueryPlan.setDeduplicatedPaths(executePaths);
-            currentDataSet = queryRouter.fill(fillQueryPlan, context);
-            break;
-          case QUERY:
-            rawDataQueryPlan.setDeduplicatedPaths(executePaths);
-            rawDataQueryPlan.setDeduplicatedDataTypes(tsDataTypes);
-            rawDataQueryPlan.setExpression(expression);
-            currentDataSet = queryRouter.rawDataQuery(rawDataQueryPlan, context);
-            break;
-          default:
-            throw new IOException("unsupported DataSetType");
+  /**
+   * Execute the sub-query of a device.
+   *
+   * @param prefetch whether to cache the first rows of the result in advance
+   */
+  private DeviceQuery executeDeviceQuery(PartialPath device, boolean prefetch)
+      throws IOException {
+    // get all measurements of current device
+    Set<String> measurementOfGivenDevice = getDeviceMeasurements(device);
+
+    // extract paths and aggregations queried from all measurements
+    // executeColumns is for calculating rowRecord
+    List<String> executeColumns = new ArrayList<>();
+    List<PartialPath> executePaths = new ArrayList<>();
+    List<TSDataType> tsDataTypes = new ArrayList<>();
+    List<String> executeAggregations = new ArrayList<>();
+    for (String column : measurementDataTypeMap.keySet()) {
+      String measurement = column;
+      if (dataSetType == DataSetType.GROUPBYTIME || dataSetType == DataSetType.AGGREGATE) {
+        measurement = column.substring(column.indexOf('(') + 1, column.indexOf(')'));
+        if (measurementOfGivenDevice.contains(measurement)) {
+          executeAggregations.add(column.substring(0, column.indexOf('(')));
         }
-      } catch (QueryProcessException
-          | QueryFilterOptimizationException
-          | StorageEngineException e) {
-        throw new IOException(e);
       }
+      if (measurementOfGivenDevice.contains(measurement)) {
+        executeColumns.add(column);
+        executePaths.add(device.concatNode(measurement));
+        tsDataTypes.add(measurementDataTypeMap.get(column));
+      }
+    }
 
-      if (currentDataSet.hasNext()) {
-        curDataSetInitialized = true;
-        return true;
+    // get filter to execute for the current device
+    IExpression expression = null;
+    if (deviceToFilterMap != null) {
+      expression = deviceToFilterMap.get(device.getFullPath());
+    }
+
+    QueryDataSet dataSet;
+    try {
+      // each sub-query has its own plan, as the sub-queries of devices may run concurrently
+      switch (dataSetType) {
+        case GROUPBYTIME:
+          GroupByTimePlan devicePlan = new GroupByTimePlan();
+          copyGroupByTimePlan(groupByTimePlan, devicePlan);
+          devicePlan.setDeduplicatedPaths(executePaths);
+          devicePlan.setDeduplicatedDataTypes(tsDataTypes);
+          devicePlan.setDeduplicatedAggregations(executeAggregations);
+          devicePlan.setExpression(expression);
+          dataSet = queryRouter.groupBy(devicePlan, context);
+          break;
+        case AGGREGATE:
+          AggregationPlan deviceAggregationPlan = new AggregationPlan();
+          copyAggregationPlan(aggregationPlan, deviceAggregationPlan);
+          deviceAggregationPlan.setDeduplicatedPaths(executePaths);
+          deviceAggregationPlan.setDeduplicatedAggregations(executeAggregations);
+          deviceAggregationPlan.setDeduplicatedDataTypes(tsDataTypes);
+          deviceAggregationPlan.setExpression(expression);
+          dataSet = queryRouter.aggregate(deviceAggregationPlan, context);
+          break;
+        case FILL:
+          FillQueryPlan deviceFillPlan = new FillQueryPlan();
+          copyQueryPlan(fillQueryPlan, deviceFillPlan);
+          deviceFillPlan.setQueryTime(fillQueryPlan.getQueryTime());
+          deviceFillPlan.setFillType(fillQueryPlan.getFillType());
+          deviceFillPlan.setDeduplicatedDataTypes(tsDataTypes);
+          deviceFillPlan.setDeduplicatedPaths(executePaths);
+          dataSet = queryRouter.fill(deviceFillPlan, context);
+          break;
+        case QUERY:
+          RawDataQueryPlan deviceRawDataQueryPlan = new RawDataQueryPlan();
+          copyQueryPlan(rawDataQueryPlan, deviceRawDataQueryPlan);
+          deviceRawDataQueryPlan.setDeduplicatedPaths(executePaths);
+          deviceRawDataQueryPlan.setDeduplicatedDataTypes(tsDataTypes);
+          deviceRawDataQueryPlan.setExpression(expression);
+          dataSet = queryRouter.rawDataQuery(deviceRawDataQueryPlan, context);
+          break;
+        default:
+          throw new IOException("unsupported DataSetType");
       }
+    } catch (QueryProcessException
+        | QueryFilterOptimizationException
+        | StorageEngineException e) {
+      throw new IOException(e);
     }
-    return false;
+
+    DeviceQuery deviceQuery = new DeviceQuery(device, executeColumns, dataSet);
+    if (prefetch) {
+      deviceQuery.prefetch();
+    }
+    return deviceQuery;
+  }
+
+  private static void copyQueryPlan(QueryPlan source, QueryPlan target) {
+    target.setPaths(source.getPaths());
+    target.setDataTypes(source.getDataTypes());
+    target.setAlignByTime(source.isAlignByTime());
+    target.setRowLimit(source.getRowLimit());
+    target.setRowOffset(source.getRowOffset());
+    target.setAscending(source.isAscending());
+  }
+
+  private static void copyAggregationPlan(AggregationPlan source, AggregationPlan target) {
+    copyQueryPlan(source, target);
+    target.setAggregations(source.getAggregations());
+    target.setLevel(source.getLevel());
+  }
+
+  private static void copyGroupByTimePlan(GroupByTimePlan source, GroupByTimePlan target) {
+    copyAggregationPlan(source, target);
+    target.setStartTime(source.getStartTime());
+    target.setEndTime(source.getEndTime());
+    target.setInterval(source.getInterval());
+    target.setSlidingStep(source.getSlidingStep());
+    target.setIntervalByMonth(source.isIntervalByMonth());
+    target.setSlidingStepByMonth(source.isSlidingStepByMonth());
+    target.setLeftCRightO(source.isLeftCRightO());
   }
 
   protected Set<String> getDeviceMeasurements(PartialPath device) throws IOException {
@@ -217,14 +351,15 @@ public class AlignByDeviceDataSet extends QueryDataSet {
 
   @Override
   public RowRecord nextWithoutConstraint() throws IOException {
-    RowRecord originRowRecord = currentDataSet.next();
+    RowRecord originRowRecord = currentQuery.next();
 
     RowRecord rowRecord = new RowRecord(originRowRecord.getTimestamp());
 
     Field deviceField = new Field(TSDataType.TEXT);
-    deviceField.setBinaryV(new Binary(currentDevice.getFullPath()));
+    deviceField.setBinaryV(new Binary(currentQuery.device.getFullPath()));
     rowRecord.addField(deviceField);
 
+    List<String> executeColumns = currentQuery.executeColumns;
     List<Field> measurementFields = originRowRecord.getFields();
     Map<String, Field> currentColumnMap = new HashMap<>();
     for (int i = 0; i < measurementFields.size(); i++) {
@@ -254,6 +389,35 @@ public class AlignByDeviceDataSet extends QueryDataSet {
     return rowRecord;
   }
 
+  /** The sub-query of a device, with the rows cached in advance. */
+  private class DeviceQuery {
+
+    private final PartialPath device;
+    private final List<String> executeColumns;
+    private final QueryDataSet dataSet;
+    private final Deque<RowRecord> prefetchedRows = new ArrayDeque<>();
+
+    private DeviceQuery(PartialPath device, List<String> executeColumns, QueryDataSet dataSet) {
+      this.device = device;
+      this.executeColumns = executeColumns;
+      this.dataSet = dataSet;
+    }
+
+    private void prefetch() throws IOException {
+      while (!closed && prefetchedRows.size() < PREFETCH_ROW_NUM && dataSet.hasNext()) {
+        prefetchedRows.add(dataSet.next());
+      }
+    }
+
+    private boolean hasNext() throws IOException {
+      return !prefetchedRows.isEmpty() || dataSet.hasNext();
+    }
+
+    private RowRecord next() throws IOException {
+      return prefetchedRows.isEmpty() ? dataSet.next() : prefetchedRows.poll();
+    }
+  }
+
   private enum DataSetType {
     GROUPBYTIME,
     AGGREGATE,
@@ -31,6 +31,9 @@ import java.util.List;
 
 public class RawQueryDataSetWithValueFilter extends QueryDataSet implements UDFInputDataSet {
 
+  /** the number of timestamps fetched from the time generator at a time */
+  private static final int TIMESTAMP_BATCH_SIZE = 1024;
+
   private final TimeGenerator timeGenerator;
   private final List<IReaderByTimestamp> seriesReaderByTimestampList;
   private final List<Boolean> cached;
@@ -39,6 +42,13 @@ public class RawQueryDataSetWithValueFilter extends QueryDataSet implements UDFI
   private RowRecord cachedRowRecord;
   private Object[] cachedRowInObjects;
 
+  private final long[] timestampBatch = new long[TIMESTAMP_BATCH_SIZE];
+  /** values of each series under the timestamps in timestampBatch */
+  private final Object[][] valueBatches;
+
+  private int batchLength;
+  private int rowIndexInBatch;
+
   /**
    * constructor of EngineDataSetWithValueFilter.
    *
@@ -60,6 +70,12 @@ public class RawQueryDataSetWithValueFilter extends QueryDataSet implements UDFI
     this.timeGenerator = timeGenerator;
     this.seriesReaderByTimestampList = readers;
     this.cached = cached;
+    this.valueBatches = new Object[readers.size()][];
+    for (int i = 0; i < readers.size(); i++) {
+      if (cached.get(i)) {
+        valueBatches[i] = new Object[TIMESTAMP_BATCH_SIZE];
+      }
+    }
   }
 
   @Override
@@ -85,21 +101,13 @@ public class RawQueryDataSetWithValueFilter extends QueryDataSet implements UDFI
    * @return if there has next row record.
    */
   private boolean cacheRowRecord() throws IOException {
-    while (timeGenerator.hasNext()) {
+    while (hasNextRowInBatch()) {
       boolean hasField = false;
-      long timestamp = timeGenerator.next();
+      long timestamp = timestampBatch[rowIndexInBatch];
       RowRecord rowRecord = new RowRecord(timestamp);
 
       for (int i = 0; i < seriesReaderByTimestampList.size(); i++) {
-        Object value;
-        // get value from readers in time generator
-        if (cached.get(i)) {
-          value = timeGenerator.getValue(paths.get(i), timestamp);
-        } else {
-          // get value from series reader without filter
-          IReaderByTimestamp reader = seriesReaderByTimestampList.get(i);
-          value = reader.getValueInTimestamp(timestamp);
-        }
+        Object value = valueBatches[i][rowIndexInBatch];
         if (value == null) {
           rowRecord.addField(null);
         } else {
@@ -107,6 +115,7 @@ public class RawQueryDataSetWithValueFilter extends QueryDataSet implements UDFI
           rowRecord.addField(value, dataTypes.get(i));
         }
       }
+      rowIndexInBatch++;
       if (hasField) {
         hasCachedRow = true;
         cachedRowRecord = rowRecord;
@@ -116,6 +125,46 @@ public class RawQueryDataSetWithValueFilter extends QueryDataSet implements UDFI
     return hasCachedRow;
   }
 
+  private boolean hasNextRowInBatch() throws IOException {
+    return rowIndexInBatch < batchLength || fetchNextBatch();
+  }
+
+  /**
+   * Fetch the next batch of timestamps from the time generator and the values of all series under
+   * them, so that each series reader advances through its data once per batch instead of once per
+   * timestamp.
+   *
+   * @return false if the time generator has no more timestamps
+   */
+  private boolean fetchNextBatch() throws IOException {
+    int seriesNumber = seriesReaderByTimestampList.size();
+    batchLength = 0;
+    rowIndexInBatch = 0;
+    while (batchLength < TIMESTAMP_BATCH_SIZE && timeGenerator.hasNext()) {
+      long timestamp = timeGenerator.next();
+      timestampBatch[batchLength] = timestamp;
+      // the values in time generator are only available before it moves to the next timestamp
+      for (int i = 0; i < seriesNumber; i++) {
+        if (cached.get(i)) {
+          valueBatches[i][batchLength] = timeGenerator.getValue(paths.get(i), timestamp);
+        }
+      }
+      batchLength++;
+    }
+    if (batchLength == 0) {
+      return false;
+    }
+
+    for (int i = 0; i < seriesNumber; i++) {
+      if (!cached.get(i)) {
+        // get values from series reader without filter
+        valueBatches[i] =
+            seriesReaderByTimestampList.get(i).getValuesInTimestamps(timestampBatch, batchLength);
+      }
+    }
+    return true;
+  }
+
   @Override
   public boolean hasNextRowInObjects() throws IOException {
     if (hasCachedRow) {
@@ -136,23 +185,20 @@ public class RawQueryDataSetWithValueFilter extends QueryDataSet implements UDFI
 
   private boolean cacheRowInObjects() throws IOException {
     int seriesNumber = seriesReaderByTimestampList.size();
-    while (timeGenerator.hasNext()) {
+    while (hasNextRowInBatch()) {
       boolean hasField = false;
 
       Object[] rowInObjects = new Object[seriesNumber + 1];
-      long timestamp = timeGenerator.next();
-      rowInObjects[seriesNumber] = timestamp;
+      rowInObjects[seriesNumber] = timestampBatch[rowIndexInBatch];
 
       for (int i = 0; i < seriesNumber; i++) {
-        Object value =
-            cached.get(i)
-                ? timeGenerator.getValue(paths.get(i), timestamp)
-                : seriesReaderByTimestampList.get(i).getValueInTimestamp(timestamp);
+        Object value = valueBatches[i][rowIndexInBatch];
         if (value != null) {
           hasField = true;
           rowInObjects[i] = value;
         }
       }
+      rowIndexInBatch++;
 
       if (hasField) {
         hasCachedRow = true;
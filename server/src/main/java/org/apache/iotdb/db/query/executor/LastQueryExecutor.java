@@ -34,6 +34,7 @@ import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.dataset.ListDataSet;
 import org.apache.iotdb.db.query.executor.fill.LastPointReader;
+import org.apache.iotdb.db.query.pool.QueryTaskPoolManager;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
@@ -49,9 +50,13 @@ import org.apache.iotdb.tsfile.utils.Pair;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.apache.iotdb.db.conf.IoTDBConstant.COLUMN_TIMESERIES;
 import static org.apache.iotdb.db.conf.IoTDBConstant.COLUMN_VALUE;
@@ -177,10 +182,11 @@ public class LastQueryExecutor {
     }
 
     // Compute Last result for the rest series paths by scanning Tsfiles
+    TimeValuePair[] lastPoints = readLastPoints(nonCachedPaths, readerList);
     int index = 0;
     for (int i = 0; i < resultContainer.size(); i++) {
       if (Boolean.FALSE.equals(resultContainer.get(i).left)) {
-        resultContainer.get(i).right = readerList.get(index++).readLastPoint();
+        resultContainer.get(i).right = lastPoints[index++];
         if (resultContainer.get(i).right.getValue() != null) {
           resultContainer.get(i).left = true;
           if (CACHE_ENABLED) {
@@ -192,6 +198,84 @@ public class LastQueryExecutor {
     return resultContainer;
   }
 
+  /**
+   * Read the last points of the series with the readers. The series of a device are read in one
+   * task, so that the TimeseriesMetadata of the device read from a file by the first series is
+   * found in TimeSeriesMetadataCache by the others, and the devices are read concurrently. If a
+   * task fails, the others stop before their next series, and all of them are finished before the
+   * failure is thrown, so that nothing is read after the query ends. The tasks are not interrupted,
+   * because an interrupted read closes the file channel shared by all queries.
+   */
+  private static TimeValuePair[] readLastPoints(
+      List<PartialPath> paths, List<LastPointReader> readerList) throws IOException {
+    TimeValuePair[] lastPoints = new TimeValuePair[paths.size()];
+    Map<String, List<Integer>> deviceToIndexes = new LinkedHashMap<>();
+    for (int i = 0; i < paths.size(); i++) {
+      deviceToIndexes.computeIfAbsent(paths.get(i).getDevice(), k -> new ArrayList<>()).add(i);
+    }
+
+    if (deviceToIndexes.size() == 1) {
+      for (int i = 0; i < paths.size(); i++) {
+        lastPoints[i] = readerList.get(i).readLastPoint();
+      }
+      return lastPoints;
+    }
+
+    AtomicBoolean stopped = new AtomicBoolean();
+    List<Future<Void>> futures = new ArrayList<>(deviceToIndexes.size());
+    for (List<Integer> indexes : deviceToIndexes.values()) {
+      futures.add(
+          QueryTaskPoolManager.getInstance()
+              .submit(
+                  () -> {
+                    for (int i : indexes) {
+                      if (stopped.get()) {
+                        break;
+                      }
+                      lastPoints[i] = readerList.get(i).readLastPoint();
+                    }
+                    return null;
+                  }));
+    }
+    try {
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      stopped.set(true);
+      waitForTasks(futures);
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      stopped.set(true);
+      waitForTasks(futures);
+      throw e.getCause() instanceof IOException
+          ? (IOException) e.getCause()
+          : new IOException(e.getCause());
+    }
+    return lastPoints;
+  }
+
+  /** Wait until the tasks are finished, ignoring their failures and interrupts of this thread. */
+  private static void waitForTasks(List<Future<Void>> futures) {
+    boolean interrupted = false;
+    for (Future<Void> future : futures) {
+      while (true) {
+        try {
+          future.get();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   private static List<Pair<Boolean, TimeValuePair>> readLastPairsFromCache(
       List<PartialPath> seriesPaths,
       List<TSDataType> dataTypes,
@@ -256,6 +340,6 @@ public class LastQueryExecutor {
   }
 
   private static boolean satisfyFilter(Filter filter, TimeValuePair tvPair) {
-    return filter == null || filter.satisfy(tvPair.getTimestamp(), tvPair.getValue().getValue());
+    return filter == null || filter.satisfy(tvPair);
   }
 }
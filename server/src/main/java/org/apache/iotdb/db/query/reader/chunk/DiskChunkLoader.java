@@ -22,6 +22,7 @@ package org.apache.iotdb.db.query.reader.chunk;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.control.TracingInfo;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
@@ -34,15 +35,23 @@ public class DiskChunkLoader implements IChunkLoader {
 
   private final TsFileResource resource;
 
+  /** the profile of the query, null if the query is not traced */
+  private final TracingInfo tracingInfo;
+
   public DiskChunkLoader(TsFileResource resource) {
+    this(resource, null);
+  }
+
+  public DiskChunkLoader(TsFileResource resource, TracingInfo tracingInfo) {
     this.resource = resource;
+    this.tracingInfo = tracingInfo;
   }
 
   @Override
   public Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException {
     TsFileSequenceReader tsFileSequenceReader =
         FileReaderManager.getInstance().get(resource.getTsFilePath(), resource.isClosed());
-    return ChunkCache.getInstance().get(chunkMetaData, tsFileSequenceReader);
+    return ChunkCache.getInstance().get(chunkMetaData, tsFileSequenceReader, tracingInfo);
   }
 
   @Override
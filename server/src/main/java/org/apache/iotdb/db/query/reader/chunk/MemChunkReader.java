@@ -55,8 +55,7 @@ public class MemChunkReader implements IChunkReader, IPointReader {
     }
     while (timeValuePairIterator.hasNextTimeValuePair()) {
       TimeValuePair timeValuePair = timeValuePairIterator.nextTimeValuePair();
-      if (filter == null
-          || filter.satisfy(timeValuePair.getTimestamp(), timeValuePair.getValue().getValue())) {
+      if (filter == null || filter.satisfy(timeValuePair)) {
         hasCachedTimeValuePair = true;
         cachedTimeValuePair = timeValuePair;
         break;
@@ -49,10 +49,8 @@ public class MemPageReader implements IPageReader {
         BatchDataFactory.createBatchData(chunkMetadata.getDataType(), ascending, false);
     while (timeValuePairIterator.hasNextTimeValuePair()) {
       TimeValuePair timeValuePair = timeValuePairIterator.nextTimeValuePair();
-      if (valueFilter == null
-          || valueFilter.satisfy(
-              timeValuePair.getTimestamp(), timeValuePair.getValue().getValue())) {
-        batchData.putAnObject(timeValuePair.getTimestamp(), timeValuePair.getValue().getValue());
+      if (valueFilter == null || valueFilter.satisfy(timeValuePair)) {
+        batchData.putTsPrimitiveType(timeValuePair.getTimestamp(), timeValuePair.getValue());
       }
     }
     return batchData.flip();
@@ -23,6 +23,7 @@ import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.TracingInfo.Activity;
 import org.apache.iotdb.db.query.reader.chunk.DiskChunkLoader;
 import org.apache.iotdb.db.utils.QueryUtils;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
@@ -61,12 +62,18 @@ public class DiskChunkMetadataLoader implements IChunkMetadataLoader {
     /*
      * remove not satisfied ChunkMetaData
      */
+    int chunkNum = chunkMetadataList.size();
     chunkMetadataList.removeIf(
         chunkMetaData ->
             (filter != null
                     && !filter.satisfyStartEndTime(
                         chunkMetaData.getStartTime(), chunkMetaData.getEndTime()))
                 || chunkMetaData.getStartTime() > chunkMetaData.getEndTime());
+    if (context.getTracingInfo() != null) {
+      context
+          .getTracingInfo()
+          .add(Activity.CHUNKS_PRUNED, (long) chunkNum - chunkMetadataList.size());
+    }
 
     // For chunkMetadata from old TsFile, do not set version
     for (ChunkMetadata metadata : chunkMetadataList) {
@@ -102,7 +109,7 @@ public class DiskChunkMetadataLoader implements IChunkMetadataLoader {
     }
 
     for (ChunkMetadata data : chunkMetadataList) {
-      data.setChunkLoader(new DiskChunkLoader(resource));
+      data.setChunkLoader(new DiskChunkLoader(resource, context.getTracingInfo()));
     }
   }
 }
@@ -22,6 +22,7 @@ import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.TracingInfo.Activity;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.iotdb.tsfile.read.controller.IChunkMetadataLoader;
@@ -61,12 +62,18 @@ public class MemChunkMetadataLoader implements IChunkMetadataLoader {
     /*
      * remove not satisfied ChunkMetaData
      */
+    int chunkNum = chunkMetadataList.size();
     chunkMetadataList.removeIf(
         chunkMetaData ->
             (timeFilter != null
                     && !timeFilter.satisfyStartEndTime(
                         chunkMetaData.getStartTime(), chunkMetaData.getEndTime()))
                 || chunkMetaData.getStartTime() > chunkMetaData.getEndTime());
+    if (context.getTracingInfo() != null) {
+      context
+          .getTracingInfo()
+          .add(Activity.CHUNKS_PRUNED, (long) chunkNum - chunkMetadataList.size());
+    }
 
     for (ChunkMetadata metadata : chunkMetadataList) {
       metadata.setVersion(resource.getVersion());
@@ -36,6 +36,20 @@ public interface IReaderByTimestamp {
    */
   Object getValueInTimestamp(long timestamp) throws IOException;
 
+  /**
+   * Returns the corresponding values under the first <code>length</code> timestamps, the value is
+   * null if there is no value under the timestamp. It is equivalent to calling <code>
+   * getValueInTimestamp</code> with each of the timestamps, and the same attention applies.
+   * Implementations can override it to advance through their data only once for the whole batch.
+   */
+  default Object[] getValuesInTimestamps(long[] timestamps, int length) throws IOException {
+    Object[] values = new Object[length];
+    for (int i = 0; i < length; i++) {
+      values[i] = getValueInTimestamp(timestamps[i]);
+    }
+    return values;
+  }
+
   /**
    * Returns whether there is no more data in reader.
    *
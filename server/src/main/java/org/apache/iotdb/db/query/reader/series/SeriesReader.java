@@ -18,13 +18,13 @@
  */
 package org.apache.iotdb.db.query.reader.series;
 
-import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
-import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.control.QueryTimeManager;
+import org.apache.iotdb.db.query.control.TracingInfo;
+import org.apache.iotdb.db.query.control.TracingInfo.Activity;
 import org.apache.iotdb.db.query.filter.TsFileFilter;
 import org.apache.iotdb.db.query.reader.universal.DescPriorityMergeReader;
 import org.apache.iotdb.db.query.reader.universal.PriorityMergeReader;
@@ -253,6 +253,7 @@ public class SeriesReader {
   }
 
   void skipCurrentFile() {
+    trace(Activity.SERIES_FILES_SKIPPED, 1);
     firstTimeSeriesMetadata = null;
   }
 
@@ -335,21 +336,13 @@ public class SeriesReader {
     chunkMetadataList.forEach(chunkMetadata -> chunkMetadata.setSeq(timeSeriesMetadata.isSeq()));
 
     // try to calculate the total number of chunk and time-value points in chunk
-    if (IoTDBDescriptor.getInstance().getConfig().isEnablePerformanceTracing()) {
-      QueryResourceManager queryResourceManager = QueryResourceManager.getInstance();
-      queryResourceManager
-          .getChunkNumMap()
-          .compute(
-              context.getQueryId(),
-              (k, v) -> v == null ? chunkMetadataList.size() : v + chunkMetadataList.size());
-
+    if (context.getTracingInfo() != null) {
       long totalChunkSize =
           chunkMetadataList.stream()
               .mapToLong(chunkMetadata -> chunkMetadata.getStatistics().getCount())
               .sum();
-      queryResourceManager
-          .getChunkSizeMap()
-          .compute(context.getQueryId(), (k, v) -> v == null ? totalChunkSize : v + totalChunkSize);
+      trace(Activity.CHUNKS, chunkMetadataList.size());
+      trace(Activity.CHUNK_POINTS, totalChunkSize);
     }
 
     cachedChunkMetadata.addAll(chunkMetadataList);
@@ -377,6 +370,7 @@ public class SeriesReader {
   }
 
   void skipCurrentChunk() {
+    trace(Activity.CHUNKS_SKIPPED, 1);
     firstChunkMetadata = null;
   }
 
@@ -509,7 +503,7 @@ public class SeriesReader {
   }
 
   private void unpackOneChunkMetaData(ChunkMetadata chunkMetaData) throws IOException {
-    FileLoaderUtils.loadPageReaderList(chunkMetaData, timeFilter)
+    FileLoaderUtils.loadPageReaderList(chunkMetaData, timeFilter, context.getTracingInfo())
         .forEach(
             pageReader -> {
               if (chunkMetaData.isSeq()) {
@@ -591,6 +585,7 @@ public class SeriesReader {
   }
 
   void skipCurrentPage() {
+    trace(Activity.PAGES_SKIPPED, 1);
     firstPageReader = null;
   }
 
@@ -698,6 +693,7 @@ public class SeriesReader {
             } else {
               // current timeValuePair is overlapped with firstPageReader, add it to merged reader
               // and update endTime to the max end time
+              trace(Activity.OVERLAPPED_PAGES, 1);
               mergeReader.addReader(
                   firstPageReader
                       .getAllSatisfiedPageData(orderUtils.getAscending())
@@ -722,6 +718,7 @@ public class SeriesReader {
               return hasCachedNextOverlappedPage;
             } else {
               VersionPageReader pageReader = seqPageReaders.remove(0);
+              trace(Activity.OVERLAPPED_PAGES, 1);
               mergeReader.addReader(
                   pageReader
                       .getAllSatisfiedPageData(orderUtils.getAscending())
@@ -736,12 +733,11 @@ public class SeriesReader {
            * get the latest first point in mergeReader
            */
           timeValuePair = mergeReader.nextTimeValuePair();
+          trace(Activity.MERGED_POINTS, 1);
 
-          if (valueFilter == null
-              || valueFilter.satisfy(
-                  timeValuePair.getTimestamp(), timeValuePair.getValue().getValue())) {
-            cachedBatchData.putAnObject(
-                timeValuePair.getTimestamp(), timeValuePair.getValue().getValue());
+          if (valueFilter == null || valueFilter.satisfy(timeValuePair)) {
+            cachedBatchData.putTsPrimitiveType(
+                timeValuePair.getTimestamp(), timeValuePair.getValue());
           }
         }
         cachedBatchData.flip();
@@ -828,6 +824,7 @@ public class SeriesReader {
   }
 
   private void putPageReaderToMergeReader(VersionPageReader pageReader) throws IOException {
+    trace(Activity.OVERLAPPED_PAGES, 1);
     mergeReader.addReader(
         pageReader.getAllSatisfiedPageData(orderUtils.getAscending()).getBatchDataIterator(),
         pageReader.version,
@@ -976,6 +973,13 @@ public class SeriesReader {
     return timeFilter;
   }
 
+  private void trace(Activity activity, long delta) {
+    TracingInfo tracingInfo = context.getTracingInfo();
+    if (tracingInfo != null) {
+      tracingInfo.add(activity, delta);
+    }
+  }
+
   private class VersionPageReader {
 
     protected PriorityMergeReader.MergeReaderPriority version;
@@ -994,6 +998,7 @@ public class SeriesReader {
     }
 
     BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
+      trace(Activity.POINTS_DECODED, data.getStatistics().getCount());
       return data.getAllSatisfiedPageData(ascending);
     }
 
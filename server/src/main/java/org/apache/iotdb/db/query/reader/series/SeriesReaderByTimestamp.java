@@ -76,6 +76,24 @@ public class SeriesReaderByTimestamp implements IReaderByTimestamp {
     return batchData.getValueInTimestamp(timestamp);
   }
 
+  @Override
+  public Object[] getValuesInTimestamps(long[] timestamps, int length) throws IOException {
+    Object[] values = new Object[length];
+    for (int i = 0; i < length; i++) {
+      long timestamp = timestamps[i];
+      // the time filter only matters when more data is read, so it is not reset for each timestamp
+      if (batchData == null || !hasAvailableData(batchData, timestamp)) {
+        seriesReader.setTimeFilter(timestamp);
+        if (!hasNext(timestamp)) {
+          // there is no more data, so the remaining values are all null
+          break;
+        }
+      }
+      values[i] = batchData.getValueInTimestamp(timestamp);
+    }
+    return values;
+  }
+
   @Override
   public boolean readerIsEmpty() throws IOException {
     return seriesReader.isEmpty() && isEmpty(batchData);
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.db.utils.TestOnly;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.page.PageWriter;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ChunkWriterPool keeps the chunk writers written to files by flush and compaction, so that the
+ * next series of the same data type, encoding, compression and properties reuse their buffers and
+ * encoders instead of allocating new ones.
+ *
+ * <p>A writer is acquired by the thread encoding a series and released by the thread writing it to
+ * the file, so the pool is shared by the threads. A writer waiting to be written only needs its
+ * chunk data, so its page writer can be released once the series is encoded and is kept apart for
+ * the next writer. Writers and page writers with buffers larger than a few pages are not kept, and
+ * the idle ones are limited in number and the total capacity of their buffers, so that the pool
+ * holds little memory.
+ */
+public class ChunkWriterPool {
+
+  private static final int MAX_IDLE_WRITER_NUM = 256;
+
+  private static final long PAGE_SIZE =
+      TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
+
+  private static final long MAX_BUFFER_CAPACITY = 4 * PAGE_SIZE;
+
+  private static final long MAX_IDLE_BUFFER_CAPACITY = 64 * PAGE_SIZE;
+
+  private final Map<WriterKey, Deque<ChunkWriterImpl>> idleWriters = new ConcurrentHashMap<>();
+
+  private final AtomicInteger idleWriterNum = new AtomicInteger();
+
+  private final Map<WriterKey, Deque<PageWriter>> idlePageWriters = new ConcurrentHashMap<>();
+
+  private final AtomicInteger idlePageWriterNum = new AtomicInteger();
+
+  private final AtomicLong idleBufferCapacity = new AtomicLong();
+
+  private ChunkWriterPool() {}
+
+  public static ChunkWriterPool getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  /** @return an idle writer of the same kind reset to the schema, or a new one */
+  public ChunkWriterImpl acquire(MeasurementSchema schema, boolean isMerging) {
+    WriterKey key = new WriterKey(schema);
+    ChunkWriterImpl writer = poll(idleWriters, key);
+    PageWriter pageWriter = poll(idlePageWriters, key);
+    if (pageWriter != null) {
+      idlePageWriterNum.decrementAndGet();
+      idleBufferCapacity.addAndGet(-pageWriter.getBufferCapacity());
+    }
+    if (writer == null) {
+      writer = new ChunkWriterImpl(schema, isMerging);
+      if (pageWriter != null) {
+        writer.attachPageWriter(pageWriter);
+      }
+      return writer;
+    }
+    idleWriterNum.decrementAndGet();
+    idleBufferCapacity.addAndGet(-writer.getBufferCapacity());
+    if (pageWriter != null) {
+      // before reset, which creates a page writer if there is none
+      writer.attachPageWriter(pageWriter);
+    }
+    writer.reset(schema, isMerging);
+    return writer;
+  }
+
+  /**
+   * Return a writer to the pool after it is written to a file by writeToFileWriter, or to discard
+   * its points, e.g., when a compaction fails. The writer must not be used by the caller any more.
+   */
+  public void release(ChunkWriterImpl writer) {
+    if (reserve(writer.getBufferCapacity(), idleWriterNum)) {
+      offer(idleWriters, new WriterKey(writer.getMeasurementSchema()), writer);
+    }
+  }
+
+  /**
+   * Seal the current page of a writer whose series has been encoded, and keep its page writer for
+   * the next writer of the same kind. So a writer waiting to be written to a file only holds its
+   * chunk data.
+   */
+  public void releasePageWriter(ChunkWriterImpl writer) {
+    PageWriter pageWriter = writer.detachPageWriter();
+    if (pageWriter != null && reserve(pageWriter.getBufferCapacity(), idlePageWriterNum)) {
+      offer(idlePageWriters, new WriterKey(writer.getMeasurementSchema()), pageWriter);
+    }
+  }
+
+  /** @return whether an idle writer or page writer with the buffers can be kept */
+  private boolean reserve(long bufferCapacity, AtomicInteger idleNum) {
+    if (bufferCapacity > MAX_BUFFER_CAPACITY) {
+      return false;
+    }
+    if (idleBufferCapacity.addAndGet(bufferCapacity) > MAX_IDLE_BUFFER_CAPACITY) {
+      idleBufferCapacity.addAndGet(-bufferCapacity);
+      return false;
+    }
+    if (idleNum.incrementAndGet() > MAX_IDLE_WRITER_NUM) {
+      idleNum.decrementAndGet();
+      idleBufferCapacity.addAndGet(-bufferCapacity);
+      return false;
+    }
+    return true;
+  }
+
+  private static <T> T poll(Map<WriterKey, Deque<T>> idleMap, WriterKey key) {
+    Deque<T> idles = idleMap.get(key);
+    if (idles == null) {
+      return null;
+    }
+    synchronized (idles) {
+      return idles.pollLast();
+    }
+  }
+
+  private static <T> void offer(Map<WriterKey, Deque<T>> idleMap, WriterKey key, T idle) {
+    Deque<T> idles = idleMap.computeIfAbsent(key, k -> new ArrayDeque<>());
+    synchronized (idles) {
+      idles.addLast(idle);
+    }
+  }
+
+  public int getIdleWriterNum() {
+    return idleWriterNum.get();
+  }
+
+  public int getIdlePageWriterNum() {
+    return idlePageWriterNum.get();
+  }
+
+  @TestOnly
+  public void clear() {
+    idleWriters.clear();
+    idleWriterNum.set(0);
+    idlePageWriters.clear();
+    idlePageWriterNum.set(0);
+    idleBufferCapacity.set(0);
+  }
+
+  /** writers of the same key share the encoders and compressor */
+  private static class WriterKey {
+
+    private final TSDataType type;
+    private final TSEncoding encoding;
+    private final CompressionType compressor;
+    private final Map<String, String> props;
+
+    private WriterKey(MeasurementSchema schema) {
+      this.type = schema.getType();
+      this.encoding = schema.getEncodingType();
+      this.compressor = schema.getCompressor();
+      this.props = schema.getProps();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      WriterKey that = (WriterKey) o;
+      return type == that.type
+          && encoding == that.encoding
+          && compressor == that.compressor
+          && Objects.equals(props, that.props);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(type, encoding, compressor, props);
+    }
+  }
+
+  private static class InstanceHolder {
+
+    private static final ChunkWriterPool INSTANCE = new ChunkWriterPool();
+
+    private InstanceHolder() {}
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.MmapUtil;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Manage the direct memory of off-heap memtables, including allocate and release operation. A
+ * region holds the timestamps or the values of PrimitiveArrayManager.ARRAY_SIZE points, or it is a
+ * text block holding the bytes of TEXT values.
+ *
+ * <p>Direct memory is allocated in slabs of at least SLAB_SIZE bytes, and each slab is cut into
+ * regions of one size. A released region goes back to the free list of its slab. A slab whose
+ * regions are all free is freed explicitly when the free regions are more than the buffered
+ * threshold. A text block larger than MAX_TEXT_BLOCK_SIZE has its own buffer, which is freed
+ * explicitly when it is released.
+ */
+public class OffHeapSlabManager {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  /** the capacities of text blocks are powers of 2 between the min and the max */
+  public static final int MIN_TEXT_BLOCK_SIZE = 1024;
+
+  public static final int MAX_TEXT_BLOCK_SIZE = 64 * 1024;
+
+  /** the min size of a slab */
+  public static final int SLAB_SIZE = 1024 * 1024;
+
+  /** threshold total size of the free regions */
+  private static final double BUFFERED_SIZE_THRESHOLD =
+      config.getAllocateMemoryForWriteOffHeap() * config.getBufferedArraysMemoryProportion();
+
+  /** region size -> the slabs of the size which have free regions */
+  private static final Map<Integer, Deque<Slab>> availableSlabsMap = new HashMap<>();
+
+  /** region in use -> its slab, the key is compared by identity */
+  private static final Map<ByteBuffer, Slab> regionSlabMap = new IdentityHashMap<>();
+
+  /** total size of the slabs and the standalone text blocks */
+  private static long reservedSize = 0;
+
+  /** total size of the regions in use */
+  private static long allocatedSize = 0;
+
+  private OffHeapSlabManager() {
+    // util class
+  }
+
+  /** @return a region for the timestamps or the values of the data type */
+  public static ByteBuffer allocateSlab(TSDataType dataType) {
+    return allocate(PrimitiveArrayManager.ARRAY_SIZE * dataType.getDataTypeSize());
+  }
+
+  /** @return a text block of at least the given size, or of exactly it if it is too large */
+  public static ByteBuffer allocateTextBlock(int size) {
+    if (size > MAX_TEXT_BLOCK_SIZE) {
+      return allocate(size);
+    }
+    int capacity = MIN_TEXT_BLOCK_SIZE;
+    while (capacity < size) {
+      capacity <<= 1;
+    }
+    return allocate(capacity);
+  }
+
+  private static synchronized ByteBuffer allocate(int capacity) {
+    allocatedSize += capacity;
+    if (!isSlabbed(capacity)) {
+      // a block of a large TEXT value is hardly reused
+      reservedSize += capacity;
+      return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+    Deque<Slab> availableSlabs =
+        availableSlabsMap.computeIfAbsent(capacity, k -> new ArrayDeque<>());
+    Slab slab = availableSlabs.peekFirst();
+    if (slab == null) {
+      slab = new Slab(capacity);
+      reservedSize += slab.buffer.capacity();
+      availableSlabs.addFirst(slab);
+    }
+    ByteBuffer region = slab.take();
+    if (!slab.hasFreeRegion()) {
+      availableSlabs.pollFirst();
+    }
+    regionSlabMap.put(region, slab);
+    return region;
+  }
+
+  /**
+   * This method is called when bringing back a region. It must not be used by the caller
+   * afterwards.
+   */
+  public static synchronized void release(ByteBuffer region) {
+    int capacity = region.capacity();
+    if (!isSlabbed(capacity)) {
+      allocatedSize -= capacity;
+      reservedSize -= capacity;
+      MmapUtil.clean((MappedByteBuffer) region);
+      return;
+    }
+    Slab slab = regionSlabMap.remove(region);
+    if (slab == null) {
+      throw new IllegalStateException("The region is not in use, it may be released twice");
+    }
+    allocatedSize -= capacity;
+    Deque<Slab> availableSlabs = availableSlabsMap.get(capacity);
+    if (!slab.hasFreeRegion()) {
+      availableSlabs.addFirst(slab);
+    }
+    slab.free(region);
+    if (slab.isEmpty() && reservedSize - allocatedSize > BUFFERED_SIZE_THRESHOLD) {
+      availableSlabs.remove(slab);
+      reservedSize -= slab.buffer.capacity();
+      MmapUtil.clean((MappedByteBuffer) slab.buffer);
+    }
+  }
+
+  private static boolean isSlabbed(int capacity) {
+    int arraySize = PrimitiveArrayManager.ARRAY_SIZE;
+    return capacity == arraySize
+        || capacity == arraySize * Integer.BYTES
+        || capacity == arraySize * Long.BYTES
+        || (capacity <= MAX_TEXT_BLOCK_SIZE && Integer.bitCount(capacity) == 1);
+  }
+
+  /** @return the total size of the regions in use */
+  public static synchronized long getAllocatedSize() {
+    return allocatedSize;
+  }
+
+  /** @return the total size of the direct memory allocated, including the free regions */
+  public static synchronized long getReservedSize() {
+    return reservedSize;
+  }
+
+  /**
+   * Free the slabs whose regions are all free. The others may still be read, so they are only
+   * dropped and left to GC.
+   */
+  public static synchronized void close() {
+    for (Deque<Slab> availableSlabs : availableSlabsMap.values()) {
+      for (Slab slab : availableSlabs) {
+        if (slab.isEmpty()) {
+          MmapUtil.clean((MappedByteBuffer) slab.buffer);
+        }
+      }
+    }
+    availableSlabsMap.clear();
+    regionSlabMap.clear();
+    reservedSize = 0;
+    allocatedSize = 0;
+  }
+
+  /** A slab of direct memory cut into regions of the same size. */
+  private static class Slab {
+
+    private final ByteBuffer buffer;
+
+    private final int regionSize;
+
+    /** the regions before the offset have been taken, and the released ones are in freeRegions */
+    private int offset = 0;
+
+    private final Deque<ByteBuffer> freeRegions = new ArrayDeque<>();
+
+    private int usedRegionNum = 0;
+
+    private Slab(int regionSize) {
+      this.regionSize = regionSize;
+      int regionNum = Math.max(1, SLAB_SIZE / regionSize);
+      this.buffer = ByteBuffer.allocateDirect(regionNum * regionSize);
+    }
+
+    private boolean hasFreeRegion() {
+      return !freeRegions.isEmpty() || offset < buffer.capacity();
+    }
+
+    private boolean isEmpty() {
+      return usedRegionNum == 0;
+    }
+
+    private ByteBuffer take() {
+      usedRegionNum++;
+      ByteBuffer region = freeRegions.pollFirst();
+      if (region != null) {
+        return region;
+      }
+      ByteBuffer duplicate = buffer.duplicate();
+      duplicate.position(offset);
+      duplicate.limit(offset + regionSize);
+      offset += regionSize;
+      return duplicate.slice().order(ByteOrder.nativeOrder());
+    }
+
+    private void free(ByteBuffer region) {
+      usedRegionNum--;
+      region.clear();
+      freeRegions.addFirst(region);
+    }
+  }
+}
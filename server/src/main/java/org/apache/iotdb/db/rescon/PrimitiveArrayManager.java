@@ -31,9 +31,18 @@ import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
-/** Manage all primitive data list in memory, including get and release operation. */
+/**
+ * Manage all primitive data list in memory, including get and release operation.
+ *
+ * <p>The buffered arrays are kept in a magazine of each thread in front of the shared
+ * bufferedArraysMap, so that the insert and flush threads hardly contend for the locks of the
+ * shared pools. A thread takes arrays from its own magazine without locking, refills the magazine
+ * from the shared pool in a batch when it is empty, and moves a batch to the shared pool when it is
+ * full.
+ */
 public class PrimitiveArrayManager {
 
   /** data type -> ArrayDeque<Array> */
@@ -41,9 +50,20 @@ public class PrimitiveArrayManager {
       new EnumMap<>(TSDataType.class);
 
   /** data type -> current number of buffered arrays */
-  private static final Map<TSDataType, Integer> bufferedArraysNumMap =
+  private static final Map<TSDataType, AtomicInteger> bufferedArraysNumMap =
       new EnumMap<>(TSDataType.class);
 
+  /** the max number of arrays of a data type in the magazine of a thread */
+  private static final int MAGAZINE_CAPACITY = 32;
+
+  /** the number of arrays moved between a magazine and the shared pool at a time */
+  private static final int MAGAZINE_BATCH_SIZE = MAGAZINE_CAPACITY / 2;
+
+  private static final ThreadLocal<Magazine> magazines = ThreadLocal.withInitial(Magazine::new);
+
+  /** increased by close() so that the magazines of all the threads are dropped */
+  private static volatile int magazineGeneration = 0;
+
   /** data type -> ratio of data type in schema, which could be seen as recommended ratio */
   private static final Map<TSDataType, Double> bufferedArraysNumRatio =
       new EnumMap<>(TSDataType.class);
@@ -71,6 +91,9 @@ public class PrimitiveArrayManager {
     bufferedArraysMap.put(TSDataType.FLOAT, new ArrayDeque<>());
     bufferedArraysMap.put(TSDataType.DOUBLE, new ArrayDeque<>());
     bufferedArraysMap.put(TSDataType.TEXT, new ArrayDeque<>());
+    for (TSDataType dataType : bufferedArraysMap.keySet()) {
+      bufferedArraysNumMap.put(dataType, new AtomicInteger());
+    }
   }
 
   private PrimitiveArrayManager() {
@@ -92,17 +115,26 @@ public class PrimitiveArrayManager {
       return createPrimitiveArray(dataType);
     }
 
-    synchronized (bufferedArraysMap.get(dataType)) {
-      // try to get a buffered array
-      Object dataArray = bufferedArraysMap.get(dataType).poll();
-      if (dataArray != null) {
-        return dataArray;
+    // try to get a buffered array, from the magazine of this thread at first
+    ArrayDeque<Object> localArrays = magazines.get().getArrays(dataType);
+    Object dataArray = localArrays.poll();
+    if (dataArray != null) {
+      return dataArray;
+    }
+    ArrayDeque<Object> bufferedArrays = bufferedArraysMap.get(dataType);
+    synchronized (bufferedArrays) {
+      for (int i = 0; i < MAGAZINE_BATCH_SIZE && !bufferedArrays.isEmpty(); i++) {
+        localArrays.add(bufferedArrays.poll());
       }
-      // no buffered array, create one
-      bufferedArraysNumMap.put(dataType, bufferedArraysNumMap.getOrDefault(dataType, 0) + 1);
-      bufferedArraysRamSize.addAndGet((long) ARRAY_SIZE * dataType.getDataTypeSize());
+    }
+    dataArray = localArrays.poll();
+    if (dataArray != null) {
+      return dataArray;
     }
 
+    // no buffered array, create one
+    bufferedArraysNumMap.get(dataType).incrementAndGet();
+    bufferedArraysRamSize.addAndGet((long) ARRAY_SIZE * dataType.getDataTypeSize());
     return createPrimitiveArray(dataType);
   }
 
@@ -217,7 +249,7 @@ public class PrimitiveArrayManager {
       // if the ratio of buffered arrays of this data type does not exceed the schema ratio,
       // choose one replaced array who has larger ratio than schema recommended ratio
       TSDataType replacedDataType = null;
-      for (Map.Entry<TSDataType, Integer> entry : bufferedArraysNumMap.entrySet()) {
+      for (Map.Entry<TSDataType, AtomicInteger> entry : bufferedArraysNumMap.entrySet()) {
         if (isCurrentDataTypeExceeded(entry.getKey())) {
           replacedDataType = entry.getKey();
           // bring back the replaced array as OOB array
@@ -251,10 +283,17 @@ public class PrimitiveArrayManager {
    * @param dataArray data array
    */
   private static void bringBackBufferedArray(TSDataType dataType, Object dataArray) {
-    synchronized (bufferedArraysMap.get(dataType)) {
-      bufferedArraysMap.get(dataType).add(dataArray);
-      bufferedArraysNumMap.put(dataType, bufferedArraysNumMap.getOrDefault(dataType, 0) + 1);
+    ArrayDeque<Object> localArrays = magazines.get().getArrays(dataType);
+    if (localArrays.size() >= MAGAZINE_CAPACITY) {
+      ArrayDeque<Object> bufferedArrays = bufferedArraysMap.get(dataType);
+      synchronized (bufferedArrays) {
+        for (int i = 0; i < MAGAZINE_BATCH_SIZE; i++) {
+          bufferedArrays.add(localArrays.poll());
+        }
+      }
     }
+    localArrays.add(dataArray);
+    bufferedArraysNumMap.get(dataType).incrementAndGet();
     bufferedArraysRamSize.addAndGet((long) -ARRAY_SIZE * dataType.getDataTypeSize());
   }
 
@@ -290,23 +329,44 @@ public class PrimitiveArrayManager {
    */
   private static boolean isCurrentDataTypeExceeded(TSDataType dataType) {
     int total = 0;
-    for (int num : bufferedArraysNumMap.values()) {
-      total += num;
+    for (AtomicInteger num : bufferedArraysNumMap.values()) {
+      total += num.get();
     }
     return total != 0
-        && ((double) bufferedArraysNumMap.getOrDefault(dataType, 0) / total
+        && ((double) bufferedArraysNumMap.get(dataType).get() / total
             > bufferedArraysNumRatio.getOrDefault(dataType, 0.0));
   }
 
   public static void close() {
     for (ArrayDeque<Object> dataListQueue : bufferedArraysMap.values()) {
-      dataListQueue.clear();
+      synchronized (dataListQueue) {
+        dataListQueue.clear();
+      }
     }
+    magazineGeneration++;
 
-    bufferedArraysNumMap.clear();
+    for (AtomicInteger num : bufferedArraysNumMap.values()) {
+      num.set(0);
+    }
     bufferedArraysNumRatio.clear();
 
     bufferedArraysRamSize.set(0);
     outOfBufferArraysRamSize.set(0);
   }
+
+  /** the buffered arrays of a thread */
+  private static class Magazine {
+
+    private final Map<TSDataType, ArrayDeque<Object>> arraysMap = new EnumMap<>(TSDataType.class);
+
+    private int generation = magazineGeneration;
+
+    private ArrayDeque<Object> getArrays(TSDataType dataType) {
+      if (generation != magazineGeneration) {
+        arraysMap.clear();
+        generation = magazineGeneration;
+      }
+      return arraysMap.computeIfAbsent(dataType, k -> new ArrayDeque<>(MAGAZINE_CAPACITY));
+    }
+  }
 }
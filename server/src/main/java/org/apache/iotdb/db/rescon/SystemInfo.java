@@ -29,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,8 +49,28 @@ public class SystemInfo {
   private static double FLUSH_THERSHOLD = memorySizeForWrite * config.getFlushProportion();
   private static double REJECT_THERSHOLD = memorySizeForWrite * config.getRejectProportion();
 
+  /** the memtables in direct memory, if they are off heap, have a separate budget */
+  private long totalSgOffHeapMemCost = 0L;
+
+  private Map<StorageGroupInfo, Long> reportedSgOffHeapMemCostMap = new HashMap<>();
+
+  private static final long MEMORY_SIZE_FOR_WRITE_OFF_HEAP =
+      config.getAllocateMemoryForWriteOffHeap();
+  private static final double OFF_HEAP_FLUSH_THRESHOLD =
+      MEMORY_SIZE_FOR_WRITE_OFF_HEAP * config.getFlushProportion();
+  private static final double OFF_HEAP_REJECT_THRESHOLD =
+      MEMORY_SIZE_FOR_WRITE_OFF_HEAP * config.getRejectProportion();
+
   private boolean isEncodingFasterThanIo = true;
 
+  private final boolean enableAdaptiveFlush = config.isEnableAdaptiveFlush();
+
+  /** the weight of the latest flush in the flush time */
+  private static final double FLUSH_TIME_WEIGHT = 0.3;
+
+  /** the time to flush a memtable in milliseconds, smoothed by EWMA */
+  private double flushTime = 0;
+
   /**
    * Report current mem cost of storage group to system. Called when the memory of storage group
    * newly accumulates to IoTDBConfig.getStorageGroupSizeReportThreshold()
@@ -60,23 +81,39 @@ public class SystemInfo {
     long delta =
         storageGroupInfo.getMemCost() - reportedSgMemCostMap.getOrDefault(storageGroupInfo, 0L);
     totalSgMemCost += delta;
+    long offHeapDelta =
+        storageGroupInfo.getOffHeapMemCost()
+            - reportedSgOffHeapMemCostMap.getOrDefault(storageGroupInfo, 0L);
+    totalSgOffHeapMemCost += offHeapDelta;
+    storageGroupInfo.updateIngestRate(delta + offHeapDelta, System.currentTimeMillis());
     if (logger.isDebugEnabled()) {
       logger.debug(
           "Report Storage Group Status to the system. "
-              + "After adding {}, current sg mem cost is {}.",
+              + "After adding {} and {} off heap, current sg mem cost is {} and {} off heap.",
           delta,
-          totalSgMemCost);
+          offHeapDelta,
+          totalSgMemCost,
+          totalSgOffHeapMemCost);
     }
     reportedSgMemCostMap.put(storageGroupInfo, storageGroupInfo.getMemCost());
     storageGroupInfo.setLastReportedSize(storageGroupInfo.getMemCost());
-    if (totalSgMemCost >= FLUSH_THERSHOLD) {
+    reportedSgOffHeapMemCostMap.put(storageGroupInfo, storageGroupInfo.getOffHeapMemCost());
+    storageGroupInfo.setLastReportedOffHeapSize(storageGroupInfo.getOffHeapMemCost());
+    if (reachFlushThreshold()) {
       logger.debug(
           "The total storage group mem costs are too large, call for flushing. "
-              + "Current sg cost is {}",
+              + "Current sg cost is {} and {} off heap",
+          totalSgMemCost,
+          totalSgOffHeapMemCost);
+      chooseTSPToMarkFlush();
+    } else if (enableAdaptiveFlush && willRejectBeforeFlushed()) {
+      logger.debug(
+          "The storage groups will be rejected before a flush finishes at the current ingest "
+              + "rate, call for flushing. Current sg cost is {}",
           totalSgMemCost);
       chooseTSPToMarkFlush();
     }
-    if (totalSgMemCost >= REJECT_THERSHOLD) {
+    if (reachRejectThreshold()) {
       logger.info("Change system to reject status...");
       rejected = true;
     }
@@ -95,14 +132,28 @@ public class SystemInfo {
           (reportedSgMemCostMap.get(storageGroupInfo) - storageGroupInfo.getMemCost());
       storageGroupInfo.setLastReportedSize(storageGroupInfo.getMemCost());
       reportedSgMemCostMap.put(storageGroupInfo, storageGroupInfo.getMemCost());
+      this.totalSgOffHeapMemCost -=
+          (reportedSgOffHeapMemCostMap.get(storageGroupInfo)
+              - storageGroupInfo.getOffHeapMemCost());
+      storageGroupInfo.setLastReportedOffHeapSize(storageGroupInfo.getOffHeapMemCost());
+      reportedSgOffHeapMemCostMap.put(storageGroupInfo, storageGroupInfo.getOffHeapMemCost());
       if (shouldInvokeFlush) {
         checkSystemToInvokeFlush();
       }
     }
   }
 
+  private boolean reachFlushThreshold() {
+    return totalSgMemCost >= FLUSH_THERSHOLD || totalSgOffHeapMemCost >= OFF_HEAP_FLUSH_THRESHOLD;
+  }
+
+  private boolean reachRejectThreshold() {
+    return totalSgMemCost >= REJECT_THERSHOLD
+        || totalSgOffHeapMemCost >= OFF_HEAP_REJECT_THRESHOLD;
+  }
+
   private void checkSystemToInvokeFlush() {
-    if (totalSgMemCost >= FLUSH_THERSHOLD && totalSgMemCost < REJECT_THERSHOLD) {
+    if (reachFlushThreshold() && !reachRejectThreshold()) {
       logger.debug("Some sg memory released but still exceeding flush proportion, call flush.");
       if (rejected) {
         logger.info("Some sg memory released, set system to normal status.");
@@ -110,7 +161,7 @@ public class SystemInfo {
       logCurrentTotalSGMemory();
       rejected = false;
       forceAsyncFlush();
-    } else if (totalSgMemCost >= REJECT_THERSHOLD) {
+    } else if (reachRejectThreshold()) {
       logger.warn("Some sg memory released, but system is still in reject status.");
       logCurrentTotalSGMemory();
       rejected = true;
@@ -122,8 +173,29 @@ public class SystemInfo {
     }
   }
 
+  /**
+   * @return whether the total mem cost will reach the reject threshold during a flush, at the
+   *     current ingest rates of all the storage groups
+   */
+  private boolean willRejectBeforeFlushed() {
+    long currentTime = System.currentTimeMillis();
+    double totalIngestRate = 0;
+    for (StorageGroupInfo sgInfo : reportedSgMemCostMap.keySet()) {
+      totalIngestRate += sgInfo.getIngestRate(currentTime);
+    }
+    double increment = totalIngestRate * flushTime;
+    return totalSgMemCost + increment >= REJECT_THERSHOLD
+        || totalSgOffHeapMemCost + increment >= OFF_HEAP_REJECT_THRESHOLD;
+  }
+
+  /** @param time the time of a flush in milliseconds */
+  public synchronized void updateFlushTime(long time) {
+    flushTime =
+        flushTime == 0 ? time : FLUSH_TIME_WEIGHT * time + (1 - FLUSH_TIME_WEIGHT) * flushTime;
+  }
+
   private void logCurrentTotalSGMemory() {
-    logger.debug("Current Sg cost is {}", totalSgMemCost);
+    logger.debug("Current Sg cost is {} and {} off heap", totalSgMemCost, totalSgOffHeapMemCost);
   }
 
   /**
@@ -164,16 +236,31 @@ public class SystemInfo {
     }
   }
 
+  /**
+   * Choose the TSPs to flush until the rest mem cost is below FLUSH_THRESHOLD / 2. The TSPs with
+   * the max work MemTable size are chosen first, or if adaptive flush is enabled, those with the
+   * most points per series, i.e., those produce the largest chunks. So the slow storage groups are
+   * left to accumulate their points, and the hot ones are flushed before rejected.
+   */
   private List<TsFileProcessor> getTsFileProcessorsToFlush() {
-    PriorityQueue<TsFileProcessor> tsps =
-        new PriorityQueue<>(
-            (o1, o2) -> Long.compare(o2.getWorkMemTableRamCost(), o1.getWorkMemTableRamCost()));
+    Comparator<TsFileProcessor> comparator =
+        Comparator.comparingLong(TsFileProcessor::getWorkMemTableRamCost);
+    if (enableAdaptiveFlush) {
+      comparator =
+          Comparator.comparingLong(TsFileProcessor::getWorkMemTableAvgSeriesPointNum)
+              .thenComparing(comparator);
+    }
+    PriorityQueue<TsFileProcessor> tsps = new PriorityQueue<>(comparator.reversed());
     for (StorageGroupInfo sgInfo : reportedSgMemCostMap.keySet()) {
       tsps.addAll(sgInfo.getAllReportedTsp());
     }
+    // the memtables are in direct memory if they are off heap
+    boolean offHeap = config.isEnableOffHeapMemTable();
+    long totalMemTableCost = offHeap ? totalSgOffHeapMemCost : totalSgMemCost;
+    double flushThreshold = offHeap ? OFF_HEAP_FLUSH_THRESHOLD : FLUSH_THERSHOLD;
     List<TsFileProcessor> processors = new ArrayList<>();
     long memCost = 0;
-    while (totalSgMemCost - memCost > FLUSH_THERSHOLD / 2) {
+    while (totalMemTableCost - memCost > flushThreshold / 2) {
       if (tsps.isEmpty() || tsps.peek().getWorkMemTableRamCost() == 0) {
         return processors;
       }
@@ -199,6 +286,9 @@ public class SystemInfo {
   public void close() {
     reportedSgMemCostMap.clear();
     totalSgMemCost = 0;
+    reportedSgOffHeapMemCostMap.clear();
+    totalSgOffHeapMemCost = 0;
+    flushTime = 0;
     rejected = false;
   }
 
@@ -42,6 +42,8 @@ import org.apache.iotdb.db.exception.query.QueryTimeoutRuntimeException;
 import org.apache.iotdb.db.exception.runtime.SQLParserException;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.metrics.server.SqlArgument;
+import org.apache.iotdb.db.metrics.source.EngineSource;
+import org.apache.iotdb.db.metrics.source.EngineSource.Stage;
 import org.apache.iotdb.db.qp.Planner;
 import org.apache.iotdb.db.qp.constant.SQLConstant;
 import org.apache.iotdb.db.qp.executor.IPlanExecutor;
@@ -75,6 +77,8 @@ import org.apache.iotdb.db.query.aggregation.AggregateResult;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.control.QueryTimeManager;
+import org.apache.iotdb.db.query.control.TracingInfo;
+import org.apache.iotdb.db.query.control.TracingInfo.Activity;
 import org.apache.iotdb.db.query.control.TracingManager;
 import org.apache.iotdb.db.query.dataset.AlignByDeviceDataSet;
 import org.apache.iotdb.db.query.dataset.DirectAlignByTimeDataSet;
@@ -633,6 +637,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       }
       if (plan instanceof QueryPlan && config.isEnablePerformanceTracing()) {
         TracingManager tracingManager = TracingManager.getInstance();
+        tracingManager.registerQuery(queryId);
         if (!(plan instanceof AlignByDevicePlan)) {
           tracingManager.writeQueryInfo(queryId, statement, startTime, plan.getPaths().size());
         } else {
@@ -669,12 +674,18 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       }
 
       if (newDataSet instanceof DirectNonAlignDataSet) {
-        resp.setNonAlignQueryDataSet(fillRpcNonAlignReturnData(fetchSize, newDataSet, username));
+        resp.setNonAlignQueryDataSet(
+            fillRpcNonAlignReturnData(queryId, fetchSize, newDataSet, username));
       } else {
-        resp.setQueryDataSet(fillRpcReturnData(fetchSize, newDataSet, username));
+        resp.setQueryDataSet(fillRpcReturnData(queryId, fetchSize, newDataSet, username));
       }
       resp.setQueryId(queryId);
 
+      TracingInfo tracingInfo = TracingManager.getInstance().getTracingInfo(queryId);
+      if (tracingInfo != null) {
+        resp.setTracingInfo(tracingInfo.toTSTracingInfo());
+      }
+
       if (plan instanceof AlignByDevicePlan && config.isEnablePerformanceTracing()) {
         TracingManager.getInstance()
             .writePathsNum(queryId, ((AlignByDeviceDataSet) newDataSet).getPathsNum());
@@ -923,8 +934,11 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       QueryDataSet queryDataSet = queryId2DataSet.get(req.queryId);
       if (req.isAlign) {
         TSQueryDataSet result =
-            fillRpcReturnData(req.fetchSize, queryDataSet, sessionIdUsernameMap.get(req.sessionId));
+            fillRpcReturnData(
+                req.queryId, req.fetchSize, queryDataSet, sessionIdUsernameMap.get(req.sessionId));
         boolean hasResultSet = result.bufferForTime().limit() != 0;
+        // get the profile before the query is released
+        TracingInfo tracingInfo = TracingManager.getInstance().getTracingInfo(req.queryId);
         if (!hasResultSet) {
           releaseQueryResourceNoExceptions(req.queryId);
         }
@@ -932,13 +946,16 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
         resp.setHasResultSet(hasResultSet);
         resp.setQueryDataSet(result);
         resp.setIsAlign(true);
+        if (tracingInfo != null) {
+          resp.setTracingInfo(tracingInfo.toTSTracingInfo());
+        }
 
         queryTimeManager.unRegisterQuery(req.queryId);
         return resp;
       } else {
         TSQueryNonAlignDataSet nonAlignResult =
             fillRpcNonAlignReturnData(
-                req.fetchSize, queryDataSet, sessionIdUsernameMap.get(req.sessionId));
+                req.queryId, req.fetchSize, queryDataSet, sessionIdUsernameMap.get(req.sessionId));
         boolean hasResultSet = false;
         for (ByteBuffer timeBuffer : nonAlignResult.getTimeList()) {
           if (timeBuffer.limit() != 0) {
@@ -953,6 +970,10 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
         resp.setHasResultSet(hasResultSet);
         resp.setNonAlignQueryDataSet(nonAlignResult);
         resp.setIsAlign(false);
+        TracingInfo tracingInfo = TracingManager.getInstance().getTracingInfo(req.queryId);
+        if (tracingInfo != null) {
+          resp.setTracingInfo(tracingInfo.toTSTracingInfo());
+        }
 
         queryTimeManager.unRegisterQuery(req.queryId);
         return resp;
@@ -966,19 +987,29 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   }
 
   private TSQueryDataSet fillRpcReturnData(
-      int fetchSize, QueryDataSet queryDataSet, String userName)
+      long queryId, int fetchSize, QueryDataSet queryDataSet, String userName)
       throws TException, AuthException, IOException, InterruptedException, QueryProcessException {
+    long startTime = System.nanoTime();
     WatermarkEncoder encoder = getWatermarkEncoder(userName);
-    return queryDataSet instanceof DirectAlignByTimeDataSet
-        ? ((DirectAlignByTimeDataSet) queryDataSet).fillBuffer(fetchSize, encoder)
-        : QueryDataSetUtils.convertQueryDataSetByFetchSize(queryDataSet, fetchSize, encoder);
+    TSQueryDataSet result =
+        queryDataSet instanceof DirectAlignByTimeDataSet
+            ? ((DirectAlignByTimeDataSet) queryDataSet).fillBuffer(fetchSize, encoder)
+            : QueryDataSetUtils.convertQueryDataSetByFetchSize(queryDataSet, fetchSize, encoder);
+    EngineSource.getInstance().update(Stage.QUERY_FETCH, startTime);
+    traceTime(queryId, Activity.FETCH_TIME, startTime);
+    return result;
   }
 
   private TSQueryNonAlignDataSet fillRpcNonAlignReturnData(
-      int fetchSize, QueryDataSet queryDataSet, String userName)
+      long queryId, int fetchSize, QueryDataSet queryDataSet, String userName)
       throws TException, AuthException, IOException, QueryProcessException, InterruptedException {
+    long startTime = System.nanoTime();
     WatermarkEncoder encoder = getWatermarkEncoder(userName);
-    return ((DirectNonAlignDataSet) queryDataSet).fillBuffer(fetchSize, encoder);
+    TSQueryNonAlignDataSet result =
+        ((DirectNonAlignDataSet) queryDataSet).fillBuffer(fetchSize, encoder);
+    EngineSource.getInstance().update(Stage.QUERY_FETCH, startTime);
+    traceTime(queryId, Activity.FETCH_TIME, startTime);
+    return result;
   }
 
   private WatermarkEncoder getWatermarkEncoder(String userName) throws TException, AuthException {
@@ -1007,12 +1038,24 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       throws QueryProcessException, QueryFilterOptimizationException, StorageEngineException,
           IOException, MetadataException, SQLException, TException, InterruptedException {
 
+    long startTime = System.nanoTime();
     QueryContext context = genQueryContext(queryId);
+    context.setTracingInfo(TracingManager.getInstance().getTracingInfo(queryId));
     QueryDataSet queryDataSet = executor.processQuery(physicalPlan, context);
     queryId2DataSet.put(queryId, queryDataSet);
+    EngineSource.getInstance().update(Stage.QUERY_EXECUTE, startTime);
+    traceTime(queryId, Activity.EXECUTION_TIME, startTime);
     return queryDataSet;
   }
 
+  /** add the time since startTime, which is from System.nanoTime(), to the profile of the query */
+  private void traceTime(long queryId, Activity activity, long startTime) {
+    TracingInfo tracingInfo = TracingManager.getInstance().getTracingInfo(queryId);
+    if (tracingInfo != null) {
+      tracingInfo.add(activity, (System.nanoTime() - startTime) / 1000);
+    }
+  }
+
   protected QueryContext genQueryContext(long queryId) {
     return new QueryContext(queryId);
   }
@@ -1149,7 +1192,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       try {
         InsertRowPlan plan =
             new InsertRowPlan(
-                new PartialPath(req.getDeviceIds().get(i)),
+                IoTDB.metaManager.getDevicePath(req.getDeviceIds().get(i)),
                 req.getTimestamps().get(i),
                 req.getMeasurementsList().get(i).toArray(new String[0]),
                 req.valuesList.get(i));
@@ -1214,7 +1257,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     try {
       InsertRowsOfOneDevicePlan plan =
           new InsertRowsOfOneDevicePlan(
-              new PartialPath(req.getDeviceId()),
+              IoTDB.metaManager.getDevicePath(req.getDeviceId()),
               req.getTimestamps().toArray(new Long[0]),
               req.getMeasurementsList(),
               req.getValuesList().toArray(new ByteBuffer[0]));
@@ -1257,7 +1300,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     for (int i = 0; i < req.deviceIds.size(); i++) {
       InsertRowPlan plan = new InsertRowPlan();
       try {
-        plan.setDeviceId(new PartialPath(req.getDeviceIds().get(i)));
+        plan.setDeviceId(IoTDB.metaManager.getDevicePath(req.getDeviceIds().get(i)));
         plan.setTime(req.getTimestamps().get(i));
         plan.setMeasurements(req.getMeasurementsList().get(i).toArray(new String[0]));
         plan.setDataTypes(new TSDataType[plan.getMeasurements().length]);
@@ -1341,7 +1384,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
 
       InsertRowPlan plan =
           new InsertRowPlan(
-              new PartialPath(req.getDeviceId()),
+              IoTDB.metaManager.getDevicePath(req.getDeviceId()),
               req.getTimestamp(),
               req.getMeasurements().toArray(new String[0]),
               req.values);
@@ -1368,7 +1411,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
           req.getTimestamp());
 
       InsertRowPlan plan = new InsertRowPlan();
-      plan.setDeviceId(new PartialPath(req.getDeviceId()));
+      plan.setDeviceId(IoTDB.metaManager.getDevicePath(req.getDeviceId()));
       plan.setTime(req.getTimestamp());
       plan.setMeasurements(req.getMeasurements().toArray(new String[0]));
       plan.setDataTypes(new TSDataType[plan.getMeasurements().length]);
@@ -1415,7 +1458,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       }
 
       InsertTabletPlan insertTabletPlan =
-          new InsertTabletPlan(new PartialPath(req.deviceId), req.measurements);
+          new InsertTabletPlan(IoTDB.metaManager.getDevicePath(req.deviceId), req.measurements);
       insertTabletPlan.setTimes(QueryDataSetUtils.readTimesFromBuffer(req.timestamps, req.size));
       insertTabletPlan.setColumns(
           QueryDataSetUtils.readValuesFromBuffer(
@@ -1456,7 +1499,8 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   private InsertTabletPlan constructInsertTabletPlan(TSInsertTabletsReq req, int i)
       throws IllegalPathException {
     InsertTabletPlan insertTabletPlan =
-        new InsertTabletPlan(new PartialPath(req.deviceIds.get(i)), req.measurementsList.get(i));
+        new InsertTabletPlan(
+            IoTDB.metaManager.getDevicePath(req.deviceIds.get(i)), req.measurementsList.get(i));
     insertTabletPlan.setTimes(
         QueryDataSetUtils.readTimesFromBuffer(req.timestampsList.get(i), req.sizeList.get(i)));
     insertTabletPlan.setColumns(
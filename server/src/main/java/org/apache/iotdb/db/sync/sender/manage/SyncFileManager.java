@@ -22,6 +22,7 @@ import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.engine.merge.task.MergeTask;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceCatalog;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.sync.conf.SyncSenderDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
@@ -165,11 +166,21 @@ public class SyncFileManager implements ISyncFileManager {
   }
 
   private boolean checkFileValidity(File file) {
-    return new File(file.getAbsolutePath() + TsFileResource.RESOURCE_SUFFIX).exists()
+    return (new File(file.getAbsolutePath() + TsFileResource.RESOURCE_SUFFIX).exists()
+            || catalogContains(file))
         && !new File(file.getAbsolutePath() + ModificationFile.FILE_SUFFIX).exists()
         && !new File(file.getAbsolutePath() + MergeTask.MERGE_SUFFIX).exists();
   }
 
+  private boolean catalogContains(File file) {
+    try {
+      return TsFileResourceCatalog.contains(file);
+    } catch (IOException e) {
+      LOGGER.error("Cannot load the resource catalog of {}", file, e);
+      return false;
+    }
+  }
+
   @Override
   public void getLastLocalFiles(File lastLocalFileInfo) throws IOException {
     LOGGER.info(
@@ -24,6 +24,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceCatalog;
 import org.apache.iotdb.db.exception.SyncConnectionException;
 import org.apache.iotdb.db.exception.SyncDeviceOwnerConflictException;
 import org.apache.iotdb.db.metadata.MetadataConstant;
@@ -607,7 +608,12 @@ public class SyncClient implements ISyncClient {
             .getPath(snapshotFile.getAbsolutePath() + TsFileResource.RESOURCE_SUFFIX);
     target =
         FileSystems.getDefault().getPath(file.getAbsolutePath() + TsFileResource.RESOURCE_SUFFIX);
-    Files.createLink(link, target);
+    if (target.toFile().exists()) {
+      Files.createLink(link, target);
+    } else {
+      // the resource is in the resource catalog of the partition
+      TsFileResourceCatalog.exportResourceFile(file, link.toFile());
+    }
     return snapshotFile;
   }
 
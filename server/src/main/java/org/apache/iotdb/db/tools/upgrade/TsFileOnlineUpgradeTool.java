@@ -461,7 +461,8 @@ public class TsFileOnlineUpgradeTool implements AutoCloseable {
       }
     }
     tsFileResource.setClosed(true);
-    tsFileResource.serialize();
+    // the upgrade task looks for the .resource files of the upgraded files
+    tsFileResource.serializeToResourceFile();
     return tsFileResource;
   }
 }
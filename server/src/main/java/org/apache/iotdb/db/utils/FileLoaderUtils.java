@@ -24,6 +24,8 @@ import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.control.TracingInfo;
+import org.apache.iotdb.db.query.control.TracingInfo.Activity;
 import org.apache.iotdb.db.query.reader.chunk.MemChunkLoader;
 import org.apache.iotdb.db.query.reader.chunk.MemChunkReader;
 import org.apache.iotdb.db.query.reader.chunk.metadata.DiskChunkMetadataLoader;
@@ -92,6 +94,26 @@ public class FileLoaderUtils {
       Filter filter,
       Set<String> allSensors)
       throws IOException {
+    TracingInfo tracingInfo = context.getTracingInfo();
+    if (tracingInfo != null) {
+      tracingInfo.increment(Activity.SERIES_FILES);
+    }
+    TimeseriesMetadata timeSeriesMetadata =
+        loadTimeSeriesMetadata(resource, seriesPath, context, filter, allSensors, tracingInfo);
+    if (timeSeriesMetadata == null && tracingInfo != null) {
+      tracingInfo.increment(Activity.SERIES_FILES_PRUNED);
+    }
+    return timeSeriesMetadata;
+  }
+
+  private static TimeseriesMetadata loadTimeSeriesMetadata(
+      TsFileResource resource,
+      PartialPath seriesPath,
+      QueryContext context,
+      Filter filter,
+      Set<String> allSensors,
+      TracingInfo tracingInfo)
+      throws IOException {
     TimeseriesMetadata timeSeriesMetadata;
     if (resource.isClosed()) {
       if (!resource.getTsFile().exists()) {
@@ -104,7 +126,8 @@ public class FileLoaderUtils {
                       resource.getTsFilePath(),
                       seriesPath.getDevice(),
                       seriesPath.getMeasurement()),
-                  allSensors);
+                  allSensors,
+                  tracingInfo);
       if (timeSeriesMetadata != null) {
         timeSeriesMetadata.setChunkMetadataLoader(
             new DiskChunkMetadataLoader(resource, seriesPath, context, filter));
@@ -153,6 +176,15 @@ public class FileLoaderUtils {
    */
   public static List<IPageReader> loadPageReaderList(ChunkMetadata chunkMetaData, Filter timeFilter)
       throws IOException {
+    return loadPageReaderList(chunkMetaData, timeFilter, null);
+  }
+
+  /**
+   * load all page readers in one chunk that satisfying the timeFilter, and record the pages read
+   * into the tracingInfo if it is not null
+   */
+  public static List<IPageReader> loadPageReaderList(
+      ChunkMetadata chunkMetaData, Filter timeFilter, TracingInfo tracingInfo) throws IOException {
     if (chunkMetaData == null) {
       throw new IOException("Can't init null chunkMeta");
     }
@@ -164,10 +196,19 @@ public class FileLoaderUtils {
     } else {
       Chunk chunk = chunkLoader.loadChunk(chunkMetaData);
       chunk.setFromOldFile(chunkMetaData.isFromOldTsFile());
-      chunkReader = new ChunkReader(chunk, timeFilter);
+      ChunkReader diskChunkReader = new ChunkReader(chunk, timeFilter);
+      if (tracingInfo != null) {
+        tracingInfo.add(Activity.PAGES_PRUNED, diskChunkReader.getPrunedPageNum());
+        tracingInfo.add(Activity.BYTES_DECOMPRESSED, diskChunkReader.getUncompressedSize());
+      }
+      chunkReader = diskChunkReader;
       chunkReader.hasNextSatisfiedPage();
     }
-    return chunkReader.loadPageReaderList();
+    List<IPageReader> pageReaderList = chunkReader.loadPageReaderList();
+    if (tracingInfo != null) {
+      tracingInfo.add(Activity.PAGES, pageReaderList.size());
+    }
+    return pageReaderList;
   }
 
   public static List<ChunkMetadata> getChunkMetadataList(Path path, String filePath)
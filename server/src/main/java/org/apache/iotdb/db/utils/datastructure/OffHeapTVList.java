@@ -0,0 +1,581 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.OffHeapSlabManager;
+import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
+import org.apache.iotdb.db.utils.MathUtils;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * OffHeapTVList keeps the timestamps and values of a series of any data type in direct memory
+ * slabs from OffHeapSlabManager, ARRAY_SIZE points per slab, so that memtables hardly occupy the
+ * heap. The bytes of TEXT values are appended to an arena of text blocks, and the value slabs only
+ * keep their locations, so sorting and deleting never copy the bytes.
+ *
+ * <p>The slabs are not freed by GC, so a list dropped by its memtable while queries still read it
+ * is cleared when the last of them ends, see {@link #clearAfterQueries()}.
+ *
+ * <p>Internally, a value is read and written as the raw bits in a long, see {@link #getRaw(int)}.
+ */
+public class OffHeapTVList extends TVList {
+
+  private final TSDataType dataType;
+
+  private final int valueSize;
+
+  private final List<ByteBuffer> timeSlabs;
+
+  private final List<ByteBuffer> valueSlabs;
+
+  /** only for TEXT */
+  private final TextArena textArena;
+
+  private long[][] sortedValues;
+
+  private long pivotValue;
+
+  /** whether the memtable no longer uses the list */
+  private boolean dropped;
+
+  OffHeapTVList(TSDataType dataType) {
+    super();
+    if (dataType == null || dataType.getDataTypeSize() <= 0) {
+      throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    this.dataType = dataType;
+    this.valueSize = dataType.getDataTypeSize();
+    timeSlabs = new ArrayList<>();
+    valueSlabs = new ArrayList<>();
+    textArena = dataType == TSDataType.TEXT ? new TextArena() : null;
+  }
+
+  @Override
+  public long getTime(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return timeSlabs.get(index / ARRAY_SIZE).getLong(index % ARRAY_SIZE * Long.BYTES);
+  }
+
+  /** @return the value at the index as the raw bits in a long, or the location of a TEXT value */
+  private long getRaw(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    ByteBuffer slab = valueSlabs.get(index / ARRAY_SIZE);
+    int position = index % ARRAY_SIZE * valueSize;
+    switch (valueSize) {
+      case Byte.BYTES:
+        return slab.get(position);
+      case Integer.BYTES:
+        return slab.getInt(position);
+      default:
+        return slab.getLong(position);
+    }
+  }
+
+  private void set(int index, long timestamp, long raw) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    int arrayIndex = index / ARRAY_SIZE;
+    int elementIndex = index % ARRAY_SIZE;
+    timeSlabs.get(arrayIndex).putLong(elementIndex * Long.BYTES, timestamp);
+    ByteBuffer slab = valueSlabs.get(arrayIndex);
+    int position = elementIndex * valueSize;
+    switch (valueSize) {
+      case Byte.BYTES:
+        slab.put(position, (byte) raw);
+        break;
+      case Integer.BYTES:
+        slab.putInt(position, (int) raw);
+        break;
+      default:
+        slab.putLong(position, raw);
+        break;
+    }
+  }
+
+  private void putRaw(long timestamp, long raw) {
+    checkExpansion();
+    minTime = Math.min(minTime, timestamp);
+    size++;
+    set(size - 1, timestamp, raw);
+    if (sorted && size > 1 && timestamp < getTime(size - 2)) {
+      sorted = false;
+    }
+  }
+
+  private void checkDataType(TSDataType expected) {
+    if (dataType != expected) {
+      throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+    }
+  }
+
+  @Override
+  public void putLong(long time, long value) {
+    checkDataType(TSDataType.INT64);
+    putRaw(time, value);
+  }
+
+  @Override
+  public void putInt(long time, int value) {
+    checkDataType(TSDataType.INT32);
+    putRaw(time, value);
+  }
+
+  @Override
+  public void putFloat(long time, float value) {
+    checkDataType(TSDataType.FLOAT);
+    putRaw(time, Float.floatToRawIntBits(value));
+  }
+
+  @Override
+  public void putDouble(long time, double value) {
+    checkDataType(TSDataType.DOUBLE);
+    putRaw(time, Double.doubleToRawLongBits(value));
+  }
+
+  @Override
+  public void putBinary(long time, Binary value) {
+    checkDataType(TSDataType.TEXT);
+    putRaw(time, textArena.append(value));
+  }
+
+  @Override
+  public void putBoolean(long time, boolean value) {
+    checkDataType(TSDataType.BOOLEAN);
+    putRaw(time, value ? 1 : 0);
+  }
+
+  @Override
+  public void putLongs(long[] time, long[] value, int start, int end) {
+    checkDataType(TSDataType.INT64);
+    putBatch(time, value, start, end);
+  }
+
+  @Override
+  public void putInts(long[] time, int[] value, int start, int end) {
+    checkDataType(TSDataType.INT32);
+    putBatch(time, value, start, end);
+  }
+
+  @Override
+  public void putFloats(long[] time, float[] value, int start, int end) {
+    checkDataType(TSDataType.FLOAT);
+    putBatch(time, value, start, end);
+  }
+
+  @Override
+  public void putDoubles(long[] time, double[] value, int start, int end) {
+    checkDataType(TSDataType.DOUBLE);
+    putBatch(time, value, start, end);
+  }
+
+  @Override
+  public void putBinaries(long[] time, Binary[] value, int start, int end) {
+    checkDataType(TSDataType.TEXT);
+    putBatch(time, value, start, end);
+  }
+
+  @Override
+  public void putBooleans(long[] time, boolean[] value, int start, int end) {
+    checkDataType(TSDataType.BOOLEAN);
+    putBatch(time, value, start, end);
+  }
+
+  /** @param value an array of the data type */
+  private void putBatch(long[] time, Object value, int start, int end) {
+    updateMinTimeAndSorted(time, start, end);
+
+    int idx = start;
+    while (idx < end) {
+      checkExpansion();
+      int arrayIdx = size / ARRAY_SIZE;
+      int elementIdx = size % ARRAY_SIZE;
+      // fill the last slab as much as possible, then create a new one in the next loop
+      int length = Math.min(end - idx, ARRAY_SIZE - elementIdx);
+      LongBuffer timeBuffer = timeSlabs.get(arrayIdx).asLongBuffer();
+      timeBuffer.position(elementIdx);
+      timeBuffer.put(time, idx, length);
+      putValues(valueSlabs.get(arrayIdx), elementIdx, value, idx, length);
+      idx += length;
+      size += length;
+    }
+  }
+
+  private void putValues(ByteBuffer slab, int elementIdx, Object value, int idx, int length) {
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleans = (boolean[]) value;
+        for (int i = 0; i < length; i++) {
+          slab.put(elementIdx + i, booleans[idx + i] ? (byte) 1 : (byte) 0);
+        }
+        break;
+      case INT32:
+        IntBuffer intBuffer = slab.asIntBuffer();
+        intBuffer.position(elementIdx);
+        intBuffer.put((int[]) value, idx, length);
+        break;
+      case INT64:
+        LongBuffer longBuffer = slab.asLongBuffer();
+        longBuffer.position(elementIdx);
+        longBuffer.put((long[]) value, idx, length);
+        break;
+      case FLOAT:
+        FloatBuffer floatBuffer = slab.asFloatBuffer();
+        floatBuffer.position(elementIdx);
+        floatBuffer.put((float[]) value, idx, length);
+        break;
+      case DOUBLE:
+        DoubleBuffer doubleBuffer = slab.asDoubleBuffer();
+        doubleBuffer.position(elementIdx);
+        doubleBuffer.put((double[]) value, idx, length);
+        break;
+      case TEXT:
+        Binary[] binaries = (Binary[]) value;
+        for (int i = 0; i < length; i++) {
+          slab.putLong((elementIdx + i) * Long.BYTES, textArena.append(binaries[idx + i]));
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(dataType.toString());
+    }
+  }
+
+  @Override
+  public long getLong(int index) {
+    checkDataType(TSDataType.INT64);
+    return getRaw(index);
+  }
+
+  @Override
+  public int getInt(int index) {
+    checkDataType(TSDataType.INT32);
+    return (int) getRaw(index);
+  }
+
+  @Override
+  public float getFloat(int index) {
+    checkDataType(TSDataType.FLOAT);
+    return Float.intBitsToFloat((int) getRaw(index));
+  }
+
+  @Override
+  public double getDouble(int index) {
+    checkDataType(TSDataType.DOUBLE);
+    return Double.longBitsToDouble(getRaw(index));
+  }
+
+  @Override
+  public Binary getBinary(int index) {
+    checkDataType(TSDataType.TEXT);
+    return textArena.get(getRaw(index));
+  }
+
+  @Override
+  public boolean getBoolean(int index) {
+    checkDataType(TSDataType.BOOLEAN);
+    return getRaw(index) != 0;
+  }
+
+  @Override
+  protected void createSortedValues(int size) {
+    sortedValues = (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
+  }
+
+  @Override
+  protected void set(int src, int dest) {
+    set(dest, getTime(src), getRaw(src));
+  }
+
+  @Override
+  protected void setFromSorted(int src, int dest) {
+    set(
+        dest,
+        sortedTimestamps[src / ARRAY_SIZE][src % ARRAY_SIZE],
+        sortedValues[src / ARRAY_SIZE][src % ARRAY_SIZE]);
+  }
+
+  @Override
+  protected void setToSorted(int src, int dest) {
+    sortedTimestamps[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getTime(src);
+    sortedValues[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getRaw(src);
+  }
+
+  @Override
+  protected void reverseRange(int lo, int hi) {
+    hi--;
+    while (lo < hi) {
+      long loT = getTime(lo);
+      long loV = getRaw(lo);
+      long hiT = getTime(hi);
+      long hiV = getRaw(hi);
+      set(lo++, hiT, hiV);
+      set(hi--, loT, loV);
+    }
+  }
+
+  @Override
+  protected void saveAsPivot(int pos) {
+    pivotTime = getTime(pos);
+    pivotValue = getRaw(pos);
+  }
+
+  @Override
+  protected void setPivotTo(int pos) {
+    set(pos, pivotTime, pivotValue);
+  }
+
+  @Override
+  protected void checkExpansion() {
+    if ((size % ARRAY_SIZE) == 0) {
+      expandValues();
+      timeSlabs.add(OffHeapSlabManager.allocateSlab(TSDataType.INT64));
+    }
+  }
+
+  @Override
+  protected void expandValues() {
+    valueSlabs.add(OffHeapSlabManager.allocateSlab(dataType));
+  }
+
+  @Override
+  public int delete(long lowerBound, long upperBound) {
+    int deletedNumber = super.delete(lowerBound, upperBound);
+    if (getReferenceCount() > 0) {
+      // the queries may still read the slabs beyond the size
+      return deletedNumber;
+    }
+    // release the slabs that are empty, the bytes of deleted TEXT values are kept until clear()
+    int slabNum = size / ARRAY_SIZE + (size % ARRAY_SIZE == 0 ? 0 : 1);
+    while (timeSlabs.size() > slabNum) {
+      releaseLastTimeArray();
+      releaseLastValueArray();
+    }
+    return deletedNumber;
+  }
+
+  @Override
+  public synchronized void decreaseReferenceCount() {
+    super.decreaseReferenceCount();
+    if (dropped && getReferenceCount() == 0) {
+      clear();
+    }
+  }
+
+  @Override
+  public synchronized void clearAfterQueries() {
+    dropped = true;
+    if (getReferenceCount() == 0) {
+      clear();
+    }
+  }
+
+  @Override
+  protected void releaseLastTimeArray() {
+    OffHeapSlabManager.release(timeSlabs.remove(timeSlabs.size() - 1));
+  }
+
+  @Override
+  protected void releaseLastValueArray() {
+    OffHeapSlabManager.release(valueSlabs.remove(valueSlabs.size() - 1));
+  }
+
+  @Override
+  protected void clearTime() {
+    for (ByteBuffer slab : timeSlabs) {
+      OffHeapSlabManager.release(slab);
+    }
+    timeSlabs.clear();
+  }
+
+  @Override
+  void clearValue() {
+    for (ByteBuffer slab : valueSlabs) {
+      OffHeapSlabManager.release(slab);
+    }
+    valueSlabs.clear();
+    if (textArena != null) {
+      textArena.clear();
+    }
+  }
+
+  @Override
+  void clearSortedValue() {
+    if (sortedValues != null) {
+      sortedValues = null;
+    }
+  }
+
+  @Override
+  public OffHeapTVList clone() {
+    OffHeapTVList cloneList = new OffHeapTVList(dataType);
+    cloneAs(cloneList);
+    for (ByteBuffer slab : timeSlabs) {
+      cloneList.timeSlabs.add(cloneSlab(slab, OffHeapSlabManager.allocateSlab(TSDataType.INT64)));
+    }
+    for (ByteBuffer slab : valueSlabs) {
+      cloneList.valueSlabs.add(cloneSlab(slab, OffHeapSlabManager.allocateSlab(dataType)));
+    }
+    if (textArena != null) {
+      textArena.cloneTo(cloneList.textArena);
+    }
+    return cloneList;
+  }
+
+  private static ByteBuffer cloneSlab(ByteBuffer slab, ByteBuffer cloneSlab) {
+    ByteBuffer source = slab.duplicate();
+    source.clear();
+    cloneSlab.put(source);
+    // the views of a slab start from its position
+    cloneSlab.clear();
+    return cloneSlab;
+  }
+
+  @Override
+  public TimeValuePair getTimeValuePair(int index) {
+    return new TimeValuePair(getTime(index), getValue(index));
+  }
+
+  @Override
+  protected TimeValuePair getTimeValuePair(
+      int index, long time, Integer floatPrecision, TSEncoding encoding) {
+    switch (dataType) {
+      case FLOAT:
+        float floatValue = getFloat(index);
+        if (!Float.isNaN(floatValue)
+            && (encoding == TSEncoding.RLE || encoding == TSEncoding.TS_2DIFF)) {
+          floatValue = MathUtils.roundWithGivenPrecision(floatValue, floatPrecision);
+        }
+        return new TimeValuePair(time, new TsPrimitiveType.TsFloat(floatValue));
+      case DOUBLE:
+        double doubleValue = getDouble(index);
+        if (!Double.isNaN(doubleValue)
+            && (encoding == TSEncoding.RLE || encoding == TSEncoding.TS_2DIFF)) {
+          doubleValue = MathUtils.roundWithGivenPrecision(doubleValue, floatPrecision);
+        }
+        return new TimeValuePair(time, new TsPrimitiveType.TsDouble(doubleValue));
+      default:
+        return new TimeValuePair(time, getValue(index));
+    }
+  }
+
+  private TsPrimitiveType getValue(int index) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new TsPrimitiveType.TsBoolean(getBoolean(index));
+      case INT32:
+        return new TsPrimitiveType.TsInt(getInt(index));
+      case INT64:
+        return new TsPrimitiveType.TsLong(getLong(index));
+      case FLOAT:
+        return new TsPrimitiveType.TsFloat(getFloat(index));
+      case DOUBLE:
+        return new TsPrimitiveType.TsDouble(getDouble(index));
+      case TEXT:
+        return new TsPrimitiveType.TsBinary(getBinary(index));
+      default:
+        throw new UnSupportedDataTypeException(dataType.toString());
+    }
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  /**
+   * TextArena appends the bytes of TEXT values to text blocks, each value as an int of its length
+   * followed by its bytes. The location of a value is the index of its block in the high 32 bits
+   * and its offset in the block in the low 32 bits. The blocks double in size so that a series with
+   * few values does not occupy a large block.
+   */
+  private static class TextArena {
+
+    private final List<ByteBuffer> blocks = new ArrayList<>();
+
+    /** the offset to append to in the last block */
+    private int offset;
+
+    private long append(Binary value) {
+      byte[] bytes = value.getValues();
+      int recordSize = Integer.BYTES + bytes.length;
+      ByteBuffer block = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+      if (block == null || offset + recordSize > block.capacity()) {
+        int blockSize =
+            block == null
+                ? OffHeapSlabManager.MIN_TEXT_BLOCK_SIZE
+                : Math.min(block.capacity() << 1, OffHeapSlabManager.MAX_TEXT_BLOCK_SIZE);
+        block = OffHeapSlabManager.allocateTextBlock(Math.max(blockSize, recordSize));
+        blocks.add(block);
+        offset = 0;
+      }
+      long location = ((long) (blocks.size() - 1) << 32) | offset;
+      block.putInt(offset, bytes.length);
+      ByteBuffer buffer = block.duplicate();
+      buffer.position(offset + Integer.BYTES);
+      buffer.put(bytes);
+      offset += recordSize;
+      return location;
+    }
+
+    private Binary get(long location) {
+      ByteBuffer block = blocks.get((int) (location >>> 32));
+      int position = (int) location;
+      byte[] bytes = new byte[block.getInt(position)];
+      ByteBuffer buffer = block.duplicate();
+      buffer.position(position + Integer.BYTES);
+      buffer.get(bytes);
+      return new Binary(bytes);
+    }
+
+    private void cloneTo(TextArena cloneArena) {
+      for (ByteBuffer block : blocks) {
+        cloneArena.blocks.add(
+            cloneSlab(block, OffHeapSlabManager.allocateTextBlock(block.capacity())));
+      }
+      cloneArena.offset = offset;
+    }
+
+    private void clear() {
+      for (ByteBuffer block : blocks) {
+        OffHeapSlabManager.release(block);
+      }
+      blocks.clear();
+      offset = 0;
+    }
+  }
+}
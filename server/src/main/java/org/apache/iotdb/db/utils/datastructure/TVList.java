@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.utils.datastructure;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -38,7 +39,7 @@ import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
 public abstract class TVList {
 
   protected static final int SMALL_ARRAY_LENGTH = 32;
-  private static final String ERR_DATATYPE_NOT_CONSISTENT = "DataType not consistent";
+  protected static final String ERR_DATATYPE_NOT_CONSISTENT = "DataType not consistent";
   protected List<long[]> timestamps;
   protected int size;
 
@@ -60,6 +61,9 @@ public abstract class TVList {
   }
 
   public static TVList newList(TSDataType dataType) {
+    if (IoTDBDescriptor.getInstance().getConfig().isEnableOffHeapMemTable()) {
+      return new OffHeapTVList(dataType);
+    }
     switch (dataType) {
       case TEXT:
         return new BinaryTVList();
@@ -96,10 +100,23 @@ public abstract class TVList {
     referenceCount.incrementAndGet();
   }
 
+  /** called when a query reading the list ends */
+  public void decreaseReferenceCount() {
+    referenceCount.decrementAndGet();
+  }
+
   public int getReferenceCount() {
     return referenceCount.get();
   }
 
+  /**
+   * Called when the memtable no longer uses the list, which may still be read by queries. The
+   * arrays are left to GC here, while a list outside the heap clears itself after the last query.
+   */
+  public void clearAfterQueries() {
+    // the arrays are freed by GC
+  }
+
   public int size() {
     return size;
   }
@@ -185,7 +202,142 @@ public abstract class TVList {
     throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
   }
 
-  public abstract void sort();
+  /**
+   * Sort the list by time stably, so that the last inserted point of a timestamp is still the last.
+   *
+   * <p>The list is usually in time order except a few late points, so the points before a larger
+   * one are taken out, sorted in flat arrays and merged back into the rest, which are in order and
+   * mostly stay where they are. If most points are out of order, the list is merge sorted.
+   */
+  public void sort() {
+    if (!sorted && !sortOutOfOrderPoints()) {
+      sortedTimestamps =
+          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
+      createSortedValues(size);
+      sort(0, size);
+    }
+    clearSortedValue();
+    clearSortedTime();
+    sorted = true;
+  }
+
+  /** @return false if most points are out of order, which are left to the merge sort */
+  private boolean sortOutOfOrderPoints() {
+    // the points before a larger one are out of order
+    int firstOutOfOrderIndex = -1;
+    int outOfOrderNum = 0;
+    long maxTime = Long.MIN_VALUE;
+    for (int i = 0; i < size; i++) {
+      long time = getTime(i);
+      if (time >= maxTime) {
+        maxTime = time;
+      } else {
+        if (outOfOrderNum == 0) {
+          firstOutOfOrderIndex = i;
+        }
+        outOfOrderNum++;
+      }
+    }
+    if (outOfOrderNum == 0) {
+      return true;
+    }
+    if (outOfOrderNum > size / 2) {
+      return false;
+    }
+
+    long[] outOfOrderTimes = new long[outOfOrderNum];
+    int[] outOfOrderIndexes = new int[outOfOrderNum];
+    long inOrderMaxTime = getTime(firstOutOfOrderIndex - 1);
+    maxTime = inOrderMaxTime;
+    for (int i = firstOutOfOrderIndex, j = 0; i < size; i++) {
+      long time = getTime(i);
+      if (time >= maxTime) {
+        maxTime = time;
+      } else {
+        outOfOrderTimes[j] = time;
+        outOfOrderIndexes[j++] = i;
+      }
+    }
+    // as the indexes are ascending, a stable sort of the times keeps the order of insertion
+    sortByTime(
+        outOfOrderTimes,
+        outOfOrderIndexes,
+        0,
+        outOfOrderNum,
+        new long[outOfOrderNum],
+        new int[outOfOrderNum]);
+
+    // move the out of order points to the sorting buffer by time
+    sortedTimestamps =
+        (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, outOfOrderNum);
+    createSortedValues(outOfOrderNum);
+    for (int j = 0; j < outOfOrderNum; j++) {
+      setToSorted(outOfOrderIndexes[j], j);
+    }
+    // move the points in order ahead
+    int inOrderNum = firstOutOfOrderIndex;
+    maxTime = inOrderMaxTime;
+    for (int i = firstOutOfOrderIndex; i < size; i++) {
+      long time = getTime(i);
+      if (time >= maxTime) {
+        maxTime = time;
+        set(i, inOrderNum++);
+      }
+    }
+    // merge from the end, the out of order points are after the points in order of the same time
+    int inOrderIndex = inOrderNum - 1;
+    int dest = size - 1;
+    for (int j = outOfOrderNum - 1; j >= 0; j--) {
+      while (inOrderIndex >= 0 && getTime(inOrderIndex) > outOfOrderTimes[j]) {
+        set(inOrderIndex--, dest--);
+      }
+      setFromSorted(j, dest--);
+    }
+    return true;
+  }
+
+  /** merge sort the times in [lo, hi) and the indexes along with them stably */
+  private static void sortByTime(
+      long[] times, int[] indexes, int lo, int hi, long[] timeBuffer, int[] indexBuffer) {
+    if (hi - lo <= SMALL_ARRAY_LENGTH) {
+      // insertion sort
+      for (int i = lo + 1; i < hi; i++) {
+        long time = times[i];
+        int index = indexes[i];
+        int j = i - 1;
+        for (; j >= lo && times[j] > time; j--) {
+          times[j + 1] = times[j];
+          indexes[j + 1] = indexes[j];
+        }
+        times[j + 1] = time;
+        indexes[j + 1] = index;
+      }
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    sortByTime(times, indexes, lo, mid, timeBuffer, indexBuffer);
+    sortByTime(times, indexes, mid, hi, timeBuffer, indexBuffer);
+    if (times[mid - 1] <= times[mid]) {
+      // already in order, which is common for late points
+      return;
+    }
+    System.arraycopy(times, lo, timeBuffer, lo, hi - lo);
+    System.arraycopy(indexes, lo, indexBuffer, lo, hi - lo);
+    int left = lo;
+    int right = mid;
+    for (int i = lo; i < hi; i++) {
+      if (right >= hi || (left < mid && timeBuffer[left] <= timeBuffer[right])) {
+        times[i] = timeBuffer[left];
+        indexes[i] = indexBuffer[left++];
+      } else {
+        times[i] = timeBuffer[right];
+        indexes[i] = indexBuffer[right++];
+      }
+    }
+  }
+
+  /** create the sorting buffer of the values, of the given capacity */
+  protected abstract void createSortedValues(int size);
 
   public long getMinTime() {
     return minTime;
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.writelog.io;
 
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 
+import org.apache.commons.io.input.BoundedInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +60,24 @@ public class SingleFileLogReader implements ILogReader {
     open(logFile);
   }
 
+  /**
+   * read the logs in [offset, offset + length) of the file only, the range must start and end at
+   * log boundaries.
+   */
+  public SingleFileLogReader(File logFile, long offset, long length) throws IOException {
+    FileInputStream inputStream = new FileInputStream(logFile);
+    try {
+      inputStream.getChannel().position(offset);
+    } catch (IOException e) {
+      inputStream.close();
+      throw e;
+    }
+    logStream =
+        new DataInputStream(new BufferedInputStream(new BoundedInputStream(inputStream, length)));
+    this.filepath = logFile.getPath();
+    idx = 0;
+  }
+
   @Override
   public boolean hasNext() {
     try {
@@ -22,6 +22,8 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.directories.DirectoryManager;
 import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
+import org.apache.iotdb.db.metrics.source.EngineSource;
+import org.apache.iotdb.db.metrics.source.EngineSource.Stage;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.writelog.io.ILogReader;
 import org.apache.iotdb.db.writelog.io.ILogWriter;
@@ -105,6 +107,7 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     if (deleted) {
       throw new IOException("WAL node deleted");
     }
+    long startTime = System.nanoTime();
     lock.lock();
     try {
       putLog(plan);
@@ -115,6 +118,7 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
       throw new IOException("Log cannot fit into the buffer, please increase wal_buffer_size", e);
     } finally {
       lock.unlock();
+      EngineSource.getInstance().update(Stage.WAL_APPEND, startTime);
     }
   }
 
@@ -242,7 +246,9 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     try {
       try {
         if (currentFileWriter != null) {
+          long startTime = System.nanoTime();
           currentFileWriter.force();
+          EngineSource.getInstance().update(Stage.WAL_FSYNC, startTime);
         }
       } catch (IOException e) {
         logger.error("Log node {} force failed.", identifier, e);
@@ -276,8 +282,10 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
   }
 
   private void flushBuffer(ILogWriter writer) {
+    long startTime = System.nanoTime();
     try {
       writer.write(logBufferFlushing);
+      EngineSource.getInstance().update(Stage.WAL_FLUSH, startTime);
     } catch (ClosedChannelException e) {
       // ignore
     } catch (IOException e) {
@@ -83,11 +83,25 @@ public class TsFileRecoverPerformer {
    *     file and the vmfiles are not closed before crash, so these writers can be used to continue
    *     writing
    */
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public RestorableTsFileIOWriter recover(
       boolean needRedoWal, Supplier<ByteBuffer[]> supplier, Consumer<ByteBuffer[]> consumer)
       throws StorageGroupProcessorException {
+    RestorableTsFileIOWriter restorableTsFileIOWriter = recoverFile();
+    if (restorableTsFileIOWriter == null || !restorableTsFileIOWriter.hasCrashed()) {
+      return restorableTsFileIOWriter;
+    }
+    return recoverCrashedFile(restorableTsFileIOWriter, needRedoWal, supplier, consumer);
+  }
 
+  /**
+   * Recover the TsFile by RestorableTsFileIOWriter and truncate the file to remaining corrected
+   * data. If the file is complete, its resource is also recovered. As no WAL is touched, the files
+   * of a storage group can be recovered by this method concurrently.
+   *
+   * @return a RestorableTsFileIOWriter, which has crashed if the file is not complete, or null if
+   *     the file is missing
+   */
+  public RestorableTsFileIOWriter recoverFile() throws StorageGroupProcessorException {
     File file = FSFactoryProducer.getFSFactory().getFile(filePath);
     if (!file.exists()) {
       logger.error("TsFile {} is missing, will skip its recovery.", filePath);
@@ -110,13 +124,27 @@ public class TsFileRecoverPerformer {
     if (!restorableTsFileIOWriter.hasCrashed()) {
       try {
         recoverResource();
-        return restorableTsFileIOWriter;
       } catch (IOException e) {
         throw new StorageGroupProcessorException(
             "recover the resource file failed: " + filePath + RESOURCE_SUFFIX + e);
       }
     }
+    return restorableTsFileIOWriter;
+  }
 
+  /**
+   * Recover the resource of a crashed TsFile from the writer returned by recoverFile(), then redo
+   * the WALs, flush and close the file and clean the WALs if needRedoWal. The crashed files of a
+   * storage group are recovered by this method one by one, in the order of the files.
+   *
+   * @return the writer, which can be used to continue writing if the file is not closed
+   */
+  public RestorableTsFileIOWriter recoverCrashedFile(
+      RestorableTsFileIOWriter restorableTsFileIOWriter,
+      boolean needRedoWal,
+      Supplier<ByteBuffer[]> supplier,
+      Consumer<ByteBuffer[]> consumer)
+      throws StorageGroupProcessorException {
     // tsfile has crashed
     // due to failure, the last ChunkGroup may contain the same data as the WALs, so the time
     // map must be updated first to avoid duplicated insertion
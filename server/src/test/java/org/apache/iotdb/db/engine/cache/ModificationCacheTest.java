@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.PartialPath;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ModificationCacheTest {
+
+  private final String modFilePath = TestConstant.BASE_OUTPUT_PATH.concat("cache.mods");
+
+  @Before
+  public void setUp() {
+    ModificationCache.getInstance().clear();
+  }
+
+  @After
+  public void tearDown() {
+    ModificationCache.getInstance().clear();
+    new File(modFilePath).delete();
+  }
+
+  @Test
+  public void testValidatedByFileLength() throws IOException, IllegalPathException {
+    PartialPath path = new PartialPath("root.sg.d1.s1");
+    Deletion deletion1 = new Deletion(new PartialPath("root.sg.d1"), 1, 10);
+    Deletion deletion2 = new Deletion(path, 2, 20);
+    try (ModificationFile modFile = new ModificationFile(modFilePath)) {
+      modFile.write(deletion1);
+      List<Modification> modifications = ModificationCache.getInstance().get(modFile, path);
+      assertEquals(Collections.singletonList(deletion1), modifications);
+      assertSame(modifications, ModificationCache.getInstance().get(modFile, path));
+
+      modFile.write(deletion2);
+      List<Modification> newModifications = ModificationCache.getInstance().get(modFile, path);
+      assertNotSame(modifications, newModifications);
+      assertEquals(2, newModifications.size());
+    }
+
+    // another instance of the same file shares the cached result
+    try (ModificationFile modFile = new ModificationFile(modFilePath)) {
+      assertEquals(2, ModificationCache.getInstance().get(modFile, path).size());
+      assertEquals(1, ModificationCache.getInstance().size());
+    }
+  }
+
+  @Test
+  public void testRemoveFile() throws IOException, IllegalPathException {
+    PartialPath path1 = new PartialPath("root.sg.d1.s1");
+    PartialPath path2 = new PartialPath("root.sg.d1.s2");
+    ModificationFile modFile = new ModificationFile(modFilePath);
+    modFile.write(new Deletion(new PartialPath("root.sg.d1"), 1, 10));
+    ModificationCache.getInstance().get(modFile, path1);
+    ModificationCache.getInstance().get(modFile, path2);
+    assertEquals(2, ModificationCache.getInstance().size());
+
+    modFile.remove();
+    assertEquals(0, ModificationCache.getInstance().size());
+  }
+}
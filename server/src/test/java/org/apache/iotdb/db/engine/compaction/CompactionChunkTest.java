@@ -23,10 +23,13 @@ import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.compaction.utils.CompactionUtils;
 import org.apache.iotdb.db.engine.merge.manage.MergeManager;
+import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
@@ -54,6 +57,7 @@ import java.util.Map.Entry;
 
 import static org.apache.iotdb.db.conf.IoTDBConstant.PATH_SEPARATOR;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class CompactionChunkTest extends LevelCompactionTest {
 
@@ -239,4 +243,94 @@ public class CompactionChunkTest extends LevelCompactionTest {
     }
     reader.close();
   }
+
+  @Test
+  public void testPageMerge() throws IOException, IllegalPathException {
+    Map<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> measurementChunkMetadataMap =
+        new HashMap<>();
+    List<TsFileResource> sourceTsfileResources = seqResources.subList(0, 3);
+    File file =
+        new File(
+            TestConstant.BASE_OUTPUT_PATH.concat(
+                0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 1
+                    + ".tsfile"));
+    TsFileResource targetTsfileResource = new TsFileResource(file);
+    RateLimiter compactionWriteRateLimiter = MergeManager.getINSTANCE().getMergeWriteRateLimiter();
+    String device = COMPACTION_TEST_SG + PATH_SEPARATOR + "device0";
+    PartialPath deletedPath = new PartialPath(device, "sensor0");
+    Map<String, List<Modification>> modificationCache = new HashMap<>();
+    List<TsFileSequenceReader> readers = new ArrayList<>();
+    for (TsFileResource tsFileResource : sourceTsfileResources) {
+      TsFileSequenceReader reader = new TsFileSequenceReader(tsFileResource.getTsFilePath());
+      readers.add(reader);
+      // only the pages of sensor0 in the first file overlapping the deletion are decoded
+      List<Modification> modifications = new ArrayList<>();
+      if (readers.size() == 1) {
+        modifications.add(new Deletion(deletedPath, Long.MAX_VALUE, 10, 15));
+      }
+      modificationCache.put(reader.getFileName(), modifications);
+      Map<String, List<ChunkMetadata>> chunkMetadataMap = reader.readChunkMetadataInDevice(device);
+      for (Entry<String, List<ChunkMetadata>> entry : chunkMetadataMap.entrySet()) {
+        measurementChunkMetadataMap
+            .computeIfAbsent(entry.getKey(), k -> new LinkedHashMap<>())
+            .put(reader, entry.getValue());
+      }
+    }
+    RestorableTsFileIOWriter writer =
+        new RestorableTsFileIOWriter(targetTsfileResource.getTsFile());
+    writer.startChunkGroup(device);
+    for (Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry :
+        measurementChunkMetadataMap.entrySet()) {
+      CompactionUtils.writeByPageMerge(
+          0,
+          device,
+          compactionWriteRateLimiter,
+          entry,
+          targetTsfileResource,
+          writer,
+          modificationCache,
+          new ArrayList<>());
+    }
+    writer.endChunkGroup();
+    targetTsfileResource.serialize();
+    writer.endFile();
+    targetTsfileResource.close();
+    for (TsFileSequenceReader reader : readers) {
+      reader.close();
+    }
+
+    assertEquals(0, targetTsfileResource.getStartTime(device));
+    assertEquals(3 * ptNum - 1, targetTsfileResource.getEndTime(device));
+    TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath());
+    List<Path> paths = reader.getAllPaths();
+    assertEquals(measurementNum, paths.size());
+    for (Path path : paths) {
+      List<ChunkMetadata> chunkMetadataList = reader.getChunkMetadataList(path);
+      assertEquals(1, chunkMetadataList.size());
+      Chunk chunk = reader.readMemChunk(chunkMetadataList.get(0));
+      IChunkReader chunkReader = new ChunkReaderByTimestamp(chunk);
+      long totalPointCount = 0;
+      long lastTime = Long.MIN_VALUE;
+      while (chunkReader.hasNextSatisfiedPage()) {
+        BatchData batchData = chunkReader.nextPageData();
+        for (int i = 0; i < batchData.length(); i++) {
+          assertTrue(batchData.getTimeByIndex(i) > lastTime);
+          lastTime = batchData.getTimeByIndex(i);
+          assertEquals(batchData.getTimeByIndex(i), batchData.getDoubleByIndex(i), 0.001);
+        }
+        totalPointCount += batchData.length();
+      }
+      assertEquals(totalPointCount, chunkMetadataList.get(0).getNumOfPoints());
+      if (path.getMeasurement().equals("sensor0")) {
+        assertEquals(3 * ptNum - 6, totalPointCount);
+      } else {
+        assertEquals(3 * ptNum, totalPointCount);
+      }
+    }
+    reader.close();
+  }
 }
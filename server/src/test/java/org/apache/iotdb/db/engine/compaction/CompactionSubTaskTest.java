@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction;
+
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.compaction.utils.CompactionUtils;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.reader.series.SeriesRawDataBatchReader;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.reader.IBatchReader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+public class CompactionSubTaskTest extends LevelCompactionTest {
+
+  private int prevCompactionSubThreadNum;
+  private boolean startedByTest;
+
+  @Override
+  @Before
+  public void setUp() throws IOException, WriteProcessException, MetadataException {
+    super.setUp();
+    prevCompactionSubThreadNum =
+        IoTDBDescriptor.getInstance().getConfig().getCompactionSubThreadNum();
+    IoTDBDescriptor.getInstance().getConfig().setCompactionSubThreadNum(4);
+    startedByTest = CompactionMergeTaskPoolManager.getInstance().isTerminated();
+    CompactionMergeTaskPoolManager.getInstance().start();
+  }
+
+  @Override
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    if (startedByTest) {
+      CompactionMergeTaskPoolManager.getInstance().stop();
+    }
+    IoTDBDescriptor.getInstance().getConfig().setCompactionSubThreadNum(prevCompactionSubThreadNum);
+    super.tearDown();
+  }
+
+  @Test
+  public void testMergeWithSubTasks() throws IOException, IllegalPathException {
+    assertNotNull(CompactionMergeTaskPoolManager.getInstance().getSubTaskPool());
+    TsFileResource targetResource = createTargetResource();
+    CompactionUtils.merge(
+        targetResource,
+        new ArrayList<>(seqResources),
+        COMPACTION_TEST_SG,
+        null,
+        new HashSet<>(),
+        true,
+        new ArrayList<>());
+
+    for (String deviceId : deviceIds) {
+      assertEquals(0, targetResource.getStartTime(deviceId));
+      assertEquals(seqFileNum * ptNum - 1, targetResource.getEndTime(deviceId));
+      for (int i = 0; i < measurementNum; i++) {
+        assertEquals(seqFileNum * ptNum, countPoints(targetResource, deviceId, i));
+      }
+    }
+  }
+
+  @Test
+  public void testSkipMergedDevices() throws IOException, IllegalPathException {
+    TsFileResource targetResource = createTargetResource();
+    Set<String> mergedDevices = Collections.singleton(deviceIds[0]);
+    CompactionUtils.merge(
+        targetResource,
+        new ArrayList<>(seqResources),
+        COMPACTION_TEST_SG,
+        null,
+        mergedDevices,
+        true,
+        new ArrayList<>());
+
+    assertFalse(targetResource.getDevices().contains(deviceIds[0]));
+    for (int i = 1; i < deviceNum; i++) {
+      assertEquals(seqFileNum * ptNum, countPoints(targetResource, deviceIds[i], 0));
+    }
+  }
+
+  private TsFileResource createTargetResource() {
+    return new TsFileResource(
+        new File(
+            TestConstant.BASE_OUTPUT_PATH.concat(
+                0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 1
+                    + ".tsfile")));
+  }
+
+  private int countPoints(TsFileResource resource, String deviceId, int measurementIndex)
+      throws IOException, IllegalPathException {
+    PartialPath path =
+        new PartialPath(
+            deviceId
+                + TsFileConstant.PATH_SEPARATOR
+                + measurementSchemas[measurementIndex].getMeasurementId());
+    IBatchReader reader =
+        new SeriesRawDataBatchReader(
+            path,
+            measurementSchemas[measurementIndex].getType(),
+            new QueryContext(),
+            Collections.singletonList(resource),
+            new ArrayList<>(),
+            null,
+            null,
+            true);
+    int count = 0;
+    while (reader.hasNextBatch()) {
+      BatchData batchData = reader.nextBatch();
+      for (int i = 0; i < batchData.length(); i++) {
+        assertEquals(batchData.getTimeByIndex(i), batchData.getDoubleByIndex(i), 0.001);
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -20,15 +20,21 @@
 package org.apache.iotdb.db.engine.modification;
 
 import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.modification.io.LocalTextModificationAccessor;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.metadata.PartialPath;
 
 import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.fail;
 
 public class ModificationFileTest {
@@ -100,4 +106,71 @@ public class ModificationFileTest {
       new File(tempFileName).delete();
     }
   }
+
+  @Test
+  public void testPathModifications() throws IllegalPathException {
+    String tempFileName = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+    Modification[] modifications =
+        new Modification[] {
+          new Deletion(new PartialPath("root.sg.d1.s1"), 1, 1),
+          new Deletion(new PartialPath("root.sg.d1"), 2, 2),
+          new Deletion(new PartialPath("root.sg.*.s1"), 3, 3, 4),
+          new Deletion(new PartialPath("root.sg.d2.s1"), 4, 4, 5),
+          new Deletion(new PartialPath("root.sg.d1.s1"), 5, 5, 6)
+        };
+    try (ModificationFile mFile = new ModificationFile(tempFileName)) {
+      for (int i = 0; i < 4; i++) {
+        mFile.write(modifications[i]);
+      }
+      assertEquals(
+          Arrays.asList(modifications[0], modifications[1], modifications[2]),
+          mFile.getPathModifications(new PartialPath("root.sg.d1.s1")));
+      assertEquals(
+          Collections.singletonList(modifications[1]),
+          mFile.getPathModifications(new PartialPath("root.sg.d1.s2")));
+
+      // the index is updated by writes
+      long version = mFile.getVersion();
+      mFile.write(modifications[4]);
+      assertNotEquals(version, mFile.getVersion());
+      assertEquals(
+          Arrays.asList(modifications[0], modifications[1], modifications[2], modifications[4]),
+          mFile.getPathModifications(new PartialPath("root.sg.d1.s1")));
+    } catch (IOException e) {
+      fail(e.getMessage());
+    } finally {
+      new File(tempFileName).delete();
+    }
+  }
+
+  @Test
+  public void testReadAndAppendTextFile() throws IllegalPathException {
+    String tempFileName = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+    Modification[] modifications =
+        new Modification[] {
+          new Deletion(new PartialPath("root.sg.d1.s1"), 1, 1),
+          new Deletion(new PartialPath("root.sg.d1.s2"), 2, 2, 3)
+        };
+    try {
+      try (LocalTextModificationAccessor accessor =
+          new LocalTextModificationAccessor(tempFileName)) {
+        accessor.write(modifications[0]);
+      }
+      try (ModificationFile mFile = new ModificationFile(tempFileName)) {
+        mFile.write(modifications[1]);
+      }
+      // the file stays in text format
+      try (LocalTextModificationAccessor accessor =
+          new LocalTextModificationAccessor(tempFileName)) {
+        assertEquals(Arrays.asList(modifications), new ArrayList<>(accessor.read()));
+      }
+      try (ModificationFile mFile = new ModificationFile(tempFileName)) {
+        assertEquals(Arrays.asList(modifications), mFile.getModifications());
+      }
+    } catch (IOException e) {
+      fail(e.getMessage());
+    } finally {
+      new File(tempFileName).delete();
+    }
+  }
 }
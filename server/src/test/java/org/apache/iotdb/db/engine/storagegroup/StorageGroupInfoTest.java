@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StorageGroupInfoTest {
+
+  @Test
+  public void testIngestRate() {
+    StorageGroupInfo storageGroupInfo = new StorageGroupInfo(null);
+    long startTime = System.currentTimeMillis();
+    assertEquals(0, storageGroupInfo.getIngestRate(startTime), 0);
+
+    storageGroupInfo.updateIngestRate(1000, startTime + 1000);
+    double rate = storageGroupInfo.getIngestRate(startTime + 1000);
+    assertTrue(rate > 0 && rate <= 1);
+    // decreases are not samples of the ingest rate
+    storageGroupInfo.updateIngestRate(-1000, startTime + 2000);
+    assertEquals(rate, storageGroupInfo.getIngestRate(startTime + 1000), 0);
+
+    storageGroupInfo.updateIngestRate(4000, startTime + 2000);
+    assertTrue(storageGroupInfo.getIngestRate(startTime + 2000) > rate);
+
+    // not reported for a long time, so it is increasing slower than the report threshold
+    long reportThreshold =
+        IoTDBDescriptor.getInstance().getConfig().getStorageGroupSizeReportThreshold();
+    long idleTime = reportThreshold * 1000;
+    assertEquals(
+        (double) reportThreshold / idleTime,
+        storageGroupInfo.getIngestRate(startTime + 2000 + idleTime),
+        1e-9);
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TsFileResourceCatalogTest {
+
+  private static final String DEVICE = "root.sg.d1";
+
+  private final File partitionDir =
+      new File(TestConstant.OUTPUT_DATA_DIR, "catalog" + File.separator + "0");
+  private boolean prevEnableResourceCatalog;
+
+  @Before
+  public void setUp() {
+    prevEnableResourceCatalog = IoTDBDescriptor.getInstance().getConfig().isEnableResourceCatalog();
+    IoTDBDescriptor.getInstance().getConfig().setEnableResourceCatalog(true);
+    partitionDir.mkdirs();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    TsFileResourceCatalog.closeAll();
+    FileUtils.deleteDirectory(partitionDir.getParentFile());
+    IoTDBDescriptor.getInstance().getConfig().setEnableResourceCatalog(prevEnableResourceCatalog);
+    EnvironmentUtils.cleanAllDir();
+  }
+
+  @Test
+  public void testSerializeAndReload() throws IOException {
+    for (int i = 1; i <= 10; i++) {
+      createResource(i, i * 100).serialize();
+    }
+    assertFalse(new File(getTsFile(1).getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    assertTrue(new File(partitionDir, TsFileResourceCatalog.CATALOG_FILE_NAME).exists());
+
+    new TsFileResource(getTsFile(3)).removeResourceFile();
+    TsFileResourceCatalog.closeAll();
+
+    for (int i = 1; i <= 10; i++) {
+      TsFileResource resource = new TsFileResource(getTsFile(i));
+      if (i == 3) {
+        assertFalse(resource.resourceFileExists());
+        continue;
+      }
+      assertTrue(resource.resourceFileExists());
+      resource.deserialize();
+      assertEquals(i, resource.getStartTime(DEVICE));
+      assertEquals(i * 100, resource.getEndTime(DEVICE));
+      assertEquals(i, resource.getMaxPlanIndex());
+    }
+  }
+
+  @Test
+  public void testResourceFilePrecedence() throws IOException {
+    createResource(1, 100).serialize();
+    IoTDBDescriptor.getInstance().getConfig().setEnableResourceCatalog(false);
+    createResource(1, 200).serialize();
+    IoTDBDescriptor.getInstance().getConfig().setEnableResourceCatalog(true);
+
+    TsFileResource resource = new TsFileResource(getTsFile(1));
+    resource.deserialize();
+    assertEquals(200, resource.getEndTime(DEVICE));
+
+    // serializing into the catalog removes the outdated .resource file
+    createResource(1, 300).serialize();
+    assertFalse(new File(getTsFile(1).getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    resource = new TsFileResource(getTsFile(1));
+    resource.deserialize();
+    assertEquals(300, resource.getEndTime(DEVICE));
+  }
+
+  @Test
+  public void testTruncateTornRecord() throws IOException {
+    createResource(1, 100).serialize();
+    createResource(2, 200).serialize();
+    TsFileResourceCatalog.closeAll();
+
+    File catalogFile = new File(partitionDir, TsFileResourceCatalog.CATALOG_FILE_NAME);
+    long length = catalogFile.length();
+    try (FileOutputStream outputStream = new FileOutputStream(catalogFile, true)) {
+      // a PUT record with the name length but without the name
+      outputStream.write(new byte[] {0, 0, 0, 0, 20, 'a'});
+    }
+
+    TsFileResource resource = new TsFileResource(getTsFile(2));
+    resource.deserialize();
+    assertEquals(200, resource.getEndTime(DEVICE));
+    assertEquals(length, catalogFile.length());
+
+    createResource(3, 300).serialize();
+    TsFileResourceCatalog.closeAll();
+    resource = new TsFileResource(getTsFile(3));
+    resource.deserialize();
+    assertEquals(300, resource.getEndTime(DEVICE));
+  }
+
+  @Test
+  public void testTruncateBadLastRecord() throws IOException {
+    createResource(1, 100).serialize();
+    File catalogFile = new File(partitionDir, TsFileResourceCatalog.CATALOG_FILE_NAME);
+    long length = catalogFile.length();
+    createResource(2, 200).serialize();
+    TsFileResourceCatalog.closeAll();
+
+    // a complete last record whose content is not persisted
+    flipByte(catalogFile, catalogFile.length() - 5);
+
+    TsFileResource resource = new TsFileResource(getTsFile(1));
+    resource.deserialize();
+    assertEquals(100, resource.getEndTime(DEVICE));
+    assertFalse(new TsFileResource(getTsFile(2)).resourceFileExists());
+    assertEquals(length, catalogFile.length());
+  }
+
+  @Test
+  public void testCorruptedRecord() throws IOException {
+    createResource(1, 100).serialize();
+    createResource(2, 200).serialize();
+    TsFileResourceCatalog.closeAll();
+
+    File catalogFile = new File(partitionDir, TsFileResourceCatalog.CATALOG_FILE_NAME);
+    long length = catalogFile.length();
+    // the last byte of the resource in the first record
+    flipByte(catalogFile, length / 2 - 5);
+
+    try {
+      TsFileResourceCatalog.getCatalog(partitionDir);
+      fail("A corrupted record before the last one should fail the loading");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("corrupted"));
+    }
+    assertEquals(length, catalogFile.length());
+  }
+
+  @Test
+  public void testCheckpoint() throws IOException {
+    for (int i = 1; i <= 3000; i++) {
+      createResource(i % 10 + 1, i).serialize();
+    }
+    TsFileResourceCatalog catalog = TsFileResourceCatalog.getCatalog(partitionDir);
+    assertTrue(catalog.getRecordNum() <= 1025);
+    TsFileResourceCatalog.closeAll();
+
+    catalog = TsFileResourceCatalog.getCatalog(partitionDir);
+    assertTrue(catalog.getRecordNum() <= 1025);
+    for (int i = 2991; i <= 3000; i++) {
+      TsFileResource resource = new TsFileResource(getTsFile(i % 10 + 1));
+      resource.deserialize();
+      assertEquals(i, resource.getEndTime(DEVICE));
+    }
+  }
+
+  private void flipByte(File file, long position) throws IOException {
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+      randomAccessFile.seek(position);
+      int b = randomAccessFile.read();
+      randomAccessFile.seek(position);
+      randomAccessFile.write(~b);
+    }
+  }
+
+  private File getTsFile(int version) {
+    return new File(partitionDir, version + "-" + version + "-0-0.tsfile");
+  }
+
+  private TsFileResource createResource(int version, long endTime) {
+    TsFileResource resource = new TsFileResource(getTsFile(version));
+    resource.updateStartTime(DEVICE, version);
+    resource.updateEndTime(DEVICE, endTime);
+    resource.updatePlanIndexes(version);
+    return resource;
+  }
+}
@@ -203,6 +203,55 @@ public class IoTDBAlignByDeviceIT {
     }
   }
 
+  @Test
+  public void prefetchTest() throws ClassNotFoundException {
+    String[] queries =
+        new String[] {
+          "select * from root.vehicle align by device",
+          "select * from root.vehicle where s0 > 100 align by device",
+          "select count(s0), max_value(s1) from root.vehicle align by device",
+          "select count(*) from root.vehicle group by ([0, 1000), 100ms) align by device",
+          "select * from root.vehicle where time = 3 Fill(int32[previous, 5ms]) align by device"
+        };
+    int prefetchNum = IoTDBDescriptor.getInstance().getConfig().getAlignByDevicePrefetchNum();
+
+    Class.forName(Config.JDBC_DRIVER_NAME);
+    try (Connection connection =
+            DriverManager.getConnection(
+                Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", "root", "root");
+        Statement statement = connection.createStatement()) {
+      for (String query : queries) {
+        // the devices queried one by one and in advance give the same result
+        IoTDBDescriptor.getInstance().getConfig().setAlignByDevicePrefetchNum(0);
+        List<String> expected = getResult(statement, query);
+        IoTDBDescriptor.getInstance().getConfig().setAlignByDevicePrefetchNum(1);
+        Assert.assertEquals(expected, getResult(statement, query));
+        IoTDBDescriptor.getInstance().getConfig().setAlignByDevicePrefetchNum(8);
+        Assert.assertEquals(expected, getResult(statement, query));
+      }
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setAlignByDevicePrefetchNum(prefetchNum);
+    }
+  }
+
+  private List<String> getResult(Statement statement, String query) throws SQLException {
+    List<String> result = new ArrayList<>();
+    try (ResultSet resultSet = statement.executeQuery(query)) {
+      int columnCount = resultSet.getMetaData().getColumnCount();
+      while (resultSet.next()) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1; i <= columnCount; i++) {
+          builder.append(resultSet.getString(i)).append(",");
+        }
+        result.add(builder.toString());
+      }
+    }
+    return result;
+  }
+
   @Test
   public void selectWithDuplicatedPathsTest() throws ClassNotFoundException {
     String[] retArray =
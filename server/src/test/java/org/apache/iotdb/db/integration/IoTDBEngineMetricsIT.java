@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.integration;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.metrics.source.EngineSource;
+import org.apache.iotdb.db.metrics.source.EngineSource.Event;
+import org.apache.iotdb.db.metrics.source.EngineSource.Stage;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.jdbc.Config;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IoTDBEngineMetricsIT {
+
+  private static final int POINT_NUM = 10;
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private boolean prevEnableEngineMetrics;
+
+  @Before
+  public void setUp() {
+    prevEnableEngineMetrics = config.isEnableEngineMetrics();
+    config.setEnableEngineMetrics(true);
+    EnvironmentUtils.closeStatMonitor();
+    EnvironmentUtils.envSetUp();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+    config.setEnableEngineMetrics(prevEnableEngineMetrics);
+  }
+
+  @Test
+  public void testRegistered() {
+    MetricRegistry registry = new MetricRegistry();
+    EngineSource.getInstance().registerInfo(registry);
+    for (Stage stage : Stage.values()) {
+      assertTrue(
+          registry
+              .getTimers()
+              .containsKey(MetricRegistry.name(EngineSource.SOURCE_NAME, stage.getName())));
+    }
+    for (Event event : Event.values()) {
+      assertTrue(
+          registry
+              .getMeters()
+              .containsKey(MetricRegistry.name(EngineSource.SOURCE_NAME, event.getName())));
+    }
+  }
+
+  @Test
+  public void testUpdatedByWriteAndQuery() throws Exception {
+    Map<Stage, Long> stageCounts = new EnumMap<>(Stage.class);
+    for (Stage stage : Stage.values()) {
+      stageCounts.put(stage, EngineSource.getInstance().getTimer(stage).getCount());
+    }
+    Map<Event, Long> eventCounts = new EnumMap<>(Event.class);
+    for (Event event : Event.values()) {
+      eventCounts.put(event, EngineSource.getInstance().getMeter(event).getCount());
+    }
+
+    Class.forName(Config.JDBC_DRIVER_NAME);
+    try (Connection connection =
+            DriverManager.getConnection(
+                Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", "root", "root");
+        Statement statement = connection.createStatement()) {
+      statement.execute("SET STORAGE GROUP TO root.sg");
+      statement.execute("CREATE TIMESERIES root.sg.d1.s1 WITH DATATYPE=INT64, ENCODING=RLE");
+      for (int i = 1; i <= POINT_NUM; i++) {
+        statement.execute(
+            String.format("insert into root.sg.d1(timestamp,s1) values(%d,%d)", i, i));
+      }
+      statement.execute("flush");
+
+      // fetch the result in several batches
+      statement.setFetchSize(POINT_NUM / 3);
+      int count = 0;
+      try (ResultSet resultSet = statement.executeQuery("select s1 from root.sg.d1")) {
+        while (resultSet.next()) {
+          count++;
+        }
+      }
+      assertEquals(POINT_NUM, count);
+    }
+
+    // the write
+    assertUpdated(stageCounts, Stage.RPC_QUEUE, 1);
+    assertUpdated(stageCounts, Stage.MEMTABLE_INSERT, POINT_NUM);
+    if (config.isEnableWal()) {
+      assertUpdated(stageCounts, Stage.WAL_APPEND, POINT_NUM);
+    }
+    assertUpdated(stageCounts, Stage.FLUSH, 1);
+    assertUpdated(stageCounts, Stage.FLUSH_ENCODE, 1);
+    assertUpdated(stageCounts, Stage.FLUSH_IO, 1);
+    assertUpdated(eventCounts, Event.FLUSH_POINTS, POINT_NUM);
+
+    // the query
+    assertUpdated(stageCounts, Stage.QUERY_PLAN, 1);
+    assertUpdated(stageCounts, Stage.QUERY_EXECUTE, 1);
+    assertUpdated(stageCounts, Stage.QUERY_FETCH, 1);
+    if (config.isMetaDataCacheEnable()) {
+      assertTrue(
+          getUpdate(eventCounts, Event.TIMESERIES_METADATA_CACHE_HIT)
+                  + getUpdate(eventCounts, Event.TIMESERIES_METADATA_CACHE_MISS)
+              > 0);
+      assertTrue(
+          getUpdate(eventCounts, Event.CHUNK_CACHE_HIT)
+                  + getUpdate(eventCounts, Event.CHUNK_CACHE_MISS)
+              > 0);
+    }
+  }
+
+  private void assertUpdated(Map<Stage, Long> counts, Stage stage, long minUpdate) {
+    long update = EngineSource.getInstance().getTimer(stage).getCount() - counts.get(stage);
+    assertTrue(stage + " is updated " + update + " times", update >= minUpdate);
+  }
+
+  private void assertUpdated(Map<Event, Long> counts, Event event, long minUpdate) {
+    long update = getUpdate(counts, event);
+    assertTrue(event + " is marked " + update + " times", update >= minUpdate);
+  }
+
+  private long getUpdate(Map<Event, Long> counts, Event event) {
+    return EngineSource.getInstance().getMeter(event).getCount() - counts.get(event);
+  }
+}
@@ -21,8 +21,12 @@ package org.apache.iotdb.db.integration;
 import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.compaction.CompactionMergeTaskPoolManager;
 import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.jdbc.Config;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -38,6 +42,7 @@ import java.sql.Statement;
 
 import static org.apache.iotdb.db.constant.TestConstant.TIMESTAMP_STR;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class IoTDBRestartIT {
@@ -405,4 +410,61 @@ public class IoTDBRestartIT {
 
     EnvironmentUtils.cleanEnv();
   }
+
+  @Test
+  public void testRestartLastCacheWarmUp() throws Exception {
+    EnvironmentUtils.envSetUp();
+    Class.forName(Config.JDBC_DRIVER_NAME);
+
+    try (Connection connection =
+            DriverManager.getConnection(
+                Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", "root", "root");
+        Statement statement = connection.createStatement()) {
+      statement.execute("insert into root.turbine.d1(timestamp,s1,s2) values(1,1.0,1.0)");
+      statement.execute("insert into root.turbine.d1(timestamp,s1) values(2,2.0)");
+      statement.execute("insert into root.turbine.d1(timestamp,s1) values(3,3.0)");
+      statement.execute("flush");
+      statement.execute("delete from root.turbine.d1.s1 where time>=3");
+    }
+
+    EnvironmentUtils.restartDaemon();
+    while (!StorageEngine.getInstance().isAllSgReady()) {
+      Thread.sleep(100);
+    }
+
+    // s2 is warmed up from the sealed file, while s1 has a deletion and is left to queries
+    TimeValuePair s2Last =
+        ((MeasurementMNode) IoTDB.metaManager.getNodeByPath(new PartialPath("root.turbine.d1.s2")))
+            .getCachedLast();
+    assertEquals(1, s2Last.getTimestamp());
+    assertEquals("1.0", s2Last.getValue().getStringValue());
+    assertNull(
+        ((MeasurementMNode) IoTDB.metaManager.getNodeByPath(new PartialPath("root.turbine.d1.s1")))
+            .getCachedLast());
+
+    try (Connection connection =
+            DriverManager.getConnection(
+                Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", "root", "root");
+        Statement statement = connection.createStatement()) {
+      boolean hasResultSet = statement.execute("select last s1,s2 from root.turbine.d1");
+      assertTrue(hasResultSet);
+      String[] exp = new String[] {"2,root.turbine.d1.s1,2.0", "1,root.turbine.d1.s2,1.0"};
+      int cnt = 0;
+      try (ResultSet resultSet = statement.getResultSet()) {
+        while (resultSet.next()) {
+          String result =
+              resultSet.getString(TIMESTAMP_STR)
+                  + ","
+                  + resultSet.getString("timeseries")
+                  + ","
+                  + resultSet.getString("value");
+          assertEquals(exp[cnt], result);
+          cnt++;
+        }
+      }
+      assertEquals(exp.length, cnt);
+    }
+
+    EnvironmentUtils.cleanEnv();
+  }
 }
@@ -21,6 +21,9 @@ package org.apache.iotdb.db.metadata;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.mnode.MNode;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
@@ -42,6 +45,8 @@ import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -692,4 +697,65 @@ public class MManagerBasicTest {
       fail(e.getMessage());
     }
   }
+
+  @Test
+  public void testCachedSeriesSchemasOfInsertion() throws MetadataException {
+    MManager manager = IoTDB.metaManager;
+    manager.setStorageGroup(new PartialPath("root.laptop"));
+    manager.createTimeseries(
+        new PartialPath("root.laptop.d1.s0"),
+        TSDataType.INT32,
+        TSEncoding.PLAIN,
+        CompressionType.GZIP,
+        null);
+    manager.createTimeseries(
+        new PartialPath("root.laptop.d1.s1"),
+        TSDataType.INT32,
+        TSEncoding.PLAIN,
+        CompressionType.GZIP,
+        null);
+
+    PartialPath devicePath = manager.getDevicePath("root.laptop.d1");
+    assertSame(devicePath, manager.getDevicePath("root.laptop.d1"));
+
+    InsertRowPlan plan = createInsertRowPlan(devicePath, TSDataType.INT32);
+    MNode deviceMNode = manager.getSeriesSchemasAndReadLockDevice(plan);
+    MeasurementMNode s0 = plan.getMeasurementMNodes()[0];
+    assertEquals("root.laptop.d1.s0", s0.getFullPath());
+
+    // served by the cache
+    plan = createInsertRowPlan(devicePath, TSDataType.INT32);
+    assertSame(deviceMNode, manager.getSeriesSchemasAndReadLockDevice(plan));
+    assertSame(s0, plan.getMeasurementMNodes()[0]);
+
+    // a type mismatch is still reported as failed measurements (partial insert is enabled)
+    plan = createInsertRowPlan(devicePath, TSDataType.INT64);
+    manager.getSeriesSchemasAndReadLockDevice(plan);
+    assertEquals(2, plan.getFailedMeasurementNumber());
+
+    // deleting and recreating the series invalidates the cache
+    manager.deleteTimeseries(new PartialPath("root.laptop.d1.s0"));
+    manager.createTimeseries(
+        new PartialPath("root.laptop.d1.s0"),
+        TSDataType.INT32,
+        TSEncoding.PLAIN,
+        CompressionType.GZIP,
+        null);
+    plan = createInsertRowPlan(devicePath, TSDataType.INT32);
+    manager.getSeriesSchemasAndReadLockDevice(plan);
+    assertNotSame(s0, plan.getMeasurementMNodes()[0]);
+    assertEquals("root.laptop.d1.s0", plan.getMeasurementMNodes()[0].getFullPath());
+  }
+
+  private InsertRowPlan createInsertRowPlan(PartialPath devicePath, TSDataType dataType) {
+    InsertRowPlan plan =
+        new InsertRowPlan(
+            devicePath,
+            1L,
+            new String[] {"s0", "s1"},
+            new TSDataType[] {dataType, dataType},
+            new String[] {"1", "2"});
+    plan.setMeasurementMNodes(new MeasurementMNode[2]);
+    return plan;
+  }
 }
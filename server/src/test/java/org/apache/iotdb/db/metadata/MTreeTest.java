@@ -18,11 +18,13 @@
  */
 package org.apache.iotdb.db.metadata;
 
+import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.exception.metadata.AliasAlreadyExistException;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.metadata.mnode.MNode;
 import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.metadata.mnode.StorageGroupMNode;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
@@ -34,6 +36,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -794,4 +801,110 @@ public class MTreeTest {
     MNode node = root.getNodeByPath(new PartialPath("root.sg1.a.b"));
     Assert.assertTrue(node instanceof MeasurementMNode);
   }
+
+  @Test
+  public void testSerializeAndDeserializeConcurrently() throws MetadataException, IOException {
+    MTree root = new MTree();
+    for (int i = 0; i < 4; i++) {
+      root.setStorageGroup(new PartialPath("root.sg.g" + i));
+      for (int j = 0; j < 3; j++) {
+        root.createTimeseries(
+            new PartialPath("root.sg.g" + i + ".d" + j + ".s"),
+            TSDataType.INT32,
+            TSEncoding.RLE,
+            TSFileDescriptor.getInstance().getConfig().getCompressor(),
+            Collections.emptyMap(),
+            "alias");
+      }
+    }
+    root.setStorageGroup(new PartialPath("root.empty"));
+
+    File snapshot = new File(TestConstant.BASE_OUTPUT_PATH.concat("mtree.snapshot.bin"));
+    File index = MTree.getSnapshotIndexFile(snapshot);
+    try {
+      root.serializeTo(snapshot.getPath());
+      assertTrue(index.exists());
+
+      MTree concurrentlyLoaded = MTree.deserializeFrom(snapshot);
+      assertEquals(getSortedPaths(root), getSortedPaths(concurrentlyLoaded));
+      assertTrue(
+          concurrentlyLoaded.getNodeByPath(new PartialPath("root.sg.g2.d1.alias"))
+              instanceof MeasurementMNode);
+
+      // the same snapshot is loaded sequentially without the index
+      Files.delete(index.toPath());
+      assertEquals(getSortedPaths(root), getSortedPaths(MTree.deserializeFrom(snapshot)));
+    } finally {
+      Files.deleteIfExists(snapshot.toPath());
+      Files.deleteIfExists(index.toPath());
+    }
+  }
+
+  @Test
+  public void testDeserializeWithoutSegments() throws MetadataException, IOException {
+    MTree root = new MTree();
+    root.setStorageGroup(new PartialPath("root.empty"));
+
+    File snapshot = new File(TestConstant.BASE_OUTPUT_PATH.concat("mtree.snapshot.bin"));
+    File index = MTree.getSnapshotIndexFile(snapshot);
+    try {
+      root.serializeTo(snapshot.getPath());
+      // an index without segments, which has nothing to parse concurrently
+      try (DataOutputStream outputStream = new DataOutputStream(new FileOutputStream(index))) {
+        outputStream.writeLong(snapshot.length());
+        outputStream.writeInt(0);
+      }
+      assertEquals(getSortedPaths(root), getSortedPaths(MTree.deserializeFrom(snapshot)));
+    } finally {
+      Files.deleteIfExists(snapshot.toPath());
+      Files.deleteIfExists(index.toPath());
+    }
+  }
+
+  @Test
+  public void testDeserializeLazily() throws MetadataException, IOException {
+    MTree root = new MTree();
+    for (int i = 0; i < 3; i++) {
+      root.setStorageGroup(new PartialPath("root.sg" + i));
+      for (int j = 0; j < 2; j++) {
+        root.createTimeseries(
+            new PartialPath("root.sg" + i + ".d" + j + ".s"),
+            TSDataType.INT32,
+            TSEncoding.RLE,
+            TSFileDescriptor.getInstance().getConfig().getCompressor(),
+            Collections.emptyMap(),
+            "alias");
+      }
+    }
+
+    File snapshot = new File(TestConstant.BASE_OUTPUT_PATH.concat("mtree.snapshot.bin"));
+    File index = MTree.getSnapshotIndexFile(snapshot);
+    try {
+      root.serializeTo(snapshot.getPath());
+      MTree lazilyLoaded = MTree.deserializeFrom(snapshot, true);
+      StorageGroupMNode sg1 =
+          (StorageGroupMNode) lazilyLoaded.getNodeByPath(new PartialPath("root.sg1"));
+      assertFalse(sg1.isChildrenLoaded());
+      // the count is recorded in the index, so the children are not loaded for it
+      assertEquals(2, sg1.getMeasurementMNodeCount());
+      assertFalse(sg1.isChildrenLoaded());
+
+      assertTrue(
+          lazilyLoaded.getNodeByPath(new PartialPath("root.sg1.d1.alias"))
+              instanceof MeasurementMNode);
+      assertTrue(sg1.isChildrenLoaded());
+      assertEquals(2, sg1.getMeasurementMNodeCount());
+      assertEquals(getSortedPaths(root), getSortedPaths(lazilyLoaded));
+    } finally {
+      Files.deleteIfExists(snapshot.toPath());
+      Files.deleteIfExists(index.toPath());
+    }
+  }
+
+  private List<PartialPath> getSortedPaths(MTree tree) throws MetadataException {
+    List<PartialPath> paths = tree.getAllTimeseriesPath(new PartialPath("root"));
+    paths.addAll(tree.getAllStorageGroupPaths());
+    Collections.sort(paths);
+    return paths;
+  }
 }
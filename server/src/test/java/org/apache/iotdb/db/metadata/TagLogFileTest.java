@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class TagLogFileTest {
+
+  private static final int SIZE =
+      IoTDBDescriptor.getInstance().getConfig().getTagAttributeTotalSize();
+
+  private File testFolder;
+  private TagLogFile tagLogFile;
+
+  @Before
+  public void setUp() throws IOException {
+    testFolder = new File(TestConstant.BASE_OUTPUT_PATH.concat("tagLogTest"));
+    testFolder.mkdirs();
+    tagLogFile = new TagLogFile(testFolder.getPath(), MetadataConstant.TAG_LOG);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    tagLogFile.close();
+    FileUtils.deleteDirectory(testFolder);
+  }
+
+  @Test
+  public void testReadAfterOverwrite() throws IOException, MetadataException {
+    Map<String, String> tags = new HashMap<>();
+    tags.put("unit", "c");
+    Map<String, String> attributes = Collections.singletonMap("owner", "alice");
+    long offset = tagLogFile.write(tags, attributes);
+
+    Pair<Map<String, String>, Map<String, String>> pair = tagLogFile.read(SIZE, offset);
+    assertEquals(tags, pair.left);
+    assertEquals(attributes, pair.right);
+
+    // modifying the returned maps does not change the cached record
+    pair.left.put("unit", "f");
+    assertEquals("c", tagLogFile.read(SIZE, offset).left.get("unit"));
+    assertEquals("c", tagLogFile.readTag(SIZE, offset).get("unit"));
+
+    // overwriting the record is visible to later reads
+    tagLogFile.write(pair.left, pair.right, offset);
+    assertEquals("f", tagLogFile.read(SIZE, offset).left.get("unit"));
+    assertEquals("f", tagLogFile.readTag(SIZE, offset).get("unit"));
+  }
+}
@@ -19,17 +19,27 @@
 package org.apache.iotdb.db.metadata.mnode;
 
 import org.apache.iotdb.db.metadata.MetaUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class MNodeTest {
   private static ExecutorService service;
@@ -68,4 +78,102 @@ public class MNodeTest {
     assertEquals("root.c.b", multiFullPaths.get(0));
     assertEquals("root.c.b", rootNode.getChild("c").getChild("aliasOfb").getFullPath());
   }
+
+  @Test
+  public void testAddChildrenWhileReplacing() throws Exception {
+    MNode rootNode = new MNode(null, "root");
+    MNode aNode = new MNode(rootNode, "a");
+    rootNode.addChild(aNode.getName(), aNode);
+    aNode.addChild("s0", new MNode(aNode, "s0"));
+
+    // the children are added to the old node, which is held by the adding thread
+    Future<?> future =
+        service.submit(
+            () -> {
+              for (int i = 1; i < 100; i++) {
+                aNode.addChild("s" + i, new MNode(aNode, "s" + i));
+              }
+            });
+    rootNode.replaceChild(aNode.getName(), new MNode(null, aNode.getName()));
+    future.get();
+
+    MNode newNode = rootNode.getChild("a");
+    assertNotSame(aNode, newNode);
+    assertEquals(100, newNode.getChildren().size());
+    aNode.addChild("s100", new MNode(aNode, "s100"));
+    assertTrue(newNode.hasChild("s100"));
+  }
+
+    @Test
+  public void testAddAndDeleteChildrenConcurrently() throws InterruptedException {
+    MNode deviceNode = new MNode(null, "d");
+    int childrenNum = MNode.CHILDREN_ARRAY_THRESHOLD * 4;
+    for (int i = 0; i < childrenNum; i++) {
+      String name = "s" + i;
+      service.submit(() -> deviceNode.addChild(name, new MNode(deviceNode, name)));
+    }
+    service.shutdown();
+    service.awaitTermination(30, TimeUnit.SECONDS);
+
+    assertEquals(childrenNum, deviceNode.getChildren().size());
+    assertTrue(deviceNode.getChildren() instanceof ConcurrentHashMap);
+    for (int i = 0; i < childrenNum; i++) {
+      assertEquals("s" + i, deviceNode.getChild("s" + i).getName());
+    }
+
+    for (int i = 1; i < childrenNum; i++) {
+      deviceNode.deleteChild("s" + i);
+    }
+    assertEquals(1, deviceNode.getChildren().size());
+    assertNull(deviceNode.getChild("s1"));
+  }
+
+  @Test
+  public void testSmallChildrenAndAlias() {
+    MNode deviceNode = new MNode(null, "d");
+    MeasurementMNode s1 =
+        new MeasurementMNode(
+            deviceNode, "s1", null, TSDataType.INT32, TSEncoding.RLE, CompressionType.SNAPPY, null);
+    deviceNode.addChild("s1", s1);
+    assertTrue(deviceNode.addAlias("temperature", s1));
+    assertFalse(deviceNode.addAlias("temperature", new MNode(deviceNode, "s2")));
+    assertFalse(deviceNode.getChildren() instanceof ConcurrentHashMap);
+
+    assertSame(s1, deviceNode.getChild("s1"));
+    assertSame(s1, deviceNode.getChild("temperature"));
+    assertTrue(deviceNode.hasChild("temperature"));
+    assertSame(s1.getName(), s1.getSchema().getMeasurementId());
+
+    deviceNode.deleteAliasChild("temperature");
+    assertNull(deviceNode.getChild("temperature"));
+    deviceNode.deleteChild("s1");
+    assertTrue(deviceNode.getChildren().isEmpty());
+  }
+
+  @Test
+  public void testSharedMeasurementNames() {
+    // two equal names that are different instances, e.g. parsed from two statements
+    String name1 = new StringBuilder("s").append(1).toString();
+    String name2 = new StringBuilder("s").append(1).toString();
+    MeasurementMNode s1 =
+        new MeasurementMNode(
+            new MNode(null, "d1"),
+            name1,
+            null,
+            TSDataType.INT32,
+            TSEncoding.RLE,
+            CompressionType.SNAPPY,
+            null);
+    MeasurementMNode s2 =
+        new MeasurementMNode(
+            new MNode(null, "d2"),
+            name2,
+            null,
+            TSDataType.INT32,
+            TSEncoding.RLE,
+            CompressionType.SNAPPY,
+            null);
+    assertSame(s1.getName(), s2.getName());
+    assertSame(s1.getName(), s2.getSchema().getMeasurementId());
+  }
 }
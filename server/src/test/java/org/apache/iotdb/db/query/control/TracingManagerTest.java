@@ -24,6 +24,7 @@ import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.service.rpc.thrift.TSTracingInfo;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
@@ -35,6 +36,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -97,6 +99,29 @@ public class TracingManagerTest {
     bufferedReader.close();
   }
 
+  @Test
+  public void tracingInfoTest() {
+    TracingInfo tracingInfo = tracingManager.registerQuery(queryId);
+    Assert.assertSame(tracingInfo, tracingManager.registerQuery(queryId));
+    tracingInfo.addFiles(new ArrayList<>(seqResources), Collections.emptyList());
+    tracingInfo.add(TracingInfo.Activity.CHUNKS, 3);
+    tracingInfo.increment(TracingInfo.Activity.CHUNK_CACHE_HIT);
+
+    TSTracingInfo tsTracingInfo = tracingManager.getTracingInfo(queryId).toTSTracingInfo();
+    Assert.assertEquals(
+        TracingInfo.Activity.values().length + 2, tsTracingInfo.getActivityListSize());
+    Assert.assertEquals(1L, (long) tsTracingInfo.getValueList().get(0));
+    Assert.assertEquals(0L, (long) tsTracingInfo.getValueList().get(1));
+    int chunkIndex = tsTracingInfo.getActivityList().indexOf(TracingInfo.Activity.CHUNKS.getName());
+    Assert.assertEquals(3L, (long) tsTracingInfo.getValueList().get(chunkIndex));
+    int hitIndex =
+        tsTracingInfo.getActivityList().indexOf(TracingInfo.Activity.CHUNK_CACHE_HIT.getName());
+    Assert.assertEquals(1L, (long) tsTracingInfo.getValueList().get(hitIndex));
+
+    Assert.assertSame(tracingInfo, tracingManager.removeTracingInfo(queryId));
+    Assert.assertNull(tracingManager.getTracingInfo(queryId));
+  }
+
   void prepareTsFileResources() {
     Map<String, Integer> deviceToIndex = new HashMap<>();
     deviceToIndex.put("root.sg.d1", 0);
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.AggregationPlan;
+import org.apache.iotdb.db.qp.physical.crud.AlignByDevicePlan;
+import org.apache.iotdb.db.qp.physical.crud.AlignByDevicePlan.MeasurementType;
+import org.apache.iotdb.db.qp.physical.crud.FillQueryPlan;
+import org.apache.iotdb.db.qp.physical.crud.GroupByTimeFillPlan;
+import org.apache.iotdb.db.qp.physical.crud.GroupByTimePlan;
+import org.apache.iotdb.db.qp.physical.crud.LastQueryPlan;
+import org.apache.iotdb.db.qp.physical.crud.RawDataQueryPlan;
+import org.apache.iotdb.db.qp.physical.crud.UDTFPlan;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.query.executor.IQueryRouter;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AlignByDeviceDataSetTest {
+
+  private static final int DEVICE_NUM = 64;
+
+  private int prevPrefetchNum;
+
+  @Before
+  public void setUp() {
+    EnvironmentUtils.envSetUp();
+    prevPrefetchNum = IoTDBDescriptor.getInstance().getConfig().getAlignByDevicePrefetchNum();
+    IoTDBDescriptor.getInstance().getConfig().setAlignByDevicePrefetchNum(16);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    IoTDBDescriptor.getInstance().getConfig().setAlignByDevicePrefetchNum(prevPrefetchNum);
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testEndQueryEarly() throws Exception {
+    List<PartialPath> devices = new ArrayList<>();
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      devices.add(new PartialPath("root.sg.d" + i));
+    }
+    AlignByDevicePlan plan = new AlignByDevicePlan();
+    plan.setDevices(devices);
+    plan.setMeasurements(Collections.singletonList("s0"));
+    plan.setMeasurementDataTypeMap(Collections.singletonMap("s0", TSDataType.INT32));
+    plan.setMeasurementTypeMap(Collections.singletonMap("s0", MeasurementType.Exist));
+    plan.setDataTypes(Arrays.asList(TSDataType.TEXT, TSDataType.INT32));
+
+    long queryId = QueryResourceManager.getInstance().assignQueryId(true, 1024, 1);
+    SlowQueryRouter queryRouter = new SlowQueryRouter();
+    AlignByDeviceDataSet dataSet =
+        new AlignByDeviceDataSet(plan, new QueryContext(queryId), queryRouter) {
+          @Override
+          protected Set<String> getDeviceMeasurements(PartialPath device) {
+            return Collections.singleton("s0");
+          }
+        };
+
+    // the query ends after its first device while the following ones are queried in advance
+    Assert.assertTrue(dataSet.hasNext());
+    Assert.assertEquals("root.sg.d0", dataSet.next().getFields().get(0).getStringValue());
+    QueryResourceManager.getInstance().endQuery(queryId);
+
+    // no sub-query is running or starts after the query ends
+    Assert.assertEquals(0, queryRouter.runningNum.get());
+    int startedNum = queryRouter.startedNum.get();
+    Assert.assertTrue(startedNum < DEVICE_NUM);
+    Thread.sleep(2 * SlowQueryRouter.QUERY_TIME_MS);
+    Assert.assertEquals(startedNum, queryRouter.startedNum.get());
+    Assert.assertEquals(0, queryRouter.runningNum.get());
+  }
+
+  /** answers each raw data query with one row after a while */
+  private static class SlowQueryRouter implements IQueryRouter {
+
+    private static final long QUERY_TIME_MS = 50;
+
+    private final AtomicInteger startedNum = new AtomicInteger();
+    private final AtomicInteger runningNum = new AtomicInteger();
+
+    @Override
+    public QueryDataSet rawDataQuery(RawDataQueryPlan queryPlan, QueryContext context) {
+      startedNum.incrementAndGet();
+      runningNum.incrementAndGet();
+      try {
+        Thread.sleep(QUERY_TIME_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      ListDataSet dataSet =
+          new ListDataSet(queryPlan.getDeduplicatedPaths(), queryPlan.getDeduplicatedDataTypes());
+      RowRecord record = new RowRecord(1);
+      record.addField(1, TSDataType.INT32);
+      dataSet.putRecord(record);
+      runningNum.decrementAndGet();
+      return dataSet;
+    }
+
+    @Override
+    public QueryDataSet aggregate(AggregationPlan aggregationPlan, QueryContext context) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public QueryDataSet groupBy(GroupByTimePlan groupByTimePlan, QueryContext context) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public QueryDataSet fill(FillQueryPlan fillQueryPlan, QueryContext context) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public QueryDataSet groupByFill(GroupByTimeFillPlan groupByFillPlan, QueryContext context) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public QueryDataSet lastQuery(LastQueryPlan lastQueryPlan, QueryContext context) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public QueryDataSet udtfQuery(UDTFPlan udtfPlan, QueryContext context) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
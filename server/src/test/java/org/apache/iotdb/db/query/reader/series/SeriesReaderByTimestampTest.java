@@ -91,4 +91,48 @@ public class SeriesReaderByTimestampTest {
       }
     }
   }
+  @Test
+  public void testGetValuesInTimestamps() throws IOException, IllegalPathException {
+    QueryDataSource dataSource =
+        new QueryDataSource(
+            new PartialPath(SERIES_READER_TEST_SG + ".device0.sensor0"),
+            seqResources,
+            unseqResources);
+
+    Set<String> allSensors = new HashSet<>();
+    allSensors.add("sensor0");
+
+    SeriesReaderByTimestamp seriesReader =
+        new SeriesReaderByTimestamp(
+            new PartialPath(SERIES_READER_TEST_SG + ".device0.sensor0"),
+            allSensors,
+            TSDataType.INT32,
+            new QueryContext(),
+            dataSource,
+            null,
+            true);
+
+    // odd timestamps in batches of 64, the last batch goes beyond the data
+    long[] timestamps = new long[64];
+    for (int batchStart = 1; batchStart < 600; batchStart += 2 * timestamps.length) {
+      int length = 0;
+      for (long time = batchStart; length < timestamps.length; time += 2) {
+        timestamps[length++] = time;
+      }
+      Object[] values = seriesReader.getValuesInTimestamps(timestamps, length);
+      Assert.assertEquals(length, values.length);
+      for (int i = 0; i < length; i++) {
+        long time = timestamps[i];
+        if (time >= 500) {
+          Assert.assertNull(values[i]);
+        } else if (time < 200) {
+          Assert.assertEquals(time + 20000, ((Integer) values[i]).intValue());
+        } else if (time < 260 || (time >= 300 && time < 380) || (time >= 400)) {
+          Assert.assertEquals(time + 10000, ((Integer) values[i]).intValue());
+        } else {
+          Assert.assertEquals(time, ((Integer) values[i]).intValue());
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkWriterPoolTest {
+
+  private static final String DEVICE = "root.sg.d1";
+
+  private final File file =
+      FSFactoryProducer.getFSFactory()
+          .getFile(TestConstant.OUTPUT_DATA_DIR.concat("chunkWriterPoolTest.tsfile"));
+  private TsFileIOWriter writer;
+
+  @Before
+  public void setUp() throws IOException {
+    ChunkWriterPool.getInstance().clear();
+    file.getParentFile().mkdirs();
+    writer = new TsFileIOWriter(file);
+    writer.startChunkGroup(DEVICE);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    writer.close();
+    ChunkWriterPool.getInstance().clear();
+    file.delete();
+  }
+
+  @Test
+  public void testReuse() throws IOException {
+    ChunkWriterPool pool = ChunkWriterPool.getInstance();
+    MeasurementSchema schema0 =
+        new MeasurementSchema("s0", TSDataType.INT64, TSEncoding.RLE, CompressionType.SNAPPY);
+    MeasurementSchema schema1 =
+        new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE, CompressionType.SNAPPY);
+    MeasurementSchema schema2 =
+        new MeasurementSchema("s2", TSDataType.INT64, TSEncoding.PLAIN, CompressionType.SNAPPY);
+
+    ChunkWriterImpl chunkWriter = pool.acquire(schema0, false);
+    writeAndRelease(chunkWriter, 0);
+    assertEquals(1, pool.getIdleWriterNum());
+
+    // the writer is reused by the series of the same kind
+    assertSame(chunkWriter, pool.acquire(schema1, false));
+    assertEquals(0, pool.getIdleWriterNum());
+    writeAndRelease(chunkWriter, 1000);
+    assertNotSame(chunkWriter, pool.acquire(schema2, false));
+
+    writer.endChunkGroup();
+    writer.endFile();
+    assertSeries("s0", 0);
+    assertSeries("s1", 1000);
+  }
+
+  @Test
+  public void testLargeWriterNotPooled() throws IOException {
+    ChunkWriterPool pool = ChunkWriterPool.getInstance();
+    MeasurementSchema schema =
+        new MeasurementSchema(
+            "s0", TSDataType.INT64, TSEncoding.PLAIN, CompressionType.UNCOMPRESSED);
+    ChunkWriterImpl chunkWriter = pool.acquire(schema, false);
+    for (long i = 0; i < 100_000; i++) {
+      chunkWriter.write(i, i);
+    }
+    chunkWriter.writeToFileWriter(writer);
+    pool.release(chunkWriter);
+    assertEquals(0, pool.getIdleWriterNum());
+  }
+
+  @Test
+  public void testReleasePageWriter() throws IOException {
+    ChunkWriterPool pool = ChunkWriterPool.getInstance();
+    MeasurementSchema schema0 =
+        new MeasurementSchema("s0", TSDataType.INT64, TSEncoding.RLE, CompressionType.SNAPPY);
+    MeasurementSchema schema1 =
+        new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE, CompressionType.SNAPPY);
+
+    // the writers are encoded one after another and queued before they are written
+    ChunkWriterImpl chunkWriter0 = pool.acquire(schema0, false);
+    write(chunkWriter0, 0);
+    chunkWriter0.sealCurrentPage();
+    long bufferCapacity = chunkWriter0.getBufferCapacity();
+    pool.releasePageWriter(chunkWriter0);
+    assertEquals(1, pool.getIdlePageWriterNum());
+    assertTrue(chunkWriter0.getBufferCapacity() < bufferCapacity);
+
+    ChunkWriterImpl chunkWriter1 = pool.acquire(schema1, false);
+    assertEquals(0, pool.getIdlePageWriterNum());
+    write(chunkWriter1, 1000);
+    pool.releasePageWriter(chunkWriter1);
+
+    chunkWriter0.writeToFileWriter(writer);
+    pool.release(chunkWriter0);
+    chunkWriter1.writeToFileWriter(writer);
+    pool.release(chunkWriter1);
+    assertEquals(2, pool.getIdleWriterNum());
+    assertEquals(1, pool.getIdlePageWriterNum());
+
+    writer.endChunkGroup();
+    writer.endFile();
+    assertSeries("s0", 0);
+    assertSeries("s1", 1000);
+  }
+
+  private void write(ChunkWriterImpl chunkWriter, long valueOffset) {
+    for (long i = 0; i < 100; i++) {
+      chunkWriter.write(i, i + valueOffset);
+    }
+  }
+
+  private void writeAndRelease(ChunkWriterImpl chunkWriter, long valueOffset) throws IOException {
+    write(chunkWriter, valueOffset);
+    chunkWriter.writeToFileWriter(writer);
+    ChunkWriterPool.getInstance().release(chunkWriter);
+  }
+
+  private void assertSeries(String measurement, long valueOffset) throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      List<ChunkMetadata> chunkMetadataList =
+          reader.getChunkMetadataList(new Path(DEVICE, measurement));
+      assertEquals(1, chunkMetadataList.size());
+      assertEquals(100, chunkMetadataList.get(0).getStatistics().getCount());
+      ChunkReader chunkReader =
+          new ChunkReader(reader.readMemChunk(chunkMetadataList.get(0)), null);
+      long time = 0;
+      while (chunkReader.hasNextSatisfiedPage()) {
+        BatchData batchData = chunkReader.nextPageData();
+        while (batchData.hasCurrent()) {
+          assertEquals(time, batchData.currentTime());
+          assertEquals(time + valueOffset, batchData.getLong());
+          batchData.next();
+          time++;
+        }
+      }
+      assertEquals(100, time);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class OffHeapSlabManagerTest {
+
+  @After
+  public void tearDown() {
+    OffHeapSlabManager.close();
+  }
+
+  @Test
+  public void testRegionsOfSlab() {
+    ByteBuffer region1 = OffHeapSlabManager.allocateSlab(TSDataType.INT64);
+    ByteBuffer region2 = OffHeapSlabManager.allocateSlab(TSDataType.INT64);
+    int regionSize = PrimitiveArrayManager.ARRAY_SIZE * Long.BYTES;
+    assertEquals(regionSize, region1.capacity());
+    assertEquals(2L * regionSize, OffHeapSlabManager.getAllocatedSize());
+    // both regions are cut from one slab
+    long slabSize = OffHeapSlabManager.getReservedSize();
+    assertEquals(OffHeapSlabManager.SLAB_SIZE / regionSize * regionSize, slabSize);
+
+    region1.putLong(regionSize - Long.BYTES, Long.MAX_VALUE);
+    region2.putLong(0, Long.MIN_VALUE);
+    assertEquals(Long.MAX_VALUE, region1.getLong(regionSize - Long.BYTES));
+    assertEquals(Long.MIN_VALUE, region2.getLong(0));
+
+    OffHeapSlabManager.release(region1);
+    assertSame(region1, OffHeapSlabManager.allocateSlab(TSDataType.INT64));
+    assertEquals(slabSize, OffHeapSlabManager.getReservedSize());
+  }
+
+  @Test
+  public void testFreeLargeTextBlock() {
+    ByteBuffer block = OffHeapSlabManager.allocateTextBlock(OffHeapSlabManager.SLAB_SIZE * 2);
+    assertEquals(OffHeapSlabManager.SLAB_SIZE * 2, block.capacity());
+    assertEquals(OffHeapSlabManager.SLAB_SIZE * 2, OffHeapSlabManager.getReservedSize());
+    OffHeapSlabManager.release(block);
+    assertEquals(0, OffHeapSlabManager.getAllocatedSize());
+    assertEquals(0, OffHeapSlabManager.getReservedSize());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testReleaseTwice() {
+    ByteBuffer region = OffHeapSlabManager.allocateTextBlock(10);
+    OffHeapSlabManager.release(region);
+    OffHeapSlabManager.release(region);
+  }
+}
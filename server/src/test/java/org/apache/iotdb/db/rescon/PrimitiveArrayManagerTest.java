@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PrimitiveArrayManagerTest {
+
+  @After
+  public void tearDown() {
+    PrimitiveArrayManager.close();
+  }
+
+  @Test
+  public void testReuseInThread() {
+    Object array = PrimitiveArrayManager.getPrimitiveArraysByType(TSDataType.INT64);
+    PrimitiveArrayManager.release(array);
+    assertSame(array, PrimitiveArrayManager.getPrimitiveArraysByType(TSDataType.INT64));
+  }
+
+  @Test
+  public void testReuseAcrossThreads() throws InterruptedException {
+    int arrayNum = 100;
+    List<Object> arrays = new ArrayList<>();
+    for (int i = 0; i < arrayNum; i++) {
+      arrays.add(PrimitiveArrayManager.getPrimitiveArraysByType(TSDataType.DOUBLE));
+    }
+    // release the arrays in another thread, e.g., a flush thread
+    Thread releaseThread = new Thread(() -> arrays.forEach(PrimitiveArrayManager::release));
+    releaseThread.start();
+    releaseThread.join();
+
+    Set<Object> releasedArrays = Collections.newSetFromMap(new IdentityHashMap<>());
+    releasedArrays.addAll(arrays);
+    int reusedNum = 0;
+    for (int i = 0; i < arrayNum; i++) {
+      if (releasedArrays.contains(
+          PrimitiveArrayManager.getPrimitiveArraysByType(TSDataType.DOUBLE))) {
+        reusedNum++;
+      }
+    }
+    // only the arrays left in the magazine of the release thread are not reused
+    assertTrue(reusedNum >= arrayNum / 2);
+  }
+}
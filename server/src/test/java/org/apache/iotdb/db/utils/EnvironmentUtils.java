@@ -27,8 +27,10 @@ import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.cache.ChunkMetadataCache;
+import org.apache.iotdb.db.engine.cache.ModificationCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.engine.compaction.CompactionMergeTaskPoolManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceCatalog;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.UDFRegistrationException;
 import org.apache.iotdb.db.query.context.QueryContext;
@@ -36,6 +38,7 @@ import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.control.TracingManager;
 import org.apache.iotdb.db.query.udf.service.UDFRegistrationService;
+import org.apache.iotdb.db.rescon.OffHeapSlabManager;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.service.IoTDB;
@@ -130,6 +133,7 @@ public class EnvironmentUtils {
       ChunkMetadataCache.getInstance().clear();
       TimeSeriesMetadataCache.getInstance().clear();
     }
+    ModificationCache.getInstance().clear();
     // close metadata
     IoTDB.metaManager.clear();
 
@@ -140,6 +144,7 @@ public class EnvironmentUtils {
 
     // close array manager
     PrimitiveArrayManager.close();
+    OffHeapSlabManager.close();
 
     // clear system info
     SystemInfo.getInstance().close();
@@ -197,6 +202,7 @@ public class EnvironmentUtils {
   }
 
   public static void cleanAllDir() throws IOException {
+    TsFileResourceCatalog.closeAll();
     // delete sequential files
     for (String path : directoryManager.getAllSequenceFileFolders()) {
       cleanDir(path);
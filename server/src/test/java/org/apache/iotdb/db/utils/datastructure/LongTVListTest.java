@@ -95,4 +95,24 @@ public class LongTVListTest {
       Assert.assertEquals(tvList.size - i, tvList.getTime((int) i));
     }
   }
+
+  @Test
+  public void testLongTVListWithLatePoints() {
+    LongTVList tvList = new LongTVList();
+    List<TimeValuePair> inputs = new ArrayList<>();
+    for (long i = 0; i < 10000; i++) {
+      // every 10th point is late, and some of them have the same timestamp as a point in order
+      long time = i % 10 == 9 ? i - 50 - i % 7 : i;
+      tvList.putLong(time, i);
+      inputs.add(new TimeValuePair(time, new TsLong(i)));
+    }
+    tvList.sort();
+    Assert.assertTrue(tvList.isSorted());
+    // the sort is stable, so the last inserted point of a timestamp is still the last
+    inputs.sort(TimeValuePair::compareTo);
+    for (int i = 0; i < tvList.size; i++) {
+      Assert.assertEquals(inputs.get(i).getTimestamp(), tvList.getTime(i));
+      Assert.assertEquals(inputs.get(i).getValue().getLong(), tvList.getLong(i));
+    }
+  }
 }
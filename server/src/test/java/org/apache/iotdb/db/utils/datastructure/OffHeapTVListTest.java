@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.OffHeapSlabManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsBinary;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class OffHeapTVListTest {
+
+  @After
+  public void tearDown() {
+    OffHeapSlabManager.close();
+  }
+
+  @Test
+  public void testDoubleTVList() {
+    OffHeapTVList tvList = new OffHeapTVList(TSDataType.DOUBLE);
+    for (long i = 1000; i >= 0; i--) {
+      tvList.putDouble(i, i + 0.5);
+    }
+    tvList.sort();
+    for (int i = 0; i < tvList.size; i++) {
+      Assert.assertEquals(i, tvList.getTime(i));
+      Assert.assertEquals(i + 0.5, tvList.getDouble(i), 0.0);
+    }
+    tvList.clear();
+    Assert.assertEquals(0, OffHeapSlabManager.getAllocatedSize());
+  }
+
+  @Test
+  public void testIntAndBooleanTVLists() {
+    OffHeapTVList intList = new OffHeapTVList(TSDataType.INT32);
+    OffHeapTVList booleanList = new OffHeapTVList(TSDataType.BOOLEAN);
+    long[] times = new long[1000];
+    int[] ints = new int[1000];
+    boolean[] booleans = new boolean[1000];
+    for (int i = 0; i < 1000; i++) {
+      times[i] = i;
+      ints[i] = -i;
+      booleans[i] = i % 3 == 0;
+    }
+    intList.putInts(times, ints, 0, 500);
+    intList.putInts(times, ints, 500, 1000);
+    booleanList.putBooleans(times, booleans, 0, 1000);
+    Assert.assertTrue(intList.isSorted());
+    Assert.assertEquals(1000, intList.size());
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertEquals(i, intList.getTime(i));
+      Assert.assertEquals(-i, intList.getInt(i));
+      Assert.assertEquals(i % 3 == 0, booleanList.getBoolean(i));
+    }
+  }
+
+  @Test
+  public void testBinaryTVList() {
+    Random random = new Random();
+    OffHeapTVList tvList = new OffHeapTVList(TSDataType.TEXT);
+    List<TimeValuePair> inputs = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      long time = random.nextInt(10000);
+      // a few values are larger than a text block
+      int length = i % 1000 == 0 ? OffHeapSlabManager.MAX_TEXT_BLOCK_SIZE : random.nextInt(20);
+      byte[] bytes = new byte[length];
+      random.nextBytes(bytes);
+      tvList.putBinary(time, new Binary(bytes));
+      inputs.add(new TimeValuePair(time, new TsBinary(new Binary(bytes))));
+    }
+    tvList.sort();
+    inputs.sort(TimeValuePair::compareTo);
+    for (int i = 0; i < tvList.size; i++) {
+      Assert.assertEquals(inputs.get(i).getTimestamp(), tvList.getTime(i));
+      Assert.assertEquals(inputs.get(i).getValue().getBinary(), tvList.getBinary(i));
+    }
+  }
+
+  @Test
+  public void testCloneAndDelete() {
+    OffHeapTVList tvList = new OffHeapTVList(TSDataType.TEXT);
+    for (long i = 0; i < 1000; i++) {
+      tvList.putBinary(i, new Binary(String.valueOf(i)));
+    }
+    OffHeapTVList cloneList = tvList.clone();
+    tvList.clear();
+
+    Assert.assertEquals(500, cloneList.delete(0, 499));
+    Assert.assertEquals(500, cloneList.getMinTime());
+    for (int i = 0; i < cloneList.size; i++) {
+      Assert.assertEquals(i + 500, cloneList.getTime(i));
+      Assert.assertEquals(String.valueOf(i + 500), cloneList.getBinary(i).getStringValue());
+    }
+  }
+
+  @Test
+  public void testClearAfterQueries() {
+    OffHeapTVList tvList = new OffHeapTVList(TSDataType.INT64);
+    for (long i = 0; i < 1000; i++) {
+      tvList.putLong(i, i);
+    }
+    tvList.increaseReferenceCount();
+    // dropped by the memtable while a query reads it
+    tvList.clearAfterQueries();
+    Assert.assertEquals(1000, tvList.size());
+    Assert.assertEquals(999, tvList.getLong(999));
+    Assert.assertTrue(OffHeapSlabManager.getAllocatedSize() > 0);
+
+    tvList.decreaseReferenceCount();
+    Assert.assertEquals(0, tvList.size());
+    Assert.assertEquals(0, OffHeapSlabManager.getAllocatedSize());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testInconsistentDataType() {
+    new OffHeapTVList(TSDataType.INT64).putDouble(0, 0.0);
+  }
+}
@@ -70,6 +70,7 @@ import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class SeqTsFileRecoverTest {
 
@@ -258,6 +259,53 @@ public class SeqTsFileRecoverTest {
     readOnlyTsFile.close();
   }
 
+  @Test
+  public void testRecoverCrashedFileAfterCheck()
+      throws StorageGroupProcessorException, IOException {
+    TsFileRecoverPerformer performer =
+        new TsFileRecoverPerformer(logNodePrefix, resource, false, false);
+    // checking the file neither touches the WAL nor the resource of a crashed file
+    RestorableTsFileIOWriter writer = performer.recoverFile();
+    assertTrue(writer.hasCrashed());
+    assertTrue(resource.getDevices().isEmpty());
+
+    writer =
+        performer.recoverCrashedFile(
+            writer,
+            true,
+            () -> {
+              ByteBuffer[] buffers = new ByteBuffer[2];
+              buffers[0] =
+                  ByteBuffer.allocateDirect(
+                      IoTDBDescriptor.getInstance().getConfig().getWalBufferSize() / 2);
+              buffers[1] =
+                  ByteBuffer.allocateDirect(
+                      IoTDBDescriptor.getInstance().getConfig().getWalBufferSize() / 2);
+              return buffers;
+            },
+            (ByteBuffer[] array) -> {
+              for (ByteBuffer byteBuffer : array) {
+                MmapUtil.clean((MappedByteBuffer) byteBuffer);
+              }
+            });
+    assertFalse(writer.canWrite());
+    writer.close();
+    assertEquals(2, resource.getStartTime("root.sg.device99"));
+    assertEquals(100, resource.getEndTime("root.sg.device99"));
+
+    // the file is complete now, so checking it again recovers its resource from the .resource file
+    TsFileResource recoveredResource = new TsFileResource(tsF);
+    writer =
+        new TsFileRecoverPerformer(logNodePrefix, recoveredResource, false, false).recoverFile();
+    assertFalse(writer.hasCrashed());
+    assertEquals(2, recoveredResource.getStartTime("root.sg.device99"));
+    assertEquals(100, recoveredResource.getEndTime("root.sg.device99"));
+    for (int i = 0; i < 10; i++) {
+      assertEquals(0, recoveredResource.getStartTime("root.sg.device" + i));
+      assertEquals(19, recoveredResource.getEndTime("root.sg.device" + i));
+    }
+  }
+
   @Test
   public void testLastRecovery() throws StorageGroupProcessorException, IOException {
     TsFileRecoverPerformer performer =
@@ -25,6 +25,7 @@ import org.apache.iotdb.service.rpc.thrift.TSFetchResultsResp;
 import org.apache.iotdb.service.rpc.thrift.TSIService;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSStatus;
+import org.apache.iotdb.service.rpc.thrift.TSTracingInfo;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
@@ -72,6 +73,7 @@ public class IoTDBRpcDataSet {
   public int rowsIndex = 0; // used to record the row index in current TSQueryDataSet
 
   public TSQueryDataSet tsQueryDataSet = null;
+  public TSTracingInfo tracingInfo = null; // the execution profile of a traced query
   public byte[] time; // used to cache the current time value
   public byte[] currentBitmap; // used to cache the current bitmap for every column
   public static final int FLAG =
@@ -226,6 +228,9 @@ public class IoTDBRpcDataSet {
       } else {
         tsQueryDataSet = resp.getQueryDataSet();
       }
+      if (resp.isSetTracingInfo()) {
+        tracingInfo = resp.getTracingInfo();
+      }
       return resp.hasResultSet;
     } catch (TException e) {
       throw new IoTDBConnectionException(
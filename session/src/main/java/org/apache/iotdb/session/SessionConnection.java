@@ -286,18 +286,21 @@ public class SessionConnection {
     }
 
     RpcUtils.verifySuccess(execResp.getStatus());
-    return new SessionDataSet(
-        sql,
-        execResp.getColumns(),
-        execResp.getDataTypeList(),
-        execResp.columnNameIndexMap,
-        execResp.getQueryId(),
-        statementId,
-        client,
-        sessionId,
-        execResp.queryDataSet,
-        execResp.isIgnoreTimeStamp(),
-        timeout);
+    SessionDataSet dataSet =
+        new SessionDataSet(
+            sql,
+            execResp.getColumns(),
+            execResp.getDataTypeList(),
+            execResp.columnNameIndexMap,
+            execResp.getQueryId(),
+            statementId,
+            client,
+            sessionId,
+            execResp.queryDataSet,
+            execResp.isIgnoreTimeStamp(),
+            timeout);
+    dataSet.setTracingInfo(execResp.getTracingInfo());
+    return dataSet;
   }
 
   protected void executeNonQueryStatement(String sql)
@@ -23,6 +23,7 @@ import org.apache.iotdb.rpc.IoTDBRpcDataSet;
 import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.iotdb.service.rpc.thrift.TSIService;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.service.rpc.thrift.TSTracingInfo;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Field;
@@ -106,6 +107,18 @@ public class SessionDataSet {
     ioTDBRpcDataSet.fetchSize = fetchSize;
   }
 
+  /**
+   * @return the execution profile of the query if tracing is on, which is complete once all the
+   *     results are fetched, or null otherwise
+   */
+  public TSTracingInfo getTracingInfo() {
+    return ioTDBRpcDataSet.tracingInfo;
+  }
+
+  public void setTracingInfo(TSTracingInfo tracingInfo) {
+    ioTDBRpcDataSet.tracingInfo = tracingInfo;
+  }
+
   public List<String> getColumnNames() {
     return new ArrayList<>(ioTDBRpcDataSet.columnNameList);
   }
@@ -48,6 +48,13 @@ struct TSQueryNonAlignDataSet{
   2: required list<binary> valueList
 }
 
+// The execution profile of a query executed while tracing is on
+struct TSTracingInfo {
+  // names of the statistics, e.g., number of files, chunks and pages read or skipped
+  1: required list<string> activityList
+  2: required list<i64> valueList
+}
+
 struct TSExecuteStatementResp {
   1: required TSStatus status
   2: optional i64 queryId
@@ -61,6 +68,7 @@ struct TSExecuteStatementResp {
   // for disable align statements, queryDataSet is null and nonAlignQueryDataSet is not null
   8: optional TSQueryNonAlignDataSet nonAlignQueryDataSet
   9: optional map<string, i32> columnNameIndexMap
+  10: optional TSTracingInfo tracingInfo
 }
 
 enum TSProtocolVersion {
@@ -164,6 +172,8 @@ struct TSFetchResultsResp{
   3: required bool isAlign
   4: optional TSQueryDataSet queryDataSet
   5: optional TSQueryNonAlignDataSet nonAlignQueryDataSet
+  // profile of the query so far, the one with hasResultSet = false is complete
+  6: optional TSTracingInfo tracingInfo
 }
 
 struct TSFetchMetadataResp{
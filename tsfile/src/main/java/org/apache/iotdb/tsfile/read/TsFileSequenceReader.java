@@ -111,11 +111,27 @@ public class TsFileSequenceReader implements AutoCloseable {
    * @param loadMetadataSize -whether load meta data size
    */
   public TsFileSequenceReader(String file, boolean loadMetadataSize) throws IOException {
+    this(file, FSFactoryProducer.getFileInputFactory().getTsFileInput(file), loadMetadataSize);
+  }
+
+  /**
+   * construct function for TsFileSequenceReader reading the file through the given input, e.g., a
+   * MappedTsFileInput of a sealed file.
+   *
+   * @param file -given file name
+   * @param input -input of the file, which is closed with the reader
+   */
+  public TsFileSequenceReader(String file, TsFileInput input) throws IOException {
+    this(file, input, true);
+  }
+
+  private TsFileSequenceReader(String file, TsFileInput input, boolean loadMetadataSize)
+      throws IOException {
     if (resourceLogger.isDebugEnabled()) {
       resourceLogger.debug("{} reader is opened. {}", file, getClass().getName());
     }
     this.file = file;
-    tsFileInput = FSFactoryProducer.getFileInputFactory().getTsFileInput(file);
+    tsFileInput = input;
     try {
       if (loadMetadataSize) {
         loadMetadataSize();
@@ -922,6 +938,13 @@ public class TsFileSequenceReader implements AutoCloseable {
    * @return data that been read.
    */
   protected ByteBuffer readData(long position, int size) throws IOException {
+    if (position >= 0) {
+      // e.g., a slice of a memory-mapped file, which is read-only
+      ByteBuffer mappedBuffer = tsFileInput.map(position, size);
+      if (mappedBuffer != null) {
+        return mappedBuffer;
+      }
+    }
     ByteBuffer buffer = ByteBuffer.allocate(size);
     if (position < 0) {
       if (ReadWriteIOUtils.readAsPossible(tsFileInput, buffer) != size) {
@@ -500,6 +500,37 @@ public class BatchData {
     }
   }
 
+  /**
+   * put the value of a TsPrimitiveType without boxing it.
+   *
+   * @param t timestamp
+   * @param v value of the data type of the batch
+   */
+  public void putTsPrimitiveType(long t, TsPrimitiveType v) {
+    switch (dataType) {
+      case BOOLEAN:
+        putBoolean(t, v.getBoolean());
+        break;
+      case INT32:
+        putInt(t, v.getInt());
+        break;
+      case INT64:
+        putLong(t, v.getLong());
+        break;
+      case FLOAT:
+        putFloat(t, v.getFloat());
+        break;
+      case DOUBLE:
+        putDouble(t, v.getDouble());
+        break;
+      case TEXT:
+        putBinary(t, v.getBinary());
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
   public int length() {
     return this.count;
   }
@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.read.filter;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
+import org.apache.iotdb.tsfile.utils.Binary;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -52,6 +53,40 @@ public class GroupByFilter implements Filter, Serializable {
 
   @Override
   public boolean satisfy(long time, Object value) {
+    return satisfyTime(time);
+  }
+
+  @Override
+  public boolean satisfyBoolean(long time, boolean value) {
+    return satisfyTime(time);
+  }
+
+  @Override
+  public boolean satisfyInteger(long time, int value) {
+    return satisfyTime(time);
+  }
+
+  @Override
+  public boolean satisfyLong(long time, long value) {
+    return satisfyTime(time);
+  }
+
+  @Override
+  public boolean satisfyFloat(long time, float value) {
+    return satisfyTime(time);
+  }
+
+  @Override
+  public boolean satisfyDouble(long time, double value) {
+    return satisfyTime(time);
+  }
+
+  @Override
+  public boolean satisfyBinary(long time, Binary value) {
+    return satisfyTime(time);
+  }
+
+  private boolean satisfyTime(long time) {
     if (time < startTime || time >= endTime) return false;
     else return (time - startTime) % slidingStep < interval;
   }
@@ -19,7 +19,10 @@
 package org.apache.iotdb.tsfile.read.filter.basic;
 
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.io.DataOutputStream;
 import java.nio.ByteBuffer;
@@ -42,6 +45,58 @@ public interface Filter {
    */
   boolean satisfy(long time, Object value);
 
+  /*
+   * The following methods examine whether the single point is satisfied with the filter without
+   * boxing the value, which is done for each point in page readers. Filters comparing the values
+   * of points should override them to compare the primitive values directly.
+   */
+
+  default boolean satisfyBoolean(long time, boolean value) {
+    return satisfy(time, value);
+  }
+
+  default boolean satisfyInteger(long time, int value) {
+    return satisfy(time, value);
+  }
+
+  default boolean satisfyLong(long time, long value) {
+    return satisfy(time, value);
+  }
+
+  default boolean satisfyFloat(long time, float value) {
+    return satisfy(time, value);
+  }
+
+  default boolean satisfyDouble(long time, double value) {
+    return satisfy(time, value);
+  }
+
+  default boolean satisfyBinary(long time, Binary value) {
+    return satisfy(time, value);
+  }
+
+  /** To examine whether the point is satisfied with the filter by the type of its value. */
+  default boolean satisfy(TimeValuePair timeValuePair) {
+    long time = timeValuePair.getTimestamp();
+    TsPrimitiveType value = timeValuePair.getValue();
+    switch (value.getDataType()) {
+      case BOOLEAN:
+        return satisfyBoolean(time, value.getBoolean());
+      case INT32:
+        return satisfyInteger(time, value.getInt());
+      case INT64:
+        return satisfyLong(time, value.getLong());
+      case FLOAT:
+        return satisfyFloat(time, value.getFloat());
+      case DOUBLE:
+        return satisfyDouble(time, value.getDouble());
+      case TEXT:
+        return satisfyBinary(time, value.getBinary());
+      default:
+        return satisfy(time, value.getValue());
+    }
+  }
+
   /**
    * To examine whether the min time and max time are satisfied with the filter.
    *
@@ -19,6 +19,7 @@
 package org.apache.iotdb.tsfile.read.filter.basic;
 
 import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.DataOutputStream;
@@ -58,6 +59,77 @@ public abstract class UnaryFilter<T extends Comparable<T>> implements Filter, Se
     return filterType;
   }
 
+  /**
+   * To examine whether a point is satisfied with the filter by comparing the value of the filter
+   * with the time or the value of the point. The primitive-specialized satisfy methods compare them
+   * without boxing if the value of the filter has the type of the point, and fall back to {@link
+   * #satisfy(long, Object)} otherwise.
+   *
+   * @param compareResult the result of value.compareTo(time or value of the point)
+   */
+  protected abstract boolean satisfyCompareResult(int compareResult);
+
+  @Override
+  public boolean satisfyBoolean(long time, boolean value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyTime(time);
+    }
+    return this.value instanceof Boolean
+        ? satisfyCompareResult(Boolean.compare((Boolean) this.value, value))
+        : satisfy(time, value);
+  }
+
+  @Override
+  public boolean satisfyInteger(long time, int value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyTime(time);
+    }
+    return this.value instanceof Integer
+        ? satisfyCompareResult(Integer.compare((Integer) this.value, value))
+        : satisfy(time, value);
+  }
+
+  @Override
+  public boolean satisfyLong(long time, long value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyTime(time);
+    }
+    return this.value instanceof Long
+        ? satisfyCompareResult(Long.compare((Long) this.value, value))
+        : satisfy(time, value);
+  }
+
+  @Override
+  public boolean satisfyFloat(long time, float value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyTime(time);
+    }
+    return this.value instanceof Float
+        ? satisfyCompareResult(Float.compare((Float) this.value, value))
+        : satisfy(time, value);
+  }
+
+  @Override
+  public boolean satisfyDouble(long time, double value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyTime(time);
+    }
+    return this.value instanceof Double
+        ? satisfyCompareResult(Double.compare((Double) this.value, value))
+        : satisfy(time, value);
+  }
+
+  @Override
+  public boolean satisfyBinary(long time, Binary value) {
+    return filterType == FilterType.TIME_FILTER ? satisfyTime(time) : satisfy(time, value);
+  }
+
+  private boolean satisfyTime(long time) {
+    return this.value instanceof Long
+        ? satisfyCompareResult(Long.compare((Long) this.value, time))
+        : satisfy(time, null);
+  }
+
   @Override
   public abstract String toString();
 
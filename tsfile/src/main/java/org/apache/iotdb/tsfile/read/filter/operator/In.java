@@ -22,12 +22,14 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -48,12 +50,72 @@ public class In<T extends Comparable<T>> implements Filter {
 
   private FilterType filterType;
 
+  /**
+   * Sorted primitive copies of values to examine points without boxing. Only the one of the type of
+   * all the values is built, together with the values, so points of another type, e.g., an INT32
+   * point against Long values, are looked up in values as in {@link #satisfy(long, Object)}.
+   */
+  private transient long[] longValues;
+
+  private transient int[] intValues;
+  private transient float[] floatValues;
+  private transient double[] doubleValues;
+
   public In() {}
 
   public In(Set<T> values, FilterType filterType, boolean not) {
     this.values = values;
     this.filterType = filterType;
     this.not = not;
+    buildPrimitiveValues();
+  }
+
+  private void buildPrimitiveValues() {
+    longValues = null;
+    intValues = null;
+    floatValues = null;
+    doubleValues = null;
+    if (values.isEmpty()) {
+      return;
+    }
+    Object first = values.iterator().next();
+    for (T v : values) {
+      if (v == null || v.getClass() != first.getClass()) {
+        // values of mixed types are looked up as boxed values
+        return;
+      }
+    }
+
+    int i = 0;
+    if (first instanceof Long) {
+      long[] array = new long[values.size()];
+      for (T v : values) {
+        array[i++] = (Long) v;
+      }
+      Arrays.sort(array);
+      longValues = array;
+    } else if (first instanceof Integer) {
+      int[] array = new int[values.size()];
+      for (T v : values) {
+        array[i++] = (Integer) v;
+      }
+      Arrays.sort(array);
+      intValues = array;
+    } else if (first instanceof Float) {
+      float[] array = new float[values.size()];
+      for (T v : values) {
+        array[i++] = (Float) v;
+      }
+      Arrays.sort(array);
+      floatValues = array;
+    } else if (first instanceof Double) {
+      double[] array = new double[values.size()];
+      for (T v : values) {
+        array[i++] = (Double) v;
+      }
+      Arrays.sort(array);
+      doubleValues = array;
+    }
   }
 
   @Override
@@ -67,6 +129,73 @@ public class In<T extends Comparable<T>> implements Filter {
     return this.values.contains(v) != not;
   }
 
+  @Override
+  public boolean satisfyBoolean(long time, boolean value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyTime(time);
+    }
+    // boxing a boolean returns a cached instance
+    return this.values.contains(value) != not;
+  }
+
+  @Override
+  public boolean satisfyInteger(long time, int value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyTime(time);
+    }
+    boolean contains =
+        intValues != null
+            ? Arrays.binarySearch(intValues, value) >= 0
+            : this.values.contains(value);
+    return contains != not;
+  }
+
+  @Override
+  public boolean satisfyLong(long time, long value) {
+    return filterType == FilterType.TIME_FILTER ? satisfyTime(time) : containsLong(value) != not;
+  }
+
+  @Override
+  public boolean satisfyFloat(long time, float value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyTime(time);
+    }
+    boolean contains =
+        floatValues != null
+            ? Arrays.binarySearch(floatValues, value) >= 0
+            : this.values.contains(value);
+    return contains != not;
+  }
+
+  @Override
+  public boolean satisfyDouble(long time, double value) {
+    if (filterType == FilterType.TIME_FILTER) {
+      return satisfyTime(time);
+    }
+    boolean contains =
+        doubleValues != null
+            ? Arrays.binarySearch(doubleValues, value) >= 0
+            : this.values.contains(value);
+    return contains != not;
+  }
+
+  @Override
+  public boolean satisfyBinary(long time, Binary value) {
+    return filterType == FilterType.TIME_FILTER
+        ? satisfyTime(time)
+        : this.values.contains(value) != not;
+  }
+
+  private boolean satisfyTime(long time) {
+    return containsLong(time) != not;
+  }
+
+  private boolean containsLong(long value) {
+    return longValues != null
+        ? Arrays.binarySearch(longValues, value) >= 0
+        : this.values.contains(value);
+  }
+
   @Override
   public boolean satisfyStartEndTime(long startTime, long endTime) {
     return true;
@@ -105,6 +234,7 @@ public class In<T extends Comparable<T>> implements Filter {
     for (int i = 0; i < buffer.get(); i++) {
       values.add((T) ReadWriteIOUtils.readObject(buffer));
     }
+    buildPrimitiveValues();
   }
 
   @Override
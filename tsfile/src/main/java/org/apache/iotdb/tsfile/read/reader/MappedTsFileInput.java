@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MappedTsFileInput reads a sealed TsFile through memory-mapped regions of it, so that the bytes
+ * read by position are copied from the page cache without system calls, or are not copied at all
+ * by {@link #map(long, int)}. The file must not be modified or truncated while it is read.
+ *
+ * <p>The file is mapped lazily in windows, where the i-th window starts at i * windowSize and has
+ * 2 * windowSize bytes, so the bytes of no more than windowSize are always in one window. An input
+ * keeps at most maxWindowNum windows, the least recently used are dropped. A window, dropped or
+ * closed with the input, is unmapped by the GC once no buffer returned by map() refers to it, and
+ * is never unmapped explicitly because such buffers may still be read. So the buffers should not be
+ * kept longer than a query, e.g., they are copied before being cached.
+ *
+ * <p>As windows stay mapped until they are collected, the windows not unmapped yet are limited for
+ * all the inputs of the process, see {@link #setMaxLiveWindowNum(int)}, and no window is mapped for
+ * a while after mapping fails, e.g., when the address space or the number of mappings of the
+ * process is exhausted. Bytes that are not mapped for these reasons, across windows, or more than
+ * windowSize, are read from the channel as LocalTsFileInput does. Reading from the current position
+ * is not mapped either.
+ */
+public class MappedTsFileInput extends LocalTsFileInput {
+
+  private static final Logger logger = LoggerFactory.getLogger(MappedTsFileInput.class);
+
+  private static final long DEFAULT_WINDOW_SIZE = 16L * 1024 * 1024;
+
+  private static final int DEFAULT_MAX_WINDOW_NUM = 4;
+
+  /** far below the default vm.max_map_count of Linux, which is 65530 */
+  static final int DEFAULT_MAX_LIVE_WINDOW_NUM = 1024;
+
+  private static final long MAP_RETRY_INTERVAL_MS = 10_000L;
+
+  private static volatile int maxLiveWindowNum = DEFAULT_MAX_LIVE_WINDOW_NUM;
+
+  /** references to the windows of all the inputs that are not unmapped yet */
+  private static final Set<Reference<MappedByteBuffer>> liveWindows = ConcurrentHashMap.newKeySet();
+
+  private static final AtomicInteger liveWindowNum = new AtomicInteger();
+
+  /** the references are enqueued when their windows are collected, which unmaps them */
+  private static final ReferenceQueue<MappedByteBuffer> unmappedWindows = new ReferenceQueue<>();
+
+  private static volatile long nextMapTime = 0;
+
+  private final String filePath;
+  private final long fileSize;
+  private final long windowSize;
+  private final Map<Long, MappedByteBuffer> windows;
+
+  public MappedTsFileInput(Path file) throws IOException {
+    this(file, DEFAULT_WINDOW_SIZE, DEFAULT_MAX_WINDOW_NUM);
+  }
+
+  public MappedTsFileInput(Path file, long windowSize, int maxWindowNum) throws IOException {
+    super(file);
+    this.filePath = file.toString();
+    this.fileSize = super.size();
+    this.windowSize = windowSize;
+    this.windows =
+        new LinkedHashMap<Long, MappedByteBuffer>(maxWindowNum, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Long, MappedByteBuffer> eldest) {
+            return size() > maxWindowNum;
+          }
+        };
+  }
+
+  @Override
+  public long size() {
+    return fileSize;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    int size = (int) Math.min(dst.remaining(), fileSize - position);
+    ByteBuffer bytes = size > 0 ? map(position, size) : null;
+    if (bytes == null) {
+      return super.read(dst, position);
+    }
+    dst.put(bytes);
+    return size;
+  }
+
+  @Override
+  public ByteBuffer map(long position, int size) throws IOException {
+    if (position < 0 || size > windowSize || position + size > fileSize) {
+      return null;
+    }
+    long windowIndex = position / windowSize;
+    long windowStart = windowIndex * windowSize;
+    if (position + size > windowStart + 2 * windowSize) {
+      return null;
+    }
+    ByteBuffer window;
+    try {
+      window = getWindow(windowIndex, windowStart);
+    } catch (IOException e) {
+      logger.warn("Cannot map {} from {}, read it without mapping", filePath, windowStart, e);
+      return null;
+    }
+    if (window == null) {
+      return null;
+    }
+    // the window is shared, so the slice is made from a duplicate
+    ByteBuffer bytes = window.duplicate();
+    bytes.position((int) (position - windowStart));
+    bytes.limit((int) (position - windowStart) + size);
+    return bytes.slice();
+  }
+
+  /** @return the window, or null if no more windows can be mapped for now */
+  private ByteBuffer getWindow(long windowIndex, long windowStart) throws IOException {
+    synchronized (windows) {
+      MappedByteBuffer window = windows.get(windowIndex);
+      if (window == null) {
+        if (System.currentTimeMillis() < nextMapTime || !reserveWindow()) {
+          return null;
+        }
+        long length = Math.min(2 * windowSize, fileSize - windowStart);
+        try {
+          window = wrapAsFileChannel().map(MapMode.READ_ONLY, windowStart, length);
+        } catch (IOException e) {
+          liveWindowNum.decrementAndGet();
+          if (e.getCause() instanceof OutOfMemoryError) {
+            // the mappings are exhausted, and each failure costs a GC and a sleep in
+            // FileChannel.map(), so mapping is not retried soon
+            nextMapTime = System.currentTimeMillis() + MAP_RETRY_INTERVAL_MS;
+          }
+          throw e;
+        }
+        liveWindows.add(new PhantomReference<>(window, unmappedWindows));
+        windows.put(windowIndex, window);
+      }
+      return window;
+    }
+  }
+
+  private static boolean reserveWindow() {
+    Reference<? extends MappedByteBuffer> unmapped;
+    while ((unmapped = unmappedWindows.poll()) != null) {
+      liveWindows.remove(unmapped);
+      liveWindowNum.decrementAndGet();
+    }
+    if (liveWindowNum.incrementAndGet() > maxLiveWindowNum) {
+      liveWindowNum.decrementAndGet();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Limit the windows of all the inputs that are not unmapped yet, so that the mappings of the
+   * process are bounded. Windows beyond the limit are not unmapped, but no more are mapped.
+   */
+  public static void setMaxLiveWindowNum(int maxLiveWindowNum) {
+    MappedTsFileInput.maxLiveWindowNum = maxLiveWindowNum;
+  }
+
+  /** @return the number of the windows not unmapped yet, including the collected but not polled */
+  public static int getLiveWindowNum() {
+    return liveWindowNum.get();
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (windows) {
+      windows.clear();
+    }
+    super.close();
+  }
+}
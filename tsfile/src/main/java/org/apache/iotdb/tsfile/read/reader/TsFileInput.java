@@ -97,6 +97,23 @@ public interface TsFileInput {
    */
   int read(ByteBuffer dst, long position) throws IOException;
 
+  /**
+   * Returns the given bytes of this input without copying them, if this input supports it, e.g.,
+   * as a slice of a memory-mapped region. This method does not modify this input's position. The
+   * buffer may keep a larger region in memory, so it should be copied before it is kept long, e.g.,
+   * in a cache.
+   *
+   * @param position The file position at which the bytes start; must be non-negative
+   * @param size The number of bytes
+   * @return A read-only buffer whose position is 0 and limit is size, or null if the bytes cannot
+   *     be returned without copying, so that they have to be read by {@link #read(ByteBuffer,
+   *     long)}
+   * @throws IOException If some I/O error occurs
+   */
+  default ByteBuffer map(long position, int size) throws IOException {
+    return null;
+  }
+
   /** read a byte from the Input. */
   int read() throws IOException;
 
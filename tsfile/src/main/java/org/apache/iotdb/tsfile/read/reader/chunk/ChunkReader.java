@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
@@ -60,6 +61,11 @@ public class ChunkReader implements IChunkReader {
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
 
+  /** the number of pages that do not satisfy the filter and are not decompressed */
+  private int prunedPageNum;
+  /** the total uncompressed size of the pages decompressed */
+  private long uncompressedSize;
+
   /**
    * constructor of ChunkReader.
    *
@@ -93,6 +99,7 @@ public class ChunkReader implements IChunkReader {
       if (pageSatisfied(pageHeader)) {
         pageReaderList.add(constructPageReaderForNextPage(pageHeader));
       } else {
+        prunedPageNum++;
         skipBytesInStreamByLength(pageHeader.getCompressedSize());
       }
     }
@@ -138,7 +145,6 @@ public class ChunkReader implements IChunkReader {
 
   private PageReader constructPageReaderForNextPage(PageHeader pageHeader) throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
 
     // doesn't has a complete page body
     if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
@@ -149,25 +155,35 @@ public class ChunkReader implements IChunkReader {
               + chunkDataBuffer.remaining());
     }
 
-    chunkDataBuffer.get(compressedPageBody);
     Decoder valueDecoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
-    byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
-    try {
-      unCompressor.uncompress(
-          compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
-    } catch (Exception e) {
-      throw new IOException(
-          "Uncompress error! uncompress size: "
-              + pageHeader.getUncompressedSize()
-              + "compressed size: "
-              + pageHeader.getCompressedSize()
-              + "page header: "
-              + pageHeader
-              + e.getMessage());
+    uncompressedSize += pageHeader.getUncompressedSize();
+    ByteBuffer pageData;
+    if (chunkHeader.getCompressionType() == CompressionType.UNCOMPRESSED) {
+      // the page is read from the chunk data without copying it
+      pageData = chunkDataBuffer.slice();
+      pageData.limit(compressedPageBodyLength);
+      chunkDataBuffer.position(chunkDataBuffer.position() + compressedPageBodyLength);
+    } else {
+      byte[] compressedPageBody = new byte[compressedPageBodyLength];
+      chunkDataBuffer.get(compressedPageBody);
+      byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
+      try {
+        unCompressor.uncompress(
+            compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
+      } catch (Exception e) {
+        throw new IOException(
+            "Uncompress error! uncompress size: "
+                + pageHeader.getUncompressedSize()
+                + "compressed size: "
+                + pageHeader.getCompressedSize()
+                + "page header: "
+                + pageHeader
+                + e.getMessage());
+      }
+      pageData = ByteBuffer.wrap(uncompressedPageData);
     }
 
-    ByteBuffer pageData = ByteBuffer.wrap(uncompressedPageData);
     PageReader reader =
         new PageReader(
             pageHeader, pageData, chunkHeader.getDataType(), valueDecoder, timeDecoder, filter);
@@ -182,6 +198,14 @@ public class ChunkReader implements IChunkReader {
     return chunkHeader;
   }
 
+  public int getPrunedPageNum() {
+    return prunedPageNum;
+  }
+
+  public long getUncompressedSize() {
+    return uncompressedSize;
+  }
+
   @Override
   public List<IPageReader> loadPageReaderList() {
     return pageReaderList;
@@ -198,6 +222,7 @@ public class ChunkReader implements IChunkReader {
       if (pageSatisfied(pageHeader)) {
         pageReaderList.add(constructPageReaderForNextPageV2(pageHeader));
       } else {
+        prunedPageNum++;
         skipBytesInStreamByLength(pageHeader.getCompressedSize());
       }
     }
@@ -221,6 +246,7 @@ public class ChunkReader implements IChunkReader {
     Decoder valueDecoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
+    uncompressedSize += uncompressedPageData.length;
     unCompressor.uncompress(
         compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
     ByteBuffer pageData = ByteBuffer.wrap(uncompressedPageData);
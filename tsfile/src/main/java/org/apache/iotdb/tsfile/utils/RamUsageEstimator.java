@@ -24,6 +24,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
@@ -472,6 +473,15 @@ public final class RamUsageEstimator {
           }
         }
         totalSize += alignObjectSize(size);
+      } else if (ob instanceof ByteBuffer && ((ByteBuffer) ob).isDirect()) {
+        /*
+         * The fields of a direct buffer, e.g., a memory-mapped file, are internals of the JVM.
+         * Accumulate the object header, the index fields and the bytes of the buffer, which are
+         * not in the heap but are kept in memory for it.
+         */
+        totalSize +=
+            alignObjectSize(NUM_BYTES_OBJECT_HEADER + 6L * NUM_BYTES_LONG)
+                + ((ByteBuffer) ob).capacity();
       } else {
         /*
          * Consider an object. Push any references it has to the processing stack
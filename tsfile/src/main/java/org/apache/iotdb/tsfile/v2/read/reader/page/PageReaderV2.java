@@ -72,7 +72,8 @@ public class PageReaderV2 extends PageReader {
               (valueDecoder instanceof PlainDecoder)
                   ? valueBuffer.getInt()
                   : valueDecoder.readInt(valueBuffer);
-          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, anInt))) {
+          if (!isDeleted(timestamp)
+              && (filter == null || filter.satisfyInteger(timestamp, anInt))) {
             pageData.putInt(timestamp, anInt);
           }
           break;
@@ -81,7 +82,8 @@ public class PageReaderV2 extends PageReader {
           byte[] buf = new byte[length];
           valueBuffer.get(buf, 0, buf.length);
           Binary aBinary = new Binary(buf);
-          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
+          if (!isDeleted(timestamp)
+              && (filter == null || filter.satisfyBinary(timestamp, aBinary))) {
             pageData.putBinary(timestamp, aBinary);
           }
           break;
@@ -93,7 +93,12 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   /** @param schema schema of this measurement */
   public ChunkWriterImpl(MeasurementSchema schema) {
+    this(schema, false);
+  }
+
+  public ChunkWriterImpl(MeasurementSchema schema, boolean isMerging) {
     this.measurementSchema = schema;
+    this.isMerging = isMerging;
     this.compressor = ICompressor.getCompressor(schema.getCompressor());
     this.pageBuffer = new PublicBAOS();
 
@@ -115,9 +120,35 @@ public class ChunkWriterImpl implements IChunkWriter {
     checkSdtEncoding();
   }
 
-  public ChunkWriterImpl(MeasurementSchema schema, boolean isMerging) {
-    this(schema);
+  /**
+   * Reuse this chunk writer for another series of the same data type, encoding, compression and
+   * properties, keeping its buffers and encoders, e.g., when it is pooled. The writer must have
+   * been written to a file by {@link #writeToFileWriter}, otherwise the points written are
+   * discarded.
+   *
+   * @param schema schema of the next measurement
+   */
+  public void reset(MeasurementSchema schema, boolean isMerging) {
+    this.measurementSchema = schema;
     this.isMerging = isMerging;
+    this.isLastPoint = false;
+    pageBuffer.reset();
+    numOfPages = 0;
+    firstPageStatistics = null;
+    this.valueCountInOnePageForNextCheck = MINIMUM_RECORD_COUNT_FOR_CHECK;
+    this.statistics = Statistics.getStatsByType(schema.getType());
+    if (pageWriter == null || pageWriter.getPointNumber() > 0) {
+      // the encoders of the unsealed page are not flushed
+      this.pageWriter = new PageWriter(schema);
+      this.pageWriter.setTimeEncoder(schema.getTimeEncoder());
+      this.pageWriter.setValueEncoder(schema.getValueEncoder());
+    } else {
+      pageWriter.reset(schema);
+    }
+
+    this.isSdtEncoding = false;
+    this.sdtEncoder = null;
+    checkSdtEncoding();
   }
 
   private void checkSdtEncoding() {
@@ -295,13 +326,8 @@ public class ChunkWriterImpl implements IChunkWriter {
         this.firstPageStatistics = pageWriter.getStatistics();
         this.sizeWithoutStatistic = pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, true);
       } else if (numOfPages == 1) { // put the firstPageStatistics into pageBuffer
-        byte[] b = pageBuffer.toByteArray();
-        pageBuffer.reset();
-        pageBuffer.write(b, 0, this.sizeWithoutStatistic);
-        firstPageStatistics.serialize(pageBuffer);
-        pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+        writeFirstPageStatistics();
         pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, false);
-        firstPageStatistics = null;
       } else {
         pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, false);
       }
@@ -317,6 +343,55 @@ public class ChunkWriterImpl implements IChunkWriter {
     }
   }
 
+  /** the first page has no statistics until the chunk turns out to have more than one page */
+  private void writeFirstPageStatistics() throws IOException {
+    byte[] b = pageBuffer.toByteArray();
+    pageBuffer.reset();
+    pageBuffer.write(b, 0, this.sizeWithoutStatistic);
+    firstPageStatistics.serialize(pageBuffer);
+    pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+    firstPageStatistics = null;
+  }
+
+  /**
+   * Append a page of another chunk of the series without decoding it, e.g., to merge small chunks
+   * in compaction. The page must be encoded and compressed as this chunk, and be after the points
+   * written before, which are sealed as a page ahead of it.
+   *
+   * @param pageHeader the header of the page, whose statistics must be set
+   * @param compressedPageData the compressed data of the page, from position to limit
+   */
+  public void appendPage(PageHeader pageHeader, ByteBuffer compressedPageData) throws IOException {
+    sealCurrentPage();
+    if (numOfPages == 0) {
+      // the same as writePageToPageBuffer, the statistics are written with the second page
+      this.firstPageStatistics = pageHeader.getStatistics();
+      this.sizeWithoutStatistic =
+          ReadWriteForEncodingUtils.writeUnsignedVarInt(
+              pageHeader.getUncompressedSize(), pageBuffer);
+      this.sizeWithoutStatistic +=
+          ReadWriteForEncodingUtils.writeUnsignedVarInt(
+              pageHeader.getCompressedSize(), pageBuffer);
+    } else {
+      if (numOfPages == 1) {
+        writeFirstPageStatistics();
+      }
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(pageHeader.getUncompressedSize(), pageBuffer);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(pageHeader.getCompressedSize(), pageBuffer);
+      pageHeader.getStatistics().serialize(pageBuffer);
+    }
+    try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
+      channel.write(compressedPageData.duplicate());
+    }
+    numOfPages++;
+    statistics.mergeStatistics(pageHeader.getStatistics());
+  }
+
+  /** @return the statistics of the pages sealed so far */
+  public Statistics<?> getStatistics() {
+    return statistics;
+  }
+
   @Override
   public void writeToFileWriter(TsFileIOWriter tsfileWriter) throws IOException {
     sealCurrentPage();
@@ -359,6 +434,39 @@ public class ChunkWriterImpl implements IChunkWriter {
     pageWriter = null;
   }
 
+  /**
+   * Seal the current page and detach the page writer, so that its buffers can be reused, e.g., by
+   * the next series encoded while this chunk waits to be written to a file. The writer can still be
+   * written to a file, but it needs a page writer from {@link #attachPageWriter} or {@link #reset}
+   * to write points.
+   *
+   * @return the page writer, or null if it has been detached
+   */
+  public PageWriter detachPageWriter() {
+    sealCurrentPage();
+    PageWriter detached = pageWriter;
+    pageWriter = null;
+    return detached;
+  }
+
+  /**
+   * @param pageWriter detached from a writer of the same data type, encoding, compression and
+   *     properties
+   */
+  public void attachPageWriter(PageWriter pageWriter) {
+    pageWriter.reset(measurementSchema);
+    this.pageWriter = pageWriter;
+  }
+
+  /** @return the capacity of the buffers kept for the next chunks */
+  public long getBufferCapacity() {
+    return pageBuffer.getBuf().length + (pageWriter == null ? 0 : pageWriter.getBufferCapacity());
+  }
+
+  public MeasurementSchema getMeasurementSchema() {
+    return measurementSchema;
+  }
+
   @Override
   public int getNumOfPages() {
     return numOfPages;
@@ -59,6 +59,11 @@ public class PageWriter {
    */
   private Statistics<?> statistics;
 
+  /** the page data before and after compression, reused by the pages of this writer */
+  private ByteBuffer uncompressedBuffer;
+
+  private byte[] compressedBuffer;
+
   public PageWriter() {
     this(null, null);
   }
@@ -201,6 +206,21 @@ public class PageWriter {
     return buffer;
   }
 
+  /** the same as {@link #getUncompressedBytes()}, but into the buffer reused by the pages */
+  private ByteBuffer fillUncompressedBuffer() throws IOException {
+    prepareEndWriteOnePage();
+    int size = timeOut.size() + valueOut.size() + 4;
+    if (uncompressedBuffer == null || uncompressedBuffer.capacity() < size) {
+      uncompressedBuffer = ByteBuffer.allocate(size);
+    }
+    uncompressedBuffer.clear();
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(timeOut.size(), uncompressedBuffer);
+    uncompressedBuffer.put(timeOut.getBuf(), 0, timeOut.size());
+    uncompressedBuffer.put(valueOut.getBuf(), 0, valueOut.size());
+    uncompressedBuffer.flip();
+    return uncompressedBuffer;
+  }
+
   /** write the page header and data into the PageWriter's output stream. */
   public int writePageHeaderAndDataIntoBuff(PublicBAOS pageBuffer, boolean first)
       throws IOException {
@@ -208,7 +228,7 @@ public class PageWriter {
       return 0;
     }
 
-    ByteBuffer pageData = getUncompressedBytes();
+    ByteBuffer pageData = fillUncompressedBuffer();
     int uncompressedSize = pageData.remaining();
     int compressedSize;
     byte[] compressedBytes = null;
@@ -216,7 +236,11 @@ public class PageWriter {
     if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
       compressedSize = uncompressedSize;
     } else {
-      compressedBytes = new byte[compressor.getMaxBytesForCompression(uncompressedSize)];
+      int maxCompressedSize = compressor.getMaxBytesForCompression(uncompressedSize);
+      if (compressedBuffer == null || compressedBuffer.length < maxCompressedSize) {
+        compressedBuffer = new byte[maxCompressedSize];
+      }
+      compressedBytes = compressedBuffer;
       // data is never a directByteBuffer now, so we can use data.array()
       compressedSize =
           compressor.compress(
@@ -262,6 +286,14 @@ public class PageWriter {
         + valueEncoder.getMaxByteSize();
   }
 
+  /** @return the capacity of the buffers kept for the next pages */
+  public long getBufferCapacity() {
+    return (long) timeOut.getBuf().length
+        + valueOut.getBuf().length
+        + (uncompressedBuffer == null ? 0 : uncompressedBuffer.capacity())
+        + (compressedBuffer == null ? 0 : compressedBuffer.length);
+  }
+
   /** reset this page */
   public void reset(MeasurementSchema measurementSchema) {
     timeOut.reset();
@@ -18,13 +18,19 @@
  */
 package org.apache.iotdb.tsfile.read.filter;
 
+import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 public class OperatorTest {
 
   private static final long EFFICIENCY_TEST_COUNT = 10000000;
@@ -143,6 +149,77 @@ public class OperatorTest {
     Assert.assertTrue(andFilter2.satisfy(1000L, 51d));
   }
 
+  @Test
+  public void testPrimitiveSatisfy() {
+    Filter timeGt = TimeFilter.gt(TESTED_TIMESTAMP);
+    Assert.assertTrue(timeGt.satisfyDouble(TESTED_TIMESTAMP + 1, 0.1));
+    Assert.assertFalse(timeGt.satisfyBinary(TESTED_TIMESTAMP, new Binary("a")));
+
+    Filter valueLtEq = ValueFilter.ltEq(10);
+    Assert.assertTrue(valueLtEq.satisfyInteger(TESTED_TIMESTAMP, 10));
+    Assert.assertFalse(valueLtEq.satisfyInteger(TESTED_TIMESTAMP, 11));
+
+    Filter valueIn = ValueFilter.in(new HashSet<>(Arrays.asList(1.5, 3.0, -2.0)), false);
+    Filter valueNotIn = ValueFilter.in(new HashSet<>(Arrays.asList(1.5, 3.0, -2.0)), true);
+    for (double value : new double[] {-2.0, 0, 1.5, 2, 3.0}) {
+      Assert.assertEquals(
+          valueIn.satisfy(TESTED_TIMESTAMP, value),
+          valueIn.satisfyDouble(TESTED_TIMESTAMP, value));
+      Assert.assertEquals(
+          valueNotIn.satisfy(TESTED_TIMESTAMP, value),
+          valueNotIn.satisfyDouble(TESTED_TIMESTAMP, value));
+    }
+
+    Filter filter =
+        FilterFactory.or(
+            FilterFactory.and(TimeFilter.gt(100L), ValueFilter.not(ValueFilter.gt(50L))),
+            TimeFilter.eq(10L));
+    for (long time = 0; time < 200; time += 5) {
+      for (long value = 0; value < 100; value += 10) {
+        Assert.assertEquals(filter.satisfy(time, value), filter.satisfyLong(time, value));
+        Assert.assertEquals(
+            filter.satisfy(time, value),
+            filter.satisfy(new TimeValuePair(time, new TsPrimitiveType.TsLong(value))));
+      }
+    }
+
+    // the value of the filter does not have the type of the point
+    Filter valueEq = ValueFilter.eq(1L);
+    Assert.assertFalse(valueEq.satisfyInteger(TESTED_TIMESTAMP, 1));
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public void testInWithMismatchedTypes() {
+    // the values of the filter do not have the type of the point
+    Filter longIn = ValueFilter.in(new HashSet<>(Arrays.asList(1L, 2L)), false);
+    Assert.assertFalse(longIn.satisfyInteger(TESTED_TIMESTAMP, 1));
+    Assert.assertFalse(longIn.satisfyDouble(TESTED_TIMESTAMP, 1.0));
+    Assert.assertTrue(longIn.satisfyLong(TESTED_TIMESTAMP, 1L));
+
+    Set intTimes = new HashSet<>(Arrays.asList(1, 2));
+    Filter intTimeIn = TimeFilter.in(intTimes, true);
+    Assert.assertEquals(intTimeIn.satisfy(1L, 0), intTimeIn.satisfyInteger(1L, 0));
+
+    // the values of the filter have mixed types
+    Set mixedValues = new HashSet<>(Arrays.asList(1, 2L, 3.0f));
+    Filter mixedIn = ValueFilter.in(mixedValues, false);
+    for (int value = 0; value < 4; value++) {
+      Assert.assertEquals(
+          mixedIn.satisfy(TESTED_TIMESTAMP, value),
+          mixedIn.satisfyInteger(TESTED_TIMESTAMP, value));
+      Assert.assertEquals(
+          mixedIn.satisfy(TESTED_TIMESTAMP, (long) value),
+          mixedIn.satisfyLong(TESTED_TIMESTAMP, value));
+      Assert.assertEquals(
+          mixedIn.satisfy(TESTED_TIMESTAMP, (float) value),
+          mixedIn.satisfyFloat(TESTED_TIMESTAMP, value));
+    }
+    Assert.assertTrue(mixedIn.satisfyInteger(TESTED_TIMESTAMP, 1));
+    Assert.assertTrue(mixedIn.satisfyLong(TESTED_TIMESTAMP, 2L));
+    Assert.assertTrue(mixedIn.satisfyFloat(TESTED_TIMESTAMP, 3.0f));
+  }
+
   @Test
   public void testWrongUsage() {
     Filter andFilter = FilterFactory.and(TimeFilter.gt(100L), ValueFilter.lt(true));
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.FileGenerator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MappedTsFileInputTest {
+
+  private static final String FILE_PATH = FileGenerator.outputDataFile;
+
+  // small windows, so that the chunks are across windows and the windows are dropped
+  private static final int WINDOW_SIZE = 4096;
+
+  @Before
+  public void before() throws IOException {
+    FileGenerator.generateFile(1000, 100);
+  }
+
+  @After
+  public void after() {
+    FileGenerator.after();
+  }
+
+  @Test
+  public void testReadByPosition() throws IOException {
+    TsFileInput localInput = new LocalTsFileInput(Paths.get(FILE_PATH));
+    TsFileInput mappedInput = new MappedTsFileInput(Paths.get(FILE_PATH), WINDOW_SIZE, 2);
+    try {
+      long fileSize = localInput.size();
+      assertEquals(fileSize, mappedInput.size());
+      for (long position = 0; position < fileSize; position += WINDOW_SIZE / 3) {
+        for (int size : new int[] {1, WINDOW_SIZE / 2, WINDOW_SIZE, 3 * WINDOW_SIZE}) {
+          ByteBuffer expected = ByteBuffer.allocate(size);
+          ByteBuffer actual = ByteBuffer.allocate(size);
+          assertEquals(localInput.read(expected, position), mappedInput.read(actual, position));
+          expected.flip();
+          actual.flip();
+          assertEquals(expected, actual);
+        }
+      }
+
+      ByteBuffer mapped = mappedInput.map(WINDOW_SIZE - 1, WINDOW_SIZE);
+      assertNotNull(mapped);
+      assertTrue(mapped.isReadOnly());
+      assertEquals(0, mapped.position());
+      assertEquals(WINDOW_SIZE, mapped.limit());
+      // larger than a window or beyond the file
+      assertNull(mappedInput.map(0, WINDOW_SIZE + 1));
+      assertNull(mappedInput.map(fileSize - 1, 2));
+    } finally {
+      localInput.close();
+      mappedInput.close();
+    }
+  }
+
+  @Test
+  public void testMaxLiveWindowNum() throws IOException {
+    TsFileInput localInput = new LocalTsFileInput(Paths.get(FILE_PATH));
+    TsFileInput mappedInput = new MappedTsFileInput(Paths.get(FILE_PATH), WINDOW_SIZE, 2);
+    // one more window can be mapped by the process
+    MappedTsFileInput.setMaxLiveWindowNum(MappedTsFileInput.getLiveWindowNum() + 1);
+    try {
+      assertNotNull(mappedInput.map(0, WINDOW_SIZE));
+      // in the mapped window
+      assertNotNull(mappedInput.map(WINDOW_SIZE / 2, WINDOW_SIZE));
+      long position = 2L * WINDOW_SIZE;
+      assertTrue(position + WINDOW_SIZE <= localInput.size());
+      assertNull(mappedInput.map(position, WINDOW_SIZE));
+
+      // read from the channel instead
+      ByteBuffer expected = ByteBuffer.allocate(WINDOW_SIZE);
+      ByteBuffer actual = ByteBuffer.allocate(WINDOW_SIZE);
+      assertEquals(localInput.read(expected, position), mappedInput.read(actual, position));
+      expected.flip();
+      actual.flip();
+      assertEquals(expected, actual);
+    } finally {
+      MappedTsFileInput.setMaxLiveWindowNum(MappedTsFileInput.DEFAULT_MAX_LIVE_WINDOW_NUM);
+      localInput.close();
+      mappedInput.close();
+    }
+  }
+
+  @Test
+  public void testReadChunks() throws IOException {
+    try (TsFileSequenceReader localReader = new TsFileSequenceReader(FILE_PATH);
+        TsFileSequenceReader mappedReader =
+            new TsFileSequenceReader(
+                FILE_PATH, new MappedTsFileInput(Paths.get(FILE_PATH), WINDOW_SIZE, 2))) {
+      List<String> devices = mappedReader.getAllDevices();
+      assertEquals(localReader.getAllDevices(), devices);
+      for (String device : devices) {
+        Map<String, List<ChunkMetadata>> chunkMetadataMap =
+            mappedReader.readChunkMetadataInDevice(device);
+        assertEquals(
+            localReader.readChunkMetadataInDevice(device).keySet(), chunkMetadataMap.keySet());
+        for (Entry<String, List<ChunkMetadata>> entry : chunkMetadataMap.entrySet()) {
+          for (ChunkMetadata chunkMetadata : entry.getValue()) {
+            Chunk chunk = mappedReader.readMemChunk(chunkMetadata);
+            assertEquals(localReader.readMemChunk(chunkMetadata).getData(), chunk.getData());
+
+            ChunkReader chunkReader = new ChunkReader(chunk, null);
+            long pointNum = 0;
+            while (chunkReader.hasNextSatisfiedPage()) {
+              BatchData batchData = chunkReader.nextPageData();
+              pointNum += batchData.length();
+            }
+            assertEquals(chunkMetadata.getNumOfPoints(), pointNum);
+          }
+        }
+      }
+    }
+  }
+}